@@ -0,0 +1,561 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.AggregateChangeRecord;
+import org.eclipse.persistence.internal.sessions.AggregateCollectionChangeRecord;
+import org.eclipse.persistence.internal.sessions.ChangeRecord;
+import org.eclipse.persistence.internal.sessions.ChangeSetWriter;
+import org.eclipse.persistence.internal.sessions.CollectionChangeRecord;
+import org.eclipse.persistence.internal.sessions.DirectCollectionChangeRecord;
+import org.eclipse.persistence.internal.sessions.DirectToFieldChangeRecord;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.ObjectReferenceChangeRecord;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.mappings.AggregateCollectionMapping;
+import org.eclipse.persistence.mappings.AggregateObjectMapping;
+import org.eclipse.persistence.mappings.DirectCollectionMapping;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.coordination.BatchMergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.serializers.ChangeSetSerializer;
+import org.junit.Test;
+
+/**
+ * Test the round trip of change sets through the binary change set serializer,
+ * for every type of change record, values, aggregates, collections and map keys,
+ * and that messages of a different format version or project are rejected.
+ */
+public class ChangeSetSerializerTest extends junit.framework.TestCase {
+
+    protected AbstractSession session;
+    protected ChangeSetSerializer serializer;
+
+    public ChangeSetSerializerTest(String name) {
+        super(name);
+    }
+
+    public static class Employee {
+        protected Long id;
+        protected String name;
+        protected BigDecimal salary;
+        protected Long version;
+        protected Address address;
+        protected Employee manager;
+        protected Map<String, Phone> phones;
+        protected List<String> responsibilities;
+        protected List<Period> periods;
+        protected List<Employee> managedEmployees;
+    }
+
+    public static class Address {
+        protected String street;
+        protected String city;
+    }
+
+    public static class Phone {
+        protected Long id;
+        protected String type;
+        protected String number;
+    }
+
+    public static class Period {
+        protected java.sql.Date startDate;
+        protected java.sql.Date endDate;
+    }
+
+    /**
+     * Build a session for the project, the session is not connected.
+     */
+    protected AbstractSession buildSession(boolean withPhoneType) {
+        Project project = new Project(new DatabaseLogin());
+
+        RelationalDescriptor employee = new RelationalDescriptor();
+        employee.setJavaClass(Employee.class);
+        employee.setTableName("CS_EMPLOYEE");
+        employee.setPrimaryKeyFieldName("ID");
+        employee.addDirectMapping("id", "ID");
+        employee.addDirectMapping("name", "NAME");
+        employee.addDirectMapping("salary", "SALARY");
+        employee.addDirectMapping("version", "VERSION");
+        AggregateObjectMapping address = new AggregateObjectMapping();
+        address.setAttributeName("address");
+        address.setReferenceClass(Address.class);
+        employee.addMapping(address);
+        OneToOneMapping manager = new OneToOneMapping();
+        manager.setAttributeName("manager");
+        manager.setReferenceClass(Employee.class);
+        manager.addForeignKeyFieldName("CS_EMPLOYEE.MANAGER_ID", "CS_EMPLOYEE.ID");
+        employee.addMapping(manager);
+        OneToManyMapping phones = new OneToManyMapping();
+        phones.setAttributeName("phones");
+        phones.setReferenceClass(Phone.class);
+        phones.useMapClass(HashMap.class, "type");
+        phones.addTargetForeignKeyFieldName("CS_PHONE.EMP_ID", "CS_EMPLOYEE.ID");
+        employee.addMapping(phones);
+        DirectCollectionMapping responsibilities = new DirectCollectionMapping();
+        responsibilities.setAttributeName("responsibilities");
+        responsibilities.setReferenceTableName("CS_RESPONS");
+        responsibilities.setDirectFieldName("CS_RESPONS.DESCRIPTION");
+        responsibilities.addReferenceKeyFieldName("CS_RESPONS.EMP_ID", "CS_EMPLOYEE.ID");
+        employee.addMapping(responsibilities);
+        AggregateCollectionMapping periods = new AggregateCollectionMapping();
+        periods.setAttributeName("periods");
+        periods.setReferenceClass(Period.class);
+        periods.addTargetForeignKeyFieldName("CS_PERIOD.EMP_ID", "CS_EMPLOYEE.ID");
+        employee.addMapping(periods);
+        OneToManyMapping managedEmployees = new OneToManyMapping();
+        managedEmployees.setAttributeName("managedEmployees");
+        managedEmployees.setReferenceClass(Employee.class);
+        managedEmployees.addTargetForeignKeyFieldName("CS_EMPLOYEE.MANAGER_ID", "CS_EMPLOYEE.ID");
+        employee.addMapping(managedEmployees);
+        project.addDescriptor(employee);
+
+        RelationalDescriptor addressDescriptor = new RelationalDescriptor();
+        addressDescriptor.setJavaClass(Address.class);
+        addressDescriptor.descriptorIsAggregate();
+        addressDescriptor.addDirectMapping("street", "STREET");
+        addressDescriptor.addDirectMapping("city", "CITY");
+        project.addDescriptor(addressDescriptor);
+
+        RelationalDescriptor phone = new RelationalDescriptor();
+        phone.setJavaClass(Phone.class);
+        phone.setTableName("CS_PHONE");
+        phone.setPrimaryKeyFieldName("ID");
+        phone.addDirectMapping("id", "ID");
+        if (withPhoneType) {
+            phone.addDirectMapping("type", "TYPE");
+        }
+        phone.addDirectMapping("number", "NUM");
+        project.addDescriptor(phone);
+
+        RelationalDescriptor period = new RelationalDescriptor();
+        period.setJavaClass(Period.class);
+        period.setTableName("CS_PERIOD");
+        period.descriptorIsAggregateCollection();
+        period.addDirectMapping("startDate", "START_DATE");
+        period.addDirectMapping("endDate", "END_DATE");
+        project.addDescriptor(period);
+
+        return (AbstractSession)project.createDatabaseSession();
+    }
+
+    @Override
+    protected void setUp() {
+        this.session = buildSession(true);
+        this.serializer = new ChangeSetSerializer();
+        this.serializer.initialize(UnitOfWorkChangeSet.class, null, this.session);
+    }
+
+    protected ClassDescriptor getDescriptor(Class javaClass) {
+        return this.session.getDescriptor(javaClass);
+    }
+
+    protected ObjectChangeSet buildChangeSet(Class javaClass, Object id, UnitOfWorkChangeSet changeSet) {
+        ObjectChangeSet objectChangeSet = new ObjectChangeSet(id, getDescriptor(javaClass), null, changeSet, false);
+        objectChangeSet.setSynchronizationType(ClassDescriptor.SEND_OBJECT_CHANGES);
+        return objectChangeSet;
+    }
+
+    protected ObjectChangeSet buildAggregateChangeSet(Class javaClass, UnitOfWorkChangeSet changeSet) {
+        ObjectChangeSet objectChangeSet = new ObjectChangeSet(null, getDescriptor(javaClass), null, changeSet, false);
+        objectChangeSet.setIsAggregate(true);
+        return objectChangeSet;
+    }
+
+    protected void addDirectChange(ObjectChangeSet objectChangeSet, String attribute, Object value) {
+        DirectToFieldChangeRecord record = new DirectToFieldChangeRecord(objectChangeSet);
+        record.setAttribute(attribute);
+        record.setNewValue(value);
+        objectChangeSet.addChange(record);
+    }
+
+    protected Map<ObjectChangeSet, ObjectChangeSet> buildMap(ObjectChangeSet... changeSets) {
+        Map<ObjectChangeSet, ObjectChangeSet> map = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>();
+        for (ObjectChangeSet changeSet : changeSets) {
+            map.put(changeSet, changeSet);
+        }
+        return map;
+    }
+
+    /**
+     * Build a unit of work change set using every type of change record.
+     */
+    protected UnitOfWorkChangeSet buildUnitOfWorkChangeSet(long firstId) {
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet();
+        changeSet.setIsChangeSetFromOutsideUOW(true);
+
+        ObjectChangeSet employee = buildChangeSet(Employee.class, new CacheId(new Object[] {firstId}), changeSet);
+        employee.setInitialWriteLockValue(Long.valueOf(1));
+        employee.setWriteLockValue(Long.valueOf(2));
+        employee.setHasVersionChange(true);
+        employee.setShouldModifyVersionField(Boolean.TRUE);
+        addDirectChange(employee, "name", "Jörg 日本");
+        addDirectChange(employee, "salary", new BigDecimal("-12345.6789"));
+        addDirectChange(employee, "version", Long.valueOf(2));
+
+        // Values of every type, for attributes not in the schema, written by name.
+        Object[] values = new Object[] {
+            null, "", Integer.valueOf(Integer.MIN_VALUE), Long.valueOf(Long.MAX_VALUE), Short.valueOf((short)-3), Byte.valueOf((byte)-128),
+            Boolean.TRUE, Boolean.FALSE, Double.valueOf(-0.5), Float.valueOf(Float.NaN), Character.valueOf('€'),
+            new BigInteger("-98765432109876543210"), new byte[] {0, -1, 127}, new java.util.Date(-1000), new java.sql.Date(86400000L),
+            new java.sql.Time(3600000L), buildTimestamp(123456789), new CacheId(new Object[] {"key", Integer.valueOf(7)}),
+            new ArrayList<String>(Arrays.asList("serialized", null))};
+        for (int index = 0; index < values.length; index++) {
+            addDirectChange(employee, "value" + index, values[index]);
+        }
+
+        // Reference to an invalidated object, only its identity is sent.
+        ObjectChangeSet manager = buildChangeSet(Employee.class, new CacheId(new Object[] {firstId + 1}), changeSet);
+        manager.setSynchronizationType(ClassDescriptor.INVALIDATE_CHANGED_OBJECTS);
+        manager.setIsInvalid(true);
+        addDirectChange(manager, "name", "not sent");
+        ObjectReferenceChangeRecord managerRecord = new ObjectReferenceChangeRecord(employee);
+        managerRecord.setAttribute("manager");
+        managerRecord.setNewValue(manager);
+        employee.addChange(managerRecord);
+
+        ObjectChangeSet address = buildAggregateChangeSet(Address.class, changeSet);
+        addDirectChange(address, "street", "1 Main");
+        addDirectChange(address, "city", null);
+        AggregateChangeRecord addressRecord = new AggregateChangeRecord(employee);
+        addressRecord.setAttribute("address");
+        addressRecord.setChangedObject(address);
+        employee.addChange(addressRecord);
+
+        // Map keys of the phones.
+        ObjectChangeSet homePhone = buildChangeSet(Phone.class, new CacheId(new Object[] {firstId + 10}), changeSet);
+        homePhone.setIsNew(true);
+        homePhone.setSynchronizationType(ClassDescriptor.SEND_NEW_OBJECTS_WITH_CHANGES);
+        homePhone.setNewKey("home");
+        addDirectChange(homePhone, "type", "home");
+        addDirectChange(homePhone, "number", "555-1234");
+        ObjectChangeSet workPhone = buildChangeSet(Phone.class, new CacheId(new Object[] {firstId + 11}), changeSet);
+        workPhone.setOldKey("cell");
+        workPhone.setNewKey("work");
+        addDirectChange(workPhone, "type", "work");
+        ObjectChangeSet oldPhone = buildChangeSet(Phone.class, new CacheId(new Object[] {firstId + 12}), changeSet);
+        oldPhone.setOldKey("fax");
+        CollectionChangeRecord phonesRecord = new CollectionChangeRecord(employee);
+        phonesRecord.setAttribute("phones");
+        phonesRecord.setAddObjectList(buildMap(homePhone, workPhone));
+        phonesRecord.setRemoveObjectList(buildMap(oldPhone));
+        employee.addChange(phonesRecord);
+
+        ObjectChangeSet firstPeriod = buildAggregateChangeSet(Period.class, changeSet);
+        addDirectChange(firstPeriod, "startDate", new java.sql.Date(0));
+        ObjectChangeSet secondPeriod = buildAggregateChangeSet(Period.class, changeSet);
+        addDirectChange(secondPeriod, "endDate", null);
+        AggregateCollectionChangeRecord periodsRecord = new AggregateCollectionChangeRecord(employee);
+        periodsRecord.setAttribute("periods");
+        periodsRecord.setAddObjectList(buildMap(firstPeriod, secondPeriod));
+        List<ObjectChangeSet> changedValues = new ArrayList<ObjectChangeSet>();
+        changedValues.add(firstPeriod);
+        changedValues.add(secondPeriod);
+        periodsRecord.setChangedValues(changedValues);
+        employee.addChange(periodsRecord);
+
+        // Records written with Java serialization, referencing a change set already written,
+        // and one that is only referenced by the record, so its identity is written in the serialized stream.
+        DirectCollectionChangeRecord responsibilitiesRecord = new DirectCollectionChangeRecord(employee);
+        responsibilitiesRecord.setAttribute("responsibilities");
+        responsibilitiesRecord.addAdditionChange("lead", Integer.valueOf(1));
+        responsibilitiesRecord.addRemoveChange("code", Integer.valueOf(2));
+        employee.addChange(responsibilitiesRecord);
+        ObjectChangeSet managed = buildChangeSet(Employee.class, new CacheId(new Object[] {firstId + 2}), changeSet);
+        addDirectChange(managed, "name", "managed");
+        CollectionChangeRecord managedRecord = new CollectionChangeRecord(employee);
+        managedRecord.setAttribute("managedEmployees");
+        List<ObjectChangeSet> orderedAdds = new ArrayList<ObjectChangeSet>();
+        orderedAdds.add(managed);
+        orderedAdds.add(manager);
+        managedRecord.setOrderedAddObjects(orderedAdds);
+        managedRecord.setAddObjectList(buildMap(managed, manager));
+        employee.addChange(managedRecord);
+
+        // A reference to null, and a deleted object.
+        ObjectChangeSet unmanaged = buildChangeSet(Employee.class, new CacheId(new Object[] {firstId + 3}), changeSet);
+        ObjectReferenceChangeRecord nullRecord = new ObjectReferenceChangeRecord(unmanaged);
+        nullRecord.setAttribute("manager");
+        nullRecord.setNewValue((ObjectChangeSet)null);
+        unmanaged.addChange(nullRecord);
+        ObjectChangeSet deleted = buildChangeSet(Employee.class, new CacheId(new Object[] {firstId + 4}), changeSet);
+        deleted.setShouldBeDeleted(true);
+
+        changeSet.setAllChangeSets(buildMap(employee, manager, unmanaged, homePhone, workPhone, oldPhone));
+        changeSet.setDeletedObjects(buildMap(deleted));
+        return changeSet;
+    }
+
+    protected java.sql.Timestamp buildTimestamp(int nanos) {
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(1000000000000L);
+        timestamp.setNanos(nanos);
+        return timestamp;
+    }
+
+    /**
+     * Test the round trip of a unit of work change set.
+     */
+    @Test
+    public void testUnitOfWorkChangeSet() {
+        UnitOfWorkChangeSet changeSet = buildUnitOfWorkChangeSet(100);
+        Object result = this.serializer.deserialize(this.serializer.serialize(changeSet, this.session), this.session);
+        assertEquals(UnitOfWorkChangeSet.class, result.getClass());
+        assertUnitOfWorkChangeSet(changeSet, (UnitOfWorkChangeSet)result);
+    }
+
+    /**
+     * Test the round trip of a merge command.
+     */
+    @Test
+    public void testMergeCommand() {
+        MergeChangeSetCommand command = new MergeChangeSetCommand();
+        command.setChangeSet(buildUnitOfWorkChangeSet(200));
+        command.setServiceId(new ServiceId("channel", "1", "rmi://localhost:1099"));
+        MergeChangeSetCommand result = (MergeChangeSetCommand)this.serializer.deserialize(this.serializer.serialize(command, this.session), this.session);
+        assertEquals(MergeChangeSetCommand.class, result.getClass());
+        assertEquals("channel", result.getServiceId().getChannel());
+        assertEquals("1", result.getServiceId().getId());
+        assertEquals("rmi://localhost:1099", result.getServiceId().getURL());
+        assertUnitOfWorkChangeSet(command.getChangeSet(null), result.getChangeSet(null));
+    }
+
+    /**
+     * Test the round trip of a batch of merge commands, each change set keeps its own object change sets.
+     */
+    @Test
+    public void testBatchMergeCommand() {
+        BatchMergeChangeSetCommand command = new BatchMergeChangeSetCommand();
+        command.addChangeSet(buildUnitOfWorkChangeSet(300));
+        command.addChangeSet(buildUnitOfWorkChangeSet(300));
+        command.addChangeSet(new UnitOfWorkChangeSet());
+        BatchMergeChangeSetCommand result = (BatchMergeChangeSetCommand)this.serializer.deserialize(this.serializer.serialize(command, this.session), this.session);
+        assertNull(result.getServiceId());
+        assertEquals(3, result.getChangeSets().size());
+        for (int index = 0; index < 3; index++) {
+            assertUnitOfWorkChangeSet(command.getChangeSets().get(index), result.getChangeSets().get(index));
+        }
+    }
+
+    /**
+     * Test the round trip without a session, the class and attribute names are written.
+     */
+    @Test
+    public void testWithoutSchema() {
+        UnitOfWorkChangeSet changeSet = buildUnitOfWorkChangeSet(400);
+        ChangeSetSerializer serializer = new ChangeSetSerializer();
+        byte[] bytes = (byte[])serializer.serialize(changeSet, null);
+        assertTrue("The schema should make the message smaller", ((byte[])this.serializer.serialize(changeSet, this.session)).length < bytes.length);
+        assertUnitOfWorkChangeSet(changeSet, (UnitOfWorkChangeSet)serializer.deserialize(bytes, null));
+    }
+
+    /**
+     * Test that other objects are written with Java serialization.
+     */
+    @Test
+    public void testOtherObject() {
+        ArrayList<Object> object = new ArrayList<Object>(Arrays.asList("a", Integer.valueOf(1)));
+        assertEquals(object, this.serializer.deserialize(this.serializer.serialize(object, this.session), this.session));
+    }
+
+    /**
+     * Test that a message of another format version is rejected.
+     */
+    @Test
+    public void testVersionMismatch() {
+        byte[] bytes = (byte[])this.serializer.serialize(buildUnitOfWorkChangeSet(500), this.session);
+        assertEquals(ChangeSetWriter.VERSION, bytes[0]);
+        bytes[0] = (byte)(ChangeSetWriter.VERSION + 1);
+        try {
+            this.serializer.deserialize(bytes, this.session);
+            fail("A message of another version should be rejected");
+        } catch (RuntimeException expected) {
+            assertTrue(expected.getCause() instanceof StreamCorruptedException);
+            assertTrue(expected.getCause().getMessage(), expected.getCause().getMessage().contains("version"));
+        }
+    }
+
+    /**
+     * Test that a message serialized with a different project is rejected.
+     */
+    @Test
+    public void testProjectMismatch() {
+        byte[] bytes = (byte[])this.serializer.serialize(buildUnitOfWorkChangeSet(600), this.session);
+        AbstractSession otherSession = buildSession(false);
+        ChangeSetSerializer otherSerializer = new ChangeSetSerializer();
+        otherSerializer.initialize(UnitOfWorkChangeSet.class, null, otherSession);
+        try {
+            otherSerializer.deserialize(bytes, otherSession);
+            fail("A message of another project should be rejected");
+        } catch (RuntimeException expected) {
+            assertTrue(expected.getCause() instanceof StreamCorruptedException);
+        }
+    }
+
+    /**
+     * Test that a truncated message is rejected.
+     */
+    @Test
+    public void testTruncated() {
+        byte[] bytes = (byte[])this.serializer.serialize(buildUnitOfWorkChangeSet(700), this.session);
+        try {
+            this.serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2), this.session);
+            fail("A truncated message should be rejected");
+        } catch (RuntimeException expected) {
+            // Expected.
+        }
+    }
+
+    protected void assertUnitOfWorkChangeSet(UnitOfWorkChangeSet expected, UnitOfWorkChangeSet actual) {
+        assertEquals(expected.hasChanges(), actual.hasChanges());
+        assertEquals(expected.hasForcedChanges(), actual.hasForcedChanges());
+        assertEquals(expected.isChangeSetFromOutsideUOW(), actual.isChangeSetFromOutsideUOW());
+        Map<ObjectChangeSet, ObjectChangeSet> read = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>();
+        assertChangeSetMap(expected.getAllChangeSets(), actual.getAllChangeSets(), read);
+        assertChangeSetMap(expected.getDeletedObjects(), actual.getDeletedObjects(), read);
+    }
+
+    /**
+     * Assert the maps have the same change sets, matched by class and id.
+     */
+    protected void assertChangeSetMap(Map<ObjectChangeSet, ObjectChangeSet> expected, Map<ObjectChangeSet, ObjectChangeSet> actual, Map<ObjectChangeSet, ObjectChangeSet> read) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (ObjectChangeSet expectedChangeSet : expected.keySet()) {
+            ObjectChangeSet actualChangeSet = null;
+            if (expectedChangeSet.isAggregate()) {
+                // Aggregates have no id, they are checked through their changed values.
+                actualChangeSet = read.get(expectedChangeSet);
+                assertNotNull(actualChangeSet);
+            } else {
+                for (ObjectChangeSet candidate : actual.keySet()) {
+                    if (expectedChangeSet.getClassName().equals(candidate.getClassName()) && expectedChangeSet.getId().equals(candidate.getId())) {
+                        actualChangeSet = candidate;
+                    }
+                }
+                assertNotNull("Missing change set " + expectedChangeSet, actualChangeSet);
+            }
+            assertSame(actualChangeSet, actual.get(actualChangeSet));
+            assertObjectChangeSet(expectedChangeSet, actualChangeSet, read);
+        }
+    }
+
+    /**
+     * Assert the object change sets are equal, a change set referenced several times must be read as the same object.
+     */
+    protected void assertObjectChangeSet(ObjectChangeSet expected, ObjectChangeSet actual, Map<ObjectChangeSet, ObjectChangeSet> read) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        ObjectChangeSet previous = read.get(expected);
+        if (previous != null) {
+            assertSame("The change set should be read once", previous, actual);
+            return;
+        }
+        read.put(expected, actual);
+        assertEquals(expected.getClassName(), actual.getClassName());
+        assertValue(expected.getId(), actual.getId());
+        assertEquals(expected.shouldBeDeleted(), actual.shouldBeDeleted());
+        assertEquals(expected.isInvalid(), actual.isInvalid());
+        assertEquals(expected.isNew(), actual.isNew());
+        assertEquals(expected.isAggregate(), actual.isAggregate());
+        assertEquals(expected.hasVersionChange(), actual.hasVersionChange());
+        assertEquals(expected.shouldModifyVersionField(), actual.shouldModifyVersionField());
+        assertEquals(expected.getSynchronizationType(), actual.getSynchronizationType());
+        assertValue(expected.getWriteLockValue(), actual.getWriteLockValue());
+        assertValue(expected.getInitialWriteLockValue(), actual.getInitialWriteLockValue());
+        if (!ChangeSetWriter.hasCompleteChanges(expected)) {
+            assertTrue("Only the identity should be sent", actual.getChanges().isEmpty());
+            return;
+        }
+        assertValue(expected.getOldKey(), actual.getOldKey());
+        assertValue(expected.getNewKey(), actual.getNewKey());
+        List expectedChanges = expected.getChanges();
+        List actualChanges = actual.getChanges();
+        assertEquals(expectedChanges.size(), actualChanges.size());
+        for (int index = 0; index < expectedChanges.size(); index++) {
+            assertChangeRecord((ChangeRecord)expectedChanges.get(index), (ChangeRecord)actualChanges.get(index), actual, read);
+        }
+    }
+
+    protected void assertChangeRecord(ChangeRecord expected, ChangeRecord actual, ObjectChangeSet owner, Map<ObjectChangeSet, ObjectChangeSet> read) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getAttribute(), actual.getAttribute());
+        assertSame(owner, actual.getOwner());
+        if (expected instanceof DirectToFieldChangeRecord) {
+            assertValue(((DirectToFieldChangeRecord)expected).getNewValue(), ((DirectToFieldChangeRecord)actual).getNewValue());
+        } else if (expected instanceof ObjectReferenceChangeRecord) {
+            assertObjectChangeSet((ObjectChangeSet)((ObjectReferenceChangeRecord)expected).getNewValue(), (ObjectChangeSet)((ObjectReferenceChangeRecord)actual).getNewValue(), read);
+        } else if (expected instanceof AggregateChangeRecord) {
+            assertObjectChangeSet((ObjectChangeSet)((AggregateChangeRecord)expected).getChangedObject(), (ObjectChangeSet)((AggregateChangeRecord)actual).getChangedObject(), read);
+        } else if (expected instanceof DirectCollectionChangeRecord) {
+            assertEquals(((DirectCollectionChangeRecord)expected).getAddObjectMap(), ((DirectCollectionChangeRecord)actual).getAddObjectMap());
+            assertEquals(((DirectCollectionChangeRecord)expected).getRemoveObjectMap(), ((DirectCollectionChangeRecord)actual).getRemoveObjectMap());
+        } else if (expected instanceof CollectionChangeRecord) {
+            CollectionChangeRecord expectedRecord = (CollectionChangeRecord)expected;
+            CollectionChangeRecord actualRecord = (CollectionChangeRecord)actual;
+            if (expected instanceof AggregateCollectionChangeRecord) {
+                List<ObjectChangeSet> expectedValues = ((AggregateCollectionChangeRecord)expected).getChangedValues();
+                List<ObjectChangeSet> actualValues = ((AggregateCollectionChangeRecord)actual).getChangedValues();
+                assertEquals(expectedValues.size(), actualValues.size());
+                for (int index = 0; index < expectedValues.size(); index++) {
+                    assertObjectChangeSet(expectedValues.get(index), actualValues.get(index), read);
+                }
+            }
+            List<ObjectChangeSet> expectedOrdered = expectedRecord.getOrderedAddObjects();
+            List<ObjectChangeSet> actualOrdered = actualRecord.getOrderedAddObjects();
+            assertEquals(expectedOrdered.size(), actualOrdered.size());
+            for (int index = 0; index < expectedOrdered.size(); index++) {
+                assertObjectChangeSet(expectedOrdered.get(index), actualOrdered.get(index), read);
+            }
+            assertChangeSetMap(expectedRecord.getAddObjectList(), actualRecord.getAddObjectList(), read);
+            assertChangeSetMap(expectedRecord.getRemoveObjectList(), actualRecord.getRemoveObjectList(), read);
+        } else {
+            fail("Unexpected change record: " + expected);
+        }
+    }
+
+    protected void assertValue(Object expected, Object actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else if (expected instanceof byte[]) {
+            assertTrue(Arrays.equals((byte[])expected, (byte[])actual));
+        } else {
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(expected, actual);
+        }
+    }
+}
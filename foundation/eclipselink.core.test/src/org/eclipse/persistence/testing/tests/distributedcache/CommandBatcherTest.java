@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.internal.sessions.coordination.CommandBatcher;
+import org.eclipse.persistence.internal.sessions.coordination.RemoteConnection;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.coordination.BatchMergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.Command;
+import org.eclipse.persistence.sessions.coordination.DiscoveryManager;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.coordination.TransportManager;
+import org.junit.Test;
+
+/**
+ * Test the batching of merge commands by the remote command manager.
+ * The commands are recorded instead of being sent, there is no cluster.
+ */
+public class CommandBatcherTest extends junit.framework.TestCase {
+
+    /** Time to wait for the propagation task. */
+    protected static final long SEND_TIMEOUT = 10000;
+
+    protected RecordingCommandManager rcm;
+
+    public CommandBatcherTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Records the propagated commands.
+     */
+    public static class RecordingCommandManager extends RemoteCommandManager {
+        protected List<Command> sentCommands = new ArrayList<Command>();
+
+        public RecordingCommandManager(DatabaseSessionImpl session) {
+            super(session, new LocalTransportManager());
+        }
+
+        @Override
+        public void propagateCommandNow(Command command) {
+            synchronized (this.sentCommands) {
+                this.sentCommands.add(command);
+            }
+        }
+
+        public List<Command> getSentCommands() {
+            synchronized (this.sentCommands) {
+                return new ArrayList<Command>(this.sentCommands);
+            }
+        }
+    }
+
+    /**
+     * Transport without discovery or connections.
+     */
+    public static class LocalTransportManager extends TransportManager {
+        public LocalTransportManager() {
+            initialize();
+        }
+
+        @Override
+        public DiscoveryManager createDiscoveryManager() {
+            return null;
+        }
+
+        @Override
+        public RemoteConnection createConnection(ServiceId serviceId) {
+            return null;
+        }
+
+        @Override
+        public void createLocalConnection() {
+        }
+
+        @Override
+        public void removeLocalConnection() {
+        }
+    }
+
+    /**
+     * Initialize the command manager with batching.
+     */
+    protected void initialize(int batchSize, int batchDelay, int queueSize) {
+        DatabaseSessionImpl session = (DatabaseSessionImpl)new Project(new DatabaseLogin()).createDatabaseSession();
+        session.setLogLevel(SessionLog.OFF);
+        this.rcm = new RecordingCommandManager(session);
+        this.rcm.setCommandBatchSize(batchSize);
+        this.rcm.setCommandBatchDelay(batchDelay);
+        this.rcm.setCommandQueueSize(queueSize);
+        this.rcm.initialize();
+        assertNotNull("Batching should be enabled", this.rcm.getCommandBatcher());
+    }
+
+    @Override
+    protected void tearDown() {
+        if ((this.rcm != null) && !this.rcm.isStopped()) {
+            this.rcm.shutdown();
+        }
+        this.rcm = null;
+    }
+
+    /**
+     * Propagate a merge command for each change set.
+     */
+    protected List<UnitOfWorkChangeSet> propagate(int count) {
+        List<UnitOfWorkChangeSet> changeSets = new ArrayList<UnitOfWorkChangeSet>(count);
+        for (int index = 0; index < count; index++) {
+            UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet();
+            MergeChangeSetCommand command = new MergeChangeSetCommand();
+            command.setChangeSet(changeSet);
+            this.rcm.propagateCommand(command);
+            changeSets.add(changeSet);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Wait until the batcher sent the number of commands.
+     */
+    protected void waitForSent(CommandBatcher batcher, int count) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + SEND_TIMEOUT;
+        while (batcher.getCommandsSent() < count) {
+            assertTrue("The commands were not sent", System.currentTimeMillis() < timeout);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Return the change sets of the sent commands, in the order they were sent.
+     */
+    protected List<UnitOfWorkChangeSet> getSentChangeSets() {
+        List<UnitOfWorkChangeSet> changeSets = new ArrayList<UnitOfWorkChangeSet>();
+        for (Command command : this.rcm.getSentCommands()) {
+            if (command instanceof BatchMergeChangeSetCommand) {
+                changeSets.addAll(((BatchMergeChangeSetCommand)command).getChangeSets());
+            } else {
+                changeSets.add(((MergeChangeSetCommand)command).getChangeSet(null));
+            }
+        }
+        return changeSets;
+    }
+
+    /**
+     * Test that a batch is sent as soon as it is full, without waiting for the batch delay.
+     */
+    @Test
+    public void testFlushBySize() throws Exception {
+        initialize(3, 60000, 100);
+        CommandBatcher batcher = this.rcm.getCommandBatcher();
+        propagate(6);
+        waitForSent(batcher, 6);
+        List<Command> sent = this.rcm.getSentCommands();
+        assertEquals(2, sent.size());
+        for (Command command : sent) {
+            assertTrue(command instanceof BatchMergeChangeSetCommand);
+            assertEquals(3, ((BatchMergeChangeSetCommand)command).getChangeSets().size());
+            assertEquals(this.rcm.getServiceId(), command.getServiceId());
+        }
+        assertEquals(2, batcher.getBatchesSent());
+        assertTrue("The batches waited for the delay", batcher.getMaxLag() < 60000);
+    }
+
+    /**
+     * Test that a batch that does not fill is sent after the batch delay.
+     */
+    @Test
+    public void testFlushByTime() throws Exception {
+        initialize(100, 200, 100);
+        CommandBatcher batcher = this.rcm.getCommandBatcher();
+        propagate(2);
+        assertEquals("The batch should wait for the delay", 0, this.rcm.getSentCommands().size());
+        waitForSent(batcher, 2);
+        List<Command> sent = this.rcm.getSentCommands();
+        assertEquals(1, sent.size());
+        assertEquals(2, ((BatchMergeChangeSetCommand)sent.get(0)).getChangeSets().size());
+        assertTrue("The batch was sent before the delay: " + batcher.getLastLag(), batcher.getLastLag() >= 190);
+        assertEquals(0, batcher.getQueueDepth());
+    }
+
+    /**
+     * Test that a single command is sent as is, and not wrapped in a batch.
+     */
+    @Test
+    public void testSingleCommand() throws Exception {
+        initialize(10, 10, 100);
+        List<UnitOfWorkChangeSet> changeSets = propagate(1);
+        waitForSent(this.rcm.getCommandBatcher(), 1);
+        Command sent = this.rcm.getSentCommands().get(0);
+        assertEquals(MergeChangeSetCommand.class, sent.getClass());
+        assertSame(changeSets.get(0), ((MergeChangeSetCommand)sent).getChangeSet(null));
+    }
+
+    /**
+     * Test that the change sets are sent in commit order across several batches.
+     */
+    @Test
+    public void testOrderingAcrossBatches() throws Exception {
+        initialize(4, 50, 5);
+        // More commands than the queue size, so the committing thread also waits for the queue to drain.
+        List<UnitOfWorkChangeSet> changeSets = propagate(30);
+        waitForSent(this.rcm.getCommandBatcher(), 30);
+        List<UnitOfWorkChangeSet> sent = getSentChangeSets();
+        assertEquals(changeSets.size(), sent.size());
+        for (int index = 0; index < changeSets.size(); index++) {
+            assertSame("Change set " + index + " was sent out of order", changeSets.get(index), sent.get(index));
+        }
+        for (Command command : this.rcm.getSentCommands()) {
+            if (command instanceof BatchMergeChangeSetCommand) {
+                assertTrue(((BatchMergeChangeSetCommand)command).getChangeSets().size() <= 4);
+            }
+        }
+    }
+
+    /**
+     * Test that shutdown sends the queued commands, in order, without waiting for the batch delay,
+     * including the commands collected by the propagation task waiting for its batch to fill.
+     */
+    @Test
+    public void testShutdown() throws Exception {
+        initialize(100, 60000, 100);
+        CommandBatcher batcher = this.rcm.getCommandBatcher();
+        List<UnitOfWorkChangeSet> changeSets = propagate(5);
+        // Let the propagation task start waiting for the batch to fill.
+        Thread.sleep(50);
+        assertEquals(0, this.rcm.getSentCommands().size());
+        long start = System.currentTimeMillis();
+        this.rcm.shutdown();
+        assertTrue("Shutdown waited for the batch delay", (System.currentTimeMillis() - start) < 30000);
+        assertNull(this.rcm.getCommandBatcher());
+        assertEquals(5, batcher.getCommandsSent());
+        assertEquals(0, batcher.getQueueDepth());
+        List<UnitOfWorkChangeSet> sent = getSentChangeSets();
+        assertEquals(changeSets.size(), sent.size());
+        for (int index = 0; index < changeSets.size(); index++) {
+            assertSame(changeSets.get(index), sent.get(index));
+        }
+    }
+}
@@ -39,12 +39,20 @@ public void addTests() {
         suite5.addTest(new OrderedListMergeTest());
         suite5.addTest(new OrderedListMergeTest2());
         suite5.addTest(new OrderedListMergeTest3());
+        TestSuite suite6 = new TestSuite();
+        suite6.setName("Command Batching Test Suite");
+        suite6.addTestSuite(CommandBatcherTest.class);
+        TestSuite suite7 = new TestSuite();
+        suite7.setName("Change Set Serialization Test Suite");
+        suite7.addTestSuite(ChangeSetSerializerTest.class);
 
         addTest(suite1);
         addTest(suite2);
         addTest(suite3);
         addTest(suite4);
         addTest(suite5);
+        addTest(suite6);
+        addTest(suite7);
     }
 
     public void addRequiredSystems() {
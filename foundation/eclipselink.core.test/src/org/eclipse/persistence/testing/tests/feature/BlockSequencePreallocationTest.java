@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.Arrays;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sequencing.StandardSequence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.framework.TestWarningException;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+
+/**
+ * Test block preallocation against the database sequence of the login (table or native sequence).
+ * Several threads allocate more values than fit in a block from a server session using a sequence connection pool,
+ * the values must be unique and contiguous across the blocks, including the blocks allocated in the background.
+ */
+public class BlockSequencePreallocationTest extends TestCase {
+    protected int nThreads;
+    protected int nIterations;
+    protected int preallocationSize;
+    protected Server serverSession;
+    protected Sequence sequence;
+    protected long[][] values;
+    protected Exception exception;
+
+    public BlockSequencePreallocationTest(int nThreads, int nIterations, int preallocationSize) {
+        this.nThreads = nThreads;
+        this.nIterations = nIterations;
+        this.preallocationSize = preallocationSize;
+        setName(getName() + " threads=" + nThreads + " iterations=" + nIterations + " seqPreallocSize=" + preallocationSize);
+        setDescription("Test that block preallocation allocates unique and contiguous sequence values across blocks.");
+    }
+
+    protected void setup() {
+        DatasourceLogin login = (DatasourceLogin)getSession().getDatasourceLogin().clone();
+        Sequence sequence = login.getDefaultSequence();
+        this.sequence = sequence;
+        if (!(sequence instanceof StandardSequence) || sequence.shouldAcquireValueAfterInsert() || !sequence.shouldUsePreallocation()) {
+            throw new TestWarningException("Block preallocation requires a table sequence or a native sequence object.");
+        }
+        sequence.setPreallocationSize(this.preallocationSize);
+        sequence.setShouldUseBlockPreallocation(true);
+        sequence.setPrefetchThreshold(0.5f);
+        this.serverSession = new Project(login).createServerSession(this.nThreads, this.nThreads);
+        this.serverSession.addDescriptors(new EmployeeProject());
+        this.serverSession.getSequencingControl().setShouldUseSeparateConnection(true);
+        this.serverSession.setSessionLog(getSession().getSessionLog());
+        this.serverSession.login();
+        this.values = new long[this.nThreads][this.nIterations];
+        this.exception = null;
+    }
+
+    public void test() {
+        Thread[] threads = new Thread[this.nThreads];
+        for (int i = 0; i < this.nThreads; i++) {
+            final long[] threadValues = this.values[i];
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int index = 0; index < threadValues.length; index++) {
+                            threadValues[index] = ((Number)((AbstractSession)serverSession).getSequencing().getNextValue(Employee.class)).longValue();
+                        }
+                    } catch (Exception ex) {
+                        exception = ex;
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (int i = 0; i < this.nThreads; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException ex) {
+                throw new TestErrorException(ex.getMessage());
+            }
+        }
+    }
+
+    protected void verify() {
+        if (this.exception != null) {
+            throw new TestErrorException("Exception allocating the sequence values.", this.exception);
+        }
+        long[] all = new long[this.nThreads * this.nIterations];
+        for (int i = 0; i < this.nThreads; i++) {
+            System.arraycopy(this.values[i], 0, all, i * this.nIterations, this.nIterations);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new TestErrorException("The sequence value " + all[i] + " was allocated twice.");
+            } else if (all[i] != all[i - 1] + 1) {
+                throw new TestErrorException("Gap in the sequence values between " + all[i - 1] + " and " + all[i] + ".");
+            }
+        }
+        try {
+            this.sequence.setPrefetchThreshold(0);
+            throw new TestErrorException("A prefetch threshold of 0 must be rejected.");
+        } catch (IllegalArgumentException expected) {
+            // The threshold must be greater than 0.
+        }
+    }
+
+    public void reset() {
+        if (this.serverSession != null) {
+            this.serverSession.logout();
+            this.serverSession = null;
+        }
+    }
+}
@@ -246,6 +246,7 @@ public static TestSuite getMiscTestSuite() {
         suite.addTest(new HelperSystemPropertyTest());
         suite.addTest(new GermanUmlautsWriteTest());
         suite.addTest(new ReconnectFlushStatementCacheTest());
+        suite.addTest(new StatementCacheTest());
         suite.addTest(new TransactionIsolationTest());
         suite.addTest(new SessionIsConnectedFlagTest());
         suite.addTest(new ContainerIndirectionPolicySerializationTest());
@@ -305,6 +306,7 @@ public static TestSuite getSequenceTestSuite() {
         suite.addTest(new SequencingTableQualifierTest(SequencingTableQualifierTest.UNARY_TABLE_SEQUENCE));
         suite.addTest(new SequenceFieldRemovalForAcquireValueAfterInsertTest());
         suite.addTest(new CannotOverrideConnectedSequenceTest());
+        suite.addTest(new BlockSequencePreallocationTest(4, 100, 10));
         return suite;
     }
 
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.internal.databaseaccess.MultiRowInsertBatchWritingMechanism;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.platform.database.H2Platform;
+import org.eclipse.persistence.queries.Call;
+import org.eclipse.persistence.queries.DataModifyQuery;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+
+/**
+ * Test the statements executed by MultiRowInsertBatchWritingMechanism.
+ * The statements are recorded instead of executed, so the row limits of the platform can be set.
+ */
+public class MultiRowInsertBatchWritingTest extends TestCase {
+    protected static final String INSERT = "INSERT INTO MULTI_ROW (ID, NAME) VALUES (?, ?)";
+
+    protected MultiRowInsertPlatform platform;
+    protected AbstractSession session;
+    protected RecordingAccessor accessor;
+    protected MultiRowInsertBatchWritingMechanism mechanism;
+
+    public MultiRowInsertBatchWritingTest() {
+        setDescription("Test the statements executed by multi-row insert batch writing.");
+    }
+
+    /**
+     * Platform of the test, with a maximum number of multi-row insert parameters.
+     */
+    public static class MultiRowInsertPlatform extends H2Platform {
+        protected int maxMultiRowInsertParameters;
+
+        @Override
+        public int getMaxMultiRowInsertParameters() {
+            return this.maxMultiRowInsertParameters;
+        }
+    }
+
+    /**
+     * Accessor recording the statements and parameters of the calls instead of executing them.
+     */
+    public static class RecordingAccessor extends DatabaseAccessor {
+        protected List<String> statements = new ArrayList<String>();
+        protected List<List> parameters = new ArrayList<List>();
+
+        public RecordingAccessor(DatabaseLogin login) {
+            super();
+            setLogin(login);
+        }
+
+        @Override
+        public Object basicExecuteCall(Call call, AbstractRecord translationRow, AbstractSession session, boolean batch) {
+            DatabaseCall databaseCall = (DatabaseCall)call;
+            this.statements.add(databaseCall.getSQLString());
+            this.parameters.add(new ArrayList(databaseCall.getParameters()));
+            return Integer.valueOf(1);
+        }
+    }
+
+    protected void setup() {
+        this.platform = new MultiRowInsertPlatform();
+        DatabaseLogin login = new DatabaseLogin(this.platform);
+        this.session = (AbstractSession)new Project(login).createDatabaseSession();
+        this.session.dontLogMessages();
+        this.accessor = new RecordingAccessor(login);
+    }
+
+    /**
+     * Set the limits of the rows of a statement, and create the mechanism.
+     */
+    protected void setLimits(int maxBatchWritingSize, int maxMultiRowInsertParameters) {
+        this.platform.setMaxBatchWritingSize(maxBatchWritingSize);
+        this.platform.maxMultiRowInsertParameters = maxMultiRowInsertParameters;
+        this.accessor.statements.clear();
+        this.accessor.parameters.clear();
+        this.mechanism = new MultiRowInsertBatchWritingMechanism();
+        this.mechanism.setAccessor(this.accessor, this.session);
+    }
+
+    /**
+     * Append a call of the SQL with the parameters to the batch.
+     */
+    protected void append(String sql, Object... parameters) {
+        SQLCall call = new SQLCall(sql);
+        call.setQuery(new DataModifyQuery(call));
+        List callParameters = new ArrayList();
+        for (Object parameter : parameters) {
+            callParameters.add(parameter);
+        }
+        call.setParameters(callParameters);
+        this.mechanism.appendCall(this.session, call);
+    }
+
+    /**
+     * Append inserts of the rows from the first id, and execute the batch.
+     */
+    protected void insert(int firstId, int rows) {
+        for (int id = firstId; id < firstId + rows; id++) {
+            append(INSERT, Integer.valueOf(id), "name" + id);
+        }
+        this.mechanism.executeBatchedStatements(this.session);
+    }
+
+    /**
+     * Return the multi-row insert of the number of rows.
+     */
+    protected static String buildInsert(String sql, int rows) {
+        int valuesIndex = sql.indexOf("(?, ");
+        StringBuilder writer = new StringBuilder(sql.substring(0, valuesIndex));
+        for (int index = 0; index < rows; index++) {
+            if (index > 0) {
+                writer.append(", ");
+            }
+            writer.append(sql.substring(valuesIndex));
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Verify the recorded statements, and that the rows are inserted in order from the first id.
+     */
+    protected void verifyInserts(String message, int firstId, int... rows) {
+        if (this.accessor.statements.size() != rows.length) {
+            throw new TestErrorException(message + ", wrong number of statements: " + this.accessor.statements);
+        }
+        int id = firstId;
+        for (int index = 0; index < rows.length; index++) {
+            String statement = this.accessor.statements.get(index);
+            if (!statement.equals(buildInsert(INSERT, rows[index]))) {
+                throw new TestErrorException(message + ", statement " + index + " is not an insert of " + rows[index] + " rows: " + statement);
+            }
+            List parameters = this.accessor.parameters.get(index);
+            List expected = new ArrayList();
+            for (int row = 0; row < rows[index]; row++) {
+                expected.add(Integer.valueOf(id));
+                expected.add("name" + id);
+                id++;
+            }
+            if (!parameters.equals(expected)) {
+                throw new TestErrorException(message + ", wrong parameters of statement " + index + ": " + parameters);
+            }
+        }
+    }
+
+    public void test() {
+        // 2 parameters by row, so 3 rows by statement.
+        setLimits(100, 6);
+        insert(0, 6);
+        verifyInserts("Exact multiple of the parameter limit", 0, 3, 3);
+
+        setLimits(100, 6);
+        insert(0, 7);
+        verifyInserts("Non-exact multiple of the parameter limit", 0, 3, 3, 1);
+
+        // The batch size is lower than the parameter limit, the batch is executed when full.
+        setLimits(2, 6);
+        insert(0, 4);
+        verifyInserts("Exact multiple of the batch size", 0, 2, 2);
+
+        setLimits(2, 6);
+        insert(0, 5);
+        verifyInserts("Non-exact multiple of the batch size", 0, 2, 2, 1);
+
+        // A row of more parameters than the limit is inserted alone.
+        setLimits(100, 1);
+        insert(0, 2);
+        verifyInserts("Row over the parameter limit", 0, 1, 1);
+
+        // A statement that is not parameterized executes the batch, and is executed in order.
+        setLimits(100, 6);
+        append(INSERT, Integer.valueOf(0), "name0");
+        append(INSERT, Integer.valueOf(1), "name1");
+        append("DELETE FROM MULTI_ROW WHERE ID = 0");
+        append(INSERT, Integer.valueOf(2), "name2");
+        append(INSERT, Integer.valueOf(3), "name3");
+        this.mechanism.executeBatchedStatements(this.session);
+        List<String> expected = new ArrayList<String>();
+        expected.add(buildInsert(INSERT, 2));
+        expected.add("DELETE FROM MULTI_ROW WHERE ID = 0");
+        expected.add(buildInsert(INSERT, 2));
+        if (!this.accessor.statements.equals(expected)) {
+            throw new TestErrorException("The statements not parameterized were not executed in order: " + this.accessor.statements);
+        }
+
+        // VALUES in a quoted column name or string literal is not the VALUES clause.
+        String quotedColumn = "INSERT INTO MULTI_ROW (ID, \"NAME VALUES (X\") VALUES (?, ?)";
+        setLimits(100, 6);
+        append(quotedColumn, Integer.valueOf(0), "name0");
+        append(quotedColumn, Integer.valueOf(1), "name1");
+        this.mechanism.executeBatchedStatements(this.session);
+        if (!this.accessor.statements.get(0).equals(buildInsert(quotedColumn, 2))) {
+            throw new TestErrorException("Wrong insert of a quoted column name: " + this.accessor.statements);
+        }
+        String literal = "INSERT INTO MULTI_ROW (ID, NAME, NOTE) VALUES (?, ?, ' VALUES (''X'')')";
+        setLimits(100, 6);
+        append(literal, Integer.valueOf(0), "name0");
+        append(literal, Integer.valueOf(1), "name1");
+        this.mechanism.executeBatchedStatements(this.session);
+        if (!this.accessor.statements.get(0).equals(buildInsert(literal, 2))) {
+            throw new TestErrorException("Wrong insert of a string literal: " + this.accessor.statements);
+        }
+    }
+}
@@ -61,5 +61,6 @@ public void reset() {
     public void addTests() {
         super.addTests();
         addTest(new CacheStatementBatchWritingTest());
+        addTest(new MultiRowInsertBatchWritingTest());
     }
 }
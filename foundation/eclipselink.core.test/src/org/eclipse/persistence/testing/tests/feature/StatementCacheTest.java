@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.Map;
+import java.util.Vector;
+
+import org.eclipse.persistence.queries.DataReadQuery;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
+
+/**
+ * Test the reuse and eviction of the statements of the statement cache.
+ * The statement released the least recently is evicted when the cache is full,
+ * and the hits and misses are counted by SQL string.
+ */
+public class StatementCacheTest extends TestCase {
+    protected DatabaseSession session;
+    protected PerformanceMonitor monitor;
+
+    public StatementCacheTest() {
+        setDescription("Test the reuse and eviction of the statements of the statement cache.");
+    }
+
+    protected void setup() {
+        DatabaseLogin login = (DatabaseLogin)getSession().getLogin().clone();
+        login.bindAllParameters();
+        login.cacheAllStatements();
+        login.setStatementCacheSize(2);
+        EmployeeProject project = new EmployeeProject();
+        project.setLogin(login);
+        this.session = project.createDatabaseSession();
+        this.session.setSessionLog(getSession().getSessionLog());
+        this.session.login();
+        this.monitor = new PerformanceMonitor();
+        this.monitor.setDumpTime(Long.MAX_VALUE);
+        this.session.setProfiler(this.monitor);
+    }
+
+    /**
+     * Select the column of an employee.
+     */
+    protected void select(String column) {
+        DataReadQuery query = new DataReadQuery(new SQLCall("SELECT " + column + " FROM EMPLOYEE WHERE EMP_ID = #ID"));
+        query.addArgument("ID");
+        Vector arguments = new Vector();
+        arguments.add(Long.valueOf(0));
+        this.session.executeQuery(query, arguments);
+    }
+
+    /**
+     * Return the count of the counter for the SQL selecting the column.
+     */
+    protected long getCount(String counter, String column) {
+        long count = 0;
+        for (Map.Entry<String, Object> entry : this.monitor.getOperationTimings().entrySet()) {
+            if (entry.getKey().startsWith(counter + ":") && entry.getKey().contains("SELECT " + column + " ")) {
+                count = count + ((Long)entry.getValue()).longValue();
+            }
+        }
+        return count;
+    }
+
+    protected void verifyCounts(String column, long hits, long misses) {
+        long actualHits = getCount(SessionProfiler.StatementCacheHits, column);
+        long actualMisses = getCount(SessionProfiler.StatementCacheMisses, column);
+        if ((actualHits != hits) || (actualMisses != misses)) {
+            throw new TestErrorException("The statement selecting " + column + " had " + actualHits + " hits and " + actualMisses
+                    + " misses, expected " + hits + " hits and " + misses + " misses.");
+        }
+    }
+
+    public void test() {
+        select("F_NAME");
+        select("F_NAME");
+        select("L_NAME");
+        // Reusing the statement puts it back last, so it is not the next evicted.
+        select("F_NAME");
+        // The cache is full, the L_NAME statement is evicted.
+        select("GENDER");
+        select("F_NAME");
+        // The L_NAME statement must be prepared again, and the GENDER statement is evicted.
+        select("L_NAME");
+    }
+
+    protected void verify() {
+        verifyCounts("F_NAME", 3, 1);
+        verifyCounts("L_NAME", 0, 2);
+        verifyCounts("GENDER", 0, 1);
+        Long evictions = (Long)this.monitor.getOperationTimings().get(SessionProfiler.StatementCacheEvictions);
+        if ((evictions == null) || (evictions.longValue() != 2)) {
+            throw new TestErrorException("Expected 2 statement cache evictions, not " + evictions);
+        }
+        Long hits = (Long)this.monitor.getOperationTimings().get(SessionProfiler.StatementCacheHits);
+        if ((hits == null) || (hits.longValue() != 3)) {
+            throw new TestErrorException("Expected 3 statement cache hits in total, not " + hits);
+        }
+    }
+
+    public void reset() {
+        if (this.session != null) {
+            this.session.logout();
+            this.session = null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.helper;
+
+import java.util.Vector;
+
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.junit.Test;
+
+/**
+ * Test the lookup of row fields through DatabaseFieldIndex and ArrayRecord.
+ * The index must find the same position as a scan of the fields,
+ * the first matching position for duplicate fields, and unqualified fields by name.
+ */
+public class DatabaseFieldIndexTest extends junit.framework.TestCase {
+
+    /** The fields of a joined row, EMPLOYEE.ID is selected twice, NAME is unqualified, the null field is not fetched. */
+    private static final String[] FIELD_NAMES = { "EMPLOYEE.ID", "ADDRESS.ID", "EMPLOYEE.ID", "NAME", null, "ADDRESS.CITY" };
+
+    private DatabaseField[] fieldsArray;
+    private Vector fields;
+    private Object[] values;
+
+    public DatabaseFieldIndexTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() {
+        this.fieldsArray = new DatabaseField[FIELD_NAMES.length];
+        this.fields = new Vector(FIELD_NAMES.length);
+        this.values = new Object[FIELD_NAMES.length];
+        for (int index = 0; index < FIELD_NAMES.length; index++) {
+            if (FIELD_NAMES[index] != null) {
+                this.fieldsArray[index] = new DatabaseField(FIELD_NAMES[index]);
+            }
+            this.fields.add(this.fieldsArray[index]);
+            this.values[index] = Integer.valueOf(index);
+        }
+    }
+
+    /**
+     * Return a row of the fields, indexed or not.
+     */
+    protected ArrayRecord buildRow(boolean shouldUseFieldsIndex) {
+        if (shouldUseFieldsIndex) {
+            return new ArrayRecord(this.fields, this.fieldsArray, new DatabaseFieldIndex(this.fieldsArray), this.values);
+        }
+        return new ArrayRecord(this.fields, this.fieldsArray, this.values);
+    }
+
+    /**
+     * Return the value of the field in the row, looked up by a new field so the field's index is not set.
+     */
+    protected Object get(ArrayRecord row, String fieldName) {
+        return row.get(new DatabaseField(fieldName));
+    }
+
+    /**
+     * Test that the first position of a duplicate field is found.
+     */
+    @Test
+    public void testDuplicateFields() {
+        DatabaseFieldIndex index = new DatabaseFieldIndex(this.fieldsArray);
+        assertEquals(0, index.indexOf(new DatabaseField("EMPLOYEE.ID")));
+        assertEquals(1, index.indexOf(new DatabaseField("ADDRESS.ID")));
+        assertEquals(Integer.valueOf(0), get(buildRow(true), "EMPLOYEE.ID"));
+        assertEquals(Integer.valueOf(1), get(buildRow(true), "ADDRESS.ID"));
+    }
+
+    /**
+     * Test that unqualified fields match the qualified fields of the same name, in both directions.
+     */
+    @Test
+    public void testUnqualifiedFields() {
+        DatabaseFieldIndex index = new DatabaseFieldIndex(this.fieldsArray);
+        assertEquals(0, index.indexOf(new DatabaseField("ID")));
+        assertEquals(5, index.indexOf(new DatabaseField("CITY")));
+        assertEquals(3, index.indexOf(new DatabaseField("EMPLOYEE.NAME")));
+        assertEquals(3, index.indexOf(new DatabaseField("NAME")));
+        assertEquals(Integer.valueOf(0), get(buildRow(true), "ID"));
+        assertEquals(Integer.valueOf(3), get(buildRow(true), "ADDRESS.NAME"));
+    }
+
+    /**
+     * Test that missing fields are not found, and that the null field of a fetch group is skipped.
+     */
+    @Test
+    public void testMissingFields() {
+        DatabaseFieldIndex index = new DatabaseFieldIndex(this.fieldsArray);
+        assertEquals(-1, index.indexOf(new DatabaseField("EMPLOYEE.SALARY")));
+        assertEquals(-1, index.indexOf(new DatabaseField("PHONE.ID")));
+        ArrayRecord row = buildRow(true);
+        assertNull(get(row, "SALARY"));
+        assertFalse(row.containsKey(new DatabaseField("PHONE.ID")));
+    }
+
+    /**
+     * Test that an indexed row finds the same values as a row scanning its fields,
+     * and that a field with an index of another row's position is still found.
+     */
+    @Test
+    public void testIndexMatchesScan() {
+        String[] keys = { "EMPLOYEE.ID", "ADDRESS.ID", "ID", "NAME", "EMPLOYEE.NAME", "CITY", "ADDRESS.CITY", "EMPLOYEE.CITY", "SALARY" };
+        for (String key : keys) {
+            assertEquals(key, get(buildRow(false), key), get(buildRow(true), key));
+            DatabaseField field = new DatabaseField(key);
+            field.setIndex(4);
+            assertEquals(key, get(buildRow(false), key), buildRow(true).get(field));
+        }
+    }
+}
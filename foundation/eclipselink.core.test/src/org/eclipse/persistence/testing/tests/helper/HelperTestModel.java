@@ -31,6 +31,7 @@ public static TestSuite getDataTypeComparisonTestSuite() {
         suite.setDescription("This suite tests common helper methods and methods which compare data types");
 
         suite.addTestSuite(org.eclipse.persistence.testing.tests.helper.JavaUtilTest.class);
+        suite.addTestSuite(org.eclipse.persistence.testing.tests.helper.DatabaseFieldIndexTest.class);
 
         suite.addTest(new CompareArrayContentTest());
         suite.addTest(new CompareArrayLengthTest());
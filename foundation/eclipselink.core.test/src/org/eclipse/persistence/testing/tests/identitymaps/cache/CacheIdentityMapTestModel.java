@@ -65,6 +65,7 @@ public void addTests() {
         addTest(getSmallCacheTestSuite(new CacheIdentityMap(2, null, getAbstractSession(), false)));
         addTest(new ConcurrentAccessTest());
         addTest(new ConcurrentReadBigBadObjectTest());
+        addTest(getOffHeapCacheTestSuite());
     }
 
     public TestSuite getInsertOverflowTestSuite(CacheIdentityMap cache) {
@@ -96,4 +97,15 @@ public TestSuite getSmallCacheTestSuite(CacheIdentityMap cache) {
 
         return suite;
     }
+
+    public TestSuite getOffHeapCacheTestSuite() {
+        TestSuite suite = new TestSuite();
+        suite.setName("OffHeapCacheTestSuite");
+        suite.setDescription("This suite tests storing and rebuilding objects with the off-heap cache interceptor.");
+
+        suite.addTestSuite(OffHeapCacheStoreTest.class);
+        suite.addTestSuite(OffHeapCacheInterceptorTest.class);
+
+        return suite;
+    }
 }
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.identitymaps.OffHeapCacheStore;
+import org.eclipse.persistence.internal.identitymaps.SoftIdentityMap;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.interceptors.OffHeapCacheInterceptor;
+import org.junit.Test;
+
+/**
+ * Test the off-heap cache interceptor, objects are stored when put in the cache,
+ * and rebuilt from the store with their eager relationships once the identity map no longer holds them.
+ * The session is not connected, so any database access fails the test.
+ */
+public class OffHeapCacheInterceptorTest extends junit.framework.TestCase {
+
+    /** Time to wait for the background store. */
+    protected static final long STORE_TIMEOUT = 10000;
+
+    protected DatabaseSessionImpl session;
+
+    public OffHeapCacheInterceptorTest(String name) {
+        super(name);
+    }
+
+    public static class Order {
+        protected Long id;
+        protected String description;
+        protected List<OrderLine> lines = new ArrayList<OrderLine>();
+
+        public Order() {
+        }
+
+        public Order(long id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+
+    public static class OrderLine {
+        protected Long id;
+        protected String product;
+        protected Order order;
+
+        public OrderLine() {
+        }
+
+        public OrderLine(long id, String product, Order order) {
+            this.id = id;
+            this.product = product;
+            this.order = order;
+            order.lines.add(this);
+        }
+    }
+
+    /**
+     * Build a session for the order and line descriptors, with eager relationships in both directions.
+     */
+    protected DatabaseSessionImpl buildSession(Object size) {
+        Project project = new Project(new DatabaseLogin());
+
+        RelationalDescriptor order = new RelationalDescriptor();
+        order.setJavaClass(Order.class);
+        order.setTableName("OFFHEAP_ORDER");
+        order.setPrimaryKeyFieldName("ID");
+        order.addDirectMapping("id", "ID");
+        order.addDirectMapping("description", "DESCRIPTION");
+        OneToManyMapping lines = new OneToManyMapping();
+        lines.setAttributeName("lines");
+        lines.setReferenceClass(OrderLine.class);
+        lines.dontUseIndirection();
+        lines.useCollectionClass(ArrayList.class);
+        lines.addTargetForeignKeyFieldName("OFFHEAP_LINE.ORDER_ID", "OFFHEAP_ORDER.ID");
+        order.addMapping(lines);
+        order.getCachePolicy().setIdentityMapClass(SoftIdentityMap.class);
+        order.getCachePolicy().setCacheInterceptorClass(OffHeapCacheInterceptor.class);
+        project.addDescriptor(order);
+
+        RelationalDescriptor line = new RelationalDescriptor();
+        line.setJavaClass(OrderLine.class);
+        line.setTableName("OFFHEAP_LINE");
+        line.setPrimaryKeyFieldName("ID");
+        line.addDirectMapping("id", "ID");
+        line.addDirectMapping("product", "PRODUCT");
+        OneToOneMapping orderMapping = new OneToOneMapping();
+        orderMapping.setAttributeName("order");
+        orderMapping.setReferenceClass(Order.class);
+        orderMapping.dontUseIndirection();
+        orderMapping.addForeignKeyFieldName("OFFHEAP_LINE.ORDER_ID", "OFFHEAP_ORDER.ID");
+        line.addMapping(orderMapping);
+        line.getCachePolicy().setIdentityMapClass(SoftIdentityMap.class);
+        line.getCachePolicy().setCacheInterceptorClass(OffHeapCacheInterceptor.class);
+        project.addDescriptor(line);
+
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.setLogLevel(SessionLog.OFF);
+        if (size != null) {
+            session.setProperty(PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE, size);
+        }
+        session.initializeDescriptors();
+        return session;
+    }
+
+    @Override
+    protected void tearDown() {
+        if (this.session != null) {
+            this.session.getIdentityMapAccessor().initializeAllIdentityMaps();
+            this.session = null;
+        }
+    }
+
+    /**
+     * Return the off-heap interceptor of the class.
+     */
+    protected OffHeapCacheInterceptor getInterceptor(Class theClass) {
+        return (OffHeapCacheInterceptor)this.session.getIdentityMapAccessorInstance().getIdentityMap(this.session.getDescriptor(theClass));
+    }
+
+    /**
+     * Put the objects in the cache and wait until their rows are stored.
+     */
+    protected void putInCache(Object... objects) throws InterruptedException {
+        for (Object object : objects) {
+            this.session.getIdentityMapAccessorInstance().putInIdentityMap(object);
+        }
+        int size = objects.length;
+        OffHeapCacheStore orderStore = getInterceptor(Order.class).getStore();
+        OffHeapCacheStore lineStore = getInterceptor(OrderLine.class).getStore();
+        long timeout = System.currentTimeMillis() + STORE_TIMEOUT;
+        while ((orderStore.getSize() + lineStore.getSize()) < size) {
+            assertTrue("The rows were not stored in the background", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Remove the object from the identity map only, as if it was garbage collected.
+     */
+    protected void evictFromIdentityMap(Class theClass, Object primaryKey) {
+        IdentityMap identityMap = getInterceptor(theClass).getTargetIdenttyMap();
+        identityMap.remove(primaryKey, null);
+        assertNull(identityMap.get(primaryKey));
+    }
+
+    /**
+     * Test that an object no longer held by the identity map is rebuilt from its stored row.
+     */
+    @Test
+    public void testStoreEvictRebuild() throws Exception {
+        this.session = buildSession(null);
+        Order order = new Order(1, "first");
+        OrderLine line1 = new OrderLine(11, "apple", order);
+        OrderLine line2 = new OrderLine(12, "pear", order);
+        putInCache(order, line1, line2);
+
+        evictFromIdentityMap(Order.class, 1L);
+        // The cache lookup does not build the object.
+        assertNull(getInterceptor(Order.class).getCacheKey(1L, false));
+        assertEquals(0, getInterceptor(Order.class).getStore().getHits());
+        Order rebuilt = (Order)this.session.getIdentityMapAccessorInstance().getFromIdentityMap(1L, Order.class);
+        assertNotNull("The order was not rebuilt from the store", rebuilt);
+        assertNotSame(order, rebuilt);
+        assertEquals(Long.valueOf(1), rebuilt.id);
+        assertEquals("first", rebuilt.description);
+        // The eager collection is rebuilt from the stored line keys, the lines are still cached.
+        assertEquals(2, rebuilt.lines.size());
+        assertSame(line1, rebuilt.lines.get(0));
+        assertSame(line2, rebuilt.lines.get(1));
+        // The rebuilt object is put back in the identity map.
+        assertSame(rebuilt, this.session.getIdentityMapAccessorInstance().getFromIdentityMap(1L, Order.class));
+        assertEquals(1, getInterceptor(Order.class).getStore().getHits());
+    }
+
+    /**
+     * Test that objects that reference each other with eager relationships are rebuilt from the store,
+     * the back reference is resolved to the object being rebuilt.
+     */
+    @Test
+    public void testRebuildEagerRelationships() throws Exception {
+        this.session = buildSession(null);
+        Order order = new Order(2, "second");
+        OrderLine line1 = new OrderLine(21, "plum", order);
+        OrderLine line2 = new OrderLine(22, "fig", order);
+        putInCache(order, line1, line2);
+
+        evictFromIdentityMap(Order.class, 2L);
+        evictFromIdentityMap(OrderLine.class, 21L);
+        evictFromIdentityMap(OrderLine.class, 22L);
+        Order rebuilt = (Order)this.session.getIdentityMapAccessorInstance().getFromIdentityMap(2L, Order.class);
+        assertNotNull("The order was not rebuilt from the store", rebuilt);
+        assertEquals(2, rebuilt.lines.size());
+        OrderLine rebuiltLine1 = rebuilt.lines.get(0);
+        assertNotSame(line1, rebuiltLine1);
+        assertEquals("plum", rebuiltLine1.product);
+        assertSame(rebuilt, rebuiltLine1.order);
+        assertEquals("fig", rebuilt.lines.get(1).product);
+        assertSame(rebuilt, rebuilt.lines.get(1).order);
+        assertSame(rebuiltLine1, this.session.getIdentityMapAccessorInstance().getFromIdentityMap(21L, OrderLine.class));
+    }
+
+    /**
+     * Test that rows are evicted from a full store, and that an evicted object is not rebuilt.
+     */
+    @Test
+    public void testCapacityOverflow() throws Exception {
+        this.session = buildSession(2 * 1024 * 1024);
+        OffHeapCacheInterceptor interceptor = getInterceptor(Order.class);
+        assertEquals(2 * 1024 * 1024, interceptor.getStore().getCapacity());
+        // Large rows, so the store is exceeded.
+        char[] description = new char[100 * 1024];
+        java.util.Arrays.fill(description, 'x');
+        int count = 40;
+        for (int index = 0; index < count; index++) {
+            this.session.getIdentityMapAccessorInstance().putInIdentityMap(new Order(100 + index, new String(description) + index));
+            interceptor.storePendingObjects();
+        }
+        long timeout = System.currentTimeMillis() + STORE_TIMEOUT;
+        while ((interceptor.getStore().getSize() + interceptor.getStore().getEvictions()) < count) {
+            assertTrue("The rows were not stored in the background", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+        assertTrue(interceptor.getStore().getEvictions() > 0);
+        assertTrue(interceptor.getStore().getSize() < count);
+        // The last order is still stored.
+        evictFromIdentityMap(Order.class, 100L + count - 1);
+        Order last = (Order)this.session.getIdentityMapAccessorInstance().getFromIdentityMap(100L + count - 1, Order.class);
+        assertNotNull(last);
+        assertEquals(new String(description) + (count - 1), last.description);
+        // The first order was evicted from the store.
+        assertEquals(OffHeapCacheStore.NO_STAMP, interceptor.getStore().getStamp(100L));
+    }
+
+    /**
+     * Test that an invalid size property is reported as a validation error,
+     * the identity map manager reports it as the cause of the invalid identity map.
+     */
+    @Test
+    public void testInvalidSize() {
+        try {
+            this.session = buildSession("64MB");
+            getInterceptor(Order.class);
+            fail("DescriptorException expected for invalid " + PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE);
+        } catch (DescriptorException expected) {
+            this.session = null;
+            assertEquals(DescriptorException.INVALID_IDENTITY_MAP, expected.getErrorCode());
+            Throwable cause = expected.getCause();
+            while ((cause != null) && !(cause instanceof ValidationException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull("ValidationException expected as cause", cause);
+            assertEquals(ValidationException.INVALID_VALUE_FOR_PROPERTY, ((ValidationException)cause).getErrorCode());
+        }
+    }
+}
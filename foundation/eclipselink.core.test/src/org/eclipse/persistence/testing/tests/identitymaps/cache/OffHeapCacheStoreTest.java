@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps.cache;
+
+import java.util.Arrays;
+
+import org.eclipse.persistence.internal.identitymaps.OffHeapCacheStore;
+import org.junit.Test;
+
+/**
+ * Test the store of the off-heap cache, entries are stored and taken back,
+ * and the oldest entries are evicted when the capacity is exceeded.
+ */
+public class OffHeapCacheStoreTest extends junit.framework.TestCase {
+
+    public OffHeapCacheStoreTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Return bytes of the length, filled with the value.
+     */
+    protected byte[] buildBytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte)value);
+        return bytes;
+    }
+
+    /**
+     * Test that stored bytes are taken back with their stamp, and only once.
+     */
+    @Test
+    public void testPutTake() {
+        OffHeapCacheStore store = new OffHeapCacheStore(4096, 2);
+        byte[] bytes = buildBytes(100, 7);
+        assertTrue(store.put(1L, bytes, 42L));
+        assertEquals(1, store.getSize());
+        assertEquals(42L, store.getStamp(1L));
+        assertEquals(OffHeapCacheStore.NO_STAMP, store.getStamp(2L));
+        assertTrue(Arrays.equals(bytes, store.take(1L)));
+        assertNull("An entry must only be taken once", store.take(1L));
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getMisses());
+        assertEquals(0, store.getSize());
+    }
+
+    /**
+     * Test that putting a key again replaces its entry.
+     */
+    @Test
+    public void testPutReplaces() {
+        OffHeapCacheStore store = new OffHeapCacheStore(4096, 1);
+        store.put(1L, buildBytes(100, 1), 1L);
+        store.put(1L, buildBytes(50, 2), 2L);
+        assertEquals(1, store.getSize());
+        assertEquals(2L, store.getStamp(1L));
+        assertTrue(Arrays.equals(buildBytes(50, 2), store.take(1L)));
+    }
+
+    /**
+     * Test that the oldest entries are evicted when the capacity is exceeded,
+     * the most recent entries are kept intact, and an entry larger than a segment is not stored.
+     */
+    @Test
+    public void testCapacityOverflow() {
+        OffHeapCacheStore store = new OffHeapCacheStore(1000, 1);
+        for (int index = 0; index < 95; index++) {
+            assertTrue(store.put(index, buildBytes(100, index), index));
+        }
+        assertEquals(10, store.getSize());
+        assertEquals(85, store.getEvictions());
+        for (int index = 0; index < 85; index++) {
+            assertEquals("Entry " + index + " should have been evicted", OffHeapCacheStore.NO_STAMP, store.getStamp(index));
+        }
+        for (int index = 85; index < 95; index++) {
+            assertTrue("Entry " + index + " was overwritten", Arrays.equals(buildBytes(100, index), store.take(index)));
+        }
+        assertFalse(store.put(100, buildBytes(1001, 0), 0L));
+        assertNull(store.take(100));
+    }
+
+    /**
+     * Test that entries of different sizes are evicted in write order when the segment wraps.
+     */
+    @Test
+    public void testWrapWithDifferentSizes() {
+        OffHeapCacheStore store = new OffHeapCacheStore(1000, 1);
+        store.put(1, buildBytes(400, 1), 1L);
+        store.put(2, buildBytes(400, 2), 2L);
+        // Does not fit at the end, so wraps and overwrites the first entry.
+        store.put(3, buildBytes(300, 3), 3L);
+        assertEquals(OffHeapCacheStore.NO_STAMP, store.getStamp(1));
+        assertTrue(Arrays.equals(buildBytes(400, 2), store.take(2)));
+        assertTrue(Arrays.equals(buildBytes(300, 3), store.take(3)));
+    }
+
+    /**
+     * Test that removed and cleared entries are no longer stored.
+     */
+    @Test
+    public void testRemoveClear() {
+        OffHeapCacheStore store = new OffHeapCacheStore(4096, 4);
+        for (int index = 0; index < 10; index++) {
+            store.put(index, buildBytes(10, index), index);
+        }
+        store.remove(3);
+        assertNull(store.take(3));
+        assertEquals(9, store.getSize());
+        store.clear();
+        assertEquals(0, store.getSize());
+        assertNull(store.take(5));
+        // The store can be used again after clear.
+        assertTrue(store.put(5, buildBytes(10, 5), 5L));
+        assertTrue(Arrays.equals(buildBytes(10, 5), store.take(5)));
+    }
+}
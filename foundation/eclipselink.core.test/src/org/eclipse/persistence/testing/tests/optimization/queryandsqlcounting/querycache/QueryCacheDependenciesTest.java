@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.optimization.queryandsqlcounting.querycache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.queries.QueryResultsCachePolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.QuerySQLTracker;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test the invalidation of the cached results of queries tracking their dependencies.
+ * A change only invalidates the results containing the changed object or matching its new values,
+ * the results of a query whose dependencies cannot be tracked are invalidated by any change of the class.
+ */
+public class QueryCacheDependenciesTest extends TestCase {
+    protected ReadAllQuery trackedQuery;
+    protected ReadAllQuery untrackedQuery;
+    protected Employee first;
+    protected Employee second;
+    protected Employee unrelated;
+
+    public QueryCacheDependenciesTest() {
+        setDescription("Test the invalidation of the cached results of queries tracking their dependencies.");
+    }
+
+    protected void setup() {
+        getAbstractSession().beginTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+
+        QueryResultsCachePolicy policy = new QueryResultsCachePolicy();
+        policy.setShouldTrackDependencies(true);
+        ExpressionBuilder builder = new ExpressionBuilder();
+        this.trackedQuery = new ReadAllQuery(Employee.class, builder.get("lastName").equal(builder.getParameter("lastName")));
+        this.trackedQuery.addArgument("lastName");
+        this.trackedQuery.setQueryResultsCachePolicy(policy);
+
+        // LIKE comparisons are not tracked.
+        builder = new ExpressionBuilder();
+        this.untrackedQuery = new ReadAllQuery(Employee.class, builder.get("lastName").like(builder.getParameter("lastName")));
+        this.untrackedQuery.addArgument("lastName");
+        this.untrackedQuery.setQueryResultsCachePolicy(policy.clone());
+
+        // Find three employees of different last names, the only employees of their names.
+        Map<String, List<Employee>> employeesByLastName = new HashMap<String, List<Employee>>();
+        for (Object object : getSession().readAllObjects(Employee.class)) {
+            Employee employee = (Employee)object;
+            List<Employee> employees = employeesByLastName.get(employee.getLastName());
+            if (employees == null) {
+                employees = new ArrayList<Employee>();
+                employeesByLastName.put(employee.getLastName(), employees);
+            }
+            employees.add(employee);
+        }
+        List<Employee> employees = new ArrayList<Employee>();
+        for (List<Employee> employeesOfLastName : employeesByLastName.values()) {
+            if (employeesOfLastName.size() == 1) {
+                employees.add(employeesOfLastName.get(0));
+            }
+        }
+        if (employees.size() < 3) {
+            throw new TestErrorException("Three employees of different last names are required.");
+        }
+        this.first = employees.get(0);
+        this.second = employees.get(1);
+        this.unrelated = employees.get(2);
+    }
+
+    /**
+     * Execute the query for the last name, and return if it was executed on the database.
+     */
+    protected boolean isExecuted(ReadAllQuery query, String lastName) {
+        QuerySQLTracker tracker = new QuerySQLTracker(getSession());
+        try {
+            Vector arguments = new Vector();
+            arguments.add(lastName);
+            getSession().executeQuery(query, arguments);
+            return !tracker.getSqlStatements().isEmpty();
+        } finally {
+            tracker.remove();
+        }
+    }
+
+    /**
+     * Cache the results of the queries for the last names of the first and second employees.
+     */
+    protected void cacheResults() {
+        isExecuted(this.trackedQuery, this.first.getLastName());
+        isExecuted(this.trackedQuery, this.second.getLastName());
+        isExecuted(this.untrackedQuery, this.first.getLastName());
+        if (isExecuted(this.trackedQuery, this.first.getLastName()) || isExecuted(this.trackedQuery, this.second.getLastName())
+                || isExecuted(this.untrackedQuery, this.first.getLastName())) {
+            throw new TestErrorException("The query results were not cached.");
+        }
+    }
+
+    /**
+     * Verify which of the cached results were invalidated by the change.
+     */
+    protected void verifyInvalidated(String change, boolean isFirstInvalidated, boolean isSecondInvalidated) {
+        if (isExecuted(this.trackedQuery, this.first.getLastName()) != isFirstInvalidated) {
+            throw new TestErrorException(change + ": the results of the first employee's last name were " + (isFirstInvalidated ? "not " : "") + "invalidated.");
+        }
+        if (isExecuted(this.trackedQuery, this.second.getLastName()) != isSecondInvalidated) {
+            throw new TestErrorException(change + ": the results of the second employee's last name were " + (isSecondInvalidated ? "not " : "") + "invalidated.");
+        }
+        if (!isExecuted(this.untrackedQuery, this.first.getLastName())) {
+            throw new TestErrorException(change + ": the results of the query not tracking its dependencies were not invalidated.");
+        }
+    }
+
+    public void test() {
+        // A change of an employee not in any results does not invalidate them.
+        cacheResults();
+        UnitOfWork unitOfWork = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)unitOfWork.registerObject(this.unrelated);
+        clone.setSalary(clone.getSalary() + 1);
+        unitOfWork.commit();
+        verifyInvalidated("Unrelated change", false, false);
+
+        // A change of an employee in the results invalidates them.
+        cacheResults();
+        unitOfWork = getSession().acquireUnitOfWork();
+        clone = (Employee)unitOfWork.registerObject(this.first);
+        clone.setSalary(clone.getSalary() + 1);
+        unitOfWork.commit();
+        verifyInvalidated("Change of a result", true, false);
+
+        // An employee changed to match the parameter values invalidates the results, the case is ignored.
+        cacheResults();
+        unitOfWork = getSession().acquireUnitOfWork();
+        clone = (Employee)unitOfWork.registerObject(this.unrelated);
+        clone.setLastName(this.second.getLastName().toUpperCase());
+        unitOfWork.commit();
+        verifyInvalidated("Change to a matching value", false, true);
+    }
+
+    public void reset() {
+        getAbstractSession().rollbackTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -31,6 +31,7 @@ public void addTests() {
         addTest(new QueryCacheParameterizedResultsTest());
         addTest(new QueryCacheMaxResultsTest());
         addTest(new QueryCacheChangedParameterTest());
+        addTest(new QueryCacheDependenciesTest());
         addTest(new ClearQueryResultsQueryCacheTest(ClearQueryResultsQueryCacheTest.CLEAR_WHOLE_CACHE));
         addTest(new ClearQueryResultsQueryCacheTest(ClearQueryResultsQueryCacheTest.CLEAR_CACHE_BY_QUERY));
         addTest(new ClearQueryResultsQueryCacheTest(ClearQueryResultsQueryCacheTest.CLEAR_CACHE_BY_NAME));
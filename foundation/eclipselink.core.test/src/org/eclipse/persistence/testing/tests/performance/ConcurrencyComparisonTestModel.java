@@ -51,6 +51,10 @@ public void addTests() {
         addTest(new AddPhoneIsolatedConcurrentTest());
         addTest(new UpdateAnyObjectCachedConcurrentTest());
         addTest(new UpdateAnyObjectIsolatedConcurrentTest());
+        addTest(new ConnectionPoolConcurrentTest(false));
+        addTest(new ConnectionPoolConcurrentTest(true));
+        addTest(new MergeContentionConcurrentTest(false));
+        addTest(new MergeContentionConcurrentTest(true));
     }
 
     public void setup() {
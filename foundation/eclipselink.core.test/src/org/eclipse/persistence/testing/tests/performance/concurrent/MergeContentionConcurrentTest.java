@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.concurrent;
+
+import java.util.*;
+import org.eclipse.persistence.exceptions.*;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.*;
+import org.eclipse.persistence.testing.models.performance.toplink.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the concurrency of merging the same objects, with monitor and queued cache key locks.
+ * All threads update and read a small set of employees, so they contend on the same cache keys.
+ * This test must be run on a multi-CPU machine to be meaningful.
+ */
+public class MergeContentionConcurrentTest extends ConcurrentPerformanceComparisonTest {
+    public static int HOT_OBJECTS = 4;
+    protected boolean useQueuedLocks;
+    protected int index;
+    protected List hotObjects;
+
+    public MergeContentionConcurrentTest(boolean useQueuedLocks) {
+        this.useQueuedLocks = useQueuedLocks;
+        if (useQueuedLocks) {
+            setName("MergeContentionQueuedLocksConcurrentTest");
+        } else {
+            setName("MergeContentionConcurrentTest");
+        }
+        setDescription("This tests the concurrency of merging the same objects.");
+    }
+
+    /**
+     * Set the lock type, and load the hot employees.
+     */
+    public void setup() {
+        super.setup();
+        AbstractSession server = (AbstractSession)getServerSession();
+        server.setShouldUseQueuedCacheLocks(this.useQueuedLocks);
+        // Existing cache keys keep their lock type.
+        server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        List allObjects = getServerSession().acquireClientSession().readAllObjects(Employee.class);
+        this.hotObjects = new ArrayList(allObjects.subList(0, Math.min(HOT_OBJECTS, allObjects.size())));
+        this.index = 0;
+    }
+
+    public synchronized int incrementIndex() {
+        this.index++;
+        if (this.index >= this.hotObjects.size()) {
+            this.index = 0;
+        }
+        return this.index;
+    }
+
+    /**
+     * Update a hot object, and read the others.
+     */
+    public void runTask() throws Exception {
+        int currentIndex = incrementIndex();
+        Employee employee = (Employee)this.hotObjects.get(currentIndex);
+        Session client = getServerSession().acquireClientSession();
+        UnitOfWork uow = client.acquireUnitOfWork();
+        employee = (Employee)uow.readObject(employee);
+        employee.setSalary(employee.getSalary() + 1);
+        try {
+            uow.commit();
+        } catch (OptimisticLockException exception) {
+            System.out.println(exception);
+        }
+        for (Iterator iterator = this.hotObjects.iterator(); iterator.hasNext(); ) {
+            client.readObject(iterator.next());
+        }
+        client.release();
+    }
+
+    public void reset() {
+        super.reset();
+        AbstractSession server = (AbstractSession)getServerSession();
+        server.setShouldUseQueuedCacheLocks(false);
+        server.getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.indirection.ValueHolderInterface;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.server.ClientSession;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.domain.Address;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.domain.PhoneNumber;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+
+/**
+ * Test that the objects built in parallel by a server session are the same as the objects built serially,
+ * in the order of the rows, with their joined attributes,
+ * and that the null rows of the joined collection are skipped.
+ * Also test that the objects are built serially by a DatabaseSession, which has a single connection,
+ * and by a client session in a transaction.
+ */
+public class ParallelBuildingTest extends TestCase {
+    /** Small chunks, so the employees of the model are built on several threads. */
+    protected static final int CHUNK_SIZE = 2;
+
+    protected Server serverSession;
+    protected List<String> serialResults;
+    protected List<String> parallelResults;
+    protected List<Employee> parallelEmployees;
+    protected Set<Thread> databaseSessionBuildThreads;
+    protected Set<Thread> transactionBuildThreads;
+
+    public ParallelBuildingTest() {
+        setDescription("Test that the objects built in parallel are the same as the objects built serially.");
+    }
+
+    protected void setup() {
+        this.serverSession = new Project(getSession().getDatasourceLogin().clone()).createServerSession(4, 4);
+        this.serverSession.addDescriptors(new EmployeeProject());
+        this.serverSession.setSessionLog(getSession().getSessionLog());
+        this.serverSession.login();
+        this.databaseSessionBuildThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        this.transactionBuildThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Return a listener adding the threads building the objects to the threads.
+     */
+    protected DescriptorEventAdapter buildListener(final Set<Thread> buildThreads) {
+        return new DescriptorEventAdapter() {
+            public void postBuild(DescriptorEvent event) {
+                buildThreads.add(Thread.currentThread());
+            }
+        };
+    }
+
+    /**
+     * Return a query of the employees ordered by id, joining the address and the phone numbers.
+     * The phone numbers are outer joined, so the rows of each employee after the first are null.
+     */
+    protected ReadAllQuery buildQuery(boolean shouldBuildObjectsInParallel) {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        ExpressionBuilder builder = query.getExpressionBuilder();
+        query.addJoinedAttribute(builder.getAllowingNull("address"));
+        query.addJoinedAttribute(builder.anyOfAllowingNone("phoneNumbers"));
+        query.addAscendingOrdering("id");
+        query.setShouldBuildObjectsInParallel(shouldBuildObjectsInParallel);
+        query.setParallelBuildingChunkSize(CHUNK_SIZE);
+        return query;
+    }
+
+    /**
+     * Execute the parallel query on the session, and add the threads building the employees to the threads.
+     */
+    protected void executeParallelQuery(Session session, Set<Thread> buildThreads) {
+        DescriptorEventAdapter listener = buildListener(buildThreads);
+        session.getDescriptor(Employee.class).getEventManager().addListener(listener);
+        try {
+            session.executeQuery(buildQuery(true));
+        } finally {
+            session.getDescriptor(Employee.class).getEventManager().removeListener(listener);
+        }
+    }
+
+    /**
+     * Return a description of each employee, with its joined attributes.
+     */
+    protected List<String> describe(List<Employee> employees) {
+        List<String> descriptions = new ArrayList<String>(employees.size());
+        for (Employee employee : employees) {
+            if (!((ValueHolderInterface)employee.address).isInstantiated() || !((ValueHolderInterface)employee.phoneNumbers).isInstantiated()) {
+                throw new TestErrorException("The joined attributes were not built for the employee: " + employee.getId());
+            }
+            StringBuilder description = new StringBuilder();
+            description.append(employee.getId()).append(' ').append(employee.getFirstName()).append(' ').append(employee.getLastName());
+            Address address = employee.getAddress();
+            if (address != null) {
+                description.append(' ').append(address.getId()).append(' ').append(address.getCity());
+            }
+            List<String> phones = new ArrayList<String>();
+            for (Object phone : employee.getPhoneNumbers()) {
+                phones.add(((PhoneNumber)phone).getType() + ":" + ((PhoneNumber)phone).getAreaCode() + ((PhoneNumber)phone).getNumber());
+            }
+            Collections.sort(phones);
+            description.append(' ').append(phones);
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    public void test() {
+        this.serialResults = describe((List<Employee>)this.serverSession.executeQuery(buildQuery(false)));
+        this.serverSession.getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.parallelEmployees = (List<Employee>)this.serverSession.executeQuery(buildQuery(true));
+        this.parallelResults = describe(this.parallelEmployees);
+        for (Employee employee : this.parallelEmployees) {
+            if (this.serverSession.getIdentityMapAccessor().getFromIdentityMap(employee) != employee) {
+                throw new TestErrorException("The employee built in parallel is not in the cache: " + employee.getId());
+            }
+        }
+
+        // A DatabaseSession has a single connection, so the objects are built by the calling thread.
+        executeParallelQuery(getSession(), this.databaseSessionBuildThreads);
+
+        // In a transaction the objects are built by the calling thread.
+        this.serverSession.getIdentityMapAccessor().initializeAllIdentityMaps();
+        ClientSession clientSession = (ClientSession)this.serverSession.acquireClientSession();
+        try {
+            clientSession.beginTransaction();
+            try {
+                executeParallelQuery(clientSession, this.transactionBuildThreads);
+            } finally {
+                clientSession.rollbackTransaction();
+            }
+        } finally {
+            clientSession.release();
+        }
+    }
+
+    /**
+     * Verify that the objects were built by the current thread only.
+     */
+    protected void verifyBuiltSerially(Set<Thread> buildThreads, String sessionDescription) {
+        if (buildThreads.isEmpty()) {
+            throw new TestErrorException("The employees were not built " + sessionDescription + ".");
+        }
+        if (!buildThreads.equals(Collections.singleton(Thread.currentThread()))) {
+            throw new TestErrorException("The employees were built in parallel " + sessionDescription + ": " + buildThreads);
+        }
+    }
+
+    protected void verify() {
+        if (this.serialResults.size() < (CHUNK_SIZE * 2)) {
+            throw new TestErrorException("Not enough employees to build them in parallel: " + this.serialResults.size());
+        }
+        if (!this.serialResults.equals(this.parallelResults)) {
+            throw new TestErrorException("The objects built in parallel differ from the objects built serially: "
+                    + this.parallelResults + " expected: " + this.serialResults);
+        }
+        // Each employee is returned once, the null rows of the joined phone numbers are skipped.
+        if (this.parallelEmployees.contains(null)) {
+            throw new TestErrorException("A null row was returned as an employee.");
+        }
+        for (Employee employee : this.parallelEmployees) {
+            if (this.parallelEmployees.indexOf(employee) != this.parallelEmployees.lastIndexOf(employee)) {
+                throw new TestErrorException("The employee was returned more than once: " + employee.getId());
+            }
+        }
+        verifyBuiltSerially(this.databaseSessionBuildThreads, "by the DatabaseSession");
+        verifyBuiltSerially(this.transactionBuildThreads, "in the transaction");
+    }
+
+    public void reset() {
+        if (this.serverSession != null) {
+            this.serverSession.logout();
+            this.serverSession = null;
+        }
+        this.databaseSessionBuildThreads = null;
+        this.transactionBuildThreads = null;
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -211,6 +211,7 @@ public void addSRGTests() {
         addTest(new GetValueFromObject());
         addTest(new CursoredStreamClientSessionTest());
         addTest(new CursoredStreamReadWriteClientSessionTest());
+        addTest(new ResultStreamTest());
 
         addTest(new QBEObjectWithAllFieldsFilled());
         addTest(new QBESpecialOperators());
@@ -297,6 +298,7 @@ public void addSRGTests() {
 
         // Created for Bug 4318924
         addTest(new TranslatedStringsTest());
+        addTest(new ParallelBuildingTest());
 
     }
 
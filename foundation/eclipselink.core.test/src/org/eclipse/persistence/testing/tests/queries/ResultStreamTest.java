@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.CursorPolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test the stream of a result stream cursor.
+ * The stream returns the objects of the query in order, and closes the cursor when fully read,
+ * when closed after an early termination, or when the cursor is closed first.
+ * The close handlers of the stream are run, and a stream that detaches its objects
+ * keeps the objects registered in the unit of work bounded.
+ */
+public class ResultStreamTest extends TestCase {
+
+    public ResultStreamTest() {
+        setDescription("Test the stream of a result stream cursor.");
+    }
+
+    public void setup() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Return a query of the employees ordered by id, as a result stream reading a row at a time.
+     */
+    protected ReadAllQuery buildQuery() {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        query.useResultStream(1);
+        return query;
+    }
+
+    public void test() {
+        ReadAllQuery listQuery = new ReadAllQuery(Employee.class);
+        listQuery.addAscendingOrdering("id");
+        List<Employee> employees = (List<Employee>)getSession().executeQuery(listQuery);
+        if (employees.size() < 4) {
+            throw new TestErrorException("Not enough employees to stream: " + employees.size());
+        }
+
+        // The stream returns all the objects in order, and closes the cursor once read.
+        Cursor cursor = (Cursor)getSession().executeQuery(buildQuery());
+        List<Object> streamed = cursor.stream().collect(Collectors.toList());
+        if (!streamed.equals(employees)) {
+            throw new TestErrorException("The stream did not return the employees in order: " + streamed);
+        }
+        if (!cursor.isClosed()) {
+            throw new TestErrorException("The cursor was not closed once the stream was read.");
+        }
+
+        // Early termination leaves the cursor open until the stream is closed, which runs the close handlers.
+        cursor = (Cursor)getSession().executeQuery(buildQuery());
+        final List<String> closed = new ArrayList<String>();
+        Stream<Object> stream = cursor.stream().onClose(new Runnable() {
+            public void run() {
+                closed.add("onClose");
+            }
+        });
+        try {
+            List<Object> first = stream.limit(2).collect(Collectors.toList());
+            if (!first.equals(employees.subList(0, 2))) {
+                throw new TestErrorException("The stream did not return the first employees: " + first);
+            }
+            if (cursor.isClosed()) {
+                throw new TestErrorException("The cursor was closed before the stream was read or closed.");
+            }
+        } finally {
+            stream.close();
+        }
+        if (!cursor.isClosed()) {
+            throw new TestErrorException("The cursor was not closed when the stream was closed.");
+        }
+        if (closed.size() != 1) {
+            throw new TestErrorException("The close handler of the stream was not run once: " + closed);
+        }
+
+        // Closing the cursor ends the stream.
+        cursor = (Cursor)getSession().executeQuery(buildQuery());
+        Iterator<Object> iterator = cursor.stream().iterator();
+        iterator.next();
+        cursor.close();
+        if (iterator.hasNext()) {
+            throw new TestErrorException("The stream returned objects after the cursor was closed.");
+        }
+
+        // The result stream query of a query is reused prepared, until the query is changed.
+        ReadAllQuery streamedQuery = new ReadAllQuery(Employee.class);
+        streamedQuery.addAscendingOrdering("id");
+        ReadAllQuery streamQuery = streamedQuery.getResultStreamQuery();
+        ((Cursor)getSession().executeQuery(streamQuery)).close();
+        if (!streamQuery.isPrepared() || (streamedQuery.getResultStreamQuery() != streamQuery)) {
+            throw new TestErrorException("The result stream query was not reused prepared.");
+        }
+        streamedQuery.setSelectionCriteria(streamedQuery.getExpressionBuilder().get("id").greaterThan(0));
+        if (streamedQuery.getResultStreamQuery() == streamQuery) {
+            throw new TestErrorException("The result stream query was reused after the query was changed.");
+        }
+
+        // The objects detached once consumed keep the unit of work bounded.
+        final UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)getSession().acquireUnitOfWork();
+        try {
+            ReadAllQuery detachQuery = buildQuery();
+            ((CursorPolicy)detachQuery.getContainerPolicy()).setShouldDetachObjects(true);
+            final int[] maxRegistered = new int[1];
+            final int[] count = new int[1];
+            ((Cursor)unitOfWork.executeQuery(detachQuery)).stream().forEach(new Consumer<Object>() {
+                public void accept(Object employee) {
+                    count[0]++;
+                    maxRegistered[0] = Math.max(maxRegistered[0], countRegisteredEmployees(unitOfWork));
+                }
+            });
+            if (count[0] != employees.size()) {
+                throw new TestErrorException("The stream in the unit of work did not return all the employees: " + count[0]);
+            }
+            if (maxRegistered[0] > 1) {
+                throw new TestErrorException("The consumed employees stayed registered in the unit of work: " + maxRegistered[0]);
+            }
+            if (countRegisteredEmployees(unitOfWork) != 0) {
+                throw new TestErrorException("The employees are still registered once the stream was read.");
+            }
+        } finally {
+            unitOfWork.release();
+        }
+    }
+
+    /**
+     * Return the number of employees registered in the unit of work.
+     */
+    protected int countRegisteredEmployees(UnitOfWork unitOfWork) {
+        int count = 0;
+        for (Object clone : ((UnitOfWorkImpl)unitOfWork).getCloneMapping().keySet()) {
+            if (clone instanceof Employee) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void reset() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
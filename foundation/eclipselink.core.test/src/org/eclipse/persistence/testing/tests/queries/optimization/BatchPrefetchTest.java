@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries.optimization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.framework.QuerySQLTracker;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.domain.Address;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.domain.PhoneNumber;
+import org.eclipse.persistence.testing.models.employee.domain.Project;
+
+/**
+ * Test that the IN batched relationships prefetched concurrently when the query completes
+ * are the same as the relationships batch fetched when accessed,
+ * and that accessing the prefetched relationships does not access the database.
+ * The query is executed on a server session, as prefetching uses a read connection for each batch query.
+ */
+public class BatchPrefetchTest extends TestCase {
+    protected Server serverSession;
+    protected List<String> lazyResults;
+    protected List<String> prefetchedResults;
+    protected List<String> accessStatements;
+
+    public BatchPrefetchTest() {
+        setDescription("Test that the prefetched batched relationships are the same as the relationships batch fetched when accessed.");
+    }
+
+    public void setup() {
+        this.serverSession = getSession().getProject().createServerSession();
+        this.serverSession.setSessionLog(getSession().getSessionLog());
+        this.serverSession.login();
+    }
+
+    /**
+     * Return a query of the employees with four IN batched relationships, in several batches each.
+     */
+    protected ReadAllQuery buildQuery(int parallelism) {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.setBatchFetchType(BatchFetchType.IN);
+        query.setBatchFetchSize(4);
+        query.addBatchReadAttribute("address");
+        query.addBatchReadAttribute("phoneNumbers");
+        query.addBatchReadAttribute("managedEmployees");
+        query.addBatchReadAttribute("projects");
+        query.addAscendingOrdering("id");
+        query.setBatchFetchParallelism(parallelism);
+        return query;
+    }
+
+    /**
+     * Return a description of each employee with its batched relationships.
+     */
+    protected List<String> describe(List<Employee> employees) {
+        List<String> descriptions = new ArrayList<String>(employees.size());
+        for (Employee employee : employees) {
+            StringBuilder description = new StringBuilder();
+            description.append(employee.getId()).append(' ').append(employee.getFirstName());
+            Address address = employee.getAddress();
+            if (address != null) {
+                description.append(' ').append(address.getId()).append(' ').append(address.getCity());
+            }
+            List<String> related = new ArrayList<String>();
+            for (Object phone : employee.getPhoneNumbers()) {
+                related.add(((PhoneNumber)phone).getType() + ":" + ((PhoneNumber)phone).getNumber());
+            }
+            for (Object managedEmployee : employee.getManagedEmployees()) {
+                related.add("managed:" + ((Employee)managedEmployee).getId());
+            }
+            for (Object project : employee.getProjects()) {
+                related.add("project:" + ((Project)project).getId() + ":" + ((Project)project).getName());
+            }
+            Collections.sort(related);
+            description.append(' ').append(related);
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    public void test() {
+        this.serverSession.getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.lazyResults = describe((List<Employee>)this.serverSession.executeQuery(buildQuery(0)));
+
+        this.serverSession.getIdentityMapAccessor().initializeAllIdentityMaps();
+        List<Employee> employees = (List<Employee>)this.serverSession.executeQuery(buildQuery(4));
+        QuerySQLTracker tracker = new QuerySQLTracker(this.serverSession);
+        try {
+            this.prefetchedResults = describe(employees);
+            this.accessStatements = new ArrayList<String>(tracker.getSqlStatements());
+        } finally {
+            tracker.remove();
+        }
+    }
+
+    public void verify() {
+        if (!this.lazyResults.equals(this.prefetchedResults)) {
+            throw new TestErrorException("The prefetched relationships differ from the relationships fetched when accessed: "
+                    + this.prefetchedResults + " expected: " + this.lazyResults);
+        }
+        if (!this.accessStatements.isEmpty()) {
+            throw new TestErrorException("The prefetched relationships were read when accessed: " + this.accessStatements);
+        }
+    }
+
+    public void reset() {
+        if (this.serverSession != null) {
+            this.serverSession.logout();
+            this.serverSession = null;
+        }
+    }
+}
@@ -464,6 +464,7 @@ public void addTests() {
         addPartialTests();
         addTest(new ReadAllBindAllParametersTest());
         addTest(buildBatch1mTest());
+        addTest(new BatchPrefetchTest());
     }
 
     public TestCase buildBatch1mTest() {
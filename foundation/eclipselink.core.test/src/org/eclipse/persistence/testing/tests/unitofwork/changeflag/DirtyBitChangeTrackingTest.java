@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.unitofwork.changeflag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.QuerySQLTracker;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test the SQL of the commits of employees tracked with DirtyBitChangeTrackingPolicy.
+ * Only the attributes whose value differs from their value before their first change are updated,
+ * and an employee whose attributes were all set back to their original values is not updated.
+ */
+public class DirtyBitChangeTrackingTest extends TestCase {
+    protected ObjectChangePolicy employeeChangePolicy;
+    protected Employee employee;
+    protected String firstName;
+    protected String lastName;
+    protected int salary;
+
+    public DirtyBitChangeTrackingTest() {
+        setDescription("Test the SQL of the commits of employees tracked with DirtyBitChangeTrackingPolicy.");
+    }
+
+    protected void setup() {
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        this.employeeChangePolicy = descriptor.getObjectChangePolicy();
+        descriptor.setObjectChangePolicy(new DirtyBitChangeTrackingPolicy());
+        getAbstractSession().beginTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.employee = (Employee)getSession().readObject(Employee.class);
+        this.firstName = this.employee.getFirstName();
+        this.lastName = this.employee.getLastName();
+        this.salary = this.employee.getSalary();
+    }
+
+    /**
+     * Commit the unit of work and return the update statements it executed.
+     */
+    protected List<String> commit(UnitOfWork unitOfWork) {
+        QuerySQLTracker tracker = new QuerySQLTracker(getSession());
+        try {
+            unitOfWork.commit();
+            List<String> updates = new ArrayList<String>();
+            for (String statement : tracker.getSqlStatements()) {
+                if (statement.toUpperCase().startsWith("UPDATE")) {
+                    updates.add(statement.toUpperCase());
+                }
+            }
+            return updates;
+        } finally {
+            tracker.remove();
+        }
+    }
+
+    public void test() {
+        // A cloned descriptor, such as an inheritance child, must not share the mapping indexes of the policy.
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        ClassDescriptor clonedDescriptor = (ClassDescriptor)descriptor.clone();
+        if (clonedDescriptor.getObjectChangePolicy() == descriptor.getObjectChangePolicy()) {
+            throw new TestErrorException("The cloned descriptor shares the DirtyBitChangeTrackingPolicy of its descriptor.");
+        }
+
+        // Update the first name, and set the last name and the salary back to their original values.
+        UnitOfWork unitOfWork = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)unitOfWork.registerObject(this.employee);
+        clone.setFirstName("Dirty");
+        clone.setFirstName("Bit");
+        clone.setLastName("Changed");
+        clone.setLastName(this.lastName);
+        clone.setSalary(this.salary + 1);
+        clone.setSalary(this.salary);
+        List<String> updates = commit(unitOfWork);
+        if (updates.size() != 1) {
+            throw new TestErrorException("The changed employee was not updated by one statement: " + updates);
+        }
+        String update = updates.get(0);
+        if (!update.contains("F_NAME") || update.contains("L_NAME") || update.contains("SALARY")) {
+            throw new TestErrorException("The update did not only set the changed first name: " + update);
+        }
+
+        // Attributes set back to their original values are not an update.
+        unitOfWork = getSession().acquireUnitOfWork();
+        clone = (Employee)unitOfWork.registerObject(this.employee);
+        clone.setFirstName("Dirty");
+        clone.setFirstName("Bit");
+        clone.setSalary(this.salary + 1);
+        clone.setSalary(this.salary);
+        updates = commit(unitOfWork);
+        if (!updates.isEmpty()) {
+            throw new TestErrorException("The employee set back to its original values was updated: " + updates);
+        }
+    }
+
+    protected void verify() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        Employee employee = (Employee)getSession().readObject(this.employee);
+        if (!"Bit".equals(employee.getFirstName()) || !this.lastName.equals(employee.getLastName()) || (employee.getSalary() != this.salary)) {
+            throw new TestErrorException("The employee was not committed with its last values: " + employee);
+        }
+    }
+
+    public void reset() {
+        getAbstractSession().rollbackTransaction();
+        getSession().getDescriptor(Employee.class).setObjectChangePolicy(this.employeeChangePolicy);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.employee = null;
+    }
+}
@@ -121,6 +121,7 @@ public TestSuite getUnitOfWorkTestSuite() {
         //suite.addTest(new ChangeEventTest());
         suite.addTest(new NestedUOWWithAttributeChangeTrackingTest(employee));
         suite.addTest(new WrongPropertyNameTest());
+        suite.addTest(new DirtyBitChangeTrackingTest());
 
         suite.addTest(new DeepMergeCloneSerializedTest());
         suite.addTest(new DeepMergeCloneSerializedObjectReferenceChangesTest());
@@ -79,5 +79,15 @@ public enum CacheType {
      * This cache type should not be used to disable caching, to properly disable
      * caching set the @Cache isolation attribute to ISOLATED.
      */
-    NONE
+    NONE,
+
+    /**
+     * Same as the CACHE identity map, maintains a fixed number of objects
+     * and removes them on a least-recently-used basis, but does not lock
+     * on cache hits. This scales better when many threads read the same class.
+     * WARNING: Furnishes caching and identity, but does not guarantee
+     * identity.  This cache type should normally only be used
+     * for objects that have no relationships to them.
+     */
+    CONCURRENT_LRU
 }
@@ -48,5 +48,13 @@ public enum ChangeTrackingType {
      * Will not set any change tracking policy, and the change tracking will be
      * determined at runtime.
      */
-    AUTO
+    AUTO,
+
+    /**
+     * A DIRTY_BIT change tracking type allows change tracking at the attribute
+     * level of an object, but only records which basic attributes were changed.
+     * Their changes are built from their current values in the commit process.
+     * Unchanged objects will be ignored.
+     */
+    DIRTY_BIT
 }
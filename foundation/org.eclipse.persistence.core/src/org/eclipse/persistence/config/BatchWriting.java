@@ -31,6 +31,10 @@
  * <li>JDBC - JDBC batch API's are used (dynamic, or parameterized).
  * <li>Bufferred - dynamic SQL is concatenated into a batch SQL string.
  * <li>Oracle-JDBC - Oracle JDBC batch API's are used (allows row count to be returned for optimistic locking).
+ * <li>Reordering - JDBC batch API's are used, and the parameterized statements of different classes are reordered
+ * within the commit order constraints to group identical statements into larger batches.
+ * <li>Multi-Row-Insert - JDBC batch API's are used, and batches of inserts are executed as INSERT statements
+ * of multiple VALUES rows, on platforms that support it (MySQL, PostgreSQL, H2, Derby).
  * <li>&lt;custom-class&gt; - A custom class that extends the BatchWritingMechanism class.
  * </ul>
  * @see BatchWritingMechanism
@@ -40,6 +44,8 @@ public class BatchWriting {
     public static final String  JDBC = "JDBC";
     public static final String  Buffered = "Buffered";
     public static final String  OracleJDBC = "Oracle-JDBC";
+    public static final String  Reordering = "Reordering";
+    public static final String  MultiRowInsert = "Multi-Row-Insert";
 
     public static final String DEFAULT = None;
 }
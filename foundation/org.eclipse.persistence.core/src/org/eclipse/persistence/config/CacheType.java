@@ -76,6 +76,14 @@ public class CacheType {
      */
     public static final String  Full = "Full";
 
+    /**
+     * A ConcurrentLRU cache holds a fixed size number of objects, and removes the least recently used objects.
+     * Cache hits do not lock the cache, so it scales when many threads read the same entity class.
+     * This does not guarantee object identity, and objects are only garbage collected once removed from the cache.
+     * <p>WARNING: This cache type should normally only be used for objects that have no relationships to them.
+     */
+    public static final String  ConcurrentLRU = "ConcurrentLRU";
+
     /**
      * NONE does not cache any objects.
      * It allows any un-referenced objects to be free to garbage collection.
@@ -253,6 +253,14 @@ public class EntityManagerProperties {
      */
     public static final String VALIDATE_EXISTENCE = PersistenceUnitProperties.VALIDATE_EXISTENCE;
 
+    /**
+     * Configures if queries and finds outside of a transaction should return the objects
+     * of the shared cache as read-only objects, instead of registering them in the persistence context.
+     * The returned objects must not be modified.
+     * "false" by default.
+     */
+    public static final String READ_MOSTLY = PersistenceUnitProperties.READ_MOSTLY;
+
     /**
      * Configures if updates should be ordered by primary key.
      * This can be used to avoid possible database deadlocks from concurrent threads
@@ -338,6 +346,7 @@ public class EntityManagerProperties {
             add(JDBC_PASSWORD);
             add(CONNECTION_POLICY);
             add(VALIDATE_EXISTENCE);
+            add(READ_MOSTLY);
             add(ORDER_UPDATES);
             add(PERSISTENCE_CONTEXT_COMMIT_ORDER);
             add(FLUSH_CLEAR_CACHE);
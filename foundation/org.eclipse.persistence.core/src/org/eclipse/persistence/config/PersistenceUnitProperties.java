@@ -286,6 +286,26 @@ public class PersistenceUnitProperties {
      */
     public static final String JPQL_VALIDATION = "eclipselink.jpql.validation";
 
+    /**
+     * The "<code>eclipselink.criteria-query-cache.size</code>" property
+     * specifies the number of prepared criteria queries held by the criteria query cache.
+     * <p>
+     * Criteria queries are cached by their structure, ignoring the values of their
+     * parameters and of the literals compared to attributes in their where clause.
+     * These literals are bound as parameters, so a criteria query that only differs
+     * from a cached query by its values reuses the cached query and its SQL,
+     * instead of being prepared again.
+     * Only criteria queries selecting entities with default properties are cached,
+     * queries selecting attributes, tuples or constructor results, or using non-fetch joins, are not cached.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - the criteria query cache is disabled
+     * <li>a string containing a greater integer value
+     * </ul>
+     */
+    public static final String CRITERIA_QUERY_CACHE_SIZE = "eclipselink.criteria-query-cache.size";
+
     /**
      * The "<code>wait</code>" property.<br>
      * This can be append to any connection pool property,
@@ -388,6 +408,53 @@ public class PersistenceUnitProperties {
      */
     public static final String CONNECTION_POOL_SHARED = "shared";
 
+    /**
+     * The "<code>concurrent</code>" property.<br>
+     * This can be append to any connection pool property,
+     * i.e. "<code>eclipselink.connection-pool.default.concurrent</code>".<br>
+     * Configures whether the connection pool should be a concurrent connection pool.
+     * A concurrent connection pool does not lock the pool to acquire or release a
+     * connection, and connects new connections outside of any lock, so a slow connect
+     * does not block other threads. Threads waiting for a connection are served in order,
+     * and fail once the "<code>wait</code>" timeout is exceeded.
+     * <p>
+     * This property is ignored in case external connection pools are used,
+     * or for a shared read connection pool.
+     * <p>
+     * <b>Allowed Values</b> (String)<b>:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - indicates the standard connection pool is used
+     * <li>"<code>true</code>" - indicates a concurrent connection pool is used
+     * </ul>
+     *
+     * @see #CONNECTION_POOL
+     * @see org.eclipse.persistence.sessions.server.ConcurrentConnectionPool
+     */
+    public static final String CONNECTION_POOL_CONCURRENT = "concurrent";
+
+    /**
+     * The "<code>maintain</code>" property.<br>
+     * This can be append to any connection pool property,
+     * i.e. "<code>eclipselink.connection-pool.default.maintain</code>".<br>
+     * Configures whether the connection pool should maintain its minimum number of connections.
+     * After start up, and when dead or invalid connections are removed from the pool,
+     * the missing connections are connected in a background thread using the server platform's
+     * thread pool, so clients acquiring a connection do not wait for connects.
+     * <p>
+     * This property is ignored in case external connection pools are used.
+     * <p>
+     * <b>Allowed Values</b> (String)<b>:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - connections are connected when acquired
+     * <li>"<code>true</code>" - the minimum number of connections is maintained in the background
+     * </ul>
+     *
+     * @see #CONNECTION_POOL
+     * @see #CONNECTION_POOL_MIN
+     * @see org.eclipse.persistence.sessions.server.ConnectionPool#setShouldMaintainMinimumConnections(boolean)
+     */
+    public static final String CONNECTION_POOL_MAINTAIN = "maintain";
+
     /**
      * The "<code>url</code>" property.<br>
      * This can be append to a connection pool property,
@@ -473,6 +540,8 @@ public class PersistenceUnitProperties {
      * <li> "<code>wait</code>" - amount of time to wait for a connection from the pool.
      * <li> "<code>url</code>" - JDBC URL for the connection.
      * <li> "<code>shared</code>" - only for the read connection pool, shares read connections across threads.
+     * <li> "<code>concurrent</code>" - use a concurrent connection pool that does not lock the pool.
+     * <li> "<code>maintain</code>" - maintain the minimum number of connections in the background.
      * <li> "<code>jtaDataSource</code>" - JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>nonJtaDataSource</code>" - non JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>user</code>" - user to use for the connection, if different than the default.
@@ -496,6 +565,7 @@ public class PersistenceUnitProperties {
      * @see #CONNECTION_POOL_JTA_DATA_SOURCE
      * @see #CONNECTION_POOL_NON_JTA_DATA_SOURCE
      * @see #CONNECTION_POOL_SHARED
+     * @see #CONNECTION_POOL_CONCURRENT
      * @see org.eclipse.persistence.sessions.server.ConnectionPool
      */
     public static final String CONNECTION_POOL = "eclipselink.connection-pool.";
@@ -514,6 +584,7 @@ public class PersistenceUnitProperties {
      * <li> "<code>wait</code>" - amount of time to wait for a connection from the pool.
      * <li> "<code>url</code>" - JDBC URL for the connection.
      * <li> "<code>shared</code>" - only for the read connection pool, shares read connections across threads.
+     * <li> "<code>concurrent</code>" - use a concurrent connection pool that does not lock the pool.
      * <li> "<code>jtaDataSource</code>" - JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>nonJtaDataSource</code>" - non JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>user</code>" - user to use for the connection, if different than the default.
@@ -1422,6 +1493,44 @@ public class PersistenceUnitProperties {
      */
     public static final String DATABASE_EVENT_LISTENER = "eclipselink.cache.database-event-listener";
 
+    /**
+     * The "<code>eclipselink.cache.queued-locks</code>" property configures the
+     * cache keys of the shared cache to use a queued lock instead of their monitor.
+     * <p>
+     * With the queued lock, threads waiting on a cache key are parked in a queue,
+     * and a release only wakes the threads that can acquire the lock.
+     * This can reduce contention when many threads merge the same objects concurrently.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT)
+     * <li>"<code>true</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.internal.sessions.AbstractSession#setShouldUseQueuedCacheLocks(boolean)
+     */
+    public static final String CACHE_QUEUED_LOCKS = "eclipselink.cache.queued-locks";
+
+    /**
+     * The "<code>eclipselink.cache.off-heap.size</code>" property configures the
+     * capacity in bytes of the off-heap store of the entities using the
+     * {@link org.eclipse.persistence.sessions.interceptors.OffHeapCacheInterceptor}.
+     * <p>
+     * The rows of the cached objects are serialized outside of the Java heap,
+     * and the objects are rebuilt from their row if no longer in the cache.
+     * When the store is full, the oldest rows are evicted.
+     * The property can also be set on a descriptor to configure the capacity of its store.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>the capacity in bytes, "<code>67108864</code>" (64MB) is the default
+     * <li>"<code>0</code>" - disables the store
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.interceptors.OffHeapCacheInterceptor
+     */
+    public static final String CACHE_OFF_HEAP_SIZE = "eclipselink.cache.off-heap.size";
+
     // Customizations properties
 
     // Logging properties
@@ -2259,6 +2368,38 @@ public class PersistenceUnitProperties {
      */
     public static final String SEQUENCING_SEQUENCE_DEFAULT = "eclipselink.sequencing.default-sequence-to-table";
 
+    /**
+     * The "<code>eclipselink.sequencing.block-preallocation</code>" property
+     * configures table and native sequences to keep their preallocated values as blocks of consecutive values
+     * handed out without locking, instead of a queue of values.
+     * The next block is allocated in the background once the current block reaches the
+     * {@link #SEQUENCING_PREFETCH_THRESHOLD}, so inserting threads do not wait on the database.
+     * Table sequences must use a sequence connection pool ({@link #JDBC_SEQUENCE_CONNECTION_POOL}) for the blocks to be used,
+     * otherwise a warning is logged and the preallocated values are kept in a queue.
+     * <p>
+     * <b>Allowed Values</b> (String)<b>:</b>
+     * <ul>
+     * <li>"<code>false</code>" - (DEFAULT) preallocated values are kept in a queue
+     * <li>"<code>true</code>" - preallocated values are kept as blocks
+     * </ul>
+     * @see org.eclipse.persistence.sequencing.Sequence#setShouldUseBlockPreallocation(boolean)
+     */
+    public static final String SEQUENCING_BLOCK_PREALLOCATION = "eclipselink.sequencing.block-preallocation";
+
+    /**
+     * The "<code>eclipselink.sequencing.prefetch-threshold</code>" property
+     * configures the fraction of a preallocated block that is used before the next block is allocated in the background,
+     * when {@link #SEQUENCING_BLOCK_PREALLOCATION} is used.
+     * <p>
+     * <b>Allowed Values</b> (String)<b>:</b>
+     * <ul>
+     * <li>"<code>0.5</code>" - (DEFAULT) the next block is allocated once half of the current block is used
+     * <li>a value greater than "<code>0</code>" and at most "<code>1</code>", "<code>1</code>" disables the background allocation
+     * </ul>
+     * @see org.eclipse.persistence.sequencing.Sequence#setPrefetchThreshold(float)
+     */
+    public static final String SEQUENCING_PREFETCH_THRESHOLD = "eclipselink.sequencing.prefetch-threshold";
+
     /**
      * The "<code>eclipselink.session.customizer</code>" property configures a
      * {@link SessionCustomizer} used to alter the runtime configuration through
@@ -2348,6 +2489,10 @@ public class PersistenceUnitProperties {
      * batch writing.
      * <li>"<code>Oracle-JDBC</code>" - use Oracle's native batch writing. This requires the
      * use of an Oracle JDBC driver.
+     * <li>"<code>Reordering</code>" - use JDBC batch writing, and reorder the parameterized
+     * statements of different classes within the commit order to send larger batches.
+     * <li>"<code>Multi-Row-Insert</code>" - use JDBC batch writing, and execute batches of inserts as
+     * INSERT statements of multiple VALUES rows, on platforms that support it.
      * <li>"<code>None</code>" (DEFAULT): do not use batch writing (turn it off).
      * <li>the fully qualified name for a class that extends {@link BatchWritingMechanism} abstract class
      * </ul>
@@ -2484,6 +2629,22 @@ public class PersistenceUnitProperties {
      */
     public static final String PROJECT_CACHE_FILE = "eclipselink.project-cache.java-serialization.file-location";
 
+    /**
+     * The "<code>eclipselink.project-cache.fingerprint</code>" property specifies the
+     * fingerprint of the persistence unit that a cached project is validated against.
+     * A cached project with a different fingerprint is ignored, the metadata is processed
+     * and the project is cached again.
+     * <p>
+     * By default the fingerprint is a hash of the EclipseLink version, of the persistence
+     * unit's properties, including the properties passed to createEntityManagerFactory,
+     * of its mapping files and of the size and time or CRC of the entries of its archives.
+     * An application build identifier can be specified instead to avoid listing the
+     * persistence unit's archives on startup.
+     *
+     * @see #PROJECT_CACHE
+     */
+    public static final String PROJECT_CACHE_FINGERPRINT = "eclipselink.project-cache.fingerprint";
+
     /**
      * The "<code>eclipselink.temporal.mutable</code>" property configures the
      * default for detecting changes to temporal field (Date, Calendar). Default
@@ -2691,6 +2852,45 @@ public class PersistenceUnitProperties {
      */
     public static final String NONE = "none";
 
+    /**
+     * The "<code>eclipselink.metadata-reading.parallelism</code>" property
+     * specifies the number of threads reading the metadata of the persistence
+     * unit classes during predeploy, including the deploying thread.
+     * <p>
+     * The class files of the persistence unit are read in parallel before the
+     * metadata is processed. The metadata is then processed by the deploying
+     * thread in the usual order, so the same project is built.
+     * The other threads are launched through the server platform.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>1</code>" (DEFAULT) - the classes are read by the deploying thread as they are processed
+     * <li>a string containing a greater integer value
+     * </ul>
+     */
+    public static final String METADATA_READING_PARALLELISM = "eclipselink.metadata-reading.parallelism";
+
+    /**
+     * The "<code>eclipselink.metadata-reading.index-location</code>" property
+     * specifies the directory of the index files of the classes found in the
+     * persistence unit jar files during predeploy.
+     * <p>
+     * When set, or when {@link #METADATA_READING_PARALLELISM} is greater than 1,
+     * the class files of the persistence unit archives are scanned for annotations
+     * before their metadata is read, and only the annotated classes are processed.
+     * The annotated classes of a jar file are stored in an index file of this
+     * directory named from the checksum of the jar file, so an unchanged jar file
+     * is not scanned again on the next deployment.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>the path of a directory writable by the application
+     * </ul>
+     *
+     * @see #METADATA_READING_PARALLELISM
+     */
+    public static final String METADATA_READING_INDEX_LOCATION = "eclipselink.metadata-reading.index-location";
+
     /**
      * The "<code>eclipselink.metadata-source</code>"property configures the type of
      * MetadataSource implementation to use to read Metadata
@@ -2929,6 +3129,28 @@ public class PersistenceUnitProperties {
      */
     public static final String VALIDATE_EXISTENCE = "eclipselink.validate-existence";
 
+    /**
+     * The "<code>eclipselink.read-mostly</code>" property configures if
+     * the entity manager's queries and finds outside of a transaction should
+     * return the objects of the shared cache, instead of registering them
+     * in the persistence context.
+     * <p>
+     * The queries are executed as read-only queries (see
+     * {@link org.eclipse.persistence.config.QueryHints#READ_ONLY}), no clones or
+     * backup clones are built and the cached objects are returned without
+     * locking their cache key if they are not being built or merged.
+     * The returned objects are shared and must not be modified.
+     * Queries with a lock mode, and queries and finds in a transaction,
+     * use the persistence context.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT)
+     * <li>"<code>true</code>"
+     * </ul>
+     */
+    public static final String READ_MOSTLY = "eclipselink.read-mostly";
+
     /**
      * The "<code>eclipselink.order-updates</code>" property configures if updates
      * should be ordered by primary key.
@@ -3508,6 +3730,46 @@ public class PersistenceUnitProperties {
      */
     public static final String COORDINATION_SERIALIZER = "eclipselink.cache.coordination.serializer";
 
+    /**
+     * The "<code>eclipselink.cache.coordination.batch.size</code>" property
+     * configures the maximum number of commits whose changes are sent in a single cache coordination message.
+     * <p>
+     * If set to more than 1, the changes are queued and sent asynchronously by a single thread,
+     * the changes of the commits queued within the batch delay are sent together,
+     * and repeated invalidations of the same object are only sent once.
+     * <p>
+     * By default batching is disabled.
+     *
+     * @see #COORDINATION_BATCH_DELAY
+     * @see #COORDINATION_QUEUE_SIZE
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setCommandBatchSize(int)
+     */
+    public static final String COORDINATION_BATCH_SIZE = "eclipselink.cache.coordination.batch.size";
+
+    /**
+     * The "<code>eclipselink.cache.coordination.batch.delay</code>" property
+     * configures the maximum time in milliseconds the changes of a commit wait
+     * for the changes of other commits to be sent with, if batching is enabled.
+     * <p>
+     * The default is 10 milliseconds.
+     *
+     * @see #COORDINATION_BATCH_SIZE
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setCommandBatchDelay(int)
+     */
+    public static final String COORDINATION_BATCH_DELAY = "eclipselink.cache.coordination.batch.delay";
+
+    /**
+     * The "<code>eclipselink.cache.coordination.queue.size</code>" property
+     * configures the maximum number of commits whose changes are queued to be sent, if batching is enabled.
+     * <p>
+     * If the queue is full, the committing threads wait for the queued changes to be sent.
+     * The default is 1000.
+     *
+     * @see #COORDINATION_BATCH_SIZE
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setCommandQueueSize(int)
+     */
+    public static final String COORDINATION_QUEUE_SIZE = "eclipselink.cache.coordination.queue.size";
+
     /**
      * The "<code>eclipselink.cache.coordination.channel</code>" property
      * configures cache coordination for a clustered environment.
@@ -3804,6 +4066,7 @@ public static String getOverriddenLogStringForProperty(String propertyName) {
             add(PERSISTENCE_CONTEXT_PERSIST_ON_COMMIT);
             add(PERSISTENCE_CONTEXT_COMMIT_WITHOUT_PERSIST_RULES);
             add(VALIDATE_EXISTENCE);
+            add(READ_MOSTLY);
             add(ORDER_UPDATES);
             add(FLUSH_CLEAR_CACHE);
         }
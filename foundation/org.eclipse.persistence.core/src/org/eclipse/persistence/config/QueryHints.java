@@ -159,6 +159,17 @@ public class QueryHints {
      */
     public static final String QUERY_RESULTS_CACHE_INVALIDATE = "eclipselink.query-results-cache.invalidate-on-change";
 
+    /**
+     * "eclipselink.query-results-cache.track-dependencies"
+     * <p>Configures if the query cache results should record the objects and parameter values they depend on,
+     * so a change only invalidates the results it affects, instead of all of the query's results.
+     * This is only supported for queries whose selection criteria compares attributes of the query class to parameters with AND,
+     * other queries are invalidated if any object of the query class is modified.
+     * Valid values are "true" and "false", false is the default.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setShouldTrackDependencies(boolean)
+     */
+    public static final String QUERY_RESULTS_CACHE_TRACK_DEPENDENCIES = "eclipselink.query-results-cache.track-dependencies";
+
     /**
      * "eclipselink.query-results-cache.type"
      * <p>Configures the cache type of the query's results cache.
@@ -299,6 +310,19 @@ public class QueryHints {
      */
     public static final String BATCH_SIZE = "eclipselink.batch.size";
 
+    /**
+     * "eclipselink.batch.parallelism"
+     * <p>Configures the number of batch queries executed concurrently for batch fetching using the IN batch type.
+     * If set, all of the batched relationships of the result are fetched when the query completes,
+     * on at most this number of threads, instead of when first accessed.
+     * Valid values are integer values {@literal >=} 0.
+     * The default is 0, the relationships are fetched when first accessed.
+     * @see #BATCH
+     * @see #BATCH_TYPE
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setBatchFetchParallelism(int)
+     */
+    public static final String BATCH_PARALLELISM = "eclipselink.batch.parallelism";
+
     /**
      * "eclipselink.join-fetch"
      * <p>Configures the query to optimize the retrieval of the related objects,
@@ -570,6 +594,21 @@ public class QueryHints {
      */
     public static final String CURSOR_SIZE = "eclipselink.cursor.size-sql";
 
+    /**
+     * "eclipselink.cursor.detach"
+     * <p>Configures if the objects read through the stream of the query's cursor are detached once consumed,
+     * so the memory of the persistence context stays flat when streaming large results.
+     * Only the objects of the result are detached, the related objects they reference remain managed.
+     * If the query does not use a cursor, it is configured to return a forward only ScrollableCursor,
+     * whose results can be read with getResultStream().
+     * Valid values are:  HintValues.TRUE, HintValues.FALSE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see org.eclipse.persistence.queries.CursorPolicy#setShouldDetachObjects(boolean)
+     * @see org.eclipse.persistence.queries.ReadAllQuery#useResultStream()
+     * @see org.eclipse.persistence.jpa.JpaQuery#getResultStream()
+     */
+    public static final String CURSOR_DETACH = "eclipselink.cursor.detach";
+
     /**
      * "eclipselink.cursor.scrollable"
      * <p>Configures the query to return a ScrollableCursor.
@@ -901,4 +940,25 @@ public class QueryHints {
      * @see org.eclipse.persistence.queries.ResultSetMappingQuery#shouldReturnNameValuePairs()
      */
     public static final String RETURN_NAME_VALUE_PAIRS = "eclipselink.query-return-name-value-pairs";
+
+    /**
+     * "eclipselink.parallel-building"
+     * <p>Configures if this read all query should build the objects of its result on concurrent threads.
+     * This can reduce the time to build large results read in the shared cache, such as read-only reports.
+     * Valid values are:  HintValues.TRUE, HintValues.FALSE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see org.eclipse.persistence.queries.ReadAllQuery#setShouldBuildObjectsInParallel(boolean)
+     */
+    public static final String PARALLEL_BUILDING = "eclipselink.parallel-building";
+
+    /**
+     * "eclipselink.parallel-building.chunk-size"
+     * <p>Configures the number of rows built by each thread when the objects of the result are built in parallel.
+     * Results with less than two chunks are built serially.
+     * Valid values are integer values {@literal >} 0.
+     * The default size is 250.
+     * @see #PARALLEL_BUILDING
+     * @see org.eclipse.persistence.queries.ReadAllQuery#setParallelBuildingChunkSize(int)
+     */
+    public static final String PARALLEL_BUILDING_CHUNK_SIZE = "eclipselink.parallel-building.chunk-size";
 }
@@ -1013,6 +1013,19 @@ public boolean isIndexableExpression(Expression expression, ClassDescriptor desc
         return false;
     }
 
+    /**
+     * PUBLIC:
+     * Set the class of identity map to be the concurrent LRU identity map.
+     * This map caches a fixed number of instances, removing the least recently used.
+     * Unlike the cache identity map, cache hits do not lock the map,
+     * so it scales to many threads reading the same class.
+     * Note: This map does not guarantee object identity.
+     * The default is the "SoftCacheWeakIdentityMap".
+     */
+    public void useConcurrentLRUIdentityMap() {
+        setIdentityMapClass(ClassConstants.ConcurrentLRUIdentityMap_Class);
+    }
+
     /**
      * PUBLIC:
      * Set the class of identity map to be the full identity map.
@@ -60,6 +60,7 @@
 import org.eclipse.persistence.descriptors.changetracking.AttributeChangeTrackingPolicy;
 import org.eclipse.persistence.descriptors.changetracking.ChangeTracker;
 import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy;
 import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
 import org.eclipse.persistence.descriptors.copying.CloneCopyPolicy;
 import org.eclipse.persistence.descriptors.copying.CopyPolicy;
@@ -82,6 +83,8 @@
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.PersistenceObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObjectAttributeAccessor;
 import org.eclipse.persistence.internal.descriptors.PersistenceObjectAttributeAccessor;
 import org.eclipse.persistence.internal.descriptors.PersistenceObjectInstantiationPolicy;
 import org.eclipse.persistence.internal.descriptors.SerializedObjectPolicyWrapper;
@@ -104,6 +107,7 @@
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.weaving.PersistenceWeavedChangeTracking;
+import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.mappings.AggregateCollectionMapping;
 import org.eclipse.persistence.mappings.AggregateMapping;
 import org.eclipse.persistence.mappings.AggregateObjectMapping;
@@ -1417,7 +1421,12 @@ public Object clone() {
             clonedDescriptor.setOptimisticLockingPolicy((OptimisticLockingPolicy)getOptimisticLockingPolicy().clone());
         }
         //bug 5171059 clone change tracking policies as well
-        clonedDescriptor.setObjectChangePolicy(this.getObjectChangePolicyInternal());
+        ObjectChangePolicy clonedChangePolicy = this.getObjectChangePolicyInternal();
+        if (clonedChangePolicy instanceof DirtyBitChangeTrackingPolicy) {
+            // The dirty bit policy indexes the mappings of its descriptor.
+            clonedChangePolicy = ((DirtyBitChangeTrackingPolicy)clonedChangePolicy).clone();
+        }
+        clonedDescriptor.setObjectChangePolicy(clonedChangePolicy);
 
         // Clone the tables
         Vector<DatabaseTable> tables = NonSynchronizedVector.newInstance(3);
@@ -4032,6 +4041,22 @@ public void preInitialize(AbstractSession session) throws DescriptorException {
         // PERF: Check if the class "itself" was weaved.
         // If weaved avoid reflection, use clone copy and empty new.
         if (Arrays.asList(getJavaClass().getInterfaces()).contains(PersistenceObject.class)) {
+            // PERF: If the attributes were also weaved to be accessed by index,
+            // avoid comparing the attribute name to each attribute of the class.
+            List<String> indexedAttributeNames = null;
+            if (Arrays.asList(getJavaClass().getInterfaces()).contains(PersistenceIndexedObject.class)) {
+                try {
+                    Method method = Helper.getDeclaredMethod(getJavaClass(), PersistenceIndexedObject.PERSISTENCE_GET_ATTRIBUTE_NAMES, new Class[0]);
+                    if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+                        indexedAttributeNames = Arrays.asList((String[])AccessController.doPrivileged(new PrivilegedMethodInvoker(method, null, new Object[0])));
+                    } else {
+                        indexedAttributeNames = Arrays.asList((String[])PrivilegedAccessHelper.invokeMethod(method, null, new Object[0]));
+                    }
+                } catch (Exception exception) {
+                    // The attributes are accessed by name.
+                    session.logThrowable(SessionLog.FINEST, SessionLog.WEAVER, exception);
+                }
+            }
             // Cloning is only auto set for field access, as method access
             // may not have simple fields, same with empty new and reflection get/set.
             boolean isMethodAccess = false;
@@ -4044,7 +4069,13 @@ public void preInitialize(AbstractSession session) throws DescriptorException {
                     }
                 } else if (!mapping.isWriteOnly()) {
                     // Avoid reflection.
-                    mapping.setAttributeAccessor(new PersistenceObjectAttributeAccessor(mapping.getAttributeName()));
+                    // An attribute hiding a superclass attribute of the same name is the last with the name.
+                    int index = (indexedAttributeNames == null) ? -1 : indexedAttributeNames.lastIndexOf(mapping.getAttributeName());
+                    if (index >= 0) {
+                        mapping.setAttributeAccessor(new PersistenceIndexedObjectAttributeAccessor(mapping.getAttributeName(), index));
+                    } else {
+                        mapping.setAttributeAccessor(new PersistenceObjectAttributeAccessor(mapping.getAttributeName()));
+                    }
                 }
             }
             if (!isMethodAccess) {
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.descriptors.changetracking;
+
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.descriptors.changetracking.DirtyBitChangeListener;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+/**
+ * PUBLIC:
+ * A DirtyBitChangeTrackingPolicy allows change tracking at the attribute level of an
+ * object by implementing ChangeTracker, as AttributeChangeTrackingPolicy, but only records which
+ * direct attributes were changed, as a bit for each mapping, when the attributes are set.
+ * The change records of the changed direct attributes are built from their current values when the
+ * UnitOfWork calculates its changes, so setting an attribute many times, or back to its original value,
+ * does not build change records.
+ * As with AttributeChangeTrackingPolicy no backup clones are built, and unchanged objects are ignored.
+ * The policy indexes the direct mappings of its descriptor when initialized, so a policy is not shared by descriptors,
+ * a cloned descriptor, such as an inheritance child or an aggregate, gets a clone of the policy.
+ * @see AttributeChangeTrackingPolicy
+ * @see ChangeTracker
+ */
+public class DirtyBitChangeTrackingPolicy extends AttributeChangeTrackingPolicy implements Cloneable {
+
+    /** The index of each direct mapping in the descriptor's mappings, by attribute name. */
+    protected Map<String, Integer> directMappingIndexes;
+
+    /**
+     * INTERNAL:
+     * Return the index of the direct mapping of the attribute in the descriptor's mappings,
+     * or null if the attribute is not mapped by a direct mapping.
+     */
+    public Integer getDirectMappingIndex(String attributeName) {
+        return this.directMappingIndexes.get(attributeName);
+    }
+
+    /**
+     * INTERNAL:
+     * Return a clone of the policy without the indexes of the direct mappings,
+     * the clone indexes the mappings of its own descriptor.
+     */
+    @Override
+    public DirtyBitChangeTrackingPolicy clone() {
+        try {
+            DirtyBitChangeTrackingPolicy clone = (DirtyBitChangeTrackingPolicy)super.clone();
+            clone.directMappingIndexes = null;
+            return clone;
+        } catch (CloneNotSupportedException ignore) {
+            throw new InternalError(ignore.getMessage());
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Create ObjectChangeSet, including the changes of the dirty direct attributes.
+     */
+    @Override
+    public ObjectChangeSet createObjectChangeSet(Object clone, Object backUp, UnitOfWorkChangeSet changeSet, boolean isNew, AbstractSession session, ClassDescriptor descriptor) {
+        ObjectChangeSet changes = super.createObjectChangeSet(clone, backUp, changeSet, isNew, session, descriptor);
+        if (!isNew) {
+            PropertyChangeListener listener = ((ChangeTracker)clone)._persistence_getPropertyChangeListener();
+            if (listener instanceof DirtyBitChangeListener) {
+                ((DirtyBitChangeListener)listener).buildDirtyChangeRecords(changes);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * INTERNAL:
+     * Index the direct mappings of the descriptor, so the listeners set their dirty bits
+     * without searching the mappings.
+     */
+    @Override
+    public void initialize(AbstractSession session, ClassDescriptor descriptor) {
+        super.initialize(session, descriptor);
+        initializeDirectMappingIndexes(descriptor);
+    }
+
+    /**
+     * INTERNAL:
+     * Index the direct mappings of the descriptor by attribute name.
+     */
+    protected void initializeDirectMappingIndexes(ClassDescriptor descriptor) {
+        List<DatabaseMapping> mappings = descriptor.getMappings();
+        Map<String, Integer> directMappingIndexes = new HashMap<String, Integer>(mappings.size());
+        for (int index = 0; index < mappings.size(); index++) {
+            DatabaseMapping mapping = mappings.get(index);
+            if (mapping.isAbstractDirectMapping()) {
+                directMappingIndexes.put(mapping.getAttributeName(), index);
+            }
+        }
+        this.directMappingIndexes = directMappingIndexes;
+    }
+
+    /**
+     * INTERNAL:
+     * Assign DirtyBitChangeListener to PropertyChangeListener
+     */
+    @Override
+    public PropertyChangeListener setChangeListener(Object clone, UnitOfWorkImpl uow, ClassDescriptor descriptor) {
+        if (this.directMappingIndexes == null) {
+            // The policy was set on an initialized descriptor.
+            initializeDirectMappingIndexes(descriptor);
+        }
+        DirtyBitChangeListener listener = new DirtyBitChangeListener(descriptor, uow, clone, this);
+        ((ChangeTracker)clone)._persistence_setPropertyChangeListener(listener);
+        return listener;
+    }
+}
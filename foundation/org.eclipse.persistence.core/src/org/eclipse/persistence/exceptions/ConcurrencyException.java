@@ -28,6 +28,7 @@ public class ConcurrencyException extends EclipseLinkException {
     public final static int MAX_TRIES_EXCEDED_FOR_LOCK_ON_MERGE = 2008;
     public final static int MAX_TRIES_EXCEDED_FOR_LOCK_ON_BUILD_OBJECT = 2009;
     public final static int ACTIVE_LOCK_ALREADY_TRANSITIONED = 2010;
+    public final static int WAIT_TIMEOUT_ON_CONNECTION_POOL = 2011;
 
     /**
      * INTERNAL:
@@ -125,4 +126,12 @@ public static ConcurrencyException sequencingMultithreadThruConnection(String ac
         concurrencyException.setErrorCode(SEQUENCING_MULTITHREAD_THRU_CONNECTION);
         return concurrencyException;
     }
+
+    public static ConcurrencyException waitTimeoutOnConnectionPool(String poolName, int waitTimeout) {
+        Object[] args = { poolName, waitTimeout };
+
+        ConcurrencyException concurrencyException = new ConcurrencyException(ExceptionMessageGenerator.buildMessage(ConcurrencyException.class, WAIT_TIMEOUT_ON_CONNECTION_POOL, args));
+        concurrencyException.setErrorCode(WAIT_TIMEOUT_ON_CONNECTION_POOL);
+        return concurrencyException;
+    }
 }
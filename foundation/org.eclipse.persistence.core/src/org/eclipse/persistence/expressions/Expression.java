@@ -3808,6 +3808,17 @@ public Expression or(Expression theExpression) {
         return anOperator.expressionFor(this, expressionToUse);
     }
 
+    /**
+     * INTERNAL:
+     * Return the expression with the constant values compared to fields replaced by parameters.
+     * The values are added to the list, and each parameter is named the prefix followed by the index of its value.
+     * This allows queries that only differ by their constant values to share the same prepared SQL.
+     * The expression is not changed, the nodes above a replaced constant are copied.
+     */
+    public Expression parameterizeConstants(String prefix, List<Object> values) {
+        return this;
+    }
+
     /**
      * INTERNAL:
      */
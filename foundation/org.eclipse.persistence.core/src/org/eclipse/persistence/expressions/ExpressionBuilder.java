@@ -59,6 +59,9 @@ public class ExpressionBuilder extends ObjectExpression {
 
     protected boolean wasAdditionJoinCriteriaUsed = false;
 
+    /** Allow the builder to equal the builders of the same class, as it is the only builder of its query. */
+    protected boolean isSingleQueryBuilder = false;
+
     /**
      * PUBLIC:
      * Create a new ExpressionBuilder.
@@ -88,8 +91,33 @@ public boolean equals(Object expression) {
         if (this == expression) {
             return true;
         }
+        if (!super.equals(expression)) {
+            return false;
+        }
+        ExpressionBuilder builder = (ExpressionBuilder)expression;
+        if (this.isSingleQueryBuilder && builder.isSingleQueryBuilder) {
+            return getQueryClass() == builder.getQueryClass();
+        }
         // Return false for parallel expressions, as equality is unknown.
-        return super.equals(expression) && ((getQueryClass() == null) && ((ExpressionBuilder)expression).getQueryClass() == null);
+        return (getQueryClass() == null) && (builder.getQueryClass() == null);
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the builder is known to be the only builder of its query.
+     * Such builders are equal if they have the same query class.
+     */
+    public boolean isSingleQueryBuilder() {
+        return isSingleQueryBuilder;
+    }
+
+    /**
+     * INTERNAL:
+     * Set if the builder is known to be the only builder of its query.
+     * This allows the queries of single root criteria to be equal, so their SQL can be cached.
+     */
+    public void setIsSingleQueryBuilder(boolean isSingleQueryBuilder) {
+        this.isSingleQueryBuilder = isSingleQueryBuilder;
     }
 
     /**
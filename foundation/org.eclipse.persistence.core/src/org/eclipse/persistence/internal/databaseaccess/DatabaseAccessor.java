@@ -44,8 +44,8 @@
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
@@ -54,6 +54,7 @@
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.helper.LOBValueWriter;
 import org.eclipse.persistence.internal.helper.NonSynchronizedVector;
@@ -745,7 +746,7 @@ public Object processResultSet(ResultSet resultSet, DatabaseCall call, Statement
                         // Bug 2804663 - LOBValueWriter is no longer a singleton
                         getLOBWriter().fetchLocatorAndWriteValue(call, resultSet);
                     } else {
-                        result = fetchRow(call.getFields(), call.getFieldsArray(), resultSet, metaData, session);
+                        result = fetchRow(call.getFields(), call.getFieldsArray(), call.getFieldsIndex(), resultSet, metaData, session);
                     }
                     if (resultSet.next()) {
                         // Raise more rows event, some apps may interpret as error or warning.
@@ -769,7 +770,7 @@ public Object processResultSet(ResultSet resultSet, DatabaseCall call, Statement
                         } else {
                             results = new Vector(16);
                             while (hasNext) {
-                                results.add(fetchRow(call.getFields(), call.getFieldsArray(), resultSet, metaData, session));
+                                results.add(fetchRow(call.getFields(), call.getFieldsArray(), call.getFieldsIndex(), resultSet, metaData, session));
                                 hasNext = resultSet.next();
                             }
                         }
@@ -825,7 +826,7 @@ public void run() {
                         // Initial next was already validated before this method is called.
                         boolean hasNext = true;
                         while (hasNext) {
-                            results.add(fetchRow(dbCall.getFields(), dbCall.getFieldsArray(), resultSet, metaData, session));
+                            results.add(fetchRow(dbCall.getFields(), dbCall.getFieldsArray(), dbCall.getFieldsIndex(), resultSet, metaData, session));
                             hasNext = resultSet.next();
                         }
                         resultSet.close();// This must be closed in case the statement is cached and not closed.
@@ -1068,6 +1069,16 @@ protected AbstractRecord fetchRow(Vector fields, ResultSet resultSet, ResultSetM
      * PERF: This method must be highly optimized.
      */
     public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session) throws DatabaseException {
+        return fetchRow(fields, fieldsArray, null, resultSet, metaData, session);
+    }
+
+    /**
+     * Return a new DatabaseRow.<p>
+     * Populate the row from the data in cursor.
+     * The fields index of the call is shared by the rows, to find fields that are not at their field index.
+     * PERF: This method must be highly optimized.
+     */
+    public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, DatabaseFieldIndex fieldsIndex, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session) throws DatabaseException {
         int size = fieldsArray.length;
         Object[] values = new Object[size];
         // PERF: Pass platform and optimize data flag.
@@ -1084,7 +1095,7 @@ public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, Resul
         }
 
         // Row creation is optimized through sharing the same fields for the entire result set.
-        return new ArrayRecord(fields, fieldsArray, values);
+        return new ArrayRecord(fields, fieldsArray, fieldsIndex, values);
     }
     public void populateRow(DatabaseField[] fieldsArray, Object[] values, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session, int startIndex, int endIndex) throws DatabaseException {
         // PERF: Pass platform and optimize data flag.
@@ -1419,14 +1430,26 @@ protected boolean hasStatementCache() {
 
     /**
      * The statement cache stores a fixed sized number of prepared statements.
+     * The cache is insertion ordered, as statements are removed while in use and put back on release,
+     * the first statement is the least recently used and is evicted first.
      */
     protected synchronized Map<String, Statement> getStatementCache() {
         if (statementCache == null) {
-            statementCache = new HashMap<String, Statement>(50);
+            statementCache = new LinkedHashMap<String, Statement>(64);
         }
         return statementCache;
     }
 
+    /**
+     * Record a hit or miss of the statement cache, in total and for the SQL string.
+     */
+    protected void incrementStatementCacheProfile(String operationName, String sql, AbstractSession session) {
+        if (session.isInProfile()) {
+            session.incrementProfile(operationName);
+            session.incrementProfile(operationName + ":" + sql);
+        }
+    }
+
     /**
      * Get a description of tables available in a catalog.
      *
@@ -1531,11 +1554,13 @@ public Statement prepareStatement(DatabaseCall call, AbstractSession session, bo
             // Check the cache by sql string, must synchronize check and removal.
             Map statementCache = getStatementCache();
             synchronized (statementCache) {
-                statement = (PreparedStatement)statementCache.get(call.getSQLString());
-                if (statement != null) {
-                    // Need to remove to allow concurrent statement execution.
-                    statementCache.remove(call.getSQLString());
-                }
+                // Need to remove to allow concurrent statement execution.
+                statement = (PreparedStatement)statementCache.remove(call.getSQLString());
+            }
+            if (statement == null) {
+                incrementStatementCacheProfile(SessionProfiler.StatementCacheMisses, call.getSQLString(), session);
+            } else {
+                incrementStatementCacheProfile(SessionProfiler.StatementCacheHits, call.getSQLString(), session);
             }
         }
 
@@ -1584,11 +1609,13 @@ public PreparedStatement prepareStatement(String sql, AbstractSession session, b
         if (getPlatform().shouldCacheAllStatements()) {
             Map statementCache = getStatementCache();
             synchronized (statementCache) {
-                statement = (PreparedStatement)statementCache.get(sql);
-                if (statement != null) {
-                    // Need to remove to allow concurrent statement execution.
-                    statementCache.remove(sql);
-                }
+                // Need to remove to allow concurrent statement execution.
+                statement = (PreparedStatement)statementCache.remove(sql);
+            }
+            if (statement == null) {
+                incrementStatementCacheProfile(SessionProfiler.StatementCacheMisses, sql, session);
+            } else {
+                incrementStatementCacheProfile(SessionProfiler.StatementCacheHits, sql, session);
             }
         }
 
@@ -1655,9 +1682,10 @@ public void releaseStatement(Statement statement, String sqlString, DatabaseCall
                     if (call != null) {
                         resetStatementFromCall(preparedStatement, call);
                     }
-                    if (statementCache.size() > getPlatform().getStatementCacheSize()) {
-                        // Currently one is removed at random...
+                    if (!statementCache.isEmpty() && (statementCache.size() >= getPlatform().getStatementCacheSize())) {
+                        // The cache is insertion ordered, so the first is the least recently released.
                         PreparedStatement removedStatement = (PreparedStatement)statementCache.remove(statementCache.keySet().iterator().next());
+                        session.incrementProfile(SessionProfiler.StatementCacheEvictions);
                         closeStatement(removedStatement, session, call);
                     } else {
                         decrementCallCount();
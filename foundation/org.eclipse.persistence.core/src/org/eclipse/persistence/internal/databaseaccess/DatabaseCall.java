@@ -47,6 +47,7 @@
 import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.internal.expressions.ParameterExpression;
 import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.queries.CallQueryMechanism;
 import org.eclipse.persistence.internal.queries.DatabaseQueryMechanism;
@@ -106,6 +107,9 @@ public abstract class DatabaseCall extends DatasourceCall {
     // PERF: fields array
     transient protected DatabaseField[] fieldsArray;
 
+    /** PERF: Index of the fields array, shared by the rows of the result sets. */
+    transient protected DatabaseFieldIndex fieldsIndex;
+
     // Field matching is required for custom SQL when the fields order is not known.
     protected boolean isFieldMatchingRequired;
 
@@ -389,6 +393,24 @@ public DatabaseField[] getFieldsArray() {
         return fieldsArray;
     }
 
+    /**
+     * INTERNAL:
+     * Return the index of the fields array, shared by the rows of the result sets,
+     * so the rows find fields that are not at their field index in constant time.
+     */
+    public DatabaseFieldIndex getFieldsIndex() {
+        DatabaseField[] fieldsArray = this.fieldsArray;
+        if (fieldsArray == null) {
+            return null;
+        }
+        DatabaseFieldIndex fieldsIndex = this.fieldsIndex;
+        if ((fieldsIndex == null) || !fieldsIndex.isIndexOf(fieldsArray)) {
+            fieldsIndex = new DatabaseFieldIndex(fieldsArray);
+            this.fieldsIndex = fieldsIndex;
+        }
+        return fieldsIndex;
+    }
+
     /**
      * INTERNAL:
      * Unfortunately can't avoid referencing query and descriptor:
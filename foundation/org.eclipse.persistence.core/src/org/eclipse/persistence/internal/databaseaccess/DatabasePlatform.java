@@ -198,6 +198,7 @@ public class DatabasePlatform extends DatasourcePlatform {
      */
     public static final int DEFAULT_MAX_BATCH_WRITING_SIZE = 32000;
     public static final int DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE = 100;
+    public static final int DEFAULT_MAX_MULTI_ROW_INSERT_PARAMETERS = 1000;
 
     /** Timeout used is isValid() check for dead connections. */
     public static final int IS_VALID_TIMEOUT = 0;
@@ -2335,6 +2336,26 @@ public boolean supportsDeleteOnCascade() {
         return supportsForeignKeyConstraints();
     }
 
+    /**
+     * INTERNAL:
+     * Indicates whether the platform supports inserting multiple rows in a single INSERT statement,
+     * INSERT INTO T (A, B) VALUES (?, ?), (?, ?).
+     * Used by the multi-row insert batch writing.
+     * @see MultiRowInsertBatchWritingMechanism
+     */
+    public boolean supportsMultiRowInsert() {
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum number of parameters to bind in a multi-row INSERT statement,
+     * the rows of a batch are split into statements of at most this number of parameters.
+     */
+    public int getMaxMultiRowInsertParameters() {
+        return DEFAULT_MAX_MULTI_ROW_INSERT_PARAMETERS;
+    }
+
     /**
      * Internal: This gets called on each batch statement execution
      * Needs to be implemented so that it returns the number of rows successfully modified
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.databaseaccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.exceptions.OptimisticLockException;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Parameterized batch writing mechanism that executes a batch of identical INSERT statements
+ * as INSERT statements of multiple VALUES rows, INSERT INTO T (A, B) VALUES (?, ?), (?, ?).
+ * <p>
+ * Many JDBC drivers execute a JDBC batch as one statement for each row,
+ * a multi-row INSERT is one statement for all the rows of the batch.
+ * The rows are split into statements of at most the platform's maximum multi-row insert parameters.
+ * <p>
+ * Batches of other statements, and all batches on platforms that do not support multi-row inserts,
+ * are executed as JDBC batches.
+ *
+ * @see DatabasePlatform#supportsMultiRowInsert()
+ * @see DatabasePlatform#getMaxMultiRowInsertParameters()
+ * @see org.eclipse.persistence.config.BatchWriting#MultiRowInsert
+ */
+public class MultiRowInsertBatchWritingMechanism extends ParameterizedSQLBatchWritingMechanism {
+
+    public MultiRowInsertBatchWritingMechanism() {
+        super();
+    }
+
+    public MultiRowInsertBatchWritingMechanism(DatabaseAccessor databaseAccessor) {
+        super(databaseAccessor);
+    }
+
+    /**
+     * INTERNAL:
+     * Sets the accessor that this mechanism will use, and the batch size of its platform.
+     */
+    @Override
+    public void setAccessor(DatabaseAccessor accessor, AbstractSession session) {
+        super.setAccessor(accessor, session);
+        this.parameters = new ArrayList();
+        if (this.maxBatchSize == 0) {
+            this.maxBatchSize = accessor.getLogin().getPlatform().getMaxBatchWritingSize();
+            if (this.maxBatchSize == 0) {
+                // the max size was not set on the platform - use default
+                this.maxBatchSize = DatabasePlatform.DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the batched statements as multi-row inserts if they are inserts, otherwise as a JDBC batch.
+     */
+    @Override
+    public void executeBatchedStatements(AbstractSession session) {
+        if ((this.parameters.size() > 1) && session.getPlatform().supportsMultiRowInsert()
+                && !this.previousCall.hasOptimisticLock() && (getValuesIndex(this.previousCall.getSQLString()) != -1)) {
+            // The current batch is cloned and cleared, so it is not visible to recursive calls.
+            MultiRowInsertBatchWritingMechanism currentBatch = (MultiRowInsertBatchWritingMechanism)clone();
+            clear();
+            currentBatch.executeMultiRowInserts(session);
+        } else {
+            super.executeBatchedStatements(session);
+        }
+    }
+
+    /**
+     * Return the index of the row of the VALUES clause of the INSERT statement,
+     * or -1 if the statement is not an INSERT of one VALUES row ending the statement.
+     * VALUES in quoted literals and identifiers, such as a column name or a string value, is ignored.
+     */
+    protected static int getValuesIndex(String sql) {
+        if (!sql.regionMatches(true, 0, "INSERT ", 0, 7) || !sql.endsWith(")")) {
+            return -1;
+        }
+        int valuesIndex = -1;
+        int depth = 0;
+        char quote = 0;
+        int length = sql.length();
+        for (int index = 0; index < length; index++) {
+            char character = sql.charAt(index);
+            if (quote != 0) {
+                // A doubled quote closes and reopens the literal.
+                if (character == quote) {
+                    quote = 0;
+                }
+            } else if ((character == '\'') || (character == '"') || (character == '`')) {
+                quote = character;
+            } else if (valuesIndex == -1) {
+                if (sql.regionMatches(true, index, " VALUES (", 0, 9)) {
+                    valuesIndex = index + 8;
+                    index = valuesIndex;
+                    depth = 1;
+                }
+            } else if (character == '(') {
+                depth++;
+            } else if (character == ')') {
+                depth--;
+                // Anything after the row, such as another clause, can not be repeated for each row.
+                if ((depth == 0) && (index != length - 1)) {
+                    return -1;
+                }
+            }
+        }
+        if ((depth != 0) || (quote != 0)) {
+            return -1;
+        }
+        return valuesIndex;
+    }
+
+    /**
+     * Execute the rows of the batch as multi-row inserts of at most the platform's maximum parameters.
+     */
+    protected void executeMultiRowInserts(AbstractSession session) {
+        try {
+            String sql = this.previousCall.getSQLString();
+            int valuesIndex = getValuesIndex(sql);
+            String insert = sql.substring(0, valuesIndex);
+            String row = sql.substring(valuesIndex);
+            int rowParameters = Math.max(1, this.parameters.get(0).size());
+            int maxRows = Math.max(1, Math.min(this.maxBatchSize, session.getPlatform().getMaxMultiRowInsertParameters() / rowParameters));
+            int size = this.parameters.size();
+            for (int start = 0; start < size; start = start + maxRows) {
+                int end = Math.min(start + maxRows, size);
+                StringBuilder writer = new StringBuilder(insert.length() + ((row.length() + 2) * (end - start)));
+                writer.append(insert);
+                List allParameters = new ArrayList(rowParameters * (end - start));
+                for (int index = start; index < end; index++) {
+                    if (index > start) {
+                        writer.append(", ");
+                    }
+                    writer.append(row);
+                    allParameters.addAll(this.parameters.get(index));
+                }
+                DatabaseCall call = (DatabaseCall)this.previousCall.clone();
+                call.setQueryString(writer.toString());
+                call.setParameters(allParameters);
+                this.databaseAccessor.basicExecuteCall(call, null, session, false);
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * A statement that is not parameterized is executed directly, this mechanism is kept for the next statements.
+     */
+    @Override
+    protected void switchMechanisms(AbstractSession session, DatabaseCall dbCall) {
+        int rowCount = (Integer)this.databaseAccessor.basicExecuteCall(dbCall, null, session, false);
+        if (dbCall.hasOptimisticLock() && (rowCount != 1)) {
+            throw OptimisticLockException.batchStatementExecutionFailure();
+        }
+    }
+}
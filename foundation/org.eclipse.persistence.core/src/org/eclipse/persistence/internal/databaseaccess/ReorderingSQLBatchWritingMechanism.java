@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.databaseaccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.OptimisticLockException;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Parameterized batch writing mechanism that reorders the statements of a flush
+ * to group identical statements into as few JDBC batches as possible.
+ * <p>
+ * The parameterized mechanism executes its batch whenever the SQL changes,
+ * so interleaved writes such as parent, child, parent, child are executed as batches of one.
+ * This mechanism keeps a batch for each SQL string until the batched statements are executed,
+ * and a statement is added to the pending batch of its SQL, even if other batches were started after it,
+ * if it can be moved before the statements of all the later batches.
+ * The batches are executed in the order they were started.
+ * <p>
+ * A statement can only be moved before the statements of another batch if both are object writes of classes
+ * that share no tables, and the commit order allows it: inserts and updates are moved before the writes of classes
+ * later in the commit order, and deletes before the deletes of classes earlier in the commit order.
+ * The rows of aggregate collections, which are written with their owner, can have the owner's later writes moved before them.
+ * Statements without a descriptor, such as many to many and direct collection rows, are never moved.
+ * <p>
+ * Statements that are not parameterized are executed directly, after the pending batches.
+ *
+ * @see org.eclipse.persistence.config.BatchWriting#Reordering
+ */
+public class ReorderingSQLBatchWritingMechanism extends BatchWritingMechanism {
+
+    /** The pending batches, in the order they were started. */
+    protected List<StatementBatch> batches;
+
+    /** The pending batch of each SQL string. */
+    protected Map<String, StatementBatch> batchesBySQL;
+
+    /** The commit order the index of each class was computed from. */
+    protected transient List<Class> commitOrder;
+    protected transient Map<Class, Integer> commitOrderIndexes;
+
+    /** Number of batches executed. */
+    protected long batchCount;
+
+    /** Number of statements executed in batches. */
+    protected long batchedStatementCount;
+
+    /** Number of statements added to a batch started before the last batch. */
+    protected long reorderedStatementCount;
+
+    /**
+     * INTERNAL:
+     * Batch of the statements of one SQL string.
+     * The descriptor and kind of write are those of the first statement, so the batch can be moved with it.
+     */
+    protected static class StatementBatch extends ParameterizedSQLBatchWritingMechanism {
+        protected ClassDescriptor descriptor;
+        protected boolean isDelete;
+        protected boolean isReorderable;
+        protected boolean ownsAggregateCollections;
+
+        protected StatementBatch(DatabaseAccessor databaseAccessor, int maxBatchSize) {
+            this.databaseAccessor = databaseAccessor;
+            this.parameters = new ArrayList();
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    public ReorderingSQLBatchWritingMechanism() {
+        super();
+    }
+
+    public ReorderingSQLBatchWritingMechanism(DatabaseAccessor databaseAccessor) {
+        this();
+        setAccessor(databaseAccessor, null);
+    }
+
+    /**
+     * INTERNAL:
+     * Sets the accessor that this mechanism will use, and the batch size of its platform.
+     */
+    @Override
+    public void setAccessor(DatabaseAccessor accessor, AbstractSession session) {
+        super.setAccessor(accessor, session);
+        this.batches = new ArrayList<StatementBatch>();
+        this.batchesBySQL = new HashMap<String, StatementBatch>();
+        if (this.maxBatchSize == 0) {
+            this.maxBatchSize = accessor.getLogin().getPlatform().getMaxBatchWritingSize();
+            if (this.maxBatchSize == 0) {
+                // the max size was not set on the platform - use default
+                this.maxBatchSize = DatabasePlatform.DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Add the statement to the pending batch of its SQL if it can be moved before the later batches,
+     * otherwise start a new batch for it.
+     */
+    @Override
+    public void appendCall(AbstractSession session, DatabaseCall dbCall) {
+        if (!dbCall.hasParameters()) {
+            executeBatchedStatements(session);
+            executeCall(session, dbCall);
+            return;
+        }
+        String sql = dbCall.getSQLString();
+        StatementBatch batch = this.batchesBySQL.get(sql);
+        if ((batch != null) && (batch.getParameters().size() >= this.maxBatchSize)) {
+            batch = null;
+        }
+        if ((batch != null) && (batch != this.batches.get(this.batches.size() - 1))) {
+            if (canMoveToBatch(session, dbCall, batch)) {
+                this.reorderedStatementCount++;
+                session.incrementProfile(SessionProfiler.ReorderedStatements);
+            } else {
+                batch = null;
+            }
+        }
+        if (batch == null) {
+            batch = new StatementBatch(this.databaseAccessor, this.maxBatchSize);
+            batch.setPreviousCall(dbCall);
+            DatabaseQuery query = dbCall.getQuery();
+            if ((query != null) && (query.getDescriptor() != null)
+                    && (query.isInsertObjectQuery() || query.isUpdateObjectQuery() || query.isDeleteObjectQuery())) {
+                batch.descriptor = query.getDescriptor();
+                batch.isDelete = query.isDeleteObjectQuery();
+                batch.isReorderable = true;
+                for (DatabaseMapping mapping : batch.descriptor.getMappings()) {
+                    if (mapping.isAggregateCollectionMapping()) {
+                        batch.ownsAggregateCollections = true;
+                    }
+                }
+            }
+            this.batches.add(batch);
+            this.batchesBySQL.put(sql, batch);
+        } else if (batch.isReorderable && (dbCall.getQuery().getDescriptor() != batch.descriptor)) {
+            // The same SQL written for another class, such as the root table of a subclass, may have another commit order.
+            batch.isReorderable = false;
+        }
+        batch.getParameters().add(dbCall.getParameters());
+        batch.cacheQueryTimeout(session, dbCall);
+        batch.setLastCallAppended(dbCall);
+        // feature for bug 4104613, allows users to force statements to flush on execution
+        if (((ModifyQuery)dbCall.getQuery()).forceBatchStatementExecution()) {
+            executeBatchedStatements(session);
+        }
+    }
+
+    /**
+     * Return if the statement can be added to the batch, before the statements of all the batches started after it.
+     */
+    protected boolean canMoveToBatch(AbstractSession session, DatabaseCall dbCall, StatementBatch batch) {
+        if (!batch.isReorderable || (dbCall.getQuery().getDescriptor() != batch.descriptor)) {
+            return false;
+        }
+        for (int position = this.batches.size() - 1; position >= 0; position--) {
+            StatementBatch later = this.batches.get(position);
+            if (later == batch) {
+                return true;
+            }
+            if (!canMoveBefore(session, batch, later)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return if the statements of the batch can be executed before the statements of the later batch.
+     * The rows of an aggregate collection are written after their owner, so are after all classes in the commit order,
+     * and are only moved before the rows of aggregate collections that do not own aggregate collections.
+     */
+    protected boolean canMoveBefore(AbstractSession session, StatementBatch batch, StatementBatch later) {
+        if (!later.isReorderable || (later.isDelete != batch.isDelete)
+                || !Collections.disjoint(batch.descriptor.getTables(), later.descriptor.getTables())) {
+            return false;
+        }
+        if (later.descriptor.isAggregateCollectionDescriptor()) {
+            return !batch.descriptor.isAggregateCollectionDescriptor() || !later.ownsAggregateCollections;
+        } else if (batch.descriptor.isAggregateCollectionDescriptor()) {
+            return false;
+        }
+        Integer index = getCommitOrderIndex(session, batch.descriptor);
+        Integer laterIndex = getCommitOrderIndex(session, later.descriptor);
+        if ((index == null) || (laterIndex == null)) {
+            return false;
+        }
+        // Deletes are executed in the reverse of the commit order.
+        if (batch.isDelete) {
+            return index.intValue() > laterIndex.intValue();
+        }
+        return index.intValue() < laterIndex.intValue();
+    }
+
+    /**
+     * Return the index of the descriptor's class in the commit order, or null if it is not in the commit order.
+     */
+    protected Integer getCommitOrderIndex(AbstractSession session, ClassDescriptor descriptor) {
+        List<Class> commitOrder = session.getCommitManager().getCommitOrder();
+        if (commitOrder != this.commitOrder) {
+            Map<Class, Integer> indexes = new IdentityHashMap<Class, Integer>(commitOrder.size());
+            for (int index = 0; index < commitOrder.size(); index++) {
+                indexes.put(commitOrder.get(index), index);
+            }
+            this.commitOrderIndexes = indexes;
+            this.commitOrder = commitOrder;
+        }
+        return this.commitOrderIndexes.get(descriptor.getJavaClass());
+    }
+
+    /**
+     * Execute the statement that could not be batched.
+     */
+    protected void executeCall(AbstractSession session, DatabaseCall dbCall) {
+        int rowCount = (Integer)this.databaseAccessor.basicExecuteCall(dbCall, null, session, false);
+        if (dbCall.hasOptimisticLock() && (rowCount != 1)) {
+            throw OptimisticLockException.batchStatementExecutionFailure();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * This method is used to clear the batched statements without the need to execute the statements first
+     * This is used in the case of rollback.
+     */
+    @Override
+    public void clear() {
+        // A clone may be holding a reference to the batches, so new references are used.
+        this.batches = new ArrayList<StatementBatch>();
+        this.batchesBySQL = new HashMap<String, StatementBatch>();
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the pending batches in the order they were started.
+     */
+    @Override
+    public void executeBatchedStatements(AbstractSession session) {
+        if (this.batches.isEmpty()) {
+            return;
+        }
+        // The batches are cleared first, so they are not visible to recursive calls.
+        List<StatementBatch> batches = this.batches;
+        clear();
+        for (StatementBatch batch : batches) {
+            int size = batch.getParameters().size();
+            if (size > 1) {
+                this.batchCount++;
+                this.batchedStatementCount += size;
+                if (session.isInProfile()) {
+                    session.incrementProfile(SessionProfiler.BatchesSent);
+                    session.incrementProfile(SessionProfiler.BatchedStatements, size);
+                }
+            }
+            batch.executeBatchedStatements(session);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The mechanism will be cloned to be set into each accessor, the clone has no pending batches or statistics.
+     */
+    @Override
+    public ReorderingSQLBatchWritingMechanism clone() {
+        ReorderingSQLBatchWritingMechanism clone = (ReorderingSQLBatchWritingMechanism)super.clone();
+        clone.clear();
+        clone.commitOrder = null;
+        clone.commitOrderIndexes = null;
+        clone.batchCount = 0;
+        clone.batchedStatementCount = 0;
+        clone.reorderedStatementCount = 0;
+        return clone;
+    }
+
+    /**
+     * Return the number of batches executed by this mechanism.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Return the number of statements executed in batches by this mechanism.
+     */
+    public long getBatchedStatementCount() {
+        return batchedStatementCount;
+    }
+
+    /**
+     * Return the number of statements added to a batch other than the last one.
+     */
+    public long getReorderedStatementCount() {
+        return reorderedStatementCount;
+    }
+
+    /**
+     * Return the average number of statements of the batches executed.
+     */
+    public double getAverageBatchSize() {
+        if (this.batchCount == 0) {
+            return 0;
+        }
+        return (double)this.batchedStatementCount / this.batchCount;
+    }
+
+    /**
+     * Return the number of executions saved by batching, the statements executed in batches less the batches.
+     */
+    public long getSavedExecutionCount() {
+        return this.batchedStatementCount - this.batchCount;
+    }
+}
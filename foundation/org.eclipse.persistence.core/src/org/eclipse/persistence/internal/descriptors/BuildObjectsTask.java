@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.persistence.descriptors.InheritancePolicy;
+import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.ReadAllQuery;
+
+/**
+ * INTERNAL:
+ * Fork-join task building the objects of a range of the rows of a ReadAllQuery.
+ * The range is split in halves until it is at most the chunk size, each chunk is built by one thread.
+ * The objects are stored at the index of their row, so the order of the result is kept.
+ * <p>
+ * The nested join queries are stored on the join manager and reset for each row,
+ * so each chunk builds with its own clone of the join manager.
+ * The data results of to-many joins are only read, and are shared.
+ *
+ * @see ObjectBuilder#buildObjectsInto(ReadAllQuery, List, Object)
+ */
+class BuildObjectsTask extends RecursiveAction {
+
+    protected final ObjectBuilder objectBuilder;
+    protected final ReadAllQuery query;
+    protected final List databaseRows;
+    protected final Object[] domainObjects;
+    protected final JoinedAttributeManager joinManager;
+    protected final AbstractSession session;
+    protected final InheritancePolicy inheritancePolicy;
+    protected final int chunkSize;
+    protected final int start;
+    protected final int end;
+
+    BuildObjectsTask(ObjectBuilder objectBuilder, ReadAllQuery query, List databaseRows, Object[] domainObjects,
+            JoinedAttributeManager joinManager, AbstractSession session, InheritancePolicy inheritancePolicy, int chunkSize, int start, int end) {
+        this.objectBuilder = objectBuilder;
+        this.query = query;
+        this.databaseRows = databaseRows;
+        this.domainObjects = domainObjects;
+        this.joinManager = joinManager;
+        this.session = session;
+        this.inheritancePolicy = inheritancePolicy;
+        this.chunkSize = chunkSize;
+        this.start = start;
+        this.end = end;
+    }
+
+    protected BuildObjectsTask subtask(int start, int end) {
+        return new BuildObjectsTask(this.objectBuilder, this.query, this.databaseRows, this.domainObjects,
+                this.joinManager, this.session, this.inheritancePolicy, this.chunkSize, start, end);
+    }
+
+    @Override
+    protected void compute() {
+        if ((this.end - this.start) <= this.chunkSize) {
+            build();
+        } else {
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(subtask(this.start, middle), subtask(middle, this.end));
+        }
+    }
+
+    /**
+     * Build the objects of the rows of the chunk.
+     * The query results are cached, and the objects are wrapped, by the calling thread in the order of the rows.
+     */
+    protected void build() {
+        JoinedAttributeManager joinManager = this.joinManager;
+        if (joinManager != null) {
+            joinManager = joinManager.clone();
+            joinManager.setJoinedMappingQueryClones(null);
+        }
+        for (int index = this.start; index < this.end; index++) {
+            AbstractRecord databaseRow = (AbstractRecord)this.databaseRows.get(index);
+            // PERF: 1-m joining nulls out duplicate rows.
+            if (databaseRow != null) {
+                this.domainObjects[index] = this.objectBuilder.buildObject(this.query, databaseRow, joinManager, this.session,
+                        this.objectBuilder.getDescriptor(), this.inheritancePolicy, false, false, false);
+            }
+        }
+    }
+}
@@ -946,6 +946,17 @@ protected Object buildObject(boolean returnCacheKey, ObjectBuildingQuery query,
         if (isProtected && session.isIsolatedClientSession()){
             return buildProtectedObject(returnCacheKey, query, databaseRow, session, primaryKey, preFetchedCacheKey, concreteDescriptor, joinManager);
         }
+        // PERF: A read-only query can return the cached object without locking its cache key.
+        if ((preFetchedCacheKey == null) && query.isObjectLevelReadQuery() && ((ObjectLevelReadQuery)query).isReadOnly()) {
+            CacheKey unlockedCacheKey = getUnlockedCacheKey((ObjectLevelReadQuery)query, session, primaryKey, concreteDescriptor, joinManager);
+            if (unlockedCacheKey != null) {
+                if (returnCacheKey) {
+                    return unlockedCacheKey;
+                } else {
+                    return unlockedCacheKey.getObject();
+                }
+            }
+        }
         Object domainObject = null;
 
         // Cache key is used for object locking.
@@ -1100,6 +1111,39 @@ else if (joinManager != null && joinManager.hasJoinedAttributeExpressions()) { /
         }
     }
 
+    /**
+     * Return the cache key of the cached object of the read-only query, if the object can be returned
+     * without locking the cache key, otherwise null.
+     * The cache key must not be locked, so the object is not being built, refreshed or merged,
+     * and the query must not require the cached object to be refreshed or its attributes to be loaded.
+     */
+    protected CacheKey getUnlockedCacheKey(ObjectLevelReadQuery query, AbstractSession session, Object primaryKey, ClassDescriptor concreteDescriptor, JoinedAttributeManager joinManager) {
+        if (!query.shouldMaintainCache() || query.shouldRetrieveBypassCache() || query.shouldRefreshIdentityMapResult()
+                || concreteDescriptor.shouldAlwaysRefreshCache() || (query.getLoadGroup() != null)
+                || ((joinManager != null) && joinManager.hasJoinedAttributeExpressions())
+                || (query.isReadAllQuery() && ((ReadAllQuery)query).hasBatchReadAttributes())
+                || (query.isReadObjectQuery() && ((ReadObjectQuery)query).shouldLoadResultIntoSelectionObject())) {
+            return null;
+        }
+        CacheKey cacheKey = session.getIdentityMapAccessorInstance().getCacheKeyForObject(primaryKey, concreteDescriptor.getJavaClass(), concreteDescriptor, false);
+        if ((cacheKey == null) || (cacheKey.getActiveThread() != null) || cacheKey.isAcquired()) {
+            return null;
+        }
+        Object domainObject = cacheKey.getObject();
+        if ((domainObject == null) || concreteDescriptor.getCacheInvalidationPolicy().isInvalidated(cacheKey, query.getExecutionTime())) {
+            return null;
+        }
+        if (concreteDescriptor.hasFetchGroupManager()) {
+            FetchGroupManager fetchGroupManager = concreteDescriptor.getFetchGroupManager();
+            if (fetchGroupManager.isPartialObject(domainObject)
+                    && !fetchGroupManager.isObjectValidForFetchGroup(domainObject, fetchGroupManager.getEntityFetchGroup(query.getExecutionFetchGroup(concreteDescriptor)))) {
+                return null;
+            }
+        }
+        cacheKey.updateAccess();
+        return cacheKey;
+    }
+
     /**
      * Return an instance of the receivers javaClass. Set the attributes of an instance
      * from the values stored in the database row.
@@ -1320,6 +1364,11 @@ public Object buildObjectsInto(ReadAllQuery query, List databaseRows, Object dom
                     }
                     query.setPrefetchedCacheKeys(session.getIdentityMapAccessorInstance().getAllCacheKeysFromIdentityMapWithEntityPK(pkList, descriptor));
                 }
+                // PERF: Large results may be built on concurrent threads, the objects are then added in the order of the rows.
+                Object[] builtObjects = null;
+                if (shouldBuildObjectsInParallel(query, session, size)) {
+                    builtObjects = buildObjectsInParallel(query, databaseRows, joinManager, session, inheritancePolicy, shouldCacheQueryResults, shouldUseWrapperPolicy);
+                }
                 ContainerPolicy policy = query.getContainerPolicy();
                 if (policy.shouldAddAll()) {
                     List domainObjectsIn = new ArrayList(size);
@@ -1328,8 +1377,12 @@ public Object buildObjectsInto(ReadAllQuery query, List databaseRows, Object dom
                         AbstractRecord databaseRow = (AbstractRecord)databaseRows.get(index);
                         // PERF: 1-m joining nulls out duplicate rows.
                         if (databaseRow != null) {
-                            domainObjectsIn.add(buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
-                                    isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy));
+                            if (builtObjects == null) {
+                                domainObjectsIn.add(buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
+                                        isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy));
+                            } else {
+                                domainObjectsIn.add(builtObjects[index]);
+                            }
                             databaseRowsIn.add(databaseRow);
                         }
                     }
@@ -1340,8 +1393,13 @@ public Object buildObjectsInto(ReadAllQuery query, List databaseRows, Object dom
                         AbstractRecord databaseRow = (AbstractRecord)databaseRows.get(index);
                         // PERF: 1-m joining nulls out duplicate rows.
                         if (databaseRow != null) {
-                            Object domainObject = buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
-                                    isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy);
+                            Object domainObject = null;
+                            if (builtObjects == null) {
+                                domainObject = buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
+                                        isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy);
+                            } else {
+                                domainObject = builtObjects[index];
+                            }
                             if (quickAdd) {
                                 ((Collection)domainObjects).add(domainObject);
                             } else {
@@ -1358,6 +1416,73 @@ public Object buildObjectsInto(ReadAllQuery query, List databaseRows, Object dom
         return domainObjects;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the objects of the rows can be built on concurrent threads.
+     * This requires the query to allow it, and enough rows to split them between threads.
+     * The unit of work and isolated client sessions are not thread safe, so objects are only built in parallel in the shared cache.
+     * The relationships of the objects are read concurrently, so this requires a server or client session reading through
+     * the server's connection pool, a DatabaseSession has a single connection.
+     * A session with an exclusive connection, or in a transaction, must read the relationships of the objects
+     * on its own connection, so it also builds serially.
+     * Batch fetching stores the batch query of each mapping on the query, so is not supported.
+     */
+    protected boolean shouldBuildObjectsInParallel(ReadAllQuery query, AbstractSession session, int size) {
+        int chunkSize = query.getParallelBuildingChunkSize();
+        if (!query.shouldBuildObjectsInParallel() || (chunkSize <= 0) || (size < (chunkSize * 2))) {
+            return false;
+        }
+        if (!session.isServerSession() && !session.isClientSession()) {
+            return false;
+        }
+        if (session.isIsolatedClientSession()) {
+            return false;
+        }
+        if (session.isExclusiveConnectionRequired() || session.isInTransaction()) {
+            return false;
+        }
+        if (query.hasBatchReadAttributes() || hasBatchFetchedAttributes()) {
+            return false;
+        }
+        if (this.descriptor.hasInheritance()) {
+            for (ClassDescriptor childDescriptor : this.descriptor.getInheritancePolicy().getAllChildDescriptors()) {
+                if (childDescriptor.getObjectBuilder().hasBatchFetchedAttributes()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Build the objects of the rows on the threads of a fork-join pool.
+     * The pool of the current thread is used if it is a fork-join thread, otherwise the common pool.
+     * The calling thread also builds objects until all the rows are built.
+     * Return the objects at the index of their row, null rows are skipped.
+     * The query results are cached, and the objects are wrapped, in the order of the rows by the calling thread.
+     */
+    protected Object[] buildObjectsInParallel(ReadAllQuery query, List databaseRows, JoinedAttributeManager joinManager, AbstractSession session,
+            InheritancePolicy inheritancePolicy, boolean shouldCacheQueryResults, boolean shouldUseWrapperPolicy) {
+        int size = databaseRows.size();
+        Object[] builtObjects = new Object[size];
+        new BuildObjectsTask(this, query, databaseRows, builtObjects, joinManager, session, inheritancePolicy, query.getParallelBuildingChunkSize(), 0, size).invoke();
+        if (shouldCacheQueryResults || shouldUseWrapperPolicy) {
+            for (int index = 0; index < size; index++) {
+                Object domainObject = builtObjects[index];
+                if (domainObject != null) {
+                    if (shouldCacheQueryResults) {
+                        query.cacheResult(domainObject);
+                    }
+                    if (shouldUseWrapperPolicy) {
+                        builtObjects[index] = session.getDescriptor(domainObject).getObjectBuilder().wrapObject(domainObject, session);
+                    }
+                }
+            }
+        }
+        return builtObjects;
+    }
+
     /**
      * Version of buildObjectsInto method that takes call instead of rows.
      * Return a container which contains the instances of the receivers javaClass.
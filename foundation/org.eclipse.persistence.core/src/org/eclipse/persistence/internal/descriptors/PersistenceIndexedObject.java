@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+/**
+ * Define an interface for the attribute access by index weaved into the persistence classes.
+ * The index of an attribute is its index in the array returned by the static
+ * _persistence_getAttributeNames() method also weaved into the class.
+ * The attributes of the superclasses come first, so a class and its subclasses use
+ * the same index for an attribute.
+ */
+public interface PersistenceIndexedObject {
+    String PERSISTENCE_GET_ATTRIBUTE_NAMES = "_persistence_getAttributeNames";
+
+    Object _persistence_get(int index);
+    void _persistence_set(int index, Object value);
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+/**
+ * Used with weaving to access attributes by index, without using reflection
+ * or comparing the attribute name to each attribute of the class.
+ */
+public class PersistenceIndexedObjectAttributeAccessor extends PersistenceObjectAttributeAccessor {
+
+    /** The index of the attribute in the weaved class. */
+    protected int index;
+
+    public PersistenceIndexedObjectAttributeAccessor(String attributeName, int index) {
+        super(attributeName);
+        this.index = index;
+    }
+
+    /**
+     * Return the index of the attribute in the weaved class.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the value of the attribute on the specified object.
+     */
+    @Override
+    public Object getAttributeValueFromObject(Object object) {
+        return ((PersistenceIndexedObject)object)._persistence_get(this.index);
+    }
+
+    /**
+     * Sets the value of the instance variable in the object to the value.
+     */
+    @Override
+    public void setAttributeValueInObject(Object object, Object value) {
+        ((PersistenceIndexedObject)object)._persistence_set(this.index, value);
+    }
+}
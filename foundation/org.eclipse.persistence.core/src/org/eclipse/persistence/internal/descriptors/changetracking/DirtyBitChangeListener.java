@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors.changetracking;
+
+import java.beans.PropertyChangeEvent;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy;
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Define a listener for dirty bit change tracking.
+ * <p>
+ * <b>Description</b>: Listener is notified on a PropertyChangeEvent from the object it belongs to.
+ * <p>
+ * <b>Responsibilities</b>: Set the bit of the index of each changed direct mapping, and keep the value
+ * of the attribute before its first change. The change records of the direct mappings are only built
+ * from the current values of the dirty mappings when the changes are calculated.
+ * Changes to other mappings build their change records as for attribute change tracking.
+ *
+ * @see org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy
+ */
+public class DirtyBitChangeListener extends AttributeChangeListener {
+
+    /** The policy indexing the direct mappings of the descriptor. */
+    protected DirtyBitChangeTrackingPolicy policy;
+
+    /** The bit of the index of each changed direct mapping in the descriptor's mappings, null if none changed. */
+    protected long[] dirtyBits;
+
+    /** The value of each changed direct mapping before its first change, by index of the mapping. */
+    protected Object[] oldValues;
+
+    /**
+     * INTERNAL:
+     * Create a DirtyBitChangeListener with a descriptor and unit of work
+     */
+    public DirtyBitChangeListener(ClassDescriptor descriptor, UnitOfWorkImpl uow, Object owner, DirtyBitChangeTrackingPolicy policy) {
+        super(descriptor, uow, owner);
+        this.policy = policy;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the dirty bit of a direct mapping, other changes build their change record.
+     */
+    @Override
+    public void internalPropertyChange(PropertyChangeEvent evt) {
+        Object newValue = evt.getNewValue();
+        Object oldValue = evt.getOldValue();
+        if (newValue == oldValue) {
+            return;
+        }
+        Integer directIndex = null;
+        if (evt.getClass().equals(ClassConstants.PropertyChangeEvent_Class)) {
+            directIndex = this.policy.getDirectMappingIndex(evt.getPropertyName());
+        }
+        if (directIndex == null) {
+            super.internalPropertyChange(evt);
+            return;
+        }
+        int index = directIndex.intValue();
+        if (isDirty(index)) {
+            // The old value of the first change is kept.
+            return;
+        }
+        if ((newValue != null) && newValue.equals(oldValue)) {
+            return;
+        }
+        if (this.dirtyBits == null) {
+            int size = this.descriptor.getMappings().size();
+            this.dirtyBits = new long[(size + 63) >>> 6];
+            this.oldValues = new Object[size];
+            if (!this.hasChanges) {
+                // Add to tracker list to prevent GC of clone if using weak references.
+                this.uow.addToChangeTrackedHardList(this.owner);
+            }
+        }
+        this.dirtyBits[index >>> 6] |= (1L << index);
+        this.oldValues[index] = oldValue;
+        this.hasChanges = true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the mapping at the index was changed.
+     */
+    public boolean isDirty(int index) {
+        return (this.dirtyBits != null) && ((this.dirtyBits[index >>> 6] & (1L << index)) != 0);
+    }
+
+    /**
+     * INTERNAL:
+     * Add the change records of the dirty direct mappings to the change set.
+     * A value set back to its value before the first change is not a change.
+     */
+    public void buildDirtyChangeRecords(ObjectChangeSet changes) {
+        if (this.dirtyBits == null) {
+            return;
+        }
+        List<DatabaseMapping> mappings = this.descriptor.getMappings();
+        for (int word = 0; word < this.dirtyBits.length; word++) {
+            long bits = this.dirtyBits[word];
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits = bits & (bits - 1);
+                AbstractDirectMapping mapping = (AbstractDirectMapping)mappings.get(index);
+                Object newValue = mapping.getAttributeValueFromObject(this.owner);
+                Object oldValue = this.oldValues[index];
+                if ((newValue != oldValue) && ((newValue == null) || !newValue.equals(oldValue))) {
+                    changes.addChange(mapping.internalBuildChangeRecord(newValue, oldValue, changes));
+                }
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Clear the changes in this listener
+     */
+    @Override
+    public void clearChanges(boolean forRefresh) {
+        super.clearChanges(forRefresh);
+        this.dirtyBits = null;
+        this.oldValues = null;
+    }
+}
@@ -262,6 +262,19 @@ public void validateNode() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return a shallow copy of the expression with the new children.
+     * Used to copy the nodes above a changed node.
+     */
+    protected CompoundExpression copyWithChildren(Expression firstChild, Expression secondChild) {
+        CompoundExpression copy = (CompoundExpression)shallowClone();
+        copy.setFirstChild(firstChild);
+        copy.setSecondChild(secondChild);
+        copy.hashCode = 0;
+        return copy;
+    }
+
     /**
      * INTERNAL:
      * Used for cloning.
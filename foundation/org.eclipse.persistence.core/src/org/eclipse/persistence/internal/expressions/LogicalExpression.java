@@ -123,4 +123,21 @@ public boolean extractFields(boolean requireExactMatch, boolean primaryKey, Clas
     public boolean isLogicalExpression() {
         return true;
     }
+
+    /**
+     * INTERNAL:
+     * Return the expression with the constant values compared to fields replaced by parameters.
+     */
+    @Override
+    public Expression parameterizeConstants(String prefix, List<Object> values) {
+        if ((this.firstChild == null) || (this.secondChild == null)) {
+            return this;
+        }
+        Expression first = this.firstChild.parameterizeConstants(prefix, values);
+        Expression second = this.secondChild.parameterizeConstants(prefix, values);
+        if ((first == this.firstChild) && (second == this.secondChild)) {
+            return this;
+        }
+        return copyWithChildren(first, second);
+    }
 }
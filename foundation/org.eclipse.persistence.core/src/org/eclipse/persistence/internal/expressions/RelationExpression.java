@@ -865,6 +865,50 @@ public Expression normalize(ExpressionNormalizer normalizer) {
         return foreignKeyJoin.normalize(normalizer);
     }
 
+    /**
+     * INTERNAL:
+     * Return the expression with the constant values compared to fields replaced by parameters.
+     * Only basic values compared to a direct field or query key are replaced,
+     * the parameter uses the field for the conversion of its value, as the constant does.
+     */
+    @Override
+    public Expression parameterizeConstants(String prefix, List<Object> values) {
+        if (this.secondChild == null) {
+            return this;
+        }
+        if (isParameterizableConstant(this.secondChild, this.firstChild)) {
+            return copyWithChildren(this.firstChild, parameterizeConstant((ConstantExpression)this.secondChild, this.firstChild, prefix, values));
+        } else if (isParameterizableConstant(this.firstChild, this.secondChild)) {
+            return copyWithChildren(parameterizeConstant((ConstantExpression)this.firstChild, this.secondChild, prefix, values), this.secondChild);
+        }
+        return this;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the expression is a constant of a basic value compared to the field.
+     */
+    protected boolean isParameterizableConstant(Expression constant, Expression field) {
+        if ((constant.getClass() != ConstantExpression.class)
+                || ((field.getClass() != QueryKeyExpression.class) && (field.getClass() != FieldExpression.class))) {
+            return false;
+        }
+        Object value = ((ConstantExpression)constant).getValue();
+        return (value instanceof String) || (value instanceof Number) || (value instanceof Boolean) || (value instanceof Character)
+                || (value instanceof java.util.Date) || (value instanceof Calendar) || (value instanceof Enum);
+    }
+
+    /**
+     * INTERNAL:
+     * Return a parameter for the constant's value, and add the value to the values.
+     */
+    protected Expression parameterizeConstant(ConstantExpression constant, Expression field, String prefix, List<Object> values) {
+        Object value = constant.getValue();
+        ParameterExpression parameter = new ParameterExpression(prefix + values.size(), field, value.getClass());
+        values.add(value);
+        return parameter;
+    }
+
     /**
      * INTERNAL:
      * Check if the object conforms to the expression in memory.
@@ -52,6 +52,9 @@ public class ConcurrencyManager implements Serializable {
     protected boolean lockedByMergeManager;
     protected Exception stack;
 
+    /** If set, the queued lock is used instead of the monitor of this object. */
+    protected transient QueuedConcurrencyLock queuedLock;
+
     /**
      * Initialize the newly allocated instance of this class.
      * Set the depth to zero.
@@ -77,25 +80,42 @@ public void acquire() throws ConcurrencyException {
      * This should be called before entering a critical section.
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
-        while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
-            // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
-            try {
-                this.numberOfWritersWaiting++;
-                wait();
-                this.numberOfWritersWaiting--;
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
-            }
+    public void acquire(boolean forMerge) throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            this.queuedLock.acquire();
+            acquired(forMerge);
+            return;
         }
-        if (this.activeThread == null) {
-            this.activeThread = Thread.currentThread();
-            if (shouldTrackStack){
-                this.stack = new Exception();
+        synchronized (this) {
+            while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
+                // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
+                try {
+                    this.numberOfWritersWaiting++;
+                    wait();
+                    this.numberOfWritersWaiting--;
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
             }
+            if (this.activeThread == null) {
+                this.activeThread = Thread.currentThread();
+                if (shouldTrackStack){
+                    this.stack = new Exception();
+                }
+            }
+            this.lockedByMergeManager = forMerge;
+            this.depth++;
+        }
+    }
+
+    /**
+     * Record the lock state after the queued lock was acquired.
+     */
+    protected void acquired(boolean forMerge) {
+        if (shouldTrackStack && (this.queuedLock.getDepth() == 1)) {
+            this.stack = new Exception();
         }
         this.lockedByMergeManager = forMerge;
-        this.depth++;
     }
 
     /**
@@ -113,14 +133,23 @@ public boolean acquireNoWait() throws ConcurrencyException {
      * Added for CR 2317
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
-            //if I own the lock increment depth
-            acquire(forMerge);
-            return true;
-        } else {
+    public boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            if (this.queuedLock.acquireNoWait()) {
+                acquired(forMerge);
+                return true;
+            }
             return false;
         }
+        synchronized (this) {
+            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
+                //if I own the lock increment depth
+                acquire(forMerge);
+                return true;
+            } else {
+                return false;
+            }
+        }
     }
 
     /**
@@ -129,22 +158,31 @@ public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyEx
      * Added for CR 2317
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
-            //if I own the lock increment depth
-            acquire(forMerge);
-            return true;
-        } else {
-            try {
-                wait(wait);
-            } catch (InterruptedException e) {
-                return false;
+    public boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            if (this.queuedLock.acquireWithWait(wait)) {
+                acquired(forMerge);
+                return true;
             }
-            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
+            return false;
+        }
+        synchronized (this) {
+            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
+                //if I own the lock increment depth
                 acquire(forMerge);
                 return true;
+            } else {
+                try {
+                    wait(wait);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+                if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
+                    acquire(forMerge);
+                    return true;
+                }
+                return false;
             }
-            return false;
         }
     }
 
@@ -154,15 +192,24 @@ public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws C
      * Added for Bug 5840635
      * Call with true from the merge process, if true then the refresh will not refresh the object.
      */
-    public synchronized boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
-        // Only acquire lock if active thread is null. Do not check current thread.
-        if (this.activeThread == null && this.numberOfReaders == 0) {
-             // if lock is unowned increment depth
-            acquire(forMerge);
-            return true;
-        } else {
+    public boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            if (this.queuedLock.acquireIfUnownedNoWait()) {
+                acquired(forMerge);
+                return true;
+            }
             return false;
         }
+        synchronized (this) {
+            // Only acquire lock if active thread is null. Do not check current thread.
+            if (this.activeThread == null && this.numberOfReaders == 0) {
+                 // if lock is unowned increment depth
+                acquire(forMerge);
+                return true;
+            } else {
+                return false;
+            }
+        }
     }
 
     /**
@@ -176,6 +223,10 @@ public void acquireDeferredLock() throws ConcurrencyException {
             putDeferredLock(currentThread, lockManager);
         }
         lockManager.incrementDepth();
+        if (this.queuedLock != null) {
+            acquireQueuedDeferredLock(lockManager, currentThread);
+            return;
+        }
         synchronized (this) {
             while (this.numberOfReaders != 0) {
                 // There are readers of this object, wait until they are done before determining if
@@ -204,13 +255,44 @@ public void acquireDeferredLock() throws ConcurrencyException {
         }
     }
 
+    /**
+     * Acquire the queued lock if free or held by the current thread, otherwise defer it.
+     * As with the monitor based lock, wait until there are no readers first,
+     * but never wait on another writer, as this could deadlock.
+     */
+    protected void acquireQueuedDeferredLock(DeferredLockManager lockManager, Thread currentThread) throws ConcurrencyException {
+        QueuedConcurrencyLock lock = this.queuedLock;
+        while (true) {
+            if (lock.getNumberOfReaders() != 0) {
+                lock.waitForNoReaders();
+            } else if ((lock.getActiveThread() == currentThread) || (!lock.isAcquired())) {
+                if (lock.acquireNoWait()) {
+                    acquired(false);
+                    lockManager.addActiveLock(this);
+                    return;
+                }
+                // Another thread acquired it first, so check again.
+            } else {
+                lockManager.addDeferredLock(this);
+                if (AbstractSessionLog.getLog().shouldLog(SessionLog.FINER) && this instanceof CacheKey) {
+                    AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "acquiring_deferred_lock", ((CacheKey)this).getObject(), currentThread.getName());
+                }
+                return;
+            }
+        }
+    }
+
     /**
      * Check the lock state, if locked, acquire and release a deferred lock.
      * This optimizes out the normal deferred-lock check if not locked.
      */
     public void checkDeferredLock() throws ConcurrencyException {
         // If it is not locked, then just return.
-        if (this.activeThread == null) {
+        if (this.queuedLock != null) {
+            if (!this.queuedLock.isAcquired()) {
+                return;
+            }
+        } else if (this.activeThread == null) {
             return;
         }
         acquireDeferredLock();
@@ -223,7 +305,12 @@ public void checkDeferredLock() throws ConcurrencyException {
      */
     public void checkReadLock() throws ConcurrencyException {
         // If it is not locked, then just return.
-        if (this.activeThread == null) {
+        // PERF: With the queued lock this is a single read of the lock state.
+        if (this.queuedLock != null) {
+            if (!this.queuedLock.isAcquired()) {
+                return;
+            }
+        } else if (this.activeThread == null) {
             return;
         }
         acquireReadLock();
@@ -234,27 +321,38 @@ public void checkReadLock() throws ConcurrencyException {
      * Wait on any writer.
      * Allow concurrent reads.
      */
-    public synchronized void acquireReadLock() throws ConcurrencyException {
-        // Cannot check for starving writers as will lead to deadlocks.
-        while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
-            try {
-                wait();
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+    public void acquireReadLock() throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            this.queuedLock.acquireReadLock();
+            return;
+        }
+        synchronized (this) {
+            // Cannot check for starving writers as will lead to deadlocks.
+            while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
             }
+            this.numberOfReaders++;
         }
-        this.numberOfReaders++;
     }
 
     /**
      * If this is acquired return false otherwise acquire readlock and return true
      */
-    public synchronized boolean acquireReadLockNoWait() {
-        if ((this.activeThread == null) || (this.activeThread == Thread.currentThread())) {
-            acquireReadLock();
-            return true;
-        } else {
-            return false;
+    public boolean acquireReadLockNoWait() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.acquireReadLockNoWait();
+        }
+        synchronized (this) {
+            if ((this.activeThread == null) || (this.activeThread == Thread.currentThread())) {
+                acquireReadLock();
+                return true;
+            } else {
+                return false;
+            }
         }
     }
 
@@ -262,6 +360,9 @@ public synchronized boolean acquireReadLockNoWait() {
      * Return the active thread.
      */
     public Thread getActiveThread() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.getActiveThread();
+        }
         return activeThread;
     }
 
@@ -290,6 +391,9 @@ protected static Map initializeDeferredLockManagers() {
      * Return the current depth of the active thread.
      */
     public int getDepth() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.getDepth();
+        }
         return depth;
     }
 
@@ -298,6 +402,9 @@ public int getDepth() {
      * This is used to ensure that a writer is not starved.
      */
     public int getNumberOfReaders() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.getNumberOfReaders();
+        }
         return numberOfReaders;
     }
 
@@ -306,13 +413,39 @@ public int getNumberOfReaders() {
      * This is used to ensure that a writer is not starved.
      */
     public int getNumberOfWritersWaiting() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.getNumberOfWritersWaiting();
+        }
         return numberOfWritersWaiting;
     }
 
+    /**
+     * INTERNAL:
+     * Return the queued lock, or null if the monitor of this object is used.
+     */
+    public QueuedConcurrencyLock getQueuedLock() {
+        return queuedLock;
+    }
+
+    /**
+     * INTERNAL:
+     * Use a queued lock instead of the monitor of this object.
+     * Releasing the queued lock only wakes the threads that can acquire it,
+     * which reduces contention on frequently merged objects.
+     * This must be set before the lock is first acquired.
+     * @see QueuedConcurrencyLock
+     */
+    public void useQueuedLock() {
+        this.queuedLock = new QueuedConcurrencyLock();
+    }
+
     /**
      * Return if a thread has acquire this manager.
      */
     public boolean isAcquired() {
+        if (this.queuedLock != null) {
+            return this.queuedLock.isAcquired();
+        }
         return depth > 0;
     }
 
@@ -374,7 +507,7 @@ public static boolean isBuildObjectOnThreadComplete(Thread thread, Map recursive
      * Return if this manager is within a nested acquire.
      */
     public boolean isNested() {
-        return depth > 1;
+        return getDepth() > 1;
     }
 
     public void putDeferredLock(Thread thread, DeferredLockManager lockManager) {
@@ -388,19 +521,37 @@ public void putDeferredLock(Thread thread, DeferredLockManager lockManager) {
      * The notify will release the first thread waiting on the object,
      * if no threads are waiting it will do nothing.
      */
-    public synchronized void release() throws ConcurrencyException {
-        if (this.depth == 0) {
-            throw ConcurrencyException.signalAttemptedBeforeWait();
-        } else {
-            this.depth--;
+    public void release() throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            // Only the holder changes the depth, so the state can be reset before it is released.
+            if (this.queuedLock.getDepth() == 1) {
+                if (shouldTrackStack){
+                    this.stack = null;
+                }
+                this.lockedByMergeManager = false;
+            }
+            if (this.queuedLock.release()) {
+                // Some callers wait on this object for the lock to be released.
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+            return;
         }
-        if (this.depth == 0) {
-            this.activeThread = null;
-            if (shouldTrackStack){
-                this.stack = null;
+        synchronized (this) {
+            if (this.depth == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            } else {
+                this.depth--;
+            }
+            if (this.depth == 0) {
+                this.activeThread = null;
+                if (shouldTrackStack){
+                    this.stack = null;
+                }
+                this.lockedByMergeManager = false;
+                notifyAll();
             }
-            this.lockedByMergeManager = false;
-            notifyAll();
         }
     }
 
@@ -468,14 +619,20 @@ public void releaseDeferredLock() throws ConcurrencyException {
      * Decrement the number of readers.
      * Used to allow concurrent reads.
      */
-    public synchronized void releaseReadLock() throws ConcurrencyException {
-        if (this.numberOfReaders == 0) {
-            throw ConcurrencyException.signalAttemptedBeforeWait();
-        } else {
-            this.numberOfReaders--;
+    public void releaseReadLock() throws ConcurrencyException {
+        if (this.queuedLock != null) {
+            this.queuedLock.releaseReadLock();
+            return;
         }
-        if (this.numberOfReaders == 0) {
-            notifyAll();
+        synchronized (this) {
+            if (this.numberOfReaders == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            } else {
+                this.numberOfReaders--;
+            }
+            if (this.numberOfReaders == 0) {
+                notifyAll();
+            }
         }
     }
 
@@ -490,6 +647,10 @@ public static DeferredLockManager removeDeferredLockManager(Thread thread) {
      * Set the active thread.
      */
     public void setActiveThread(Thread activeThread) {
+        if (this.queuedLock != null) {
+            this.queuedLock.setActiveThread(activeThread);
+            return;
+        }
         this.activeThread = activeThread;
     }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2016 Oracle and/or its affiliates. All rights reserved.
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
  * which accompanies this distribution.
@@ -15,17 +15,47 @@
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Provide a concurrent fixed size caching mechanism.
  * This is used for caching EJBQL parsed queries, Update calls,
  * and other places a fixed size cache is needed.
  * The default fixed size is 100.
+ * <p>
+ * Eviction is segmented LRU. New entries enter a probation segment,
+ * entries accessed again are promoted to a protected segment (80% of the size),
+ * and entries are evicted from the least recently used end of the probation segment first.
+ * This keeps frequently used entries cached when many entries are used only once.
+ * <p>
+ * PERF: Gets do not lock, accesses are recorded in a lossy ring buffer
+ * that is drained in batches when the buffer fills or on the next put.
  */
 public class ConcurrentFixedCache implements Serializable {
+    /** Size of the access buffer, must be a power of 2. */
+    protected static final int ACCESS_BUFFER_SIZE = 64;
+    /** Percentage of the cache size reserved for the protected segment. */
+    protected static final int PROTECTED_PERCENTAGE = 80;
+
     protected int maxSize;
     protected Map cache;
 
+    /** Keys used once, in LRU order, evicted first. */
+    protected LinkedHashMap probationSegment;
+    /** Keys used more than once, in LRU order. */
+    protected LinkedHashMap protectedSegment;
+    /** Guards the segments, gets only try to acquire it. */
+    protected ReentrantLock evictionLock;
+    /** Keys of recent gets that have not been applied to the segments yet. */
+    protected AtomicReferenceArray accessBuffer;
+    protected AtomicInteger accessBufferIndex;
+
+    /** Statistics, adders keep concurrent gets from contending on a single counter. */
+    protected LongAdder hits;
+    protected LongAdder misses;
+    protected LongAdder evictions;
+
     /**
      * Create a new concurrent cache, with a fixed size of 100.
      */
@@ -40,6 +70,14 @@ public ConcurrentFixedCache(int maxSize) {
         // PERF: Use a concurrent map to allow concurrent gets.
         this.cache = new ConcurrentHashMap(maxSize);
         this.maxSize = maxSize;
+        this.probationSegment = new LinkedHashMap();
+        this.protectedSegment = new LinkedHashMap();
+        this.evictionLock = new ReentrantLock();
+        this.accessBuffer = new AtomicReferenceArray(ACCESS_BUFFER_SIZE);
+        this.accessBufferIndex = new AtomicInteger();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
     }
 
     /**
@@ -51,7 +89,7 @@ public int getMaxSize() {
 
     /**
      * Set the fixed size of the parse cache.
-     * When the size is exceeded, subsequent EJBQL will not be cached.
+     * When the size is exceeded, the least valuable entries are evicted.
      * The default size is 100;
      */
     public void setMaxSize(int maxSize) {
@@ -63,45 +101,175 @@ public void setMaxSize(int maxSize) {
      * If the EJBQL has not been cached, null is returned.
      */
     public Object get(Object key) {
-        return this.cache.get(key);
+        Object value = this.cache.get(key);
+        if (value == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+            recordAccess(key);
+        }
+        return value;
+    }
+
+    /**
+     * Record the access in the access buffer, drain it if full.
+     * If the slot is still used by an undrained access, that access is lost,
+     * which only affects the accuracy of the LRU order.
+     */
+    protected void recordAccess(Object key) {
+        int index = this.accessBufferIndex.getAndIncrement() & (ACCESS_BUFFER_SIZE - 1);
+        this.accessBuffer.lazySet(index, key);
+        if ((index == (ACCESS_BUFFER_SIZE - 1)) && this.evictionLock.tryLock()) {
+            try {
+                drainAccessBuffer();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply the buffered accesses to the segments.
+     * Must be called holding the eviction lock.
+     */
+    protected void drainAccessBuffer() {
+        for (int index = 0; index < ACCESS_BUFFER_SIZE; index++) {
+            Object key = this.accessBuffer.getAndSet(index, null);
+            if (key != null) {
+                onAccess(key);
+            }
+        }
+    }
+
+    /**
+     * Move the key to the most recently used end of the protected segment.
+     * Must be called holding the eviction lock.
+     */
+    protected void onAccess(Object key) {
+        if (this.protectedSegment.remove(key) != null) {
+            this.protectedSegment.put(key, Boolean.TRUE);
+        } else if (this.probationSegment.remove(key) != null) {
+            this.protectedSegment.put(key, Boolean.TRUE);
+            int protectedSize = (this.maxSize * PROTECTED_PERCENTAGE) / 100;
+            // Demote the least recently used protected keys back to probation.
+            Iterator iterator = this.protectedSegment.keySet().iterator();
+            while ((this.protectedSegment.size() > protectedSize) && iterator.hasNext()) {
+                Object demoted = iterator.next();
+                iterator.remove();
+                this.probationSegment.put(demoted, Boolean.TRUE);
+            }
+        }
     }
 
     public void clear(){
         this.cache.clear();
+        this.evictionLock.lock();
+        try {
+            this.probationSegment.clear();
+            this.protectedSegment.clear();
+            for (int index = 0; index < ACCESS_BUFFER_SIZE; index++) {
+                this.accessBuffer.set(index, null);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
     }
 
     /**
      * Add the value to the cache.
-     * Remove the
+     * Evict the least valuable entries if the size is exceeded.
      */
     public void put(Object key, Object value) {
         if (this.maxSize == 0) {
             return;
         }
-        this.cache.put(key, value);
-        // Currently just removes the first one encountered, not LRU,
-        // this is not ideal, but the most concurrent and quickest way to ensure fixed size.
-        if (this.cache.size() > this.maxSize) {
-            Iterator iterator = this.cache.keySet().iterator();
-            try {
-                while ((this.cache.size() > this.maxSize) && iterator.hasNext()) {
+        Object previous = this.cache.put(key, value);
+        if (previous != null) {
+            recordAccess(key);
+            return;
+        }
+        this.evictionLock.lock();
+        try {
+            drainAccessBuffer();
+            this.probationSegment.put(key, Boolean.TRUE);
+            evict(key);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Evict from the probation segment first, then from the protected segment,
+     * until the cache is within its size.
+     * Must be called holding the eviction lock.
+     */
+    protected void evict(Object key) {
+        if ((this.probationSegment.size() + this.protectedSegment.size()) > this.cache.size()) {
+            removeStaleKeys();
+        }
+        while (this.cache.size() > this.maxSize) {
+            Object victim = nextVictim(this.probationSegment, key);
+            if (victim == null) {
+                victim = nextVictim(this.protectedSegment, key);
+            }
+            if (victim == null) {
+                // Entries put directly into the map are not tracked,
+                // so just remove the first one encountered.
+                Iterator iterator = this.cache.keySet().iterator();
+                while ((victim == null) && iterator.hasNext()) {
                     Object next = iterator.next();
                     // Do not remove what was just put in.
                     if (next != key) {
-                        this.cache.remove(next);
+                        victim = next;
                     }
                 }
-            } catch (Exception alreadyGone) {
-                // Ignore.
+                if (victim == null) {
+                    return;
+                }
+            }
+            if (this.cache.remove(victim) != null) {
+                this.evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove and return the least recently used key of the segment, skipping the key just put.
+     */
+    protected Object nextVictim(LinkedHashMap segment, Object key) {
+        Iterator iterator = segment.keySet().iterator();
+        while (iterator.hasNext()) {
+            Object next = iterator.next();
+            if (next != key) {
+                iterator.remove();
+                return next;
             }
         }
+        return null;
+    }
+
+    /**
+     * Remove keys no longer in the cache from the segments,
+     * i.e. if the cache map was cleared directly.
+     */
+    protected void removeStaleKeys() {
+        this.probationSegment.keySet().retainAll(this.cache.keySet());
+        this.protectedSegment.keySet().retainAll(this.cache.keySet());
     }
 
     /**
      * Remove from cache.
      */
     public void remove(Object key) {
-        this.cache.remove(key);
+        if (this.cache.remove(key) != null) {
+            this.evictionLock.lock();
+            try {
+                this.probationSegment.remove(key);
+                this.protectedSegment.remove(key);
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
     }
 
     /**
@@ -110,4 +278,25 @@ public void remove(Object key) {
     public Map getCache() {
         return cache;
     }
+
+    /**
+     * Return the number of gets that found a cached value.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Return the number of gets that did not find a cached value.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Return the number of entries evicted to keep the cache within its size.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
 }
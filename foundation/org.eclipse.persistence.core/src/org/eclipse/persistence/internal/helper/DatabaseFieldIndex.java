@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.helper;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Hash index of the positions of the fields of an array of fields.
+ * <p>
+ * PERF: Used by ArrayRecord to find a field that is not at its field index in constant time,
+ * instead of comparing the field to every field of the row.
+ * The index is immutable and built once for the fields of a call, so it is shared by all the rows of the call's result sets.
+ * <p>
+ * As in a scan of the fields, the first position of a field equal to the key is returned,
+ * positions are chained by hash code in ascending order, and compared with DatabaseField.equals.
+ * Positions are stored as int arrays, so a lookup does not allocate.
+ *
+ * @see org.eclipse.persistence.internal.sessions.ArrayRecord
+ * @see org.eclipse.persistence.internal.databaseaccess.DatabaseCall#getFieldsIndex()
+ */
+public final class DatabaseFieldIndex {
+
+    /** The indexed fields, fields may be null for fetch groups. */
+    private final DatabaseField[] fields;
+
+    /** The first position + 1 of the fields of each hash bucket, 0 if the bucket is empty. */
+    private final int[] buckets;
+
+    /** The next position + 1 of the field at each position in its bucket, 0 for the last field. */
+    private final int[] next;
+
+    private final int mask;
+
+    public DatabaseFieldIndex(DatabaseField[] fields) {
+        this.fields = fields;
+        int capacity = 2;
+        while (capacity < fields.length * 2) {
+            capacity = capacity << 1;
+        }
+        this.buckets = new int[capacity];
+        this.next = new int[fields.length];
+        this.mask = capacity - 1;
+        // Add in reverse order, so each bucket is in ascending order.
+        for (int index = fields.length - 1; index >= 0; index--) {
+            DatabaseField field = fields[index];
+            if (field != null) {
+                int bucket = hash(field) & this.mask;
+                this.next[index] = this.buckets[bucket];
+                this.buckets[bucket] = index + 1;
+            }
+        }
+    }
+
+    private static int hash(DatabaseField field) {
+        int hash = field.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Return the first position of the field in the fields, or -1 if not found.
+     */
+    public int indexOf(DatabaseField key) {
+        int position = this.buckets[hash(key) & this.mask];
+        while (position != 0) {
+            DatabaseField field = this.fields[position - 1];
+            if ((field == key) || field.equals(key)) {
+                return position - 1;
+            }
+            position = this.next[position - 1];
+        }
+        return -1;
+    }
+
+    /**
+     * Return if the index was built for the fields.
+     */
+    public boolean isIndexOf(DatabaseField[] fields) {
+        return this.fields == fields;
+    }
+}
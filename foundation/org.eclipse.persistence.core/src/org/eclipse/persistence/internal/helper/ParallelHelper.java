@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.helper;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.persistence.platform.server.ServerPlatform;
+import org.eclipse.persistence.platform.server.ServerPlatformBase;
+
+/**
+ * INTERNAL:
+ * Run independent tasks on the current thread and on threads of the server platform.
+ * <p>
+ * Each task is claimed by the first thread to reach it, the threads launched through the platform
+ * and the current thread claim the tasks in order until none is left.
+ * The current thread only waits for the tasks claimed by another thread, never for a thread to start,
+ * so the tasks are still all run when the platform's pool is busy or bounded,
+ * and a task may itself run tasks in parallel.
+ * <p>
+ * The threads are launched through the platform's thread pool.
+ * If the platform does not have one, the common fork-join pool is used instead of starting new threads.
+ */
+public class ParallelHelper {
+
+    /**
+     * A task and its claim by a thread.
+     */
+    protected static class ClaimedTask implements Runnable {
+        protected final Runnable task;
+        protected final AtomicBoolean isClaimed = new AtomicBoolean();
+        protected boolean isDone;
+        protected Throwable error;
+
+        protected ClaimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Return if the current thread claimed the task.
+         */
+        public boolean claim() {
+            return this.isClaimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Run the claimed task, record its error, and notify the threads waiting for it.
+         */
+        @Override
+        public void run() {
+            Throwable error = null;
+            try {
+                this.task.run();
+            } catch (Throwable throwable) {
+                error = throwable;
+            } finally {
+                synchronized (this) {
+                    this.error = error;
+                    this.isDone = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Wait until the claimed task is done, return if the current thread was interrupted.
+         */
+        public synchronized boolean waitUntilDone() {
+            boolean isInterrupted = false;
+            while (!this.isDone) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    isInterrupted = true;
+                }
+            }
+            return isInterrupted;
+        }
+    }
+
+    /**
+     * Claim and run the tasks not yet claimed, in order.
+     */
+    protected static void runUnclaimed(ClaimedTask[] claimedTasks) {
+        for (ClaimedTask claimedTask : claimedTasks) {
+            if (claimedTask.claim()) {
+                claimedTask.run();
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Run the tasks on the current thread and on up to threads - 1 threads of the server platform,
+     * and return when all of them are done.
+     * The first error of the tasks, in the order of the tasks, is thrown once all of them are done.
+     */
+    public static void runInParallel(List<? extends Runnable> tasks, int threads, ServerPlatform serverPlatform) {
+        int size = tasks.size();
+        if ((threads <= 1) || (size <= 1)) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            return;
+        }
+        final ClaimedTask[] claimedTasks = new ClaimedTask[size];
+        for (int index = 0; index < size; index++) {
+            claimedTasks[index] = new ClaimedTask(tasks.get(index));
+        }
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                runUnclaimed(claimedTasks);
+            }
+        };
+        int workers = Math.min(threads, size) - 1;
+        for (int index = 0; index < workers; index++) {
+            try {
+                launch(worker, serverPlatform);
+            } catch (RuntimeException exception) {
+                // The current thread runs the tasks of the threads that could not be launched.
+                break;
+            }
+        }
+        runUnclaimed(claimedTasks);
+        // All the tasks are claimed, only the tasks run by other threads are waited for.
+        boolean isInterrupted = false;
+        for (ClaimedTask claimedTask : claimedTasks) {
+            isInterrupted = claimedTask.waitUntilDone() || isInterrupted;
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (ClaimedTask claimedTask : claimedTasks) {
+            Throwable error = claimedTask.error;
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException)error;
+            } else if (error instanceof Error) {
+                throw (Error)error;
+            }
+        }
+    }
+
+    /**
+     * Launch the runnable on a thread of the server platform's pool, or of the common fork-join pool
+     * if the platform does not have a pool, so a thread is not started for each runnable.
+     */
+    protected static void launch(Runnable runnable, ServerPlatform serverPlatform) {
+        if ((serverPlatform == null) || ((serverPlatform instanceof ServerPlatformBase) && (((ServerPlatformBase)serverPlatform).getThreadPool() == null))) {
+            ForkJoinPool.commonPool().execute(runnable);
+        } else {
+            serverPlatform.launchContainerRunnable(runnable);
+        }
+    }
+}
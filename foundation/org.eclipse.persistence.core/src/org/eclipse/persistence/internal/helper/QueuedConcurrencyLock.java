@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.helper;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Queued implementation of the {@link ConcurrencyManager} lock semantics.
+ * <p>
+ * The lock is a recursive lock held by an active thread, that also allows concurrent readers.
+ * As with the monitor based lock, the active thread may read, and is not checked on release.
+ * Waiting threads are queued and parked, so releasing the lock only wakes the next writer,
+ * or the next group of readers, instead of every thread waiting on the monitor.
+ * <p>
+ * The state holds the depth of the active thread in the lower 16 bits,
+ * and the number of readers in the upper 16 bits.
+ *
+ * @see ConcurrencyManager#useQueuedLock()
+ */
+public class QueuedConcurrencyLock extends AbstractQueuedSynchronizer {
+
+    protected static final int SHARED_SHIFT = 16;
+    protected static final int SHARED_UNIT = 1 << SHARED_SHIFT;
+    protected static final int MAX_COUNT = SHARED_UNIT - 1;
+    protected static final int EXCLUSIVE_MASK = SHARED_UNIT - 1;
+
+    /** Shared acquire argument to acquire a read lock. */
+    protected static final int READ = 1;
+
+    /** Maximum time to park waiting for readers, the last reader wakes the waiting threads before this. */
+    protected static final long NO_READERS_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** The thread holding the lock, volatile as it is checked by other threads without acquiring. */
+    protected volatile transient Thread activeThread;
+
+    /**
+     * Threads waiting for the readers to release, without acquiring the lock.
+     * These are not queued on the synchronizer, as they must not wait behind queued writers.
+     */
+    protected transient ConcurrentLinkedQueue<Thread> noReadersWaiters;
+
+    public QueuedConcurrencyLock() {
+        super();
+        this.noReadersWaiters = new ConcurrentLinkedQueue<Thread>();
+    }
+
+    /**
+     * Return the depth from the state.
+     */
+    protected static int depth(int state) {
+        return state & EXCLUSIVE_MASK;
+    }
+
+    /**
+     * Return the number of readers from the state.
+     */
+    protected static int readers(int state) {
+        return state >>> SHARED_SHIFT;
+    }
+
+    /**
+     * Acquire the lock if it is free, or increment the depth if the current thread is the active thread.
+     */
+    @Override
+    protected boolean tryAcquire(int ignore) {
+        Thread currentThread = Thread.currentThread();
+        while (true) {
+            int state = getState();
+            if (state == 0) {
+                if (compareAndSetState(0, 1)) {
+                    this.activeThread = currentThread;
+                    return true;
+                }
+            } else if ((depth(state) > 0) && (this.activeThread == currentThread)) {
+                if (depth(state) == MAX_COUNT) {
+                    throw new Error("Maximum lock count exceeded");
+                }
+                // Readers may be released concurrently, so the state must still be compared.
+                if (compareAndSetState(state, state + 1)) {
+                    return true;
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Decrement the depth, return if the lock was released.
+     * As with the monitor based lock, the releasing thread is not required to be the active thread.
+     */
+    @Override
+    protected boolean tryRelease(int ignore) {
+        while (true) {
+            int state = getState();
+            if (depth(state) == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            }
+            int newState = state - 1;
+            boolean isReleased = depth(newState) == 0;
+            if (isReleased) {
+                this.activeThread = null;
+            }
+            if (compareAndSetState(state, newState)) {
+                return isReleased;
+            }
+        }
+    }
+
+    /**
+     * Acquire a read lock if no other thread holds the lock.
+     * Readers do not wait for queued writers, as this could deadlock.
+     */
+    @Override
+    protected int tryAcquireShared(int mode) {
+        Thread currentThread = Thread.currentThread();
+        while (true) {
+            int state = getState();
+            if ((depth(state) > 0) && (this.activeThread != currentThread)) {
+                return -1;
+            }
+            if (readers(state) == MAX_COUNT) {
+                throw new Error("Maximum lock count exceeded");
+            }
+            if (compareAndSetState(state, state + SHARED_UNIT)) {
+                return 1;
+            }
+        }
+    }
+
+    /**
+     * Decrement the number of readers, return if all readers are released.
+     */
+    @Override
+    protected boolean tryReleaseShared(int ignore) {
+        while (true) {
+            int state = getState();
+            if (readers(state) == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            }
+            int newState = state - SHARED_UNIT;
+            if (compareAndSetState(state, newState)) {
+                return readers(newState) == 0;
+            }
+        }
+    }
+
+    /**
+     * Wait until the lock is free or held by the current thread, and acquire it.
+     */
+    public void acquire() throws ConcurrencyException {
+        if (!tryAcquire(1)) {
+            try {
+                acquireInterruptibly(1);
+            } catch (InterruptedException exception) {
+                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Acquire the lock if it is free or held by the current thread, return if acquired.
+     */
+    public boolean acquireNoWait() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquire the lock only if it is free (not even held by the current thread), return if acquired.
+     */
+    public boolean acquireIfUnownedNoWait() {
+        if (compareAndSetState(0, 1)) {
+            this.activeThread = Thread.currentThread();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Wait up to the number of milliseconds to acquire the lock, return if acquired.
+     */
+    public boolean acquireWithWait(int wait) {
+        try {
+            return tryAcquire(1) || tryAcquireNanos(1, TimeUnit.MILLISECONDS.toNanos(wait));
+        } catch (InterruptedException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Decrement the depth, and wake the next waiting thread if released.
+     * Return if the lock was released.
+     */
+    public boolean release() throws ConcurrencyException {
+        return release(1);
+    }
+
+    /**
+     * Wait until no other thread holds the lock, and acquire a read lock.
+     */
+    public void acquireReadLock() throws ConcurrencyException {
+        if (tryAcquireShared(READ) < 0) {
+            try {
+                acquireSharedInterruptibly(READ);
+            } catch (InterruptedException exception) {
+                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Acquire a read lock if no other thread holds the lock, return if acquired.
+     */
+    public boolean acquireReadLockNoWait() {
+        return tryAcquireShared(READ) >= 0;
+    }
+
+    /**
+     * Decrement the number of readers, and wake the next waiting thread if there are no readers.
+     * The threads waiting for no readers are also woken.
+     */
+    public void releaseReadLock() throws ConcurrencyException {
+        if (releaseShared(READ) && !this.noReadersWaiters.isEmpty()) {
+            for (Thread waiter : this.noReadersWaiters) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /**
+     * Park until there are no readers, without acquiring the lock.
+     * The thread is woken by the last reader to release, it does not wait on writers,
+     * as the caller must not wait on other writers to avoid deadlocks.
+     * The wait is bounded, so the caller must check the number of readers again.
+     */
+    public void waitForNoReaders() throws ConcurrencyException {
+        if (readers(getState()) == 0) {
+            return;
+        }
+        Thread currentThread = Thread.currentThread();
+        // Register before checking the readers again, so the release of the last reader cannot be missed.
+        this.noReadersWaiters.add(currentThread);
+        try {
+            long deadline = System.nanoTime() + NO_READERS_WAIT;
+            while (readers(getState()) != 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw ConcurrencyException.waitWasInterrupted(null);
+                }
+            }
+        } finally {
+            this.noReadersWaiters.remove(currentThread);
+        }
+    }
+
+    /**
+     * Return the thread holding the lock.
+     */
+    public Thread getActiveThread() {
+        return this.activeThread;
+    }
+
+    /**
+     * Set the thread holding the lock, used to release a lock from a different thread.
+     */
+    public void setActiveThread(Thread activeThread) {
+        this.activeThread = activeThread;
+    }
+
+    /**
+     * Return the current depth of the active thread.
+     */
+    public int getDepth() {
+        return depth(getState());
+    }
+
+    /**
+     * Return the number of readers.
+     */
+    public int getNumberOfReaders() {
+        return readers(getState());
+    }
+
+    /**
+     * Return the approximate number of threads waiting to acquire the lock.
+     */
+    public int getNumberOfWritersWaiting() {
+        return getExclusiveQueuedThreads().size();
+    }
+
+    /**
+     * Return if a thread holds the lock.
+     * This is an optimistic check, the lock may be acquired or released concurrently.
+     */
+    public boolean isAcquired() {
+        return depth(getState()) > 0;
+    }
+}
@@ -69,7 +69,7 @@ public CacheKey acquireDeferredLock(Object primaryKey, boolean isCacheCheckCompl
         CacheKey cacheKey = getCacheKey(primaryKey, false);
         if (cacheKey == null) {
             // Create and lock a new cacheKey.
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             newCacheKey.acquireDeferredLock();
             // PERF: To avoid synchronization, getIfAbsentPut is used.
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
@@ -93,7 +93,7 @@ public CacheKey acquireLock(Object primaryKey, boolean forMerge, boolean isCache
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
             // Create and lock a new cacheKey.
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             newCacheKey.acquire(forMerge);
             // PERF: To avoid synchronization, getIfAbsentPut is used.
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
@@ -117,7 +117,7 @@ public CacheKey acquireLockNoWait(Object primaryKey, boolean forMerge) {
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
             // Create and lock a new cacheKey.
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             newCacheKey.acquire(forMerge);
             // PERF: To avoid synchronization, getIfAbsentPut is used.
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
@@ -144,7 +144,7 @@ public CacheKey acquireLockWithWait(Object primaryKey, boolean forMerge, int wai
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
             // Create and lock a new cacheKey.
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             newCacheKey.acquire(forMerge);
             // PERF: To avoid synchronization, getIfAbsentPut is used.
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
@@ -171,7 +171,7 @@ public CacheKey acquireLockWithWait(Object primaryKey, boolean forMerge, int wai
     public CacheKey acquireReadLockOnCacheKey(Object primaryKey) {
         CacheKey cacheKey = getCacheKey(primaryKey, false);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             // Lock new cacheKey.
             newCacheKey.acquireReadLock();
             // Create one but not put it in the cache, as we are only reading
@@ -192,7 +192,7 @@ public CacheKey acquireReadLockOnCacheKey(Object primaryKey) {
     public CacheKey acquireReadLockOnCacheKeyNoWait(Object primaryKey) {
         CacheKey cacheKey = getCacheKey(primaryKey, false);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             // Lock new cacheKey.
             newCacheKey.acquireReadLock();
             // Create one but not put it in the cache, as we are only reading
@@ -241,6 +241,20 @@ public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLoc
         return new CacheKey(primaryKey, object, writeLockValue, readTime, this.isIsolated);
     }
 
+    /**
+     * Create the CacheKey for this map, using the lock type of the session.
+     * All cache keys of the map must be created through this method, not createCacheKey directly,
+     * so that the lock type is the same for every cache key of the session.
+     * Isolated cache keys are not locked, so do not require a lock.
+     */
+    protected CacheKey buildCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        CacheKey cacheKey = createCacheKey(primaryKey, object, writeLockValue, readTime);
+        if ((this.session != null) && this.session.shouldUseQueuedCacheLocks() && !this.isIsolated) {
+            cacheKey.useQueuedLock();
+        }
+        return cacheKey;
+    }
+
     /**
      * Allow for the cache to be iterated on.
      */
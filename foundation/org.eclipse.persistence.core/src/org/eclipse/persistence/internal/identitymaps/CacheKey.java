@@ -299,6 +299,10 @@ public Object clone() {
         } catch (Exception exception) {
             throw new InternalError(exception.toString());
         }
+        // The clone must not share the queued lock.
+        if (this.queuedLock != null) {
+            ((CacheKey)object).useQueuedLock();
+        }
 
         return object;
     }
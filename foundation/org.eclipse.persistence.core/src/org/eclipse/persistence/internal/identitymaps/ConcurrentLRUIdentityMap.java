@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * <p><b>Purpose</b>: A fixed size LRU cache that does not lock on cache hits.<p>
+ * As with the {@link CacheIdentityMap} a linked list of the cache keys is maintained in LRU order,
+ * and the least recently used cache keys are removed when the max size is exceeded.
+ * <p>
+ * Cache hits do not reorder the linked list directly, they are recorded in striped, lossy read buffers.
+ * The buffers are drained in batches by the thread that fills a buffer if it can acquire the list lock,
+ * or by the next put, so the list lock is acquired once per batch instead of once per hit.
+ * Accesses overwritten before being drained only affect the accuracy of the LRU order.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Provides identity for the cached objects through primary key values,
+ *    but does not guarantee identity, as objects may be removed from the cache while still referenced.
+ *    <li> Keeps the LRU linked list updated in batches.
+ * </ul>
+ * @see CacheIdentityMap
+ */
+public class ConcurrentLRUIdentityMap extends FullIdentityMap {
+
+    /** Size of each read buffer, must be a power of 2. */
+    protected static final int READ_BUFFER_SIZE = 32;
+
+    /** Maximum number of read buffers. */
+    protected static final int MAX_READ_BUFFERS = 16;
+
+    /** Provide handles on the linked list */
+    protected LinkedCacheKey first;
+
+    /** Provide handles on the linked list */
+    protected LinkedCacheKey last;
+
+    /** Guards the linked list. */
+    protected ReentrantLock listLock;
+
+    /** Cache keys of recent hits that have not been moved in the linked list yet, striped by thread. */
+    protected AtomicReferenceArray<LinkedCacheKey>[] readBuffers;
+    protected AtomicInteger[] readBufferIndexes;
+
+    public ConcurrentLRUIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
+        super(size, descriptor, session, isolated);
+        initializeLinkedList();
+    }
+
+    /**
+     * Initialize the empty linked list and read buffers.
+     */
+    protected void initializeLinkedList() {
+        this.first = new LinkedCacheKey(CacheId.EMPTY, null, null, 0, isIsolated);
+        this.last = new LinkedCacheKey(CacheId.EMPTY, null, null, 0, isIsolated);
+        this.first.setNext(this.last);
+        this.last.setPrevious(this.first);
+        this.listLock = new ReentrantLock();
+        int stripes = 1;
+        while ((stripes < Runtime.getRuntime().availableProcessors()) && (stripes < MAX_READ_BUFFERS)) {
+            stripes = stripes << 1;
+        }
+        this.readBuffers = new AtomicReferenceArray[stripes];
+        this.readBufferIndexes = new AtomicInteger[stripes];
+        for (int index = 0; index < stripes; index++) {
+            this.readBuffers[index] = new AtomicReferenceArray<LinkedCacheKey>(READ_BUFFER_SIZE);
+            this.readBufferIndexes[index] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Clones itself, the clone must not share the linked list.
+     */
+    @Override
+    public Object clone() {
+        ConcurrentLRUIdentityMap clone = (ConcurrentLRUIdentityMap)super.clone();
+        clone.initializeLinkedList();
+        for (Object cacheKey : clone.getCacheKeys().values()) {
+            clone.insertLink((LinkedCacheKey)cacheKey);
+        }
+        return clone;
+    }
+
+    @Override
+    public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        return new LinkedCacheKey(primaryKey, object, writeLockValue, readTime, isIsolated);
+    }
+
+    /**
+     * Access the object within the table for the given primaryKey.
+     * Record the access, the key is moved to the top of the linked list when the read buffer is drained.
+     * @param primaryKey is the primary key for the object to search for.
+     * @return the LinkedCacheKey or null if none found for primaryKey
+     */
+    @Override
+    public CacheKey getCacheKey(Object primaryKey, boolean forMerge) {
+        CacheKey cacheKey = super.getCacheKey(primaryKey, forMerge);
+        if (cacheKey != null) {
+            recordAccess((LinkedCacheKey)cacheKey);
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Record the access in the thread's read buffer, drain the buffers if full.
+     * If the slot is still used by an undrained access, that access is lost.
+     */
+    protected void recordAccess(LinkedCacheKey cacheKey) {
+        int stripe = (int)Thread.currentThread().getId() & (this.readBuffers.length - 1);
+        int index = this.readBufferIndexes[stripe].getAndIncrement() & (READ_BUFFER_SIZE - 1);
+        this.readBuffers[stripe].lazySet(index, cacheKey);
+        if ((index == (READ_BUFFER_SIZE - 1)) && this.listLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                this.listLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Move the buffered cache keys to the top of the linked list.
+     * Callers of this method must hold the list lock.
+     */
+    protected void drainReadBuffers() {
+        for (AtomicReferenceArray<LinkedCacheKey> buffer : this.readBuffers) {
+            for (int index = 0; index < READ_BUFFER_SIZE; index++) {
+                LinkedCacheKey cacheKey = buffer.getAndSet(index, null);
+                // Ignore keys removed since the access.
+                if ((cacheKey != null) && (cacheKey.getPrevious() != null)) {
+                    removeLink(cacheKey);
+                    insertLink(cacheKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reduces the size of the receiver down to the maxSize removing objects from the
+     * end of the linked list.
+     * Callers of this method must hold the list lock.
+     */
+    protected void ensureFixedSize() {
+        // protect the case where someone attempts to break the cache by
+        // setting max size to 0.
+        while ((getMaxSize() > 0) && (getSize() > getMaxSize()) && (this.last.getPrevious() != this.first)) {
+            LinkedCacheKey cacheKey = removeLink(this.last.getPrevious());
+            super.remove(cacheKey);
+        }
+    }
+
+    /**
+     * Insert a new element into the linked list of LinkedCacheKeys.
+     * New elements (Recently Used) are added at the start (after first).
+     * Callers of this method must hold the list lock.
+     * @return the added LinkedCacheKey
+     */
+    protected LinkedCacheKey insertLink(LinkedCacheKey key) {
+        this.first.getNext().setPrevious(key);
+        key.setNext(this.first.getNext());
+        key.setPrevious(this.first);
+        this.first.setNext(key);
+        return key;
+    }
+
+    /**
+     * Remove the LinkedCacheKey from the linked list.
+     * Callers of this method must hold the list lock.
+     * @return the removed LinkedCacheKey.
+     */
+    protected LinkedCacheKey removeLink(LinkedCacheKey key) {
+        if ((key.getPrevious() == null) || (key.getNext() == null)) {
+            // Already removed by a competing thread.
+            return key;
+        }
+        key.getPrevious().setNext(key.getNext());
+        key.getNext().setPrevious(key.getPrevious());
+        key.setNext(null);
+        key.setPrevious(null);
+        return key;
+    }
+
+    /**
+     * Also insert the link if the cacheKey is put.
+     * The map is updated without the list lock, only the link requires the lock.
+     */
+    @Override
+    protected CacheKey putCacheKeyIfAbsent(CacheKey searchKey) {
+        CacheKey cacheKey = super.putCacheKeyIfAbsent(searchKey);
+        if (cacheKey == null) {
+            this.listLock.lock();
+            try {
+                drainReadBuffers();
+                // The key may have been removed concurrently before being linked.
+                if (getCacheKeys().get(searchKey.getKey()) == searchKey) {
+                    insertLink((LinkedCacheKey)searchKey);
+                    ensureFixedSize();
+                }
+            } finally {
+                this.listLock.unlock();
+            }
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Remove the LinkedCacheKey from the cache as well as from the linked list.
+     * @return the object of the removed LinkedCacheKey.
+     */
+    @Override
+    public Object remove(CacheKey key) {
+        // The key may be null if was missing, just null should be returned in this case.
+        if (key == null) {
+            return null;
+        }
+        Object object = super.remove(key);
+        this.listLock.lock();
+        try {
+            removeLink((LinkedCacheKey)key);
+        } finally {
+            this.listLock.unlock();
+        }
+        return object;
+    }
+
+    /**
+     * INTERNAL:
+     * This method will be used to update the max cache size, any objects exceeding the max cache size will
+     * be remove from the cache.
+     */
+    @Override
+    public void updateMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        this.listLock.lock();
+        try {
+            ensureFixedSize();
+        } finally {
+            this.listLock.unlock();
+        }
+    }
+}
@@ -188,7 +188,7 @@ public void lazyRelationshipLoaded(Object object, ValueHolderInterface valueHold
      */
     @Override
     public CacheKey put(Object primaryKey, Object object, Object writeLockValue, long readTime) {
-        CacheKey newCacheKey = createCacheKey(primaryKey, object, writeLockValue, readTime);
+        CacheKey newCacheKey = buildCacheKey(primaryKey, object, writeLockValue, readTime);
         // Find the cache key in the map, reset it, or put the new one.
         CacheKey cacheKey = putCacheKeyIfAbsent(newCacheKey);
         if (cacheKey != null) {
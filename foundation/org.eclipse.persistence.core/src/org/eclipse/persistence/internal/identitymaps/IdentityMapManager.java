@@ -19,6 +19,7 @@
 import java.io.StringWriter;
 import java.lang.reflect.Constructor;
 import java.security.AccessController;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -53,6 +54,8 @@
 import org.eclipse.persistence.internal.security.PrivilegedInvokeConstructor;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
@@ -83,6 +86,9 @@ public class IdentityMapManager implements Serializable, Cloneable {
     /** A map of class to list of queries that need to be invalidated when that class changes. */
     protected Map<Class, Set> queryResultsInvalidationsByClass;
 
+    /** A map of query to the dependencies of its results, for queries tracking their dependencies. */
+    protected Map<Object, QueryResultsDependencies> queryResultsDependencies;
+
     /** A map of indexes on the cache. */
     protected Map<CacheIndex, IdentityMap> cacheIndexes;
 
@@ -114,11 +120,13 @@ public IdentityMapManager(AbstractSession session) {
             this.identityMaps = new HashMap();
             this.queryResults = new HashMap();
             this.queryResultsInvalidationsByClass = new HashMap();
+            this.queryResultsDependencies = new HashMap();
             this.cacheIndexes = new HashMap();
         } else {
             this.identityMaps = new ConcurrentHashMap();
             this.queryResults = new ConcurrentHashMap();
             this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+            this.queryResultsDependencies = new ConcurrentHashMap();
             this.cacheIndexes = new ConcurrentHashMap();
         }
         checkIsCacheAccessPreCheckRequired();
@@ -383,6 +391,8 @@ protected IdentityMap buildNewIdentityMap(Class identityMapClass, int size, Clas
                 return new FullIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.CacheIdentityMap_Class) {
                 return new CacheIdentityMap(size, descriptor, this.session, isIsolated);
+            } else if (identityMapClass == ClassConstants.ConcurrentLRUIdentityMap_Class) {
+                return new ConcurrentLRUIdentityMap(size, descriptor, this.session, isIsolated);
             }
         }
         try {
@@ -446,6 +456,7 @@ public Object clone() {
     public void clearQueryCache() {
         this.queryResults = new ConcurrentHashMap();
         this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+        this.queryResultsDependencies = new ConcurrentHashMap();
     }
 
     /**
@@ -468,6 +479,7 @@ public void clearQueryCache(ReadQuery query) {
                 queryKey = query;
             }
             this.queryResults.remove(queryKey);
+            this.queryResultsDependencies.remove(queryKey);
         }
     }
 
@@ -482,7 +494,7 @@ public void invalidateQueryCache(Class classThatChanged) {
         Set invalidations = this.queryResultsInvalidationsByClass.get(classThatChanged);
         if (invalidations != null) {
             for (Object queryKey : invalidations) {
-                this.queryResults.remove(queryKey);
+                removeQueryResults(queryKey);
             }
         }
         Class superClass = classThatChanged.getSuperclass();
@@ -491,6 +503,95 @@ public void invalidateQueryCache(Class classThatChanged) {
         }
     }
 
+    /**
+     * Invalidate/remove the results for the class from the query cache affected by the changes.
+     * The results of queries tracking their dependencies are only removed if they depend on a changed object of the class,
+     * the results of other queries are removed on any change.
+     * This is used to invalidate the query cache after a merge.
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        if (this.queryResultsInvalidationsByClass == null) {
+            return;
+        }
+        ClassDescriptor descriptor = null;
+        List<ObjectChangeSet> changes = null;
+        List<ObjectChangeSet> deletions = null;
+        Class currentClass = classThatChanged;
+        while ((currentClass != null) && (currentClass != ClassConstants.OBJECT)) {
+            Set invalidations = this.queryResultsInvalidationsByClass.get(currentClass);
+            if (invalidations != null) {
+                for (Object queryKey : invalidations) {
+                    QueryResultsDependencies dependencies = this.queryResultsDependencies.get(queryKey);
+                    IdentityMap map = this.queryResults.get(queryKey);
+                    if ((dependencies == null) || (map == null) || (changeSet == null)
+                            || !dependencies.descriptor.getJavaClass().isAssignableFrom(classThatChanged)) {
+                        removeQueryResults(queryKey);
+                        continue;
+                    }
+                    if (changes == null) {
+                        descriptor = this.session.getDescriptor(classThatChanged);
+                        changes = new ArrayList<ObjectChangeSet>();
+                        deletions = new ArrayList<ObjectChangeSet>();
+                        for (ObjectChangeSet objectChanges : changeSet.getAllChangeSets().keySet()) {
+                            if (objectChanges.getClassType(this.session) == classThatChanged) {
+                                changes.add(objectChanges);
+                            }
+                        }
+                        if (changeSet.hasDeletedObjects()) {
+                            for (ObjectChangeSet objectChanges : changeSet.getDeletedObjects().keySet()) {
+                                if (objectChanges.getClassType(this.session) == classThatChanged) {
+                                    deletions.add(objectChanges);
+                                }
+                            }
+                        }
+                    }
+                    int count = 0;
+                    for (ObjectChangeSet objectChanges : deletions) {
+                        count = count + dependencies.invalidate(objectChanges, null, true, map, this.session);
+                    }
+                    for (ObjectChangeSet objectChanges : changes) {
+                        // The values of the changed object are read from the merged object, or from the clone if it is not cached.
+                        Object object = null;
+                        if (objectChanges.getId() != null) {
+                            object = getFromIdentityMap(objectChanges.getId(), classThatChanged, true, descriptor);
+                        }
+                        if (object == null) {
+                            object = objectChanges.getUnitOfWorkClone();
+                        }
+                        int objectCount = dependencies.invalidate(objectChanges, object, false, map, this.session);
+                        if (objectCount < 0) {
+                            removeQueryResults(queryKey);
+                            break;
+                        }
+                        count = count + objectCount;
+                    }
+                    incrementQueryCacheInvalidations(count);
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+    }
+
+    /**
+     * Remove all of the cached results of the query.
+     */
+    protected void removeQueryResults(Object queryKey) {
+        IdentityMap map = this.queryResults.remove(queryKey);
+        this.queryResultsDependencies.remove(queryKey);
+        if (map != null) {
+            incrementQueryCacheInvalidations(map.getSize());
+        }
+    }
+
+    /**
+     * Count the invalidated query results in the profiler.
+     */
+    protected void incrementQueryCacheInvalidations(int count) {
+        if (this.session.isInProfile() && (count > 0)) {
+            this.session.incrementProfile(SessionProfiler.QueryCacheInvalidations, count);
+        }
+    }
+
     /**
      * Return true if an CacheKey with the primary key is in the map.
      * User API.
@@ -1045,6 +1146,7 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
         }
         IdentityMap map = this.queryResults.get(queryKey);
         if (map == null) {
+            this.session.incrementProfile(SessionProfiler.QueryCacheMisses, query);
             return null;
         }
 
@@ -1057,8 +1159,10 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
 
         CacheKey key = map.getCacheKey(lookupParameters, false);
         if ((key == null) || (shouldCheckExpiry && query.getQueryResultsCachePolicy().getCacheInvalidationPolicy().isInvalidated(key))) {
+            this.session.incrementProfile(SessionProfiler.QueryCacheMisses, query);
             return null;
         }
+        this.session.incrementProfile(SessionProfiler.QueryCacheHits, query);
         return key.getObject();
     }
 
@@ -1444,6 +1548,12 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
                             }
                             invalidations.add(queryKey);
                         }
+                        if (query.getQueryResultsCachePolicy().shouldTrackDependencies()) {
+                            QueryResultsDependencies dependencies = QueryResultsDependencies.buildDependencies(query);
+                            if (dependencies != null) {
+                                this.queryResultsDependencies.put(queryKey, dependencies);
+                            }
+                        }
                     }
                 }
             }
@@ -1465,7 +1575,12 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         if (results == null) {
             results = InvalidObject.instance();
         }
-        map.put(lookupParameters, results, null, queryTime);
+        QueryResultsDependencies dependencies = this.queryResultsDependencies.get(queryKey);
+        if (dependencies != null) {
+            dependencies.putResults(lookupParameters, results, queryTime, map, this.session);
+        } else {
+            map.put(lookupParameters, results, null, queryTime);
+        }
     }
 
     /**
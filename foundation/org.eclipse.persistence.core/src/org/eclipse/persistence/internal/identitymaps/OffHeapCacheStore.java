@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Store serialized cache entries outside of the Java heap.
+ * <p>
+ * The store is split into segments, each is a direct ByteBuffer written as a ring and guarded by its own lock.
+ * Entries are appended at the write position of their segment, when the position wraps
+ * the oldest entries are overwritten, so entries are evicted in write order.
+ * Only the index of the entries is kept on the heap.
+ *
+ * @see org.eclipse.persistence.sessions.interceptors.OffHeapCacheInterceptor
+ */
+public class OffHeapCacheStore {
+
+    /** Stamp returned if there is no entry for a key. */
+    public static final long NO_STAMP = Long.MIN_VALUE;
+
+    protected Segment[] segments;
+
+    protected AtomicLong hits;
+    protected AtomicLong misses;
+    protected AtomicLong evictions;
+
+    /**
+     * Create a store of the capacity in bytes, split into the number of segments.
+     * The number of segments must be a power of 2.
+     */
+    public OffHeapCacheStore(long capacity, int numberOfSegments) {
+        int segmentCapacity = (int)Math.min(capacity / numberOfSegments, Integer.MAX_VALUE);
+        this.segments = new Segment[numberOfSegments];
+        for (int index = 0; index < numberOfSegments; index++) {
+            this.segments[index] = new Segment(segmentCapacity);
+        }
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Return the segment of the key.
+     */
+    protected Segment getSegment(Object key) {
+        int hash = key.hashCode();
+        hash = hash ^ (hash >>> 16);
+        return this.segments[hash & (this.segments.length - 1)];
+    }
+
+    /**
+     * Store the bytes for the key, replacing any previous entry.
+     * The stamp identifies the state that was stored, to avoid storing the same state again.
+     * Return false if the entry is too large to be stored.
+     */
+    public boolean put(Object key, byte[] bytes, long stamp) {
+        Segment segment = getSegment(key);
+        synchronized (segment) {
+            if (bytes.length > segment.buffer.capacity()) {
+                segment.index.remove(key);
+                return false;
+            }
+            int position = segment.position;
+            if ((position + bytes.length) > segment.buffer.capacity()) {
+                // Evict the oldest entries at the end of the buffer and wrap.
+                while (!segment.entries.isEmpty() && (segment.entries.peekFirst().offset >= position)) {
+                    evict(segment, segment.entries.pollFirst());
+                }
+                position = 0;
+            }
+            int end = position + bytes.length;
+            // Entries of the previous lap are after the write position, and oldest first.
+            while (!segment.entries.isEmpty() && (segment.entries.peekFirst().offset >= position) && (segment.entries.peekFirst().offset < end)) {
+                evict(segment, segment.entries.pollFirst());
+            }
+            segment.buffer.position(position);
+            segment.buffer.put(bytes);
+            Entry entry = new Entry(key, position, bytes.length, stamp);
+            segment.index.put(key, entry);
+            segment.entries.addLast(entry);
+            segment.position = end;
+        }
+        return true;
+    }
+
+    /**
+     * Remove the entry from the index if it is still the current entry of its key.
+     * Callers of this method must hold the segment lock.
+     */
+    protected void evict(Segment segment, Entry entry) {
+        if (segment.index.get(entry.key) == entry) {
+            segment.index.remove(entry.key);
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove the entry for the key, and return its bytes, or null if not stored.
+     */
+    public byte[] take(Object key) {
+        Segment segment = getSegment(key);
+        byte[] bytes = null;
+        synchronized (segment) {
+            Entry entry = segment.index.remove(key);
+            if (entry != null) {
+                bytes = new byte[entry.length];
+                segment.buffer.position(entry.offset);
+                segment.buffer.get(bytes);
+            }
+        }
+        if (bytes == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return bytes;
+    }
+
+    /**
+     * Return the stamp of the entry for the key, or NO_STAMP if not stored.
+     */
+    public long getStamp(Object key) {
+        Segment segment = getSegment(key);
+        synchronized (segment) {
+            Entry entry = segment.index.get(key);
+            if (entry == null) {
+                return NO_STAMP;
+            }
+            return entry.stamp;
+        }
+    }
+
+    /**
+     * Remove the entry for the key.
+     * The space is reclaimed when the segment wraps.
+     */
+    public void remove(Object key) {
+        Segment segment = getSegment(key);
+        synchronized (segment) {
+            segment.index.remove(key);
+        }
+    }
+
+    /**
+     * Remove all of the entries.
+     */
+    public void clear() {
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.index.clear();
+                segment.entries.clear();
+                segment.position = 0;
+            }
+        }
+    }
+
+    /**
+     * Return the number of entries stored.
+     */
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size = size + segment.index.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Return the total capacity in bytes.
+     */
+    public long getCapacity() {
+        return (long)this.segments[0].buffer.capacity() * this.segments.length;
+    }
+
+    /**
+     * Return the number of entries found by take.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Return the number of entries not found by take.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Return the number of entries overwritten to store new entries.
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapCacheStore[" + getSize() + " entries, " + getCapacity() + " bytes]";
+    }
+
+    /**
+     * A direct buffer written as a ring, with the index of its entries.
+     */
+    protected static class Segment {
+        protected ByteBuffer buffer;
+        protected int position;
+        protected Map<Object, Entry> index;
+        /** Entries in write order, including replaced or removed entries until they are overwritten. */
+        protected ArrayDeque<Entry> entries;
+
+        protected Segment(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+            this.index = new HashMap<Object, Entry>();
+            this.entries = new ArrayDeque<Entry>();
+        }
+    }
+
+    /**
+     * The location of a stored entry.
+     */
+    protected static class Entry {
+        protected Object key;
+        protected int offset;
+        protected int length;
+        protected long stamp;
+
+        protected Entry(Object key, int offset, int length, long stamp) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.ConversionException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.internal.expressions.CompoundExpression;
+import org.eclipse.persistence.internal.expressions.ConstantExpression;
+import org.eclipse.persistence.internal.expressions.ParameterExpression;
+import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.helper.InvalidObject;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * INTERNAL:
+ * Records the objects and parameter values the cached results of a query depend on,
+ * so a change only invalidates the results it affects.
+ * <p>
+ * The cached results of an object query reference the objects of the shared cache, which are
+ * updated by the merge of a change, so a result is only affected if its objects change, or if
+ * a new or changed object matches its parameter values.
+ * This is only supported for object queries whose selection criteria is a conjunction of
+ * equality comparisons of the direct attributes of the query class to parameters or constants.
+ * Values are compared leniently, a value that may match, such as a String of different case or
+ * a value of a different type that cannot be converted, is considered to match.
+ * <p>
+ * The results are indexed by the primary keys of their objects, and by a normalized value of
+ * their first parameter, so a change only compares the results that may match the changed object.
+ *
+ * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setShouldTrackDependencies(boolean)
+ */
+public class QueryResultsDependencies {
+
+    /** The descriptor of the query class. */
+    protected ClassDescriptor descriptor;
+
+    /** The container policy of the query's results, null for a single result. */
+    protected ContainerPolicy containerPolicy;
+
+    /** The direct mappings compared in the selection criteria. */
+    protected DatabaseMapping[] mappings;
+
+    /** The index of the parameter of each comparison in the query arguments, -1 for a constant. */
+    protected int[] argumentIndexes;
+
+    /** The value of each comparison to a constant. */
+    protected Object[] constants;
+
+    /** The primary keys of the objects of the cached results, by the parameter values of each result. */
+    protected Map<Object, Object[]> primaryKeysByParameters;
+
+    /** The parameter values of the cached results containing an object, by the primary key of the object. */
+    protected Map<Object, Set<Object>> parametersByPrimaryKey;
+
+    /** The index of the comparison whose parameter value indexes the results, -1 if the results are not indexed by value. */
+    protected int indexedComparison;
+
+    /** The parameter values of the cached results, by the normalized value of the indexed comparison's parameter. */
+    protected Map<Object, Set<Object>> parametersByValue;
+
+    /** The parameter values of the cached results whose indexed parameter is text that is not a number, it may match any number. */
+    protected Set<Object> textParameters;
+
+    /** The parameter values of the cached results whose indexed parameter value cannot be normalized, they may match any object. */
+    protected Set<Object> unindexedParameters;
+
+    protected QueryResultsDependencies(ObjectLevelReadQuery query, List<DatabaseMapping> mappings, List<Integer> argumentIndexes, List<Object> constants) {
+        this.descriptor = query.getDescriptor();
+        if (query.isReadAllQuery()) {
+            this.containerPolicy = ((ReadAllQuery)query).getContainerPolicy();
+        }
+        int size = mappings.size();
+        this.mappings = mappings.toArray(new DatabaseMapping[size]);
+        this.argumentIndexes = new int[size];
+        for (int index = 0; index < size; index++) {
+            this.argumentIndexes[index] = argumentIndexes.get(index);
+        }
+        this.constants = constants.toArray();
+        this.primaryKeysByParameters = new HashMap<Object, Object[]>();
+        this.parametersByPrimaryKey = new HashMap<Object, Set<Object>>();
+        // Values converted by the mapping are compared as attribute and field values, so are not indexed.
+        this.indexedComparison = -1;
+        for (int index = 0; index < size; index++) {
+            if ((this.argumentIndexes[index] >= 0) && (((AbstractDirectMapping)this.mappings[index]).getConverter() == null)) {
+                this.indexedComparison = index;
+                break;
+            }
+        }
+        this.parametersByValue = new HashMap<Object, Set<Object>>();
+        this.textParameters = new HashSet<Object>();
+        this.unindexedParameters = new HashSet<Object>();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the dependencies of the query's results,
+     * or null if the query's selection criteria is not supported.
+     */
+    public static QueryResultsDependencies buildDependencies(ReadQuery query) {
+        if (!query.isObjectLevelReadQuery() || query.isReportQuery() || (query.getDescriptor() == null)) {
+            return null;
+        }
+        ObjectLevelReadQuery objectQuery = (ObjectLevelReadQuery)query;
+        List<DatabaseMapping> mappings = new ArrayList<DatabaseMapping>();
+        List<Integer> argumentIndexes = new ArrayList<Integer>();
+        List<Object> constants = new ArrayList<Object>();
+        Expression criteria = objectQuery.getSelectionCriteria();
+        if ((criteria != null) && !addComparisons(criteria, objectQuery, mappings, argumentIndexes, constants)) {
+            return null;
+        }
+        return new QueryResultsDependencies(objectQuery, mappings, argumentIndexes, constants);
+    }
+
+    /**
+     * Add the comparisons of the criteria, return false if the criteria is not supported.
+     */
+    protected static boolean addComparisons(Expression criteria, ObjectLevelReadQuery query, List<DatabaseMapping> mappings, List<Integer> argumentIndexes, List<Object> constants) {
+        if (!criteria.isCompoundExpression()) {
+            return false;
+        }
+        CompoundExpression compound = (CompoundExpression)criteria;
+        int selector = compound.getOperator().getSelector();
+        if (criteria.isLogicalExpression() && (selector == ExpressionOperator.And)) {
+            return addComparisons(compound.getFirstChild(), query, mappings, argumentIndexes, constants)
+                    && addComparisons(compound.getSecondChild(), query, mappings, argumentIndexes, constants);
+        }
+        if (!criteria.isRelationExpression() || (selector != ExpressionOperator.Equal)) {
+            return false;
+        }
+        Expression attribute = compound.getFirstChild();
+        Expression value = compound.getSecondChild();
+        if (!attribute.isQueryKeyExpression()) {
+            attribute = compound.getSecondChild();
+            value = compound.getFirstChild();
+        }
+        if (!attribute.isQueryKeyExpression() || (((QueryKeyExpression)attribute).getBaseExpression() != criteria.getBuilder())) {
+            return false;
+        }
+        // The criteria of the original query may not be normalized, so the mapping is found from the attribute name.
+        DatabaseMapping mapping = query.getDescriptor().getObjectBuilder().getMappingForAttributeName(((QueryKeyExpression)attribute).getName());
+        if (!(mapping instanceof AbstractDirectMapping)) {
+            return false;
+        }
+        if (value.isParameterExpression()) {
+            ParameterExpression parameter = (ParameterExpression)value;
+            if ((parameter.getBaseExpression() != null) || (parameter.getField() == null)) {
+                return false;
+            }
+            int index = query.getArguments().indexOf(parameter.getField().getName());
+            if (index < 0) {
+                return false;
+            }
+            mappings.add(mapping);
+            argumentIndexes.add(index);
+            constants.add(null);
+            return true;
+        } else if (value.isConstantExpression()) {
+            mappings.add(mapping);
+            argumentIndexes.add(-1);
+            constants.add(((ConstantExpression)value).getValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Cache the results for the parameter values, and record the primary keys of their objects.
+     * The results are cached under the same lock as their invalidation, so a change merged concurrently
+     * either invalidates the cached results or is merged after they were recorded.
+     * The dependencies of results no longer in the cache are removed when there are twice as many as cached results.
+     */
+    public synchronized void putResults(Object parameters, Object results, long queryTime, IdentityMap cachedResults, AbstractSession session) {
+        Object[] primaryKeys;
+        if ((results == null) || (results == InvalidObject.instance)) {
+            primaryKeys = new Object[0];
+        } else if (this.containerPolicy != null) {
+            primaryKeys = new Object[this.containerPolicy.sizeFor(results)];
+            int index = 0;
+            for (Object iterator = this.containerPolicy.iteratorFor(results); this.containerPolicy.hasNext(iterator);) {
+                primaryKeys[index++] = extractPrimaryKey(this.containerPolicy.next(iterator, session), session);
+            }
+        } else {
+            primaryKeys = new Object[] { extractPrimaryKey(results, session) };
+        }
+        removeResults(parameters);
+        cachedResults.put(parameters, results, null, queryTime);
+        this.primaryKeysByParameters.put(parameters, primaryKeys);
+        for (Object primaryKey : primaryKeys) {
+            addIndex(this.parametersByPrimaryKey, primaryKey, parameters);
+        }
+        if (this.indexedComparison >= 0) {
+            Object value = getIndexedValue(parameters);
+            if (value == null) {
+                this.unindexedParameters.add(parameters);
+            } else {
+                addIndex(this.parametersByValue, value, parameters);
+                if (value instanceof String) {
+                    this.textParameters.add(parameters);
+                }
+            }
+        }
+        if (this.primaryKeysByParameters.size() > (cachedResults.getMaxSize() * 2)) {
+            for (Object cachedParameters : new ArrayList<Object>(this.primaryKeysByParameters.keySet())) {
+                if (cachedResults.getCacheKey(cachedParameters, false) == null) {
+                    removeResults(cachedParameters);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the parameter values of the results to the index under the key.
+     */
+    protected static void addIndex(Map<Object, Set<Object>> index, Object key, Object parameters) {
+        Set<Object> parametersSet = index.get(key);
+        if (parametersSet == null) {
+            parametersSet = new HashSet<Object>();
+            index.put(key, parametersSet);
+        }
+        parametersSet.add(parameters);
+    }
+
+    /**
+     * Remove the parameter values of the results from the index under the key.
+     */
+    protected static void removeIndex(Map<Object, Set<Object>> index, Object key, Object parameters) {
+        Set<Object> parametersSet = index.get(key);
+        if (parametersSet != null) {
+            parametersSet.remove(parameters);
+            if (parametersSet.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Return the normalized value of the indexed comparison's parameter, or null if it cannot be indexed.
+     */
+    protected Object getIndexedValue(Object parameters) {
+        if (!(parameters instanceof CacheId)) {
+            return null;
+        }
+        Object[] values = ((CacheId)parameters).getPrimaryKey();
+        int argumentIndex = this.argumentIndexes[this.indexedComparison];
+        if (argumentIndex >= values.length) {
+            return null;
+        }
+        return normalize(values[argumentIndex]);
+    }
+
+    /**
+     * Return a value equal for all the values that may be equal in the database, or null if the value cannot be normalized.
+     * Numbers and text that is a number are normalized to a BigDecimal without trailing zeros,
+     * other text is trimmed and each character is normalized ignoring case.
+     * @see #mayBeEqual(Object, Object, AbstractSession)
+     */
+    protected static Object normalize(Object value) {
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).stripTrailingZeros();
+            } catch (NumberFormatException exception) {
+                return null;
+            }
+        } else if (value instanceof String) {
+            String text = ((String)value).trim();
+            try {
+                return new BigDecimal(text).stripTrailingZeros();
+            } catch (NumberFormatException exception) {
+                // Equal for the text equal ignoring case, as String.equalsIgnoreCase() compares.
+                StringBuilder normalized = new StringBuilder(text.length());
+                for (int index = 0; index < text.length(); index = text.offsetByCodePoints(index, 1)) {
+                    normalized.appendCodePoint(Character.toLowerCase(Character.toUpperCase(text.codePointAt(index))));
+                }
+                return normalized.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the parameter values of the cached results that may match the object's attribute values.
+     */
+    protected Collection<Object> getMatchingParameters(Object object) {
+        if (this.indexedComparison < 0) {
+            return this.primaryKeysByParameters.keySet();
+        }
+        Object attributeValue = this.mappings[this.indexedComparison].getAttributeValueFromObject(object);
+        Object value = normalize(attributeValue);
+        if (value == null) {
+            return this.primaryKeysByParameters.keySet();
+        }
+        List<Object> parameters = new ArrayList<Object>(this.unindexedParameters);
+        Set<Object> parametersSet = this.parametersByValue.get(value);
+        if (parametersSet != null) {
+            parameters.addAll(parametersSet);
+        }
+        // Text that cannot be converted to the number is considered to match.
+        if (attributeValue instanceof Number) {
+            parameters.addAll(this.textParameters);
+        }
+        return parameters;
+    }
+
+    /**
+     * Extract the primary key from the result object.
+     */
+    protected Object extractPrimaryKey(Object object, AbstractSession session) {
+        ClassDescriptor objectDescriptor = this.descriptor;
+        if (object.getClass() != objectDescriptor.getJavaClass()) {
+            objectDescriptor = session.getDescriptor(object);
+        }
+        return objectDescriptor.getObjectBuilder().extractPrimaryKeyFromObject(object, session);
+    }
+
+    /**
+     * Remove the dependencies of the results cached for the parameter values.
+     */
+    protected void removeResults(Object parameters) {
+        Object[] primaryKeys = this.primaryKeysByParameters.remove(parameters);
+        if (primaryKeys == null) {
+            return;
+        }
+        for (Object primaryKey : primaryKeys) {
+            removeIndex(this.parametersByPrimaryKey, primaryKey, parameters);
+        }
+        if (this.indexedComparison >= 0) {
+            Object value = getIndexedValue(parameters);
+            if (value == null) {
+                this.unindexedParameters.remove(parameters);
+            } else {
+                removeIndex(this.parametersByValue, value, parameters);
+                this.textParameters.remove(parameters);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the cached results affected by the change to the object.
+     * The object is the merged version of the new or changed object, it is not required for a deleted object.
+     * Return the number of results removed, or -1 if the object is required but was not provided,
+     * in which case all of the results must be removed.
+     */
+    public synchronized int invalidate(ObjectChangeSet changeSet, Object object, boolean isDeleted, IdentityMap cachedResults, AbstractSession session) {
+        Set<Object> invalidParameters = new HashSet<Object>();
+        Set<Object> parametersSet = this.parametersByPrimaryKey.get(changeSet.getId());
+        if (parametersSet != null) {
+            invalidParameters.addAll(parametersSet);
+        }
+        if (!isDeleted) {
+            if (object == null) {
+                return -1;
+            }
+            if (matchesConstants(object, session)) {
+                for (Object parameters : getMatchingParameters(object)) {
+                    if (!invalidParameters.contains(parameters) && matchesParameters(object, parameters, session)) {
+                        invalidParameters.add(parameters);
+                    }
+                }
+            }
+        }
+        int count = 0;
+        for (Object parameters : invalidParameters) {
+            removeResults(parameters);
+            CacheKey key = cachedResults.getCacheKey(parameters, false);
+            if (key != null) {
+                cachedResults.remove(key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return if the object's attribute values may be equal to the constants of the selection criteria.
+     */
+    protected boolean matchesConstants(Object object, AbstractSession session) {
+        for (int index = 0; index < this.mappings.length; index++) {
+            if ((this.argumentIndexes[index] < 0) && !matches(index, object, this.constants[index], session)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return if the object's attribute values may be equal to the parameter values.
+     */
+    protected boolean matchesParameters(Object object, Object parameters, AbstractSession session) {
+        Object[] values = null;
+        if (parameters instanceof CacheId) {
+            values = ((CacheId)parameters).getPrimaryKey();
+        }
+        for (int index = 0; index < this.mappings.length; index++) {
+            int argumentIndex = this.argumentIndexes[index];
+            if (argumentIndex >= 0) {
+                if ((values == null) || (argumentIndex >= values.length)) {
+                    return true;
+                }
+                if (!matches(index, object, values[argumentIndex], session)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return if the object's value of the mapping at the index may be equal to the value,
+     * either as the attribute value or as the converted field value.
+     */
+    protected boolean matches(int index, Object object, Object value, AbstractSession session) {
+        AbstractDirectMapping mapping = (AbstractDirectMapping)this.mappings[index];
+        Object attributeValue = mapping.getAttributeValueFromObject(object);
+        if (mayBeEqual(attributeValue, value, session)) {
+            return true;
+        }
+        if (mapping.getConverter() != null) {
+            return mayBeEqual(mapping.getFieldValue(attributeValue, session), value, session);
+        }
+        return false;
+    }
+
+    /**
+     * Return if the values may be equal in the database.
+     * Null and arrays always match, as their comparison depends on the platform,
+     * Strings are compared ignoring case and surrounding spaces, as the database collation may,
+     * values of different types are compared after conversion.
+     */
+    protected boolean mayBeEqual(Object attributeValue, Object value, AbstractSession session) {
+        if ((attributeValue == null) || (value == null)) {
+            return true;
+        }
+        if (attributeValue.getClass().isArray() || value.getClass().isArray()) {
+            return true;
+        }
+        if ((attributeValue instanceof String) && (value instanceof String)) {
+            return ((String)attributeValue).trim().equalsIgnoreCase(((String)value).trim());
+        }
+        if (attributeValue.getClass() == value.getClass()) {
+            return attributeValue.equals(value);
+        }
+        if ((attributeValue instanceof Number) && (value instanceof Number)) {
+            try {
+                return new BigDecimal(attributeValue.toString()).compareTo(new BigDecimal(value.toString())) == 0;
+            } catch (NumberFormatException exception) {
+                return true;
+            }
+        }
+        try {
+            Object convertedValue = session.getDatasourcePlatform().getConversionManager().convertObject(value, attributeValue.getClass());
+            return (convertedValue == null) || attributeValue.equals(convertedValue);
+        } catch (ConversionException exception) {
+            return true;
+        }
+    }
+}
@@ -50,7 +50,7 @@ public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLoc
     public CacheKey acquireDeferredLock(Object primaryKey, boolean isCacheCheckComplete) {
         CacheKey cacheKey = getCacheKey(primaryKey, false);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
             if (cacheKey == null) {
                 return newCacheKey;
@@ -66,7 +66,7 @@ public CacheKey acquireDeferredLock(Object primaryKey, boolean isCacheCheckCompl
     public CacheKey acquireLock(Object primaryKey, boolean forMerge, boolean isCacheCheckComplete) {
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
             if (cacheKey == null) {
                 return newCacheKey;
@@ -82,7 +82,7 @@ public CacheKey acquireLock(Object primaryKey, boolean forMerge, boolean isCache
     public CacheKey acquireLockNoWait(Object primaryKey, boolean forMerge) {
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
             if (cacheKey == null) {
                 return newCacheKey;
@@ -98,7 +98,7 @@ public CacheKey acquireLockNoWait(Object primaryKey, boolean forMerge) {
     public CacheKey acquireLockWithWait(Object primaryKey, boolean forMerge, int wait) {
         CacheKey cacheKey = getCacheKey(primaryKey, forMerge);
         if (cacheKey == null) {
-            CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+            CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
             cacheKey = putCacheKeyIfAbsent(newCacheKey);
             if (cacheKey == null) {
                 return newCacheKey;
@@ -120,7 +120,7 @@ public CacheKey acquireReadLockOnCacheKey(Object primaryKey) {
      */
     @Override
     public CacheKey acquireReadLockOnCacheKeyNoWait(Object primaryKey) {
-        CacheKey newCacheKey = createCacheKey(primaryKey, null, null, 0);
+        CacheKey newCacheKey = buildCacheKey(primaryKey, null, null, 0);
         CacheKey cacheKey = getCacheKey(newCacheKey, false);
         if (cacheKey == null) {
             return newCacheKey;
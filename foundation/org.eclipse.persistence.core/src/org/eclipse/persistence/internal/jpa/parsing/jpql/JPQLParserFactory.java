@@ -16,6 +16,7 @@
 import org.eclipse.persistence.queries.ObjectLevelReadQuery;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
 
 /**
  * Factory class used to isolate Antlr dependencies.
@@ -52,9 +53,14 @@ public void populateQuery(String jpqlString, ObjectLevelReadQuery query, Abstrac
             JPQLParseTree parseTree = parser.getParseTree();
             parseTree.populateQuery(query, session);
             if (isCacheable) {
+                session.incrementProfile(SessionProfiler.JpqlParseCacheMisses);
                 session.getProject().getJPQLParseCache().put(jpqlString, query);
+                if (session.isInProfile()) {
+                    session.updateProfile(SessionProfiler.JpqlParseCacheEvictions, session.getProject().getJPQLParseCache().getEvictions());
+                }
             }
         } else {
+            session.incrementProfile(SessionProfiler.JpqlParseCacheHits);
             query.prepareFromQuery(cachedQuery);
             query.setIsPrepared(true);
         }
@@ -606,6 +606,7 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "sequencing_afterTransactionCommitted", "local sequencing preallocation is copied to preallocation after transaction commit" },
         { "sequencing_afterTransactionRolledBack", "local sequencing preallocation is discarded after transaction roll back" },
         { "sequencing_preallocation", "sequencing preallocation for {0}: objects: {1} , first: {2}, last: {3}" },
+        { "sequencing_block_preallocation_ignored", "sequence {0}: block preallocation is ignored, it requires a preallocation size greater than 1 and either a native sequence object or a sequence connection pool" },
         { "starting_rcm", "Starting Remote Command Manager {0}" },
         { "stopping_rcm", "Stopping Remote Command Manager {0}" },
         { "initializing_discovery_resources", "Initializing discovery resources - group={0} port={1}" },
@@ -756,6 +757,8 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "composite_member_begin_call", "Begin {0} on composite member Persistence Unit {1}; state {2}"},
         { "composite_member_end_call", "End {0} on composite member Persistence Unit {1}; state {2}"},
         { "loading_session_xml", "Loading persistence unit from sessions-xml file: {0}, session-name: {1}"},
+        { "bootstrap_phase_time", "Persistence Unit {0}; bootstrap phase {1} took {2} ms"},
+        { "project_cache_stale", "The cached project does not match the fingerprint {0} of the persistence unit and will be rebuilt."},
 
         { "default_tables_created", "The table ({0}) is created."},
         { "identity_map_does_not_exist",  "Identity Map [{0}] does not exist" },
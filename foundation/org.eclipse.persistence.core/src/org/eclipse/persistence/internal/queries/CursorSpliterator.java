@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.queries;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.eclipse.persistence.internal.descriptors.DescriptorIterator;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.CursoredStream;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Spliterator reading the objects of a cursor, for the stream of the cursor.
+ * <p>
+ * Each object is built when the stream requests it, and is released once consumed by the stream:
+ * a CursoredStream releases the objects read so far every page,
+ * and if the cursor policy detaches objects, the object is unregistered from the unit of work.
+ * Only the object itself is unregistered, the registered objects it references are not,
+ * as other objects of the result, or the application, may still reference them.
+ * The cursor is closed once all its objects are read.
+ *
+ * @see Cursor#stream()
+ * @see org.eclipse.persistence.queries.CursorPolicy#setShouldDetachObjects(boolean)
+ */
+public class CursorSpliterator implements Spliterator<Object> {
+
+    protected final Cursor cursor;
+    protected final boolean shouldDetachObjects;
+
+    public CursorSpliterator(Cursor cursor) {
+        this.cursor = cursor;
+        ReadQuery query = cursor.getQuery();
+        this.shouldDetachObjects = cursor.getPolicy().shouldDetachObjects()
+                && query.isObjectLevelReadQuery() && !query.isReportQuery();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Object> action) {
+        if (this.cursor.isClosed() || !this.cursor.hasNext()) {
+            this.cursor.close();
+            return false;
+        }
+        Object object = this.cursor.next();
+        action.accept(object);
+        release(object);
+        return true;
+    }
+
+    /**
+     * Release the object once consumed.
+     */
+    protected void release(Object object) {
+        if (this.shouldDetachObjects) {
+            AbstractSession session = this.cursor.getSession();
+            if (session.isUnitOfWork()) {
+                ((UnitOfWorkImpl)session).unregisterObject(object, DescriptorIterator.NoCascading, true);
+            }
+        }
+        if ((this.cursor instanceof CursoredStream) && (this.cursor.getPosition() >= this.cursor.getPageSize())) {
+            ((CursoredStream)this.cursor).releasePrevious();
+        }
+    }
+
+    /**
+     * The cursor is read sequentially.
+     */
+    @Override
+    public Spliterator<Object> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sequencing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Preallocated sequence values of a sequence name, stored as blocks of consecutive values.
+ * Values are handed out from the current block with an atomic increment, without locking.
+ * The next block may be allocated in advance, it replaces the current block once the current block is used.
+ * <p>
+ * Blocks are only allocated while holding the sequence's lock from the SequencingManager,
+ * so at most one next block is allocated at a time.
+ * @see SequencingManager
+ * @see PreallocationHandler
+ */
+class PreallocatedBlocks {
+
+    /** Returned by poll when all blocks are used. */
+    static final long EMPTY = Long.MIN_VALUE;
+
+    /**
+     * A block of values from start (inclusive) to end (exclusive).
+     * The next value is incremented past the end once the block is used, a block is never reused.
+     */
+    static final class Block {
+        final long end;
+        final long prefetchAt;
+        final AtomicLong next;
+
+        Block(long start, long end, long prefetchAt) {
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+            this.next = new AtomicLong(start);
+        }
+    }
+
+    protected final AtomicReference<Block> current = new AtomicReference<Block>(new Block(0, 0, Long.MAX_VALUE));
+    protected final AtomicReference<Block> next = new AtomicReference<Block>();
+    protected final AtomicBoolean isPrefetching = new AtomicBoolean();
+
+    /**
+     * Create a block from the last value of a block of size values allocated from the database.
+     * The background allocation of the next block is due once threshold of the block was used.
+     */
+    static Block createBlock(long last, int size, float threshold) {
+        long start = last - size + 1;
+        long prefetchAt = Long.MAX_VALUE;
+        if (threshold < 1) {
+            prefetchAt = start + Math.max(0, (long)(size * threshold));
+        }
+        return new Block(start, last + 1, prefetchAt);
+    }
+
+    /**
+     * Return the next value, or EMPTY if the current block and the next block are used.
+     */
+    public long poll() {
+        while (true) {
+            Block block = this.current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            Block nextBlock = this.next.get();
+            if (nextBlock == null) {
+                return EMPTY;
+            }
+            // Several threads may try to switch to the next block, only one succeeds.
+            if (this.current.compareAndSet(block, nextBlock)) {
+                this.next.compareAndSet(nextBlock, null);
+            }
+        }
+    }
+
+    /**
+     * Set the current block, the first value of the block must have been taken by the caller.
+     * Must only be called while holding the sequence's lock after poll returned EMPTY.
+     */
+    public void setCurrent(Block block) {
+        this.current.set(block);
+    }
+
+    /**
+     * Set the next block to use once the current block is used.
+     * Must only be called while holding the sequence's lock.
+     */
+    public void setNext(Block block) {
+        this.next.set(block);
+    }
+
+    /**
+     * Return if the prefetch threshold of the current block was reached,
+     * and the next block has not been allocated yet.
+     */
+    public boolean shouldPrefetch() {
+        Block block = this.current.get();
+        return (block.next.get() >= block.prefetchAt) && (this.next.get() == null) && !this.isPrefetching.get();
+    }
+
+    /**
+     * Return true if the caller should allocate the next block,
+     * false if another thread is already allocating it.
+     */
+    public boolean startPrefetch() {
+        return this.isPrefetching.compareAndSet(false, true);
+    }
+
+    /**
+     * Must be called once the next block was allocated, or failed to be allocated.
+     */
+    public void endPrefetch() {
+        this.isPrefetching.set(false);
+    }
+
+    /**
+     * Return if the next block was allocated.
+     */
+    public boolean hasNext() {
+        return this.next.get() != null;
+    }
+}
@@ -22,6 +22,7 @@
  */
 class PreallocationHandler implements SequencingLogInOut {
     protected Map<String, Queue> preallocatedSequences;
+    protected Map<String, PreallocatedBlocks> preallocatedBlocks;
 
     public PreallocationHandler() {
         super();
@@ -46,6 +47,24 @@ public Queue getPreallocated(String sequenceName) {
         return sequences;
     }
 
+    /**
+     * Returns the blocks of sequences from the global sequences for the seqName, used with block preallocation.
+     * If there are none, new empty blocks are registered.
+     */
+    public PreallocatedBlocks getPreallocatedBlocks(String sequenceName) {
+        PreallocatedBlocks blocks = preallocatedBlocks.get(sequenceName);
+        if (blocks == null) {
+            synchronized (preallocatedBlocks) {
+                blocks = preallocatedBlocks.get(sequenceName);
+                if (blocks == null) {
+                    blocks = new PreallocatedBlocks();
+                    preallocatedBlocks.put(sequenceName, blocks);
+                }
+            }
+        }
+        return blocks;
+    }
+
     // SequencingLogInOut
     public void onConnect() {
         initializePreallocated();
@@ -53,6 +72,7 @@ public void onConnect() {
 
     public void onDisconnect() {
         preallocatedSequences = null;
+        preallocatedBlocks = null;
     }
 
     public boolean isConnected() {
@@ -66,6 +86,7 @@ public boolean isConnected() {
      */
     public void initializePreallocated() {
         preallocatedSequences = new ConcurrentHashMap(20);
+        preallocatedBlocks = new ConcurrentHashMap(20);
     }
 
     /**
@@ -75,6 +96,7 @@ public void initializePreallocated() {
      */
     public void initializePreallocated(String seqName) {
         preallocatedSequences.remove(seqName);
+        preallocatedBlocks.remove(seqName);
     }
 
     /**
@@ -334,6 +334,13 @@ protected void logDebugPreallocation(String seqName, Object firstSequenceValue,
         }
     }
 
+    protected void logDebugPreallocation(String seqName, int size, long lastSequenceValue) {
+        if (getOwnerSession().shouldLog(SessionLog.FINEST, SessionLog.SEQUENCING)) {
+            Object[] args = { seqName, Integer.valueOf(size), Long.valueOf(lastSequenceValue - size + 1), Long.valueOf(lastSequenceValue) };
+            getOwnerSession().log(SessionLog.FINEST, SessionLog.SEQUENCING, "sequencing_preallocation", args);
+        }
+    }
+
     protected void logDebugLocalPreallocation(AbstractSession writeSession, String seqName, Vector sequences, Accessor accessor) {
         if (writeSession.shouldLog(SessionLog.FINEST, SessionLog.SEQUENCING)) {
             Object[] args = { seqName, Integer.valueOf(sequences.size()), sequences.firstElement(), sequences.lastElement() };
@@ -573,6 +580,12 @@ class Preallocation_Transaction_Accessor_State extends State {
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
+                if (sequence.shouldUseBlockPreallocation()) {
+                    Object sequenceValue = getNextBlockValue(sequence, writeSession, true);
+                    if (sequenceValue != null) {
+                        return sequenceValue;
+                    }
+                }
                 PreallocationHandler handler = getPreallocationHandler(getContext(writeSession));
                 Queue sequencesForName = handler.getPreallocated(seqName);
                 // First try to get the next sequence value without locking.
@@ -654,6 +667,12 @@ class Preallocation_NoTransaction_State extends State {
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
+                if (sequence.shouldUseBlockPreallocation()) {
+                    Object sequenceValue = getNextBlockValue(sequence, writeSession, false);
+                    if (sequenceValue != null) {
+                        return sequenceValue;
+                    }
+                }
                 PreallocationHandler handler = getPreallocationHandler(getContext(writeSession));
                 Queue sequencesForName = handler.getPreallocated(seqName);
                 // First try to get the next sequence value without locking.
@@ -685,6 +704,127 @@ public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
         }
     }
 
+    /**
+     * Return the next sequence value from the preallocated blocks of the sequence,
+     * or null if the sequence cannot allocate blocks.
+     * Values are handed out without locking, the sequence's lock is only acquired to allocate a block
+     * when the next block was not already allocated in the background.
+     * Once the prefetch threshold of the current block is reached, the next block is allocated in the background.
+     * This is used by the states that do not use the write connection,
+     * Preallocation_Transaction_Accessor_State (shouldUseTransaction) and Preallocation_NoTransaction_State.
+     */
+    protected Object getNextBlockValue(Sequence sequence, AbstractSession writeSession, boolean shouldUseTransaction) {
+        String seqName = sequence.getName();
+        String context = getContext(writeSession);
+        PreallocatedBlocks blocks = getPreallocationHandler(context).getPreallocatedBlocks(seqName);
+        // First try to get the next sequence value without locking.
+        long sequenceValue = blocks.poll();
+        if (sequenceValue == PreallocatedBlocks.EMPTY) {
+            // Blocks are used, so must lock and allocate the next block, unless it was allocated in the meantime.
+            ConcurrencyManager lock = acquireLock(seqName);
+            try {
+                sequenceValue = blocks.poll();
+                if (sequenceValue == PreallocatedBlocks.EMPTY) {
+                    int size = sequence.getPreallocationSize();
+                    Number last = allocateBlock(sequence, writeSession, shouldUseTransaction, size);
+                    if (last == null) {
+                        return null;
+                    }
+                    PreallocatedBlocks.Block block = PreallocatedBlocks.createBlock(last.longValue(), size, sequence.getPrefetchThreshold());
+                    // Take the first value before making the block available to ensure this thread gets one.
+                    sequenceValue = block.next.getAndIncrement();
+                    blocks.setCurrent(block);
+                    logDebugPreallocation(seqName, size, last.longValue());
+                }
+            } finally {
+                lock.release();
+            }
+        }
+        if (blocks.shouldPrefetch()) {
+            prefetchBlock(sequence, blocks, context, shouldUseTransaction);
+        }
+        return Long.valueOf(sequenceValue);
+    }
+
+    /**
+     * Allocate a block of size values from the database, and return the last value of the block,
+     * or null if the sequence cannot allocate blocks.
+     * A sequencing accessor is used if the sequence uses a transaction.
+     */
+    protected Number allocateBlock(Sequence sequence, AbstractSession writeSession, boolean shouldUseTransaction, int size) {
+        if (!shouldUseTransaction) {
+            return sequence.getGeneratedBlock(null, writeSession, sequence.getName(), size);
+        }
+        Accessor accessor = getConnectionHandler().acquireAccessor();
+        try {
+            accessor.beginTransaction(writeSession);
+            try {
+                Number last = sequence.getGeneratedBlock(accessor, writeSession, sequence.getName(), size);
+                accessor.commitTransaction(writeSession);
+                return last;
+            } catch (RuntimeException ex) {
+                try {
+                    // make sure to rollback the transaction we've begun
+                    accessor.rollbackTransaction(writeSession);
+                } catch (Exception rollbackException) {
+                    // ignore rollback exception
+                }
+                // don't eat the original exception
+                throw ex;
+            }
+        } finally {
+            getConnectionHandler().releaseAccessor(accessor);
+        }
+    }
+
+    /**
+     * Allocate the next block of the sequence in the background, using the server platform's thread pool.
+     * The owner session is used to allocate the block, so this is only done for the default (non tenant) context,
+     * and for native sequences only if the owner session is a server session that can execute concurrent queries.
+     * If the allocation fails, it is logged and the block is allocated when needed instead.
+     */
+    protected void prefetchBlock(final Sequence sequence, final PreallocatedBlocks blocks, String context, final boolean shouldUseTransaction) {
+        final DatabaseSessionImpl session = getOwnerSession();
+        if (!"default".equals(context) || (!shouldUseTransaction && !session.isServerSession())) {
+            return;
+        }
+        if (!blocks.startPrefetch()) {
+            return;
+        }
+        try {
+            session.getServerPlatform().launchContainerRunnable(new Runnable() {
+                public void run() {
+                    String seqName = sequence.getName();
+                    ConcurrencyManager lock = null;
+                    try {
+                        if (!isConnected()) {
+                            return;
+                        }
+                        lock = acquireLock(seqName);
+                        if (!blocks.hasNext()) {
+                            int size = sequence.getPreallocationSize();
+                            Number last = allocateBlock(sequence, session, shouldUseTransaction, size);
+                            if (last != null) {
+                                blocks.setNext(PreallocatedBlocks.createBlock(last.longValue(), size, sequence.getPrefetchThreshold()));
+                                logDebugPreallocation(seqName, size, last.longValue());
+                            }
+                        }
+                    } catch (RuntimeException exception) {
+                        session.logThrowable(SessionLog.WARNING, SessionLog.SEQUENCING, exception);
+                    } finally {
+                        if (lock != null) {
+                            lock.release();
+                        }
+                        blocks.endPrefetch();
+                    }
+                }
+            });
+        } catch (RuntimeException exception) {
+            blocks.endPrefetch();
+            throw exception;
+        }
+    }
+
     /**
      * Using NoPreallocation, no transaction, no Accessor.
      * This is only used for identity sequencing when preallocation is not possible.
@@ -1048,7 +1188,23 @@ protected void initializeStates(int nAlreadyConnectedSequences) {
             if (state == null) {
                 createState(sequence.shouldUsePreallocation(), sequence.shouldUseTransaction());
             }
+            if (sequence.shouldUseBlockPreallocation() && !canUseBlockPreallocation(sequence)) {
+                getOwnerSession().log(SessionLog.WARNING, SessionLog.SEQUENCING, "sequencing_block_preallocation_ignored", new Object[] { sequence.getName() });
+            }
+        }
+    }
+
+    /**
+     * Return if the preallocated values of the sequence can be kept as blocks.
+     * Blocks are only used by the states that do not use the write connection,
+     * a table sequence without a sequence connection pool keeps its preallocated values in a queue.
+     */
+    protected boolean canUseBlockPreallocation(Sequence sequence) {
+        if (sequence.getPreallocationSize() <= 1) {
+            return false;
         }
+        int stateId = getStateId(sequence.shouldUsePreallocation(), sequence.shouldUseTransaction());
+        return (stateId == PREALLOCATION_NOTRANSACTION) || (stateId == PREALLOCATION_TRANSACTION_ACCESSOR);
     }
 
     protected void clearStates() {
@@ -130,6 +130,7 @@
 import org.eclipse.persistence.sessions.coordination.CommandProcessor;
 import org.eclipse.persistence.sessions.coordination.MetadataRefreshListener;
 import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 
 /**
  * Implementation of org.eclipse.persistence.sessions.Session
@@ -302,6 +303,9 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
     /** Allow a session to enable concurrent processing. */
     protected boolean isConcurrent;
 
+    /** Allow the cache keys of the session's identity maps to use a queued lock instead of their monitor. */
+    protected boolean shouldUseQueuedCacheLocks;
+
     /**
      * This map will hold onto class to static metamodel class references from JPA.
      */
@@ -1504,6 +1508,24 @@ public void incrementProfile(String operationName) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Updates the count of SessionProfiler event by the number of times it occurred.
+     * The PerformanceMonitor adds the count at once, other profilers are notified of each occurrence.
+     */
+    public void incrementProfile(String operationName, int count) {
+        if (this.isInProfile && (count > 0)) {
+            SessionProfiler profiler = getProfiler();
+            if (profiler instanceof PerformanceMonitor) {
+                ((PerformanceMonitor)profiler).occurred(operationName, count, this);
+            } else {
+                for (int index = 0; index < count; index++) {
+                    profiler.occurred(operationName, this);
+                }
+            }
+        }
+    }
+
     /**
      * INTERNAL:
      * Updates the count of SessionProfiler event
@@ -5416,6 +5438,28 @@ public void setIsConcurrent(boolean isConcurrent) {
        this.isConcurrent = isConcurrent;
    }
 
+   /**
+    * ADVANCED:
+    * Return if the cache keys of the session's identity maps use a queued lock instead of their monitor.
+    * @see #setShouldUseQueuedCacheLocks(boolean)
+    */
+   public boolean shouldUseQueuedCacheLocks() {
+       return this.shouldUseQueuedCacheLocks;
+   }
+
+   /**
+    * ADVANCED:
+    * Set if the cache keys of the session's identity maps use a queued lock instead of their monitor.
+    * With the queued lock, threads waiting on a cache key are parked in a queue and a release only wakes
+    * the threads that can acquire the lock, instead of waking every waiting thread.
+    * This can reduce contention when many threads merge the same objects concurrently.
+    * This must be set before the identity maps are used, it does not affect existing cache keys.
+    * @see org.eclipse.persistence.internal.helper.QueuedConcurrencyLock
+    */
+   public void setShouldUseQueuedCacheLocks(boolean shouldUseQueuedCacheLocks) {
+       this.shouldUseQueuedCacheLocks = shouldUseQueuedCacheLocks;
+   }
+
    /**
     * ADVANCED:
     * Set to indicate whether ObjectLevelReadQuery should by default use ResultSet Access optimization.
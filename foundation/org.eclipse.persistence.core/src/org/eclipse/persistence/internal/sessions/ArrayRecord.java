@@ -21,11 +21,16 @@
 /**
  * PERF: Optimized record implementation using arrays instead of Vector.
  * Currently only used when fetch rows from the database.
+ * A field is found at its field index, or through the fields index shared by the rows of the call,
+ * so field lookups do not depend on the number of fields of the row.
  */
 public class ArrayRecord extends DatabaseRecord {
     protected DatabaseField[] fieldsArray;
     protected Object[] valuesArray;
 
+    /** PERF: Index of the fields array, shared by the rows of a call, used if a field is not at its field index. */
+    protected DatabaseFieldIndex fieldsIndex;
+
     protected ArrayRecord() {
         super();
     }
@@ -36,6 +41,43 @@ public ArrayRecord(Vector fields, DatabaseField[] fieldsArray, Object[] valuesAr
         this.valuesArray = valuesArray;
     }
 
+    public ArrayRecord(Vector fields, DatabaseField[] fieldsArray, DatabaseFieldIndex fieldsIndex, Object[] valuesArray) {
+        this(fields, fieldsArray, valuesArray);
+        this.fieldsIndex = fieldsIndex;
+    }
+
+    /**
+     * INTERNAL:
+     * PERF: Return the position of the field in the fields array, or -1 if the row does not contain the field.
+     * The field's index is checked first, then the fields index if set, otherwise the fields are compared in order.
+     */
+    protected int indexOf(DatabaseField key) {
+        int index = key.index;
+        if ((index >= 0) && (index < this.size)) {
+            DatabaseField field = this.fieldsArray[index];
+            if ((field == key) || ((field != null) && field.equals(key))) {
+                return index;
+            }
+        }
+        int fieldIndex = -1;
+        if (this.fieldsIndex != null) {
+            fieldIndex = this.fieldsIndex.indexOf(key);
+        } else {
+            for (int position = 0; position < this.size; position++) {
+                DatabaseField field = this.fieldsArray[position];
+                if ((field == key) || ((field != null) && field.equals(key))) {
+                    fieldIndex = position;
+                    break;
+                }
+            }
+        }
+        // PERF: If the fields index was not set, then set it.
+        if ((index == -1) && (fieldIndex >= 0)) {
+            key.setIndex(fieldIndex);
+        }
+        return fieldIndex;
+    }
+
     /**
      * Reset the fields and values from the arrays.
      * This removes the optimization if a non-optimized method is called.
@@ -86,20 +128,7 @@ public AbstractRecord clone() {
      */
     public boolean containsKey(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return true;
-                }
-            }
-            for (DatabaseField field : this.fieldsArray) {
-                if ((field == key) || field.equals(key)) {
-                    return true;
-                }
-            }
-            return false;
+            return indexOf(key) >= 0;
         } else {
             return super.containsKey(key);
         }
@@ -128,23 +157,9 @@ public boolean containsValue(Object value) {
      */
     public Object get(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return this.valuesArray[index];
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    return this.valuesArray[fieldIndex];
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.valuesArray[index];
             }
             return null;
         } else {
@@ -158,23 +173,9 @@ public Object get(DatabaseField key) {
      */
     public Object getIndicatingNoEntry(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return this.valuesArray[index];
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    return this.valuesArray[fieldIndex];
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.valuesArray[index];
             }
             return AbstractRecord.noEntry;
         } else {
@@ -188,19 +189,9 @@ public Object getIndicatingNoEntry(DatabaseField key) {
      */
     public DatabaseField getField(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return field;
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    return field;
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.fieldsArray[index];
             }
             return null;
         } else {
@@ -264,25 +255,9 @@ public void replaceAt(Object value, int index) {
      */
     public void replaceAt(Object value, DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    this.valuesArray[index] = value;
-                    return;
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    this.valuesArray[fieldIndex] = value;
-                    return;
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                this.valuesArray[index] = value;
             }
         } else {
             super.replaceAt(value, key);
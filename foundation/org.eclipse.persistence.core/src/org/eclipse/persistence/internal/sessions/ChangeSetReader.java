@@ -0,0 +1,462 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.ConversionManager;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Read unit of work change sets written by the {@link ChangeSetWriter}.
+ *
+ * @see ChangeSetWriter
+ */
+public class ChangeSetReader {
+
+    /** The schema, or null if class and attribute names are written. */
+    protected ChangeSetSchema schema;
+
+    /** Used to load the classes of Java serialized objects, may be null. */
+    protected Session session;
+
+    protected byte[] buffer;
+    protected int position;
+    /** End of the bytes before the objects written with Java serialization. */
+    protected int limit;
+
+    /** Stream of the objects written with Java serialization, opened on the first read. */
+    protected ObjectInputStream objectIn;
+
+    /** The object change sets read, by index. */
+    protected List<ObjectChangeSet> changeSets;
+
+    public ChangeSetReader(byte[] buffer, ChangeSetSchema schema, Session session) throws IOException {
+        this.buffer = buffer;
+        this.schema = schema;
+        this.session = session;
+        this.changeSets = new ArrayList<ObjectChangeSet>();
+        int end = buffer.length;
+        if (end < 4) {
+            throw new EOFException();
+        }
+        int serializedSize = ((buffer[end - 4] & 0xFF) << 24) | ((buffer[end - 3] & 0xFF) << 16) | ((buffer[end - 2] & 0xFF) << 8) | (buffer[end - 1] & 0xFF);
+        this.limit = end - 4 - serializedSize;
+        if ((serializedSize < 0) || (this.limit < 0)) {
+            throw new StreamCorruptedException("Invalid serialized size: " + serializedSize);
+        }
+    }
+
+    public int readByte() throws IOException {
+        if (this.position >= this.limit) {
+            throw new EOFException();
+        }
+        return this.buffer[this.position++] & 0xFF;
+    }
+
+    public byte[] readBytes() throws IOException {
+        int length = (int)readVarInt();
+        return readBytes(length);
+    }
+
+    protected byte[] readBytes(int length) throws IOException {
+        if ((length < 0) || ((this.position + length) > this.limit)) {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        System.arraycopy(this.buffer, this.position, bytes, 0, length);
+        this.position = this.position + length;
+        return bytes;
+    }
+
+    public int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    public long readLong() throws IOException {
+        return (((long)readInt()) << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public long readVarInt() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int next;
+        do {
+            if (shift > 63) {
+                throw new StreamCorruptedException("Invalid variable length integer");
+            }
+            next = readByte();
+            value = value | ((long)(next & 0x7F) << shift);
+            shift = shift + 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    public long readSignedVarInt() throws IOException {
+        long value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() throws IOException {
+        int length = (int)readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length = length - 1;
+        if ((length < 0) || ((this.position + length) > this.limit)) {
+            throw new EOFException();
+        }
+        String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+        this.position = this.position + length;
+        return value;
+    }
+
+    /**
+     * Read a value written with its type tag.
+     */
+    public Object readValue() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case ChangeSetWriter.NULL:
+                return null;
+            case ChangeSetWriter.SERIALIZED:
+                return readSerialized();
+            case ChangeSetWriter.STRING:
+                return readString();
+            case ChangeSetWriter.INTEGER:
+                return Integer.valueOf((int)readSignedVarInt());
+            case ChangeSetWriter.LONG:
+                return Long.valueOf(readSignedVarInt());
+            case ChangeSetWriter.SHORT:
+                return Short.valueOf((short)readSignedVarInt());
+            case ChangeSetWriter.BYTE:
+                return Byte.valueOf((byte)readByte());
+            case ChangeSetWriter.TRUE:
+                return Boolean.TRUE;
+            case ChangeSetWriter.FALSE:
+                return Boolean.FALSE;
+            case ChangeSetWriter.DOUBLE:
+                return Double.valueOf(Double.longBitsToDouble(readLong()));
+            case ChangeSetWriter.FLOAT:
+                return Float.valueOf(Float.intBitsToFloat(readInt()));
+            case ChangeSetWriter.CHARACTER:
+                return Character.valueOf((char)readVarInt());
+            case ChangeSetWriter.BIG_DECIMAL:
+                int scale = (int)readSignedVarInt();
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case ChangeSetWriter.BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case ChangeSetWriter.BYTES:
+                return readBytes();
+            case ChangeSetWriter.DATE:
+                return new java.util.Date(readSignedVarInt());
+            case ChangeSetWriter.SQL_DATE:
+                return new java.sql.Date(readSignedVarInt());
+            case ChangeSetWriter.TIME:
+                return new java.sql.Time(readSignedVarInt());
+            case ChangeSetWriter.TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(readSignedVarInt());
+                timestamp.setNanos((int)readVarInt());
+                return timestamp;
+            case ChangeSetWriter.CACHE_ID:
+                Object[] primaryKey = new Object[(int)readVarInt()];
+                for (int index = 0; index < primaryKey.length; index++) {
+                    primaryKey[index] = readValue();
+                }
+                return new CacheId(primaryKey);
+            default:
+                throw new StreamCorruptedException("Invalid value tag: " + tag);
+        }
+    }
+
+    /**
+     * Read the next object written with Java serialization, resolving the references to object change sets.
+     */
+    public Object readSerialized() throws IOException {
+        if (this.objectIn == null) {
+            this.objectIn = new ChangeSetObjectInputStream(new ByteArrayInputStream(this.buffer, this.limit, this.buffer.length - 4 - this.limit));
+        }
+        try {
+            return this.objectIn.readObject();
+        } catch (ClassNotFoundException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * Read the unit of work change set, its object change sets and their changes.
+     */
+    public UnitOfWorkChangeSet readUnitOfWorkChangeSet() throws IOException {
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet();
+        int flags = readByte();
+        changeSet.hasChanges = (flags & ChangeSetWriter.HAS_CHANGES) != 0;
+        changeSet.hasForcedChanges = (flags & ChangeSetWriter.HAS_FORCED_CHANGES) != 0;
+        changeSet.isChangeSetFromOutsideUOW = (flags & ChangeSetWriter.IS_CHANGE_SET_FROM_OUTSIDE_UOW) != 0;
+        if ((flags & ChangeSetWriter.HAS_ALL_CHANGE_SETS) != 0) {
+            changeSet.allChangeSets = readChangeSets();
+        }
+        if ((flags & ChangeSetWriter.HAS_DELETED_OBJECTS) != 0) {
+            changeSet.deletedObjects = readChangeSets();
+        }
+        // Change sets referenced by the changes are added to the list while it is read.
+        for (int index = 0; index < this.changeSets.size(); index++) {
+            ObjectChangeSet objectChangeSet = this.changeSets.get(index);
+            if (ChangeSetWriter.hasCompleteChanges(objectChangeSet)) {
+                readChanges(objectChangeSet);
+            }
+        }
+        return changeSet;
+    }
+
+    protected Map<ObjectChangeSet, ObjectChangeSet> readChangeSets() throws IOException {
+        int size = (int)readVarInt();
+        Map<ObjectChangeSet, ObjectChangeSet> changeSets = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(size);
+        for (int index = 0; index < size; index++) {
+            ObjectChangeSet changeSet = readChangeSetReference();
+            changeSets.put(changeSet, changeSet);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Read a reference to an object change set, and its identity if not already read.
+     */
+    public ObjectChangeSet readChangeSetReference() throws IOException {
+        int reference = (int)readVarInt();
+        if (reference == ChangeSetWriter.NULL_CHANGE_SET) {
+            return null;
+        } else if (reference == ChangeSetWriter.NEW_CHANGE_SET) {
+            ObjectChangeSet changeSet = new ObjectChangeSet();
+            this.changeSets.add(changeSet);
+            readIdentity(changeSet);
+            return changeSet;
+        }
+        return getChangeSet(reference - 2);
+    }
+
+    protected ObjectChangeSet getChangeSet(int index) throws IOException {
+        if (index >= this.changeSets.size()) {
+            throw new StreamCorruptedException("Invalid change set reference: " + index);
+        }
+        return this.changeSets.get(index);
+    }
+
+    /**
+     * Read the class, flags, id and lock values of the object change set.
+     */
+    protected void readIdentity(ObjectChangeSet changeSet) throws IOException {
+        int descriptorIndex = (int)readVarInt() - 1;
+        if (descriptorIndex == -1) {
+            changeSet.className = readString();
+        } else {
+            ClassDescriptor descriptor = getDescriptor(descriptorIndex);
+            changeSet.className = descriptor.getJavaClassName();
+            changeSet.classType = descriptor.getJavaClass();
+            changeSet.descriptor = descriptor;
+        }
+        int flags = readByte();
+        changeSet.shouldBeDeleted = (flags & ChangeSetWriter.SHOULD_BE_DELETED) != 0;
+        changeSet.isInvalid = (flags & ChangeSetWriter.IS_INVALID) != 0;
+        changeSet.isNew = (flags & ChangeSetWriter.IS_NEW) != 0;
+        changeSet.isAggregate = (flags & ChangeSetWriter.IS_AGGREGATE) != 0;
+        changeSet.hasVersionChange = (flags & ChangeSetWriter.HAS_VERSION_CHANGE) != 0;
+        if ((flags & ChangeSetWriter.HAS_SHOULD_MODIFY_VERSION_FIELD) != 0) {
+            changeSet.shouldModifyVersionField = (flags & ChangeSetWriter.SHOULD_MODIFY_VERSION_FIELD) != 0;
+        }
+        changeSet.cacheSynchronizationType = (int)readSignedVarInt();
+        changeSet.id = readValue();
+        changeSet.writeLockValue = readValue();
+        changeSet.initialWriteLockValue = readValue();
+    }
+
+    protected ClassDescriptor getDescriptor(int descriptorIndex) throws IOException {
+        if ((this.schema == null) || (descriptorIndex >= this.schema.descriptors.length)) {
+            throw new StreamCorruptedException("Invalid descriptor index: " + descriptorIndex);
+        }
+        return this.schema.getDescriptor(descriptorIndex);
+    }
+
+    /**
+     * Read the change records and keys of the object change set.
+     */
+    protected void readChanges(ObjectChangeSet changeSet) throws IOException {
+        int size = (int)readVarInt();
+        if (size > 0) {
+            size = size - 1;
+            int descriptorIndex = -1;
+            if (this.schema != null) {
+                descriptorIndex = this.schema.getDescriptorIndex(changeSet.className);
+            }
+            List changes = new ArrayList(size);
+            for (int index = 0; index < size; index++) {
+                changes.add(readChangeRecord(changeSet, descriptorIndex));
+            }
+            changeSet.changes = changes;
+        }
+        changeSet.oldKey = readValue();
+        changeSet.newKey = readValue();
+        changeSet.protectedForeignKeys = (AbstractRecord)readValue();
+    }
+
+    protected ChangeRecord readChangeRecord(ObjectChangeSet owner, int descriptorIndex) throws IOException {
+        int tag = readByte();
+        ChangeRecord record;
+        switch (tag) {
+            case ChangeSetWriter.SERIALIZED_RECORD:
+                return (ChangeRecord)readSerialized();
+            case ChangeSetWriter.DIRECT_TO_FIELD_RECORD:
+                DirectToFieldChangeRecord directRecord = new DirectToFieldChangeRecord();
+                readAttribute(directRecord, descriptorIndex);
+                directRecord.newValue = readValue();
+                record = directRecord;
+                break;
+            case ChangeSetWriter.OBJECT_REFERENCE_RECORD:
+                ObjectReferenceChangeRecord referenceRecord = new ObjectReferenceChangeRecord();
+                readAttribute(referenceRecord, descriptorIndex);
+                referenceRecord.newValue = readChangeSetReference();
+                record = referenceRecord;
+                break;
+            case ChangeSetWriter.AGGREGATE_RECORD:
+                AggregateChangeRecord aggregateRecord = new AggregateChangeRecord();
+                readAttribute(aggregateRecord, descriptorIndex);
+                aggregateRecord.changedObject = readChangeSetReference();
+                record = aggregateRecord;
+                break;
+            case ChangeSetWriter.COLLECTION_RECORD:
+                CollectionChangeRecord collectionRecord = new CollectionChangeRecord();
+                readAttribute(collectionRecord, descriptorIndex);
+                readCollectionChanges(collectionRecord);
+                record = collectionRecord;
+                break;
+            case ChangeSetWriter.AGGREGATE_COLLECTION_RECORD:
+                AggregateCollectionChangeRecord aggregateCollectionRecord = new AggregateCollectionChangeRecord();
+                readAttribute(aggregateCollectionRecord, descriptorIndex);
+                readCollectionChanges(aggregateCollectionRecord);
+                int size = (int)readVarInt();
+                if (size > 0) {
+                    size = size - 1;
+                    List<ObjectChangeSet> changedValues = new ArrayList<ObjectChangeSet>(size);
+                    for (int index = 0; index < size; index++) {
+                        changedValues.add(readChangeSetReference());
+                    }
+                    aggregateCollectionRecord.changedValues = changedValues;
+                }
+                record = aggregateCollectionRecord;
+                break;
+            default:
+                throw new StreamCorruptedException("Invalid change record tag: " + tag);
+        }
+        record.owner = owner;
+        return record;
+    }
+
+    protected void readCollectionChanges(CollectionChangeRecord record) throws IOException {
+        int flags = readByte();
+        record.isDeferred = (flags & 1) != 0;
+        record.orderHasBeenRepaired = (flags & 2) != 0;
+        record.addObjectList = readChangeSetMap();
+        record.removeObjectList = readChangeSetMap();
+    }
+
+    protected Map<ObjectChangeSet, ObjectChangeSet> readChangeSetMap() throws IOException {
+        int size = (int)readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        size = size - 1;
+        Map<ObjectChangeSet, ObjectChangeSet> changeSets = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(size);
+        for (int index = 0; index < size; index++) {
+            ObjectChangeSet changeSet = readChangeSetReference();
+            changeSets.put(changeSet, changeSet);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Read the mapping index of the record's attribute, or its name if not in the schema.
+     */
+    protected void readAttribute(ChangeRecord record, int descriptorIndex) throws IOException {
+        int mappingIndex = (int)readVarInt() - 1;
+        if (mappingIndex == -1) {
+            record.attribute = readString();
+        } else {
+            if ((descriptorIndex == -1) || (mappingIndex >= this.schema.mappings[descriptorIndex].length)) {
+                throw new StreamCorruptedException("Invalid mapping index: " + mappingIndex);
+            }
+            DatabaseMapping mapping = this.schema.getMapping(descriptorIndex, mappingIndex);
+            record.attribute = mapping.getAttributeName();
+            record.mapping = mapping;
+        }
+    }
+
+    /**
+     * Java serialization stream that resolves the references to object change sets of the reader.
+     */
+    protected class ChangeSetObjectInputStream extends ObjectInputStream {
+        protected ConversionManager conversionManager;
+
+        protected ChangeSetObjectInputStream(InputStream stream) throws IOException {
+            super(stream);
+            enableResolveObject(true);
+            if (session != null) {
+                this.conversionManager = session.getDatasourceLogin().getDatasourcePlatform().getConversionManager();
+            }
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass classDescription) throws IOException, ClassNotFoundException {
+            if (this.conversionManager == null) {
+                return super.resolveClass(classDescription);
+            }
+            return this.conversionManager.convertClassNameToClass(classDescription.getName());
+        }
+
+        @Override
+        protected Object resolveObject(Object object) throws IOException {
+            if (object instanceof ChangeSetWriter.ChangeSetReference) {
+                ChangeSetWriter.ChangeSetReference reference = (ChangeSetWriter.ChangeSetReference)object;
+                if (reference.identity == null) {
+                    return getChangeSet(reference.index);
+                }
+                if (reference.index != changeSets.size()) {
+                    throw new StreamCorruptedException("Invalid change set reference: " + reference.index);
+                }
+                ObjectChangeSet changeSet = new ObjectChangeSet();
+                changeSets.add(changeSet);
+                // The identity was written by a nested writer sharing the change sets.
+                ChangeSetReader identityReader = new ChangeSetReader(reference.identity, schema, session);
+                identityReader.changeSets = changeSets;
+                identityReader.readIdentity(changeSet);
+                return changeSet;
+            }
+            return object;
+        }
+    }
+}
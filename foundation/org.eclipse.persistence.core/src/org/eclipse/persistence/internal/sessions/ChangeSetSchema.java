@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Index the descriptors and mappings of a project for binary change set serialization.
+ * <p>
+ * Descriptors are indexed in class name order, and mappings in attribute name order,
+ * so the indexes are the same on every node with the same project.
+ * The hash of the names is used to check that the nodes have the same project.
+ *
+ * @see ChangeSetWriter
+ * @see ChangeSetReader
+ */
+public class ChangeSetSchema {
+
+    /** The project that was indexed. */
+    protected Project project;
+
+    protected ClassDescriptor[] descriptors;
+    protected Map<String, Integer> descriptorIndexes;
+    protected DatabaseMapping[][] mappings;
+    protected Map<String, Integer>[] mappingIndexes;
+
+    /** Hash of the descriptor and attribute names. */
+    protected int hash;
+
+    public ChangeSetSchema(AbstractSession session) {
+        this.project = session.getProject();
+        // The same descriptor may be registered for several classes.
+        Map<ClassDescriptor, ClassDescriptor> uniqueDescriptors = new IdentityHashMap<ClassDescriptor, ClassDescriptor>();
+        for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+            if (descriptor.getJavaClassName() != null) {
+                uniqueDescriptors.put(descriptor, descriptor);
+            }
+        }
+        List<ClassDescriptor> sortedDescriptors = new ArrayList<ClassDescriptor>(uniqueDescriptors.keySet());
+        Collections.sort(sortedDescriptors, new Comparator<ClassDescriptor>() {
+            public int compare(ClassDescriptor left, ClassDescriptor right) {
+                return left.getJavaClassName().compareTo(right.getJavaClassName());
+            }
+        });
+        int size = sortedDescriptors.size();
+        this.descriptors = sortedDescriptors.toArray(new ClassDescriptor[size]);
+        this.descriptorIndexes = new HashMap<String, Integer>(size * 2);
+        this.mappings = new DatabaseMapping[size][];
+        this.mappingIndexes = new Map[size];
+        int hash = 1;
+        for (int index = 0; index < size; index++) {
+            ClassDescriptor descriptor = this.descriptors[index];
+            this.descriptorIndexes.put(descriptor.getJavaClassName(), index);
+            hash = 31 * hash + descriptor.getJavaClassName().hashCode();
+            List<DatabaseMapping> sortedMappings = new ArrayList<DatabaseMapping>();
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if (mapping.getAttributeName() != null) {
+                    sortedMappings.add(mapping);
+                }
+            }
+            Collections.sort(sortedMappings, new Comparator<DatabaseMapping>() {
+                public int compare(DatabaseMapping left, DatabaseMapping right) {
+                    return left.getAttributeName().compareTo(right.getAttributeName());
+                }
+            });
+            this.mappings[index] = sortedMappings.toArray(new DatabaseMapping[sortedMappings.size()]);
+            this.mappingIndexes[index] = new HashMap<String, Integer>(sortedMappings.size() * 2);
+            for (int mappingIndex = 0; mappingIndex < this.mappings[index].length; mappingIndex++) {
+                String attributeName = this.mappings[index][mappingIndex].getAttributeName();
+                this.mappingIndexes[index].put(attributeName, mappingIndex);
+                hash = 31 * hash + attributeName.hashCode();
+            }
+        }
+        this.hash = hash;
+    }
+
+    /**
+     * Return the project that was indexed.
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Return the hash of the descriptor and attribute names.
+     */
+    public int getHash() {
+        return hash;
+    }
+
+    /**
+     * Return the index of the descriptor of the class, or -1 if the class has no descriptor.
+     */
+    public int getDescriptorIndex(String className) {
+        Integer index = this.descriptorIndexes.get(className);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Return the descriptor at the index.
+     */
+    public ClassDescriptor getDescriptor(int index) {
+        return this.descriptors[index];
+    }
+
+    /**
+     * Return the index of the mapping of the attribute, or -1 if the descriptor has no mapping for the attribute.
+     */
+    public int getMappingIndex(int descriptorIndex, String attributeName) {
+        Integer index = this.mappingIndexes[descriptorIndex].get(attributeName);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Return the mapping at the index of the descriptor at the descriptor index.
+     */
+    public DatabaseMapping getMapping(int descriptorIndex, int index) {
+        return this.mappings[descriptorIndex][index];
+    }
+}
@@ -0,0 +1,596 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Write unit of work change sets in a compact binary format.
+ * <p>
+ * Classes and attributes are written as their index in the {@link ChangeSetSchema},
+ * numbers as variable length integers, and the common value types with a one byte tag.
+ * Change records and values of other types are written with Java serialization.
+ * <p>
+ * Each object change set is written once, the first reference to an object change set
+ * writes its identity (class, flags, id and lock values), and later references only its index.
+ * The changes of the object change sets are written after the references of the unit of work change set,
+ * in the order they were first referenced, so the identity of an object change set is always read
+ * before it is put in a map.
+ *
+ * @see ChangeSetReader
+ * @see org.eclipse.persistence.sessions.serializers.ChangeSetSerializer
+ */
+public class ChangeSetWriter {
+
+    /** Format version, written in the header. */
+    public static final int VERSION = 1;
+
+    /** Object change set reference tags, other values are the index of a change set already written plus 2. */
+    public static final int NULL_CHANGE_SET = 0;
+    public static final int NEW_CHANGE_SET = 1;
+
+    /** Object change set flags. */
+    public static final int SHOULD_BE_DELETED = 1;
+    public static final int IS_INVALID = 2;
+    public static final int IS_NEW = 4;
+    public static final int IS_AGGREGATE = 8;
+    public static final int HAS_VERSION_CHANGE = 16;
+    public static final int HAS_SHOULD_MODIFY_VERSION_FIELD = 32;
+    public static final int SHOULD_MODIFY_VERSION_FIELD = 64;
+
+    /** Unit of work change set flags. */
+    public static final int HAS_CHANGES = 1;
+    public static final int HAS_FORCED_CHANGES = 2;
+    public static final int IS_CHANGE_SET_FROM_OUTSIDE_UOW = 4;
+    public static final int HAS_ALL_CHANGE_SETS = 8;
+    public static final int HAS_DELETED_OBJECTS = 16;
+
+    /** Change record tags. */
+    public static final int SERIALIZED_RECORD = 0;
+    public static final int DIRECT_TO_FIELD_RECORD = 1;
+    public static final int OBJECT_REFERENCE_RECORD = 2;
+    public static final int AGGREGATE_RECORD = 3;
+    public static final int COLLECTION_RECORD = 4;
+    public static final int AGGREGATE_COLLECTION_RECORD = 5;
+
+    /** Value tags. */
+    public static final int NULL = 0;
+    public static final int SERIALIZED = 1;
+    public static final int STRING = 2;
+    public static final int INTEGER = 3;
+    public static final int LONG = 4;
+    public static final int SHORT = 5;
+    public static final int BYTE = 6;
+    public static final int TRUE = 7;
+    public static final int FALSE = 8;
+    public static final int DOUBLE = 9;
+    public static final int FLOAT = 10;
+    public static final int CHARACTER = 11;
+    public static final int BIG_DECIMAL = 12;
+    public static final int BIG_INTEGER = 13;
+    public static final int BYTES = 14;
+    public static final int DATE = 15;
+    public static final int SQL_DATE = 16;
+    public static final int TIME = 17;
+    public static final int TIMESTAMP = 18;
+    public static final int CACHE_ID = 19;
+
+    /** The schema, or null if class and attribute names are written. */
+    protected ChangeSetSchema schema;
+
+    protected byte[] buffer;
+    protected int size;
+
+    /**
+     * Objects written with Java serialization are written to a single stream after the other bytes,
+     * to avoid the cost of a stream per object.
+     */
+    protected ByteArrayOutputStream serializedOut;
+    protected ObjectOutputStream objectOut;
+
+    /** Index of the object change sets written. */
+    protected Map<ObjectChangeSet, Integer> changeSetIndexes;
+    protected List<ObjectChangeSet> changeSets;
+
+    public ChangeSetWriter(ChangeSetSchema schema) {
+        this.schema = schema;
+        this.buffer = new byte[256];
+        this.changeSetIndexes = new IdentityHashMap<ObjectChangeSet, Integer>();
+        this.changeSets = new ArrayList<ObjectChangeSet>();
+    }
+
+    /**
+     * Return the bytes written, followed by the objects written with Java serialization,
+     * and the length of the serialized objects.
+     */
+    public byte[] toByteArray() throws IOException {
+        byte[] serialized = null;
+        int serializedSize = 0;
+        if (this.objectOut != null) {
+            this.objectOut.flush();
+            serialized = this.serializedOut.toByteArray();
+            serializedSize = serialized.length;
+        }
+        byte[] bytes = new byte[this.size + serializedSize + 4];
+        System.arraycopy(this.buffer, 0, bytes, 0, this.size);
+        if (serialized != null) {
+            System.arraycopy(serialized, 0, bytes, this.size, serializedSize);
+        }
+        int end = bytes.length;
+        bytes[end - 4] = (byte)(serializedSize >>> 24);
+        bytes[end - 3] = (byte)(serializedSize >>> 16);
+        bytes[end - 2] = (byte)(serializedSize >>> 8);
+        bytes[end - 1] = (byte)serializedSize;
+        return bytes;
+    }
+
+    protected void ensureCapacity(int length) {
+        if ((this.size + length) > this.buffer.length) {
+            byte[] newBuffer = new byte[Math.max(this.buffer.length * 2, this.size + length)];
+            System.arraycopy(this.buffer, 0, newBuffer, 0, this.size);
+            this.buffer = newBuffer;
+        }
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        this.buffer[this.size++] = (byte)value;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeVarInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.size, bytes.length);
+        this.size = this.size + bytes.length;
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        this.buffer[this.size++] = (byte)(value >>> 24);
+        this.buffer[this.size++] = (byte)(value >>> 16);
+        this.buffer[this.size++] = (byte)(value >>> 8);
+        this.buffer[this.size++] = (byte)value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int)(value >>> 32));
+        writeInt((int)value);
+    }
+
+    /**
+     * Write the unsigned value in 7 bit groups, the high bit is set if more groups follow.
+     */
+    public void writeVarInt(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.size++] = (byte)((value & 0x7F) | 0x80);
+            value = value >>> 7;
+        }
+        this.buffer[this.size++] = (byte)value;
+    }
+
+    /**
+     * Write the signed value as a variable length integer, small negative values are also written in a few bytes.
+     */
+    public void writeSignedVarInt(long value) {
+        writeVarInt((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write the string, or null, as UTF-8.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.size, bytes.length);
+        this.size = this.size + bytes.length;
+    }
+
+    /**
+     * Write the value with a tag for its type.
+     * Values of types without a tag are written with Java serialization.
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeByte(NULL);
+            return;
+        }
+        Class type = value.getClass();
+        if (type == String.class) {
+            writeByte(STRING);
+            writeString((String)value);
+        } else if (type == Integer.class) {
+            writeByte(INTEGER);
+            writeSignedVarInt((Integer)value);
+        } else if (type == Long.class) {
+            writeByte(LONG);
+            writeSignedVarInt((Long)value);
+        } else if (type == Short.class) {
+            writeByte(SHORT);
+            writeSignedVarInt((Short)value);
+        } else if (type == Byte.class) {
+            writeByte(BYTE);
+            writeByte((Byte)value);
+        } else if (type == Boolean.class) {
+            writeByte(((Boolean)value) ? TRUE : FALSE);
+        } else if (type == Double.class) {
+            writeByte(DOUBLE);
+            writeLong(Double.doubleToLongBits((Double)value));
+        } else if (type == Float.class) {
+            writeByte(FLOAT);
+            writeInt(Float.floatToIntBits((Float)value));
+        } else if (type == Character.class) {
+            writeByte(CHARACTER);
+            writeVarInt((Character)value);
+        } else if (type == BigDecimal.class) {
+            writeByte(BIG_DECIMAL);
+            writeSignedVarInt(((BigDecimal)value).scale());
+            writeBytes(((BigDecimal)value).unscaledValue().toByteArray());
+        } else if (type == BigInteger.class) {
+            writeByte(BIG_INTEGER);
+            writeBytes(((BigInteger)value).toByteArray());
+        } else if (type == byte[].class) {
+            writeByte(BYTES);
+            writeBytes((byte[])value);
+        } else if (type == java.util.Date.class) {
+            writeByte(DATE);
+            writeSignedVarInt(((java.util.Date)value).getTime());
+        } else if (type == java.sql.Date.class) {
+            writeByte(SQL_DATE);
+            writeSignedVarInt(((java.sql.Date)value).getTime());
+        } else if (type == java.sql.Time.class) {
+            writeByte(TIME);
+            writeSignedVarInt(((java.sql.Time)value).getTime());
+        } else if (type == java.sql.Timestamp.class) {
+            writeByte(TIMESTAMP);
+            writeSignedVarInt(((java.sql.Timestamp)value).getTime());
+            writeVarInt(((java.sql.Timestamp)value).getNanos());
+        } else if (type == CacheId.class) {
+            writeByte(CACHE_ID);
+            Object[] primaryKey = ((CacheId)value).getPrimaryKey();
+            writeVarInt(primaryKey.length);
+            for (Object keyValue : primaryKey) {
+                writeValue(keyValue);
+            }
+        } else {
+            writeByte(SERIALIZED);
+            writeSerialized(value);
+        }
+    }
+
+    /**
+     * Write the object with Java serialization, the objects are read in the order they were written.
+     * Object change sets referenced by the object are written as references to the change sets of this writer.
+     */
+    public void writeSerialized(Object object) throws IOException {
+        if (this.objectOut == null) {
+            this.serializedOut = new ByteArrayOutputStream();
+            this.objectOut = new ChangeSetObjectOutputStream(this.serializedOut);
+        }
+        this.objectOut.writeObject(object);
+    }
+
+    /**
+     * Write the unit of work change set, its object change sets and their changes.
+     */
+    public void writeUnitOfWorkChangeSet(UnitOfWorkChangeSet changeSet) throws IOException {
+        int flags = 0;
+        if (changeSet.hasChanges) {
+            flags = flags | HAS_CHANGES;
+        }
+        if (changeSet.hasForcedChanges) {
+            flags = flags | HAS_FORCED_CHANGES;
+        }
+        if (changeSet.isChangeSetFromOutsideUOW) {
+            flags = flags | IS_CHANGE_SET_FROM_OUTSIDE_UOW;
+        }
+        if (changeSet.allChangeSets != null) {
+            flags = flags | HAS_ALL_CHANGE_SETS;
+        }
+        if (changeSet.deletedObjects != null) {
+            flags = flags | HAS_DELETED_OBJECTS;
+        }
+        writeByte(flags);
+        if (changeSet.allChangeSets != null) {
+            writeChangeSets(changeSet.allChangeSets.keySet());
+        }
+        if (changeSet.deletedObjects != null) {
+            writeChangeSets(changeSet.deletedObjects.keySet());
+        }
+        // Change sets referenced by the changes are added to the list while it is written.
+        for (int index = 0; index < this.changeSets.size(); index++) {
+            ObjectChangeSet objectChangeSet = this.changeSets.get(index);
+            if (hasCompleteChanges(objectChangeSet)) {
+                writeChanges(objectChangeSet);
+            }
+        }
+    }
+
+    /**
+     * Return if the unit of work change set only contains the change sets sent by cache coordination,
+     * and can be written by this writer.
+     */
+    public static boolean isSupported(UnitOfWorkChangeSet changeSet) {
+        return isEmpty(changeSet.objectChanges) && isEmpty(changeSet.newObjectChangeSets)
+                && isEmpty(changeSet.cloneToObjectChangeSet) && isEmpty(changeSet.objectChangeSetToUOWClone)
+                && isEmpty(changeSet.aggregateChangeSets);
+    }
+
+    protected static boolean isEmpty(Map map) {
+        return (map == null) || map.isEmpty();
+    }
+
+    /**
+     * Return if the changes of the object change set are sent, or only its identity.
+     * This must be consistent with the Java serialization of ObjectChangeSet.
+     */
+    public static boolean hasCompleteChanges(ObjectChangeSet changeSet) {
+        return !(changeSet.shouldBeDeleted || (changeSet.cacheSynchronizationType == ClassDescriptor.DO_NOT_SEND_CHANGES)
+                || (changeSet.cacheSynchronizationType == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS));
+    }
+
+    protected void writeChangeSets(Iterable<ObjectChangeSet> changeSets) throws IOException {
+        List<ObjectChangeSet> list = new ArrayList<ObjectChangeSet>();
+        for (ObjectChangeSet changeSet : changeSets) {
+            list.add(changeSet);
+        }
+        writeVarInt(list.size());
+        for (ObjectChangeSet changeSet : list) {
+            writeChangeSetReference(changeSet);
+        }
+    }
+
+    /**
+     * Write the reference to the object change set, and its identity if not already written.
+     */
+    public void writeChangeSetReference(ObjectChangeSet changeSet) throws IOException {
+        if (changeSet == null) {
+            writeVarInt(NULL_CHANGE_SET);
+            return;
+        }
+        int index = addChangeSet(changeSet);
+        if (index != -1) {
+            writeVarInt(index + 2);
+            return;
+        }
+        writeVarInt(NEW_CHANGE_SET);
+        writeIdentity(changeSet);
+    }
+
+    /**
+     * Return the index of the object change set, and add it to the change sets written if not already written.
+     * Return -1 if it was not already written, in this case its identity must be written by the caller.
+     */
+    protected int addChangeSet(ObjectChangeSet changeSet) {
+        Integer index = this.changeSetIndexes.get(changeSet);
+        if (index != null) {
+            return index;
+        }
+        this.changeSetIndexes.put(changeSet, this.changeSets.size());
+        this.changeSets.add(changeSet);
+        return -1;
+    }
+
+    /**
+     * Write the class, flags, id and lock values of the object change set.
+     */
+    protected void writeIdentity(ObjectChangeSet changeSet) throws IOException {
+        int descriptorIndex = -1;
+        if (this.schema != null) {
+            descriptorIndex = this.schema.getDescriptorIndex(changeSet.className);
+        }
+        writeVarInt(descriptorIndex + 1);
+        if (descriptorIndex == -1) {
+            writeString(changeSet.className);
+        }
+        int flags = 0;
+        if (changeSet.shouldBeDeleted) {
+            flags = flags | SHOULD_BE_DELETED;
+        }
+        if (changeSet.isInvalid) {
+            flags = flags | IS_INVALID;
+        }
+        if (changeSet.isNew) {
+            flags = flags | IS_NEW;
+        }
+        if (changeSet.isAggregate) {
+            flags = flags | IS_AGGREGATE;
+        }
+        if (changeSet.hasVersionChange) {
+            flags = flags | HAS_VERSION_CHANGE;
+        }
+        if (changeSet.shouldModifyVersionField != null) {
+            flags = flags | HAS_SHOULD_MODIFY_VERSION_FIELD;
+            if (changeSet.shouldModifyVersionField) {
+                flags = flags | SHOULD_MODIFY_VERSION_FIELD;
+            }
+        }
+        writeByte(flags);
+        writeSignedVarInt(changeSet.cacheSynchronizationType);
+        writeValue(changeSet.id);
+        writeValue(changeSet.writeLockValue);
+        writeValue(changeSet.initialWriteLockValue);
+    }
+
+    /**
+     * Write the change records and keys of the object change set.
+     */
+    protected void writeChanges(ObjectChangeSet changeSet) throws IOException {
+        changeSet.ensureChanges();
+        List changes = changeSet.changes;
+        if (changes == null) {
+            writeVarInt(0);
+        } else {
+            writeVarInt(changes.size() + 1);
+            int descriptorIndex = -1;
+            if (this.schema != null) {
+                descriptorIndex = this.schema.getDescriptorIndex(changeSet.className);
+            }
+            for (Object change : changes) {
+                writeChangeRecord((ChangeRecord)change, descriptorIndex);
+            }
+        }
+        writeValue(changeSet.oldKey);
+        writeValue(changeSet.newKey);
+        writeValue(changeSet.protectedForeignKeys);
+    }
+
+    /**
+     * Write the change record, the records of the common mapping types are written by mapping index,
+     * other records are written with Java serialization.
+     */
+    protected void writeChangeRecord(ChangeRecord record, int descriptorIndex) throws IOException {
+        Class type = record.getClass();
+        if (type == DirectToFieldChangeRecord.class) {
+            writeByte(DIRECT_TO_FIELD_RECORD);
+            writeAttribute(record, descriptorIndex);
+            writeValue(((DirectToFieldChangeRecord)record).newValue);
+        } else if (type == ObjectReferenceChangeRecord.class) {
+            writeByte(OBJECT_REFERENCE_RECORD);
+            writeAttribute(record, descriptorIndex);
+            writeChangeSetReference(((ObjectReferenceChangeRecord)record).newValue);
+        } else if (type == AggregateChangeRecord.class) {
+            writeByte(AGGREGATE_RECORD);
+            writeAttribute(record, descriptorIndex);
+            writeChangeSetReference((ObjectChangeSet)((AggregateChangeRecord)record).changedObject);
+        } else if ((type == CollectionChangeRecord.class) && !isOrdered((CollectionChangeRecord)record)) {
+            writeByte(COLLECTION_RECORD);
+            writeAttribute(record, descriptorIndex);
+            writeCollectionChanges((CollectionChangeRecord)record);
+        } else if ((type == AggregateCollectionChangeRecord.class) && !isOrdered((CollectionChangeRecord)record)) {
+            writeByte(AGGREGATE_COLLECTION_RECORD);
+            writeAttribute(record, descriptorIndex);
+            writeCollectionChanges((CollectionChangeRecord)record);
+            List<ObjectChangeSet> changedValues = ((AggregateCollectionChangeRecord)record).changedValues;
+            if (changedValues == null) {
+                writeVarInt(0);
+            } else {
+                writeVarInt(changedValues.size() + 1);
+                for (ObjectChangeSet changedValue : changedValues) {
+                    writeChangeSetReference(changedValue);
+                }
+            }
+        } else {
+            writeByte(SERIALIZED_RECORD);
+            writeSerialized(record);
+        }
+    }
+
+    /**
+     * Return if the collection change record has order changes, these are written with Java serialization.
+     */
+    protected boolean isOrdered(CollectionChangeRecord record) {
+        return (record.orderedAddObjects != null) || (record.orderedAddObjectIndices != null)
+                || (record.orderedChangeObjectList != null) || (record.orderedRemoveObjects != null);
+    }
+
+    protected void writeCollectionChanges(CollectionChangeRecord record) throws IOException {
+        int flags = 0;
+        if (record.isDeferred) {
+            flags = flags | 1;
+        }
+        if (record.orderHasBeenRepaired) {
+            flags = flags | 2;
+        }
+        writeByte(flags);
+        writeChangeSetMap(record.addObjectList);
+        writeChangeSetMap(record.removeObjectList);
+    }
+
+    protected void writeChangeSetMap(Map<ObjectChangeSet, ObjectChangeSet> changeSets) throws IOException {
+        if (changeSets == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(changeSets.size() + 1);
+        for (ObjectChangeSet changeSet : changeSets.keySet()) {
+            writeChangeSetReference(changeSet);
+        }
+    }
+
+    /**
+     * Write the mapping index of the record's attribute, or its name if not in the schema.
+     */
+    protected void writeAttribute(ChangeRecord record, int descriptorIndex) {
+        int mappingIndex = -1;
+        if (descriptorIndex != -1) {
+            mappingIndex = this.schema.getMappingIndex(descriptorIndex, record.attribute);
+        }
+        writeVarInt(mappingIndex + 1);
+        if (mappingIndex == -1) {
+            writeString(record.attribute);
+        }
+    }
+
+    /**
+     * Java serialization stream that replaces object change sets by references to the change sets of the writer.
+     */
+    protected class ChangeSetObjectOutputStream extends ObjectOutputStream {
+        protected ChangeSetObjectOutputStream(OutputStream stream) throws IOException {
+            super(stream);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object object) throws IOException {
+            if (object instanceof ObjectChangeSet) {
+                ObjectChangeSet changeSet = (ObjectChangeSet)object;
+                int index = addChangeSet(changeSet);
+                if (index != -1) {
+                    return new ChangeSetReference(index, null);
+                }
+                // The identity is written in a nested writer sharing the change sets of this writer.
+                ChangeSetWriter identityWriter = new ChangeSetWriter(schema);
+                identityWriter.changeSetIndexes = changeSetIndexes;
+                identityWriter.changeSets = changeSets;
+                identityWriter.writeIdentity(changeSet);
+                return new ChangeSetReference(changeSetIndexes.get(changeSet), identityWriter.toByteArray());
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Reference to an object change set in a Java serialization stream.
+     * The identity of the change set is included in the first reference.
+     */
+    public static class ChangeSetReference implements Serializable {
+        protected int index;
+        protected byte[] identity;
+
+        public ChangeSetReference(int index, byte[] identity) {
+            this.index = index;
+            this.identity = identity;
+        }
+    }
+}
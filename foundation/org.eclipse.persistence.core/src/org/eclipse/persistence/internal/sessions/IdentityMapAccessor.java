@@ -31,6 +31,7 @@
 import org.eclipse.persistence.sessions.DatabaseRecord;
 import org.eclipse.persistence.sessions.coordination.CommandManager;
 import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.interceptors.OffHeapCacheInterceptor;
 
 /**
  * INTERNAL:
@@ -322,7 +323,18 @@ public Vector getAllFromIdentityMap(Expression selectionCriteria, Class theClass
      * @throws QueryException
      */
     public Map<Object, Object> getAllFromIdentityMapWithEntityPK(Object[] pkList, ClassDescriptor descriptor){
-        return getIdentityMapManager().getAllFromIdentityMapWithEntityPK(pkList, descriptor, getSession());
+        Map<Object, Object> objects = getIdentityMapManager().getAllFromIdentityMapWithEntityPK(pkList, descriptor, getSession());
+        if ((objects.size() < pkList.length) && hasCacheStore(descriptor)) {
+            for (Object primaryKey : pkList) {
+                if (!objects.containsKey(primaryKey)) {
+                    Object object = getFromIdentityMap(primaryKey, null, descriptor.getJavaClass(), true, descriptor);
+                    if (object != null) {
+                        objects.put(primaryKey, object);
+                    }
+                }
+            }
+        }
+        return objects;
     }
 
     /**
@@ -372,7 +384,13 @@ public CacheKey getCacheKeyForObjectForLock(Object primaryKey, Class myClass, Cl
      * @param myClass the class of the cache key to be retrieved.
      */
     public CacheKey getCacheKeyForObject(Object primaryKey, Class myClass, ClassDescriptor descriptor, boolean forMerge) {
-        return getIdentityMapManager().getCacheKeyForObject(primaryKey, myClass, descriptor, forMerge);
+        CacheKey cacheKey = getIdentityMapManager().getCacheKeyForObject(primaryKey, myClass, descriptor, forMerge);
+        // Merge does not require the object, and a locked key is being built.
+        if (!forMerge && ((cacheKey == null) || ((cacheKey.getObject() == null) && !cacheKey.isAcquired()))
+                && buildObjectFromCacheStore(primaryKey, descriptor)) {
+            cacheKey = getIdentityMapManager().getCacheKeyForObject(primaryKey, myClass, descriptor, forMerge);
+        }
+        return cacheKey;
     }
 
     /**
@@ -425,7 +443,11 @@ public Object getFromIdentityMap(Object primaryKey, Class theClass, boolean shou
      * Only return invalidated objects if requested.
      */
     public Object getFromIdentityMap(Object primaryKey, Object object, Class theClass, boolean shouldReturnInvalidatedObjects, ClassDescriptor descriptor) {
-        return getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        Object domainObject = getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        if ((domainObject == null) && buildObjectFromCacheStore(primaryKey, descriptor)) {
+            domainObject = getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        }
+        return domainObject;
     }
 
     /**
@@ -434,7 +456,11 @@ public Object getFromIdentityMap(Object primaryKey, Object object, Class theClas
      * This avoids checking the parent cache for the unit of work.
      */
     public Object getFromLocalIdentityMap(Object primaryKey, Class theClass, boolean shouldReturnInvalidatedObjects, ClassDescriptor descriptor) {
-        return getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        Object domainObject = getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        if ((domainObject == null) && buildObjectFromCacheStore(primaryKey, descriptor)) {
+            domainObject = getIdentityMapManager().getFromIdentityMap(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        }
+        return domainObject;
     }
 
     /**
@@ -443,7 +469,11 @@ public Object getFromLocalIdentityMap(Object primaryKey, Class theClass, boolean
      * This avoids checking the parent cache for the unit of work.
      */
     public Object getFromLocalIdentityMapWithDeferredLock(Object primaryKey, Class theClass, boolean shouldReturnInvalidatedObjects, ClassDescriptor descriptor){
-        return getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        Object domainObject = getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        if ((domainObject == null) && buildObjectFromCacheStore(primaryKey, descriptor)) {
+            domainObject = getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        }
+        return domainObject;
     }
 
     /**
@@ -541,7 +571,36 @@ public Object getFromIdentityMapWithDeferredLock(Object primaryKey, Class theCla
      * Only return invalidated objects if requested
      */
     public Object getFromIdentityMapWithDeferredLock(Object primaryKey, Class theClass, boolean shouldReturnInvalidatedObjects, ClassDescriptor descriptor) {
-        return getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        Object domainObject = getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        if ((domainObject == null) && buildObjectFromCacheStore(primaryKey, descriptor)) {
+            domainObject = getIdentityMapManager().getFromIdentityMapWithDeferredLock(primaryKey, theClass, shouldReturnInvalidatedObjects, descriptor);
+        }
+        return domainObject;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the cache of the descriptor stores the rows of its objects off-heap.
+     */
+    protected boolean hasCacheStore(ClassDescriptor descriptor) {
+        if ((descriptor == null) || (descriptor.getCachePolicy().getCacheInterceptorClass() == null)) {
+            return false;
+        }
+        IdentityMap identityMap = getIdentityMapManager().getIdentityMap(descriptor, true);
+        return (identityMap instanceof OffHeapCacheInterceptor) && (((OffHeapCacheInterceptor)identityMap).getStore() != null);
+    }
+
+    /**
+     * INTERNAL:
+     * Rebuild the object missing from the cache from the row stored off-heap by its cache interceptor.
+     * This is done after the cache lookup, so no cache lock is held while the ObjectBuilder builds the object.
+     * Return if the object was rebuilt and put in the cache.
+     */
+    protected boolean buildObjectFromCacheStore(Object primaryKey, ClassDescriptor descriptor) {
+        if ((primaryKey == null) || !hasCacheStore(descriptor)) {
+            return false;
+        }
+        return ((OffHeapCacheInterceptor)getIdentityMapManager().getIdentityMap(descriptor, true)).rebuildObject(primaryKey) != null;
     }
 
     /**
@@ -898,6 +957,15 @@ public void invalidateQueryCache(Class classThatChanged) {
         getIdentityMapManager().invalidateQueryCache(classThatChanged);
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache affected by the changes.
+     * This is used to invalidate the query cache after a merge.
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+    }
+
     /**
      * ADVANCED:
      * Set all of the objects from all identity maps to be invalid in the cache.
@@ -536,6 +536,20 @@ public void invalidateQueryCache(Class classThatChanged) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache affected by the changes.
+     * This is used to invalidate the query cache after a merge.
+     */
+    @Override
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        if (!session.getDescriptor(classThatChanged).getCachePolicy().isSharedIsolation()) {
+            getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+        } else {
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().invalidateQueryCache(classThatChanged, changeSet);
+        }
+    }
+
     /**
      * PUBLIC:
      * Reset the entire local object cache.
@@ -461,7 +461,7 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
             }
             // Clear the query cache as well.
             for (Class changedClass : classesChanged) {
-                this.session.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
+                this.session.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass, uowChangeSet);
             }
         } catch (RuntimeException exception) {
             this.session.handleException(exception);
@@ -209,6 +209,7 @@ protected static abstract class Prop {
             addProp(new BooleanProp(PersistenceUnitProperties.PERSISTENCE_CONTEXT_PERSIST_ON_COMMIT, "true"));
             addProp(new BooleanProp(PersistenceUnitProperties.PERSISTENCE_CONTEXT_COMMIT_WITHOUT_PERSIST_RULES, "false"));
             addProp(new BooleanProp(PersistenceUnitProperties.VALIDATE_EXISTENCE, "false"));
+            addProp(new BooleanProp(PersistenceUnitProperties.READ_MOSTLY, "false"));
             addProp(new BooleanProp(PersistenceUnitProperties.ORDER_UPDATES, "true"));
             addProp(new CommitOrderProp());
             addProp(new BooleanProp(PersistenceUnitProperties.JOIN_EXISTING_TRANSACTION, "false"));
@@ -219,6 +220,7 @@ protected static abstract class Prop {
             addProp(new IdValidationProp());
             addProp(new ConnectionPoolProp());
             addProp(new BooleanProp(PersistenceUnitProperties.JDBC_RESULT_SET_ACCESS_OPTIMIZATION, Boolean.toString(ObjectLevelReadQuery.isResultSetAccessOptimizedQueryDefault)));
+            addProp(new BooleanProp(PersistenceUnitProperties.CACHE_QUEUED_LOCKS, "false"));
             addProp(new BooleanProp(PersistenceUnitProperties.JPQL_TOLERATE, "false"));
             addProp(new BooleanProp(PersistenceUnitProperties.MULTITENANT_SHARED_CACHE, "false"));
             addProp(new BooleanProp(PersistenceUnitProperties.MULTITENANT_SHARED_EMF, "true"));
@@ -612,6 +614,7 @@ protected static class CacheTypeProp extends Prop {
                 {CacheType.SoftWeak, pcg + "SoftCacheWeakIdentityMap"},
                 {CacheType.HardWeak, pcg + "HardCacheWeakIdentityMap"},
                 {CacheType.Full, pcg + "FullIdentityMap"},
+                {CacheType.ConcurrentLRU, pcg + "ConcurrentLRUIdentityMap"},
                 {CacheType.NONE, pcg + "NoIdentityMap"}
             };
         }
@@ -641,7 +644,9 @@ protected static class BatchWritingProp extends Prop {
                 BatchWriting.None,
                 BatchWriting.JDBC,
                 BatchWriting.Buffered,
-                BatchWriting.OracleJDBC
+                BatchWriting.OracleJDBC,
+                BatchWriting.Reordering,
+                BatchWriting.MultiRowInsert
             };
         }
     }
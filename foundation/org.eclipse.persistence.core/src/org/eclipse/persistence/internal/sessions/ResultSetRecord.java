@@ -18,6 +18,7 @@
 
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
 import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
 import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
 
 /**
@@ -44,7 +45,11 @@ protected ResultSetRecord() {
     }
 
     public ResultSetRecord(Vector fields, DatabaseField[] fieldsArray, ResultSet resultSet, ResultSetMetaData metaData, DatabaseAccessor accessor, AbstractSession session, DatabasePlatform platform, boolean optimizeData) {
-        super(fields, fieldsArray, new Object[fieldsArray.length]);
+        this(fields, fieldsArray, null, resultSet, metaData, accessor, session, platform, optimizeData);
+    }
+
+    public ResultSetRecord(Vector fields, DatabaseField[] fieldsArray, DatabaseFieldIndex fieldsIndex, ResultSet resultSet, ResultSetMetaData metaData, DatabaseAccessor accessor, AbstractSession session, DatabasePlatform platform, boolean optimizeData) {
+        super(fields, fieldsArray, fieldsIndex, new Object[fieldsArray.length]);
         this.resultSet = resultSet;
         this.metaData = metaData;
         this.accessor = accessor;
@@ -161,29 +166,11 @@ public boolean containsValue(Object value) {
     @Override
     public Object get(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index < 0) || (index >= this.size)) {
-                index = 0;
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
             }
             DatabaseField field = this.fieldsArray[index];
-            if ((field != key) && !field.equals(key)) {
-                index = -1;
-                for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                    field = this.fieldsArray[fieldIndex];
-                    if ((field == key) || field.equals(key)) {
-                        // PERF: If the fields index was not set, then set it.
-                        if (key.index == -1) {
-                            key.setIndex(fieldIndex);
-                        }
-                        index = fieldIndex;
-                        break;
-                    }
-                }
-                if (index < 0) {
-                    return null;
-                }
-            }
             if (this.resultSet != null) {
                 Object value = this.valuesArray[index];
                 if (value == null) {
@@ -210,29 +197,11 @@ public Object get(DatabaseField key) {
     @Override
     public Object getIndicatingNoEntry(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index < 0) || (index >= this.size)) {
-                index = 0;
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
             }
             DatabaseField field = this.fieldsArray[index];
-            if ((field != key) && !field.equals(key)) {
-                index = -1;
-                for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                    field = this.fieldsArray[fieldIndex];
-                    if ((field == key) || field.equals(key)) {
-                        // PERF: If the fields index was not set, then set it.
-                        if (key.index == -1) {
-                            key.setIndex(fieldIndex);
-                        }
-                        index = fieldIndex;
-                        break;
-                    }
-                }
-                if (index < 0) {
-                    return null;
-                }
-            }
             if (this.resultSet != null) {
                 Object value = this.valuesArray[index];
                 if (value == null) {
@@ -24,6 +24,7 @@
 import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
 
 /**
  * PERF: Record used by ObjectLevelReadQuery ResultSet optimization.
@@ -62,6 +63,10 @@ public SimpleResultSetRecord(Vector fields, DatabaseField[] fieldsArray, ResultS
         super(fields, fieldsArray, resultSet, metaData, accessor, session, platform, optimizeData);
     }
 
+    public SimpleResultSetRecord(Vector fields, DatabaseField[] fieldsArray, DatabaseFieldIndex fieldsIndex, ResultSet resultSet, ResultSetMetaData metaData, DatabaseAccessor accessor, AbstractSession session, DatabasePlatform platform, boolean optimizeData) {
+        super(fields, fieldsArray, fieldsIndex, resultSet, metaData, accessor, session, platform, optimizeData);
+    }
+
     /**
      * Obtains all the value from resultSet and removes it.
      * resultSet must be non null.
@@ -91,29 +96,11 @@ public void loadAllValuesFromResultSet() {
     @Override
     public Object get(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index < 0) || (index >= this.size)) {
-                index = 0;
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
             }
             DatabaseField field = this.fieldsArray[index];
-            if ((field != key) && !field.equals(key)) {
-                index = -1;
-                for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                    field = this.fieldsArray[fieldIndex];
-                    if ((field == key) || field.equals(key)) {
-                        // PERF: If the fields index was not set, then set it.
-                        if (key.index == -1) {
-                            key.setIndex(fieldIndex);
-                        }
-                        index = fieldIndex;
-                        break;
-                    }
-                }
-                if (index < 0) {
-                    return null;
-                }
-            }
             if (this.resultSet != null) {
                 Object value = this.valuesArray[index];
                 if (value != null) {
@@ -171,29 +158,11 @@ public Object get(DatabaseField key) {
     @Override
     public Object getIndicatingNoEntry(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index < 0) || (index >= this.size)) {
-                index = 0;
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
             }
             DatabaseField field = this.fieldsArray[index];
-            if ((field != key) && !field.equals(key)) {
-                index = -1;
-                for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                    field = this.fieldsArray[fieldIndex];
-                    if ((field == key) || field.equals(key)) {
-                        // PERF: If the fields index was not set, then set it.
-                        if (key.index == -1) {
-                            key.setIndex(fieldIndex);
-                        }
-                        index = fieldIndex;
-                        break;
-                    }
-                }
-                if (index < 0) {
-                    return null;
-                }
-            }
             if (this.resultSet != null) {
                 Object value = this.valuesArray[index];
                 if (value != null) {
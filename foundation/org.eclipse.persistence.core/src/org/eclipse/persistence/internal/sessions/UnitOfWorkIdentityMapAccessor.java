@@ -55,6 +55,16 @@ public void invalidateQueryCache(Class classThatChanged) {
         ((UnitOfWorkImpl)this.session).getParent().getIdentityMapAccessor().invalidateQueryCache(classThatChanged);
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache affected by the changes.
+     * This is used to invalidate the query cache after a merge.
+     */
+    @Override
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        ((UnitOfWorkImpl)this.session).getParent().getIdentityMapAccessorInstance().invalidateQueryCache(classThatChanged, changeSet);
+    }
+
     /**
      * ADVANCED:
      * Clear the query class associated with the passed-in read query
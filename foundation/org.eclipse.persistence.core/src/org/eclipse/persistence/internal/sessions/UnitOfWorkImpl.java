@@ -3402,7 +3402,7 @@ protected void mergeChangesIntoParent() {
                 postMergeChanges(classesChanged);
 
                 for (Class changedClass : classesChanged) {
-                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
+                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass, uowChangeSet);
                 }
                 // If change propagation enabled through RemoteCommandManager then go for it
                 if (this.parent.shouldPropagateChanges() && (this.parent.getCommandManager() != null)) {
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions.coordination;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.coordination.BatchMergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Asynchronous, batched propagation of merge commands.
+ * <p>
+ * <b>Description</b>: Merge commands are queued by the committing threads and
+ * sent by a single propagation task that is launched on the server platform's
+ * thread pool while there are queued commands. The task waits up to the batch delay
+ * after the first command of a batch for up to the batch size of commands, and sends
+ * their change sets as a single BatchMergeChangeSetCommand.
+ * Invalidations of an object that is invalidated again later in the same batch are not sent.
+ * <p>
+ * The queue is bounded, if it is full the committing threads wait for the queue to be drained.
+ *
+ * @see RemoteCommandManager#setCommandBatchSize(int)
+ */
+public class CommandBatcher implements Runnable {
+
+    /** Queued on flush to wake a propagation task waiting for its batch to fill. */
+    protected static final QueuedCommand FLUSH = new QueuedCommand(null, 0);
+
+    /** Reference to manager to propagate the batches. */
+    protected RemoteCommandManager rcm;
+
+    /** The queued commands, with the time they were queued. */
+    protected BlockingQueue<QueuedCommand> queue;
+
+    /** Maximum number of commands in a batch. */
+    protected int batchSize;
+
+    /** Maximum time to wait for the batch to fill in nanoseconds. */
+    protected long batchDelay;
+
+    /** Set while a propagation task is launched. */
+    protected AtomicBoolean isPropagating;
+
+    /** Set on flush, batches are then sent without waiting for them to fill. */
+    protected volatile boolean isFlushing;
+
+    protected AtomicLong batchesSent;
+    protected AtomicLong commandsSent;
+    protected AtomicLong invalidationsCoalesced;
+    /** Time from queuing the oldest command of the last batch to sending the batch in milliseconds. */
+    protected volatile long lastLag;
+    protected volatile long maxLag;
+
+    public CommandBatcher(RemoteCommandManager rcm, int batchSize, int batchDelay, int queueSize) {
+        this.rcm = rcm;
+        this.batchSize = batchSize;
+        this.batchDelay = TimeUnit.MILLISECONDS.toNanos(batchDelay);
+        this.queue = new ArrayBlockingQueue<QueuedCommand>(queueSize);
+        this.isPropagating = new AtomicBoolean();
+        this.batchesSent = new AtomicLong();
+        this.commandsSent = new AtomicLong();
+        this.invalidationsCoalesced = new AtomicLong();
+    }
+
+    /**
+     * INTERNAL:
+     * Queue the command, wait if the queue is full,
+     * and launch the propagation task if not already launched.
+     */
+    public void queueCommand(MergeChangeSetCommand command) {
+        QueuedCommand queuedCommand = new QueuedCommand(command, System.nanoTime());
+        if (!this.queue.offer(queuedCommand)) {
+            try {
+                this.queue.put(queuedCommand);
+            } catch (InterruptedException exception) {
+                throw RemoteCommandManagerException.unableToPropagateCommand(this.rcm.getServiceId().toString(), exception);
+            }
+        }
+        if (this.isPropagating.compareAndSet(false, true)) {
+            try {
+                this.rcm.getServerPlatform().launchContainerRunnable(this);
+            } catch (RuntimeException exception) {
+                this.isPropagating.set(false);
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The propagation task, send batches until the queue is empty.
+     */
+    public void run() {
+        while (true) {
+            try {
+                sendBatches(this.batchDelay);
+            } finally {
+                this.isPropagating.set(false);
+            }
+            // A command may have been queued after the queue was found empty, but before the flag was reset.
+            if (this.queue.isEmpty() || !this.isPropagating.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Send the queued commands without waiting for batches to fill.
+     * A running propagation task is woken to send the commands it collected, and is waited for,
+     * so the commands are sent in the order they were queued.
+     * Used on shutdown.
+     */
+    public void flush() {
+        this.isFlushing = true;
+        this.queue.offer(FLUSH);
+        try {
+            while (this.isPropagating.get()) {
+                Thread.sleep(1);
+            }
+        } catch (InterruptedException exception) {
+            // Send what is left from this thread.
+        }
+        sendBatches(0);
+    }
+
+    /**
+     * Send batches until the queue is empty.
+     */
+    protected void sendBatches(long delay) {
+        List<QueuedCommand> batch = new ArrayList<QueuedCommand>(this.batchSize);
+        QueuedCommand first;
+        while ((first = this.queue.poll()) != null) {
+            if (first == FLUSH) {
+                continue;
+            }
+            batch.add(first);
+            long deadline = first.queuedTime + delay;
+            try {
+                while (batch.size() < this.batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    QueuedCommand next;
+                    if ((remaining > 0) && !this.isFlushing) {
+                        next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    } else {
+                        next = this.queue.poll();
+                    }
+                    if ((next == null) || (next == FLUSH)) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException exception) {
+                // Send what was collected.
+            }
+            sendBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Build and send the batch command.
+     * The batch is not sent back to the committing thread, so any exception is handled and not thrown.
+     */
+    protected void sendBatch(List<QueuedCommand> batch) {
+        List<UnitOfWorkChangeSet> changeSets = coalesceInvalidations(batch);
+        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.get(0).queuedTime);
+        this.lastLag = lag;
+        if (lag > this.maxLag) {
+            this.maxLag = lag;
+        }
+        this.batchesSent.incrementAndGet();
+        this.commandsSent.addAndGet(batch.size());
+        this.rcm.getCommandProcessor().incrementProfile(SessionProfiler.RcmBatchesSent);
+        this.rcm.getCommandProcessor().updateProfile(SessionProfiler.RcmQueueDepth, this.queue.size());
+        this.rcm.getCommandProcessor().updateProfile(SessionProfiler.RcmLag, lag);
+        try {
+            if (batch.size() == 1) {
+                // No need for a batch, keep the original command.
+                this.rcm.propagateCommandNow(batch.get(0).command);
+            } else {
+                BatchMergeChangeSetCommand command = new BatchMergeChangeSetCommand();
+                command.setChangeSets(changeSets);
+                command.setServiceId(this.rcm.getServiceId());
+                this.rcm.propagateCommandNow(command);
+            }
+        } catch (RuntimeException exception) {
+            // Called from the propagation task, no one could catch it.
+            try {
+                this.rcm.handleException(exception);
+            } catch (RuntimeException ignore) {
+                Object[] args = { this.rcm.getServiceId(), exception };
+                this.rcm.logWarning("failed_command_propagation", args);
+            }
+        }
+    }
+
+    /**
+     * Return the change sets of the batch in commit order,
+     * without the change sets that only invalidate objects that are invalidated again later in the batch.
+     */
+    protected List<UnitOfWorkChangeSet> coalesceInvalidations(List<QueuedCommand> batch) {
+        int size = batch.size();
+        UnitOfWorkChangeSet[] changeSets = new UnitOfWorkChangeSet[size];
+        // Ids of invalidated objects by class name, for the change sets after the current one.
+        Map<String, Set<Object>> invalidated = new HashMap<String, Set<Object>>();
+        int kept = 0;
+        for (int index = size - 1; index >= 0; index--) {
+            UnitOfWorkChangeSet changeSet = batch.get(index).command.getChangeSet(null);
+            if (isInvalidatedLater(changeSet, invalidated)) {
+                this.invalidationsCoalesced.addAndGet(changeSet.getAllChangeSets().size());
+            } else {
+                changeSets[index] = changeSet;
+                kept++;
+                for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().keySet()) {
+                    if ((objectChangeSet.getSynchronizationType() == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS) && (objectChangeSet.getId() != null)) {
+                        Set<Object> ids = invalidated.get(objectChangeSet.getClassName());
+                        if (ids == null) {
+                            ids = new HashSet<Object>();
+                            invalidated.put(objectChangeSet.getClassName(), ids);
+                        }
+                        ids.add(objectChangeSet.getId());
+                    }
+                }
+            }
+        }
+        List<UnitOfWorkChangeSet> result = new ArrayList<UnitOfWorkChangeSet>(kept);
+        for (UnitOfWorkChangeSet changeSet : changeSets) {
+            if (changeSet != null) {
+                result.add(changeSet);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return if the change set only invalidates objects that are invalidated again later in the batch.
+     */
+    protected boolean isInvalidatedLater(UnitOfWorkChangeSet changeSet, Map<String, Set<Object>> invalidated) {
+        if (changeSet.hasDeletedObjects() || changeSet.getAllChangeSets().isEmpty()) {
+            return false;
+        }
+        for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().keySet()) {
+            if (objectChangeSet.getSynchronizationType() != ClassDescriptor.INVALIDATE_CHANGED_OBJECTS) {
+                return false;
+            }
+            Set<Object> ids = invalidated.get(objectChangeSet.getClassName());
+            if ((ids == null) || !ids.contains(objectChangeSet.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of queued commands.
+     */
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the time from queuing the oldest command of the last batch to sending the batch in milliseconds.
+     */
+    public long getLastLag() {
+        return this.lastLag;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum time from queuing a command to sending it in milliseconds.
+     */
+    public long getMaxLag() {
+        return this.maxLag;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of batches sent.
+     */
+    public long getBatchesSent() {
+        return this.batchesSent.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of queued commands sent.
+     */
+    public long getCommandsSent() {
+        return this.commandsSent.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of object invalidations not sent as the object was invalidated again later in the batch.
+     */
+    public long getInvalidationsCoalesced() {
+        return this.invalidationsCoalesced.get();
+    }
+
+    /**
+     * A command with the time it was queued.
+     */
+    protected static class QueuedCommand {
+        protected MergeChangeSetCommand command;
+        protected long queuedTime;
+
+        protected QueuedCommand(MergeChangeSetCommand command, long queuedTime) {
+            this.command = command;
+            this.queuedTime = queuedTime;
+        }
+    }
+}
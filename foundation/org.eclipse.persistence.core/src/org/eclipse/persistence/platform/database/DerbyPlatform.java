@@ -432,6 +432,14 @@ public boolean isAlterSequenceObjectSupported() {
         return false;
     }
 
+    /**
+     * INTERNAL: Derby supports multiple rows in the VALUES clause of an INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
     /**
      * INTERNAL: Derby supports sequence objects as of 10.6.1.
      */
@@ -162,6 +162,14 @@ public boolean supportsGlobalTempTables() {
         return true;
     }
 
+    /**
+     * INTERNAL: H2 supports multiple rows in the VALUES clause of an INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
     @Override
     protected String getCreateTempTableSqlPrefix() {
         return "CREATE TEMPORARY TABLE IF NOT EXISTS ";
@@ -558,6 +558,24 @@ public boolean supportsStoredFunctions() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * MySQL supports multiple VALUES rows in an INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * MySQL allows at most 65535 parameters in a prepared statement.
+     */
+    @Override
+    public int getMaxMultiRowInsertParameters() {
+        return 65535;
+    }
+
     /**
      * Some db allow VARCHAR db field to be used in arithmetic operations automatically converting them to numeric:
      * UPDATE OL_PHONE SET PHONE_ORDER_VARCHAR = (PHONE_ORDER_VARCHAR + 1) WHERE ...
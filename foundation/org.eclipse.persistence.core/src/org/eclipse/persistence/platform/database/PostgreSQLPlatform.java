@@ -252,6 +252,22 @@ public boolean supportsIdentity() {
         return true;
     }
 
+    /**
+     * INTERNAL: PostgreSQL supports multiple VALUES rows in an INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * INTERNAL: The PostgreSQL protocol allows at most 32767 parameters in a statement.
+     */
+    @Override
+    public int getMaxMultiRowInsertParameters() {
+        return 32767;
+    }
+
     /**
      * INTERNAL: Returns query used to read back the value generated by
      * Identity. This method is called when identity NativeSequence is
@@ -36,6 +36,8 @@ public class BatchFetchPolicy implements Serializable, Cloneable {
     protected BatchFetchType type;
     /** Define the batch size for IN style batch fetching. */
     protected int size = 500;
+    /** Define the number of IN style batch queries to execute concurrently when the query completes, 0 to fetch when accessed. */
+    protected int parallelism;
     /** Define the attributes to be batch fetched. */
     protected List<Expression> attributeExpressions;
     /** Define the mapping to be batch fetched (from mapping settings). */
@@ -119,6 +121,27 @@ public void setSize(int size) {
         this.size = size;
     }
 
+    /**
+     * Return the number of IN style batch queries executed concurrently when the query completes.
+     * 0 (default) means the batched relationships are fetched when first accessed.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of IN style batch queries executed concurrently when the query completes.
+     * If set, all of the IN batched relationships of the result of a read all query are fetched when the query completes,
+     * each relationship by its own thread, using at most this number of threads, including the thread executing the query.
+     * This avoids the sequential round trips of accessing several independent batched relationships.
+     * Each batch query uses its own read connection, so this is only used for queries executed on a server session,
+     * or on a client session outside of a transaction, the relationships are otherwise fetched when accessed.
+     * 0 (default) means the batched relationships are fetched when first accessed.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     /**
      * INTERNAL:
      * PERF: Return the internally stored prepared mapping queries.
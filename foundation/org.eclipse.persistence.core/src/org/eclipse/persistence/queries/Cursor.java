@@ -14,11 +14,14 @@
 
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.expressions.*;
 import org.eclipse.persistence.internal.databaseaccess.*;
 import org.eclipse.persistence.internal.helper.*;
+import org.eclipse.persistence.internal.queries.CursorSpliterator;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
@@ -428,6 +431,24 @@ public int size() throws DatabaseException {
         return this.size;
     }
 
+    /**
+     * PUBLIC:
+     * Return a sequential stream of the objects of the cursor.
+     * Objects are built from the result set as the stream is consumed, and released once consumed,
+     * so the objects read before the stream was created are not included.
+     * The cursor is closed, and its connection released, when the stream is closed or all its objects are read.
+     * The stream should be used in a try-with-resources statement, or closed, if it may not be fully read.
+     * @see CursorPolicy#setShouldDetachObjects(boolean)
+     * @see ReadAllQuery#useResultStream(int)
+     */
+    public Stream<Object> stream() {
+        return StreamSupport.stream(new CursorSpliterator(this), false).onClose(new Runnable() {
+            public void run() {
+                close();
+            }
+        });
+    }
+
     /**
      * PUBLIC:
      * Remove is not support with cursors.
@@ -26,6 +26,8 @@
 public abstract class CursorPolicy extends ContainerPolicy {
     protected int pageSize;
     protected ReadQuery query;
+    /** Detach the objects read through the stream of the cursor from the unit of work once consumed. */
+    protected boolean shouldDetachObjects;
 
     /**
      * INTERNAL:
@@ -170,6 +172,28 @@ public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
 
+    /**
+     * PUBLIC:
+     * Set if the objects read through the stream of the cursor are detached from the unit of work once consumed.
+     * This keeps the memory used by the unit of work flat when streaming a large result,
+     * changes made to the objects after they were consumed are not committed.
+     * Only the objects of the result are detached, the objects they reference stay registered,
+     * as they may be referenced by other objects of the result, or by the application.
+     * The memory stays flat if the result's relationships are not instantiated, or are shared by the result.
+     * @see Cursor#stream()
+     */
+    public void setShouldDetachObjects(boolean shouldDetachObjects) {
+        this.shouldDetachObjects = shouldDetachObjects;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the objects read through the stream of the cursor are detached from the unit of work once consumed.
+     */
+    public boolean shouldDetachObjects() {
+        return shouldDetachObjects;
+    }
+
     /**
      * INTERNAL:
      * Set the query.
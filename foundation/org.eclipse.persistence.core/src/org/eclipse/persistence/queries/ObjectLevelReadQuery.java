@@ -69,6 +69,7 @@
 import org.eclipse.persistence.mappings.CollectionMapping;
 import org.eclipse.persistence.mappings.DatabaseMapping;
 import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.sessions.SessionProfiler;
 
 /**
  * <p><b>Purpose</b>:
@@ -2011,7 +2012,9 @@ protected void prepare() throws QueryException {
     protected boolean prepareFromCachedQuery() {
         // PERF: Check if the equivalent expression query has already been prepared.
         // Only allow queries with default properties to be cached.
-        boolean isCacheable = isExpressionQuery() && (!getQueryMechanism().isJPQLCallQueryMechanism()) && isDefaultPropertiesQuery() && (!getSession().isHistoricalSession());
+        // Queries caching their results are prepared to register the classes invalidating their results.
+        boolean isCacheable = isExpressionQuery() && (!getQueryMechanism().isJPQLCallQueryMechanism()) && isDefaultPropertiesQuery()
+                && (!getSession().isHistoricalSession()) && (!shouldCacheQueryResults());
         DatabaseQuery cachedQuery = null;
         if (isCacheable) {
             cachedQuery = this.descriptor.getQueryManager().getCachedExpressionQuery(this);
@@ -2019,10 +2022,12 @@ protected boolean prepareFromCachedQuery() {
             return false;
         }
         if ((cachedQuery != null) && cachedQuery.isPrepared()) {
+            getSession().incrementProfile(SessionProfiler.ExpressionQueryCacheHits, this);
             prepareFromQuery(cachedQuery);
             setIsPrepared(true);
             return true;
         }
+        getSession().incrementProfile(SessionProfiler.ExpressionQueryCacheMisses, this);
         this.descriptor.getQueryManager().putCachedExpressionQuery(this);
         this.isCachedExpressionQuery = true;
         this.isExecutionClone = false;
@@ -3412,6 +3417,20 @@ public void setBatchFetchSize(int size) {
         setIsPrepared(false);
     }
 
+    /**
+     * PUBLIC:
+     * Set the number of batch queries executed concurrently when the query completes.
+     * This is only relevant for the IN batch fetch type of a read all query.
+     * All of the batched relationships of the result are then fetched when the query completes,
+     * on at most this number of threads, instead of when first accessed.
+     *
+     * @see BatchFetchPolicy#setParallelism(int)
+     * @see #setBatchFetchType(BatchFetchType)
+     */
+    public void setBatchFetchParallelism(int parallelism) {
+        getBatchFetchPolicy().setParallelism(parallelism);
+    }
+
     /**
      * INTERNAL:
      * Return temporary map of batched objects.
@@ -44,6 +44,8 @@ public class QueryResultsCachePolicy implements Serializable, Cloneable {
     protected boolean invalidateOnChange;
     /** Stores the set of classes that should trigger the query cached results to be invalidated. */
     protected Set<Class> invalidationClasses;
+    /** Allows a change to only invalidate the query results that depend on the changed object. */
+    protected boolean shouldTrackDependencies;
 
     /**
      * PUBLIC:
@@ -69,6 +71,7 @@ public QueryResultsCachePolicy(CacheInvalidationPolicy policy, int maximumResult
         this.isNullIgnored = false;
         this.invalidateOnChange = true;
         this.invalidationClasses = new HashSet<Class>();
+        this.shouldTrackDependencies = false;
     }
 
     public QueryResultsCachePolicy clone() {
@@ -136,6 +139,31 @@ public void setInvalidateOnChange(boolean invalidateOnChange) {
         this.invalidateOnChange = invalidateOnChange;
     }
 
+    /**
+     * PUBLIC:
+     * Return if the query results should record the objects and parameter values they depend on,
+     * so a change only invalidates the results it affects.
+     * By default any change to any object of the query class invalidates all of the query results.
+     */
+    public boolean shouldTrackDependencies() {
+        return shouldTrackDependencies;
+    }
+
+    /**
+     * PUBLIC:
+     * Configure if the query results should record the objects and parameter values they depend on,
+     * so a change only invalidates the results it affects.
+     * The cached results of a changed or deleted object are invalidated, as well as the cached
+     * results for the parameter values matching a new or changed object.
+     * This is only supported for object queries of a single class, whose selection criteria only
+     * compares direct attributes of the class to parameters or constants with AND,
+     * other queries are invalidated on any change to any object of the query class.
+     * By default dependencies are not tracked.
+     */
+    public void setShouldTrackDependencies(boolean shouldTrackDependencies) {
+        this.shouldTrackDependencies = shouldTrackDependencies;
+    }
+
     /**
      * PUBLIC:
      * Return the type of the cache used for the query results.
@@ -27,6 +27,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.persistence.exceptions.DatabaseException;
 import org.eclipse.persistence.exceptions.QueryException;
@@ -39,6 +40,7 @@
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.helper.InvalidObject;
+import org.eclipse.persistence.internal.helper.ParallelHelper;
 import org.eclipse.persistence.internal.helper.ThreadCursoredList;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
 import org.eclipse.persistence.internal.queries.DatasourceCallQueryMechanism;
@@ -50,6 +52,7 @@
 import org.eclipse.persistence.internal.sessions.remote.RemoteSessionController;
 import org.eclipse.persistence.internal.sessions.remote.Transporter;
 import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
 import org.eclipse.persistence.sessions.DatabaseRecord;
 import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.sessions.remote.DistributedSession;
@@ -76,6 +79,18 @@ public class ReadAllQuery extends ObjectLevelReadQuery {
     protected List<Expression> orderSiblingsByExpressions;
     protected Direction direction;
 
+    /** PERF: Allow the objects of large results to be built on concurrent threads. */
+    protected boolean shouldBuildObjectsInParallel;
+
+    /** PERF: Number of rows built by each thread when building objects in parallel. */
+    protected int parallelBuildingChunkSize = DEFAULT_PARALLEL_BUILDING_CHUNK_SIZE;
+
+    /** By default each thread builds the objects of 250 rows, results with less than two chunks are built serially. */
+    public static final int DEFAULT_PARALLEL_BUILDING_CHUNK_SIZE = 250;
+
+    /** PERF: The result stream clone of this query, kept so it is only prepared once. */
+    protected ReadAllQuery resultStreamQuery;
+
     /**
      * Specifies the direction in which the hierarchy is traversed in a
      * hierarchical query.
@@ -298,6 +313,8 @@ public Object clone() {
         final ReadAllQuery cloneQuery = (ReadAllQuery)super.clone();
         // Don't use setters as that will trigger unprepare.
         cloneQuery.containerPolicy = containerPolicy.clone(cloneQuery);
+        // The clone may be changed, so must build its own result stream query.
+        cloneQuery.resultStreamQuery = null;
         return cloneQuery;
     }
 
@@ -582,6 +599,11 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                         result = this.containerPolicy.containerInstance(rows.size());
                     }
                     this.descriptor.getObjectBuilder().buildObjectsInto(this, rows, result);
+                    // PERF: IN batched relationships may be fetched concurrently when the query completes.
+                    if ((sopObject == null) && (this.batchFetchPolicy != null) && this.batchFetchPolicy.isIN()
+                            && (this.batchFetchPolicy.getParallelism() > 0) && !(rows instanceof ThreadCursoredList)) {
+                        prefetchBatchedAttributes();
+                    }
                 }
 
                 if (sopObject != null) {
@@ -860,6 +882,8 @@ protected void prepareCustomQuery(DatabaseQuery customQuery) {
         customReadQuery.shouldRefreshIdentityMapResult = this.shouldRefreshIdentityMapResult;
         customReadQuery.shouldMaintainCache = this.shouldMaintainCache;
         customReadQuery.shouldUseWrapperPolicy = this.shouldUseWrapperPolicy;
+        customReadQuery.shouldBuildObjectsInParallel = this.shouldBuildObjectsInParallel;
+        customReadQuery.parallelBuildingChunkSize = this.parallelBuildingChunkSize;
     }
 
     /**
@@ -1184,6 +1208,126 @@ public void setHierarchicalQueryClause(Expression startWith, Expression connectB
         setIsPrepared(false);
     }
 
+    /**
+     * ADVANCED:
+     * Set if the objects of the result should be built on concurrent threads.
+     * This can reduce the time to build large results, such as reports reading many thousands of objects.
+     * The rows are split in chunks built by the threads of a fork-join pool, the result keeps the order of the rows.
+     * <p>
+     * Objects are only built in parallel in the shared cache, for queries executed on a server or client session,
+     * or read-only queries executed on a unit of work, as the unit of work is not thread safe.
+     * The relationships of the objects are read through the server session's connection pool,
+     * so a DatabaseSession, a client session with an exclusive connection or in a transaction build serially.
+     * Queries using batch fetching, cursors or result set access optimization are built serially.
+     * Descriptor events raised when building objects may be raised on the threads of the pool.
+     * @see org.eclipse.persistence.config.QueryHints#PARALLEL_BUILDING
+     */
+    public void setShouldBuildObjectsInParallel(boolean shouldBuildObjectsInParallel) {
+        this.shouldBuildObjectsInParallel = shouldBuildObjectsInParallel;
+    }
+
+    /**
+     * ADVANCED:
+     * Return if the objects of the result should be built on concurrent threads.
+     */
+    public boolean shouldBuildObjectsInParallel() {
+        return shouldBuildObjectsInParallel;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the number of rows built by each thread when the objects of the result are built in parallel.
+     * Results with less than two chunks are built serially, the default is 250 rows.
+     * The size must be greater than 0.
+     * @see #setShouldBuildObjectsInParallel(boolean)
+     * @see org.eclipse.persistence.config.QueryHints#PARALLEL_BUILDING_CHUNK_SIZE
+     */
+    public void setParallelBuildingChunkSize(int parallelBuildingChunkSize) {
+        this.parallelBuildingChunkSize = parallelBuildingChunkSize;
+    }
+
+    /**
+     * ADVANCED:
+     * Return the number of rows built by each thread when the objects of the result are built in parallel.
+     */
+    public int getParallelBuildingChunkSize() {
+        return parallelBuildingChunkSize;
+    }
+
+    /**
+     * INTERNAL:
+     * Fetch the IN batched relationships of the result concurrently, each relationship by the thread that claims it,
+     * using at most the batch fetch policy's parallelism threads, including the current thread.
+     * The current thread fetches the relationships not claimed by a thread of the server platform.
+     * Each relationship's IN batch queries are executed for all of the rows of the result,
+     * the results are stored in the batch query, so the batch value holders do not access the database.
+     * Each batch query uses its own read connection of the server session's read pool,
+     * so this is only done on a server session, or a client session outside of a transaction.
+     */
+    protected void prefetchBatchedAttributes() {
+        final AbstractSession executionSession = this.session;
+        if (!executionSession.isServerSession() && (!executionSession.isClientSession() || executionSession.isIsolatedClientSession()
+                || executionSession.isExclusiveIsolatedClientSession() || executionSession.isInTransaction())) {
+            return;
+        }
+        final BatchFetchPolicy policy = this.batchFetchPolicy;
+        Map<Object, List<AbstractRecord>> dataResults = policy.getDataResults();
+        if (dataResults == null) {
+            return;
+        }
+        // The batch query of each batched mapping is set as a property of this query when building the objects.
+        final List<ForeignReferenceMapping> mappings = new ArrayList();
+        final List<ReadQuery> batchQueries = new ArrayList();
+        if (this.properties != null) {
+            for (Map.Entry<Object, Object> entry : this.properties.entrySet()) {
+                if ((entry.getKey() instanceof ForeignReferenceMapping) && (entry.getValue() instanceof ReadQuery)) {
+                    ForeignReferenceMapping mapping = (ForeignReferenceMapping)entry.getKey();
+                    // Ensure the remaining rows of each mapping are set, so the threads only replace them.
+                    policy.getDataResults(mapping);
+                    mappings.add(mapping);
+                    batchQueries.add((ReadQuery)entry.getValue());
+                }
+            }
+        }
+        int size = mappings.size();
+        if (size == 0) {
+            return;
+        }
+        policy.setDataResults(new ConcurrentHashMap<Object, List<AbstractRecord>>(policy.getDataResults()));
+        final List<AbstractRecord> rows = policy.getAllDataResults();
+        final ObjectLevelReadQuery originalQuery = this;
+        // Each relationship is fetched by the thread that claims it.
+        List<Runnable> fetches = new ArrayList<Runnable>(size);
+        for (int index = 0; index < size; index++) {
+            final ForeignReferenceMapping mapping = mappings.get(index);
+            final ReadQuery batchQuery = batchQueries.get(index);
+            fetches.add(new Runnable() {
+                public void run() {
+                    executionSession.startOperationProfile(SessionProfiler.BatchFetch, batchQuery, SessionProfiler.ALL);
+                    try {
+                        for (AbstractRecord row : rows) {
+                            // The rows are removed from the mapping's remaining rows as they are fetched.
+                            if (policy.getDataResults(mapping).isEmpty()) {
+                                break;
+                            }
+                            if (row != null) {
+                                mapping.extractResultFromBatchQuery(batchQuery, null, row, executionSession, originalQuery);
+                            }
+                        }
+                    } finally {
+                        executionSession.endOperationProfile(SessionProfiler.BatchFetch, batchQuery, SessionProfiler.ALL);
+                    }
+                }
+            });
+        }
+        executionSession.startOperationProfile(SessionProfiler.BatchPrefetch, this, SessionProfiler.ALL);
+        try {
+            ParallelHelper.runInParallel(fetches, policy.getParallelism(), executionSession.getServerPlatform());
+        } finally {
+            executionSession.endOperationProfile(SessionProfiler.BatchPrefetch, this, SessionProfiler.ALL);
+        }
+    }
+
     /**
      * PUBLIC:
      * Configure the mapping to use an instance of the specified container class
@@ -1269,6 +1413,63 @@ public void useScrollableCursor(int pageSize) {
         setContainerPolicy(new ScrollableCursorPolicy(this, pageSize));
     }
 
+    /**
+     * INTERNAL:
+     * Return a clone of this query using a result stream, to stream the result of this query.
+     * The clone is kept, so once executed it is prepared, and is reused until this query is changed.
+     * The clone is shared by the executions of this query, so must be cloned before being changed.
+     * @see #useResultStream()
+     */
+    public ReadAllQuery getResultStreamQuery() {
+        ReadAllQuery streamQuery = this.resultStreamQuery;
+        if (streamQuery == null) {
+            streamQuery = (ReadAllQuery)clone();
+            streamQuery.useResultStream();
+            this.resultStreamQuery = streamQuery;
+        }
+        return streamQuery;
+    }
+
+    /**
+     * INTERNAL:
+     * Clear the result stream query when un-preparing, as the query was changed.
+     */
+    @Override
+    public void setIsPrepared(boolean isPrepared) {
+        super.setIsPrepared(isPrepared);
+        if (!isPrepared) {
+            this.resultStreamQuery = null;
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Use a forward only, read only ScrollableCursor as the result collection, to stream the result.
+     * Rows are fetched from the database 100 at a time, unless the fetch size of the query is set.
+     * @see Cursor#stream()
+     */
+    public void useResultStream() {
+        useResultStream(100);
+    }
+
+    /**
+     * PUBLIC:
+     * Use a forward only, read only ScrollableCursor as the result collection, to stream the result.
+     * The cursor's stream builds each object from the live result set when the stream requests it.
+     * Example:<p>
+     * query.useResultStream(500);<p>
+     * Stream stream = ((Cursor)session.executeQuery(query)).stream();
+     * @param fetchSize the number of rows fetched from the database at a time,
+     * unless the fetch size of the query is set.
+     * @see Cursor#stream()
+     */
+    public void useResultStream(int fetchSize) {
+        ScrollableCursorPolicy policy = new ScrollableCursorPolicy(this, fetchSize);
+        policy.setResultSetType(ScrollableCursorPolicy.TYPE_FORWARD_ONLY);
+        policy.setResultSetConcurrency(ScrollableCursorPolicy.CONCUR_READ_ONLY);
+        setContainerPolicy(policy);
+    }
+
     /**
      * PUBLIC:
      * Use a ScrollableCursor as the result collection.
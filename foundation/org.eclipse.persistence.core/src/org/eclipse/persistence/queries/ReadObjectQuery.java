@@ -488,13 +488,13 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                     DatabasePlatform platform = dbAccessor.getPlatform();
                     boolean optimizeData = platform.shouldOptimizeDataConversion();
                     if (useSimple) {
-                        row = new SimpleResultSetRecord(call.getFields(), call.getFieldsArray(), resultSet, metaData, dbAccessor, getExecutionSession(), platform, optimizeData);
+                        row = new SimpleResultSetRecord(call.getFields(), call.getFieldsArray(), call.getFieldsIndex(), resultSet, metaData, dbAccessor, getExecutionSession(), platform, optimizeData);
                         if (this.descriptor.isDescriptorTypeAggregate()) {
                             // Aggregate Collection may have an unmapped primary key referencing the owner, the corresponding field will not be used when the object is populated and therefore may not be cleared.
                             ((SimpleResultSetRecord)row).setShouldKeepValues(true);
                         }
                     } else {
-                        row = new ResultSetRecord(call.getFields(), call.getFieldsArray(), resultSet, metaData, dbAccessor, getExecutionSession(), platform, optimizeData);
+                        row = new ResultSetRecord(call.getFields(), call.getFieldsArray(), call.getFieldsIndex(), resultSet, metaData, dbAccessor, getExecutionSession(), platform, optimizeData);
                     }
                     if (session.isUnitOfWork()) {
                         result = registerResultInUnitOfWork(row, (UnitOfWorkImpl)session, this.translationRow, true);
@@ -42,7 +42,12 @@ public ScrollableCursor() {
      */
     public ScrollableCursor(DatabaseCall call, ScrollableCursorPolicy policy) {
         super(call, policy);
-        setPosition(-1);
+        // PERF: A forward only result set is before its first row, so avoid computing the position from it.
+        if (policy.getResultSetType() == ScrollableCursorPolicy.TYPE_FORWARD_ONLY) {
+            setPosition(0);
+        } else {
+            setPosition(-1);
+        }
     }
 
     /**
@@ -166,6 +166,24 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         return getDefaultSequence().getGeneratedVector(accessor, writeSession, seqName, size);
     }
 
+    /**
+     * INTERNAL:
+     * Allocate a block of size sequencing values and return the last value of the block.
+     * Used only in case block preallocation is used (shouldUseBlockPreallocation()==true).
+     */
+    public Number getGeneratedBlock(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        return getDefaultSequence().getGeneratedBlock(accessor, writeSession, seqName, size);
+    }
+
+    /**
+     * PUBLIC:
+     * Return if preallocated values should be kept as blocks of consecutive values handed out without locking,
+     * either set on this sequence or on the default sequence.
+     */
+    public boolean shouldUseBlockPreallocation() {
+        return this.shouldUseBlockPreallocation || getDefaultSequence().shouldUseBlockPreallocation();
+    }
+
     /**
      * INTERNAL:
      * This method is called when Sequencing object is created.
@@ -19,6 +19,7 @@
 import org.eclipse.persistence.internal.databaseaccess.Accessor;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 
 /**
  * <p>
@@ -57,6 +58,15 @@ public abstract class Sequence implements Serializable, Cloneable {
     // note that even if set to false sequence always overrides if shouldAcquireValueAfterInsert returns true.
     protected boolean shouldAlwaysOverrideExistingValue;
 
+    // indicates whether preallocated values should be kept as blocks handed out without locking.
+    protected boolean shouldUseBlockPreallocation;
+
+    // fraction of a preallocated block consumed before the next block is allocated in the background.
+    protected float prefetchThreshold = DEFAULT_PREFETCH_THRESHOLD;
+
+    /** By default the next block is allocated once half of the current block was used. */
+    public static final float DEFAULT_PREFETCH_THRESHOLD = 0.5f;
+
     public Sequence() {
         super();
         setName("SEQUENCE");
@@ -265,6 +275,22 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         return getGeneratedVector(accessor, writeSession, getName(), getPreallocationSize());
     }
 
+    /**
+     * INTERNAL:
+     * Allocate a block of size sequencing values and return the last value of the block,
+     * the block being the values from (last - size + 1) to last.
+     * Used only in case block preallocation is used (shouldUseBlockPreallocation()==true).
+     * Return null if the sequence cannot allocate blocks,
+     * in that case getGeneratedVector is used instead.
+     * @param accessor Accessor is a separate sequencing accessor (may be null);
+     * @param writeSession Session is a Session used for writing (either ClientSession or DatabaseSession);
+     * @param seqName String is sequencing number field name
+     * @param size int number of values to preallocate.
+     */
+    public Number getGeneratedBlock(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        return null;
+    }
+
     /**
      * INTERNAL:
      * This method is called when Sequencing object is created.
@@ -394,6 +420,49 @@ public boolean shouldAlwaysOverrideExistingValue(String seqName) {
         return this.shouldAlwaysOverrideExistingValue || shouldAcquireValueAfterInsert();
     }
 
+    /**
+     * PUBLIC:
+     * Set if preallocated values should be kept as blocks of consecutive values handed out without locking,
+     * instead of a queue of values.
+     * The next block is allocated in the background once the prefetch threshold of the current block is reached,
+     * so inserting threads do not wait for the database.
+     * This is used for table and native sequences, when a separate sequence connection is used, or for native sequence objects.
+     * @see #setPrefetchThreshold(float)
+     */
+    public void setShouldUseBlockPreallocation(boolean shouldUseBlockPreallocation) {
+        this.shouldUseBlockPreallocation = shouldUseBlockPreallocation;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if preallocated values should be kept as blocks of consecutive values handed out without locking.
+     */
+    public boolean shouldUseBlockPreallocation() {
+        return shouldUseBlockPreallocation;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the fraction of a preallocated block that is consumed before the next block is allocated in the background.
+     * The threshold must be greater than 0 and at most 1, 1 disables the background allocation.
+     * Only used with block preallocation, the default is 0.5.
+     * @throws IllegalArgumentException if the threshold is not greater than 0 and at most 1.
+     */
+    public void setPrefetchThreshold(float prefetchThreshold) {
+        if (!((prefetchThreshold > 0) && (prefetchThreshold <= 1))) {
+            throw new IllegalArgumentException(ExceptionLocalization.buildMessage("invalid_sequence_prefetch_threshold", new Object[] { Float.valueOf(prefetchThreshold) }));
+        }
+        this.prefetchThreshold = prefetchThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the fraction of a preallocated block that is consumed before the next block is allocated in the background.
+     */
+    public float getPrefetchThreshold() {
+        return prefetchThreshold;
+    }
+
     public String toString() {
         return getClass().getSimpleName() + "(" + getName() + ")";
     }
@@ -78,6 +78,22 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         }
     }
 
+    public Number getGeneratedBlock(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        if (shouldUsePreallocation()) {
+            Number value = updateAndSelectSequence(accessor, writeSession, seqName, size);
+            if (value == null) {
+                throw DatabaseException.errorPreallocatingSequenceNumbers();
+            }
+            // Same validation as createVector.
+            if ((value.longValue() - size) < -1L) {
+                throw ValidationException.sequenceSetupIncorrectly(seqName);
+            }
+            return value;
+        } else {
+            return null;
+        }
+    }
+
     /**
      * INTERNAL:
      * given sequence = 10, size = 5 will create Vector (6,7,8,9,10)
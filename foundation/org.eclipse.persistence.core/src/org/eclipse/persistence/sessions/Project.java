@@ -107,6 +107,9 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** PERF: Provide an JPQL parse cache to optimize dynamic JPQL. */
     protected transient ConcurrentFixedCache jpqlParseCache;
 
+    /** PERF: Provide a cache of prepared criteria queries to optimize dynamic criteria, disabled by default. */
+    protected transient ConcurrentFixedCache criteriaQueryCache;
+
     /** Define the default setting for configuring if dates and calendars are mutable. */
     protected boolean defaultTemporalMutable = false;
 
@@ -193,6 +196,7 @@ public Project() {
         this.hasGenericHistorySupport = false;
         this.hasProxyIndirection = false;
         this.jpqlParseCache = new ConcurrentFixedCache(200);
+        this.criteriaQueryCache = new ConcurrentFixedCache(0);
         this.queries = new ArrayList<DatabaseQuery>();
         this.mappedSuperclassDescriptors = new HashMap<String, ClassDescriptor>(2);
         this.metamodelIdClassMap = new HashMap<String, List<String>>();
@@ -322,6 +326,46 @@ protected void setJPQLParseCache(ConcurrentFixedCache jpqlParseCache) {
         this.jpqlParseCache = jpqlParseCache;
     }
 
+    /**
+     * INTERNAL:
+     * Return the criteria query cache.
+     * This caches the prepared queries of dynamic criteria queries by their structure,
+     * the literal values of the criteria being bound as parameters.
+     */
+    public ConcurrentFixedCache getCriteriaQueryCache() {
+        if (criteriaQueryCache == null) {
+            criteriaQueryCache = new ConcurrentFixedCache(0);
+        }
+        return criteriaQueryCache;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the criteria query cache max size.
+     * This is used to optimize dynamic criteria queries, a size of 0 disables the cache (default).
+     */
+    public void setCriteriaQueryCacheMaxSize(int maxSize) {
+        setCriteriaQueryCache(new ConcurrentFixedCache(maxSize));
+    }
+
+    /**
+     * ADVANCED:
+     * Return the criteria query cache max size.
+     * This is used to optimize dynamic criteria queries.
+     */
+    public int getCriteriaQueryCacheMaxSize() {
+        return getCriteriaQueryCache().getMaxSize();
+    }
+
+    /**
+     * INTERNAL:
+     * Set the criteria query cache.
+     * This is used to optimize dynamic criteria queries.
+     */
+    protected void setCriteriaQueryCache(ConcurrentFixedCache criteriaQueryCache) {
+        this.criteriaQueryCache = criteriaQueryCache;
+    }
+
     /**
      * INTERNAL:
      * List of queries that upon initialization are copied over to the session
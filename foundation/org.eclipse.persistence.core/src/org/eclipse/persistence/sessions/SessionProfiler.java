@@ -33,6 +33,15 @@ public interface SessionProfiler {
     public static final String LoginTime = "Info:LoginTime";
     public static final String RcmStatus = "Info:CacheCoordinationStatus";
     public static final String CacheSize = "Info:CacheSize";//TODO
+    public static final String JpqlParseCacheEvictions = "Info:JPQLParseCacheEvictions";
+    public static final String CriteriaQueryCacheEvictions = "Info:CriteriaQueryCacheEvictions";
+    public static final String RcmQueueDepth = "Info:CacheCoordinationQueueDepth";
+    public static final String RcmLag = "Info:CacheCoordinationLag";
+    public static final String ProjectCacheFingerprintTime = "Info:ProjectCacheFingerprintTime";
+    public static final String ProjectCacheRetrieveTime = "Info:ProjectCacheRetrieveTime";
+    public static final String ProjectCacheStoreTime = "Info:ProjectCacheStoreTime";
+    public static final String MetadataProcessingTime = "Info:MetadataProcessingTime";
+    public static final String DeployLoginTime = "Info:DeployLoginTime";
 
     public static final String ClientSessionCreated = "Counter:ClientSessionCreates";
     public static final String ClientSessionReleased = "Counter:ClientSessionReleases";
@@ -43,11 +52,27 @@ public interface SessionProfiler {
     public static final String OptimisticLockException = "Counter:OptimisticLocks";
     public static final String RcmReceived = "Counter:MessagesReceived";
     public static final String RcmSent = "Counter:MessagesSent";
+    public static final String RcmBatchesSent = "Counter:MessageBatchesSent";
     public static final String RemoteChangeSet = "Counter:RemoteChangeSets";
     public static final String Connects = "Counter:ConnectCalls";
     public static final String Disconnects = "Counter:DisconnectCalls";
     public static final String CacheHits = "Counter:CacheHits";
     public static final String CacheMisses = "Counter:CacheMisses";
+    public static final String JpqlParseCacheHits = "Counter:JPQLParseCacheHits";
+    public static final String JpqlParseCacheMisses = "Counter:JPQLParseCacheMisses";
+    public static final String CriteriaQueryCacheHits = "Counter:CriteriaQueryCacheHits";
+    public static final String CriteriaQueryCacheMisses = "Counter:CriteriaQueryCacheMisses";
+    public static final String ExpressionQueryCacheHits = "Counter:ExpressionQueryCacheHits";
+    public static final String ExpressionQueryCacheMisses = "Counter:ExpressionQueryCacheMisses";
+    public static final String StatementCacheHits = "Counter:StatementCacheHits";
+    public static final String StatementCacheMisses = "Counter:StatementCacheMisses";
+    public static final String StatementCacheEvictions = "Counter:StatementCacheEvictions";
+    public static final String QueryCacheHits = "Counter:QueryCacheHits";
+    public static final String QueryCacheMisses = "Counter:QueryCacheMisses";
+    public static final String QueryCacheInvalidations = "Counter:QueryCacheInvalidations";
+    public static final String BatchesSent = "Counter:BatchesSent";
+    public static final String BatchedStatements = "Counter:BatchedStatements";
+    public static final String ReorderedStatements = "Counter:ReorderedStatements";
     public static final String ChangeSetsProcessed = "Counter:ChangesProcessed";
     public static final String ChangeSetsNotProcessed = "Counter:ChangesNotProcessed";
 
@@ -76,6 +101,8 @@ public interface SessionProfiler {
     public static final String Remote = "Timer:Remote";
     public static final String RemoteLazy = "Timer:RemoteLazy";
     public static final String RemoteMetadata = "Timer:RemoteMetadata";
+    public static final String BatchPrefetch = "Timer:BatchPrefetch";
+    public static final String BatchFetch = "Timer:BatchFetch";
 
     /**
      * INTERNAL:
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.coordination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.MergeManager;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Provide a remote command implementation for remote cache
+ * merges of the changes of several commits.
+ * <p>
+ * <b>Description</b>: This command is built by the RemoteCommandManager when
+ * command batching is enabled, it coalesces the change sets of several
+ * MergeChangeSetCommands so they are sent in a single message.
+ * The change sets are merged in the order they were committed.
+ *
+ * @see RemoteCommandManager#setCommandBatchSize(int)
+ */
+public class BatchMergeChangeSetCommand extends MergeChangeSetCommand {
+
+    /** The changes to be applied remotely, in commit order */
+    protected List<UnitOfWorkChangeSet> changeSets;
+
+    public BatchMergeChangeSetCommand() {
+        this.changeSets = new ArrayList<UnitOfWorkChangeSet>();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the changes to be applied, in commit order.
+     */
+    public List<UnitOfWorkChangeSet> getChangeSets() {
+        return changeSets;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the changes to be applied, in commit order.
+     */
+    public void setChangeSets(List<UnitOfWorkChangeSet> changeSets) {
+        this.changeSets = changeSets;
+    }
+
+    /**
+     * INTERNAL:
+     * Add the changes of a commit to be applied.
+     */
+    public void addChangeSet(UnitOfWorkChangeSet changeSet) {
+        this.changeSets.add(changeSet);
+    }
+
+    /**
+     * INTERNAL:
+     * Merge each of the change sets, in commit order.
+     */
+    @Override
+    public void executeWithSession(AbstractSession session) {
+        for (UnitOfWorkChangeSet changeSet : this.changeSets) {
+            MergeManager manager = new MergeManager(session);
+            manager.mergeIntoDistributedCache();
+            manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+            manager.mergeChangesFromChangeSet(changeSet);
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.internal.sessions.coordination.CommandBatcher;
 import org.eclipse.persistence.internal.sessions.coordination.CommandPropagator;
 import org.eclipse.persistence.internal.sessions.coordination.RCMCommand;
 import org.eclipse.persistence.internal.sessions.coordination.RemoteConnection;
@@ -72,6 +73,8 @@
 public class RemoteCommandManager implements org.eclipse.persistence.sessions.coordination.CommandManager {
     public static final String DEFAULT_CHANNEL = "EclipseLinkCommandChannel";
     public static final boolean DEFAULT_ASYNCHRONOUS_MODE = true;
+    public static final int DEFAULT_COMMAND_BATCH_DELAY = 10;
+    public static final int DEFAULT_COMMAND_QUEUE_SIZE = 1000;
 
     /** Uniquely identifies this service in the cluster */
     protected ServiceId serviceId;
@@ -103,6 +106,18 @@ public class RemoteCommandManager implements org.eclipse.persistence.sessions.co
     //** Indicates whether RCM is active. In case there's discoveryManager it mirrors discoveryManager.isDiscoveryStopped()
     protected boolean isStopped = true;
 
+    /** Maximum number of merge commands sent in a single batch, batching is disabled if less than 2. */
+    protected int commandBatchSize;
+
+    /** Maximum time in milliseconds a merge command waits for other commands to be batched with. */
+    protected int commandBatchDelay;
+
+    /** Maximum number of merge commands queued to be batched. */
+    protected int commandQueueSize;
+
+    /** Queues and sends the merge commands in batches, if batching is enabled. */
+    protected CommandBatcher commandBatcher;
+
     public RemoteCommandManager(CommandProcessor commandProcessor) {
         this.serviceId = new ServiceId();
 
@@ -116,6 +131,8 @@ public RemoteCommandManager(CommandProcessor commandProcessor) {
         this.serviceId.setChannel(DEFAULT_CHANNEL);
         this.isAsynchronous = DEFAULT_ASYNCHRONOUS_MODE;
         this.serializer = JavaSerializer.instance;
+        this.commandBatchDelay = DEFAULT_COMMAND_BATCH_DELAY;
+        this.commandQueueSize = DEFAULT_COMMAND_QUEUE_SIZE;
 
         // Set the command processor to point back to this command manager
         commandProcessor.setCommandManager(this);
@@ -159,6 +176,9 @@ public void initialize() {
         if (serializer != null) {
             serializer.initialize(UnitOfWorkChangeSet.class, null, (AbstractSession)getCommandProcessor());
         }
+        if (shouldBatchCommands()) {
+            this.commandBatcher = new CommandBatcher(this, this.commandBatchSize, this.commandBatchDelay, this.commandQueueSize);
+        }
     }
 
     /**
@@ -181,6 +201,12 @@ public void shutdown() {
         Object[] args = { this.getServiceId() };
         logDebug("stopping_rcm", args);
 
+        if (this.commandBatcher != null) {
+            // Send the queued commands before the connections are discarded.
+            this.commandBatcher.flush();
+            this.commandBatcher = null;
+        }
+
         if(discoveryManager != null) {
             discoveryManager.stopDiscovery();
 
@@ -202,7 +228,6 @@ public void shutdown() {
      */
     public void propagateCommand(Object command) {
         Command newCommand;
-        CommandPropagator propagator;
 
         this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordination);
         try {
@@ -225,31 +250,60 @@ public void propagateCommand(Object command) {
             // Set our service id on the command to indicate that it came from us
             newCommand.setServiceId(getServiceId());
 
-            // PERF: Support plugable serialization.
-            Serializer serializer = getSerializer();
-            byte[] commandBytes = null;
-            if (serializer != null) {
-                this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordinationSerialize);
-                try {
-                    commandBytes = (byte[])serializer.serialize(command, (AbstractSession)getCommandProcessor());
-                } finally {
-                    this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordinationSerialize);
-                }
+            // Merge commands are queued to be sent in batches, unless they are converted from application commands.
+            CommandBatcher batcher = this.commandBatcher;
+            if ((batcher != null) && (this.commandConverter == null) && (newCommand.getClass() == MergeChangeSetCommand.class)) {
+                batcher.queueCommand((MergeChangeSetCommand)newCommand);
+                return;
             }
 
-            // Propagate the command (synchronously or asynchronously)
-            propagator = new CommandPropagator(this, newCommand, commandBytes);
+            propagateCommand(command, newCommand);
+        } finally {
+            this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordination);
+        }
+    }
 
-            if (shouldPropagateAsynchronously()) {
-                propagator.asynchronousPropagateCommand();
-            } else {
-                propagator.synchronousPropagateCommand();
-            }
+    /**
+     * INTERNAL:
+     * Propagate a command that is not queued to be batched.
+     * Used to send the batches of merge commands.
+     */
+    public void propagateCommandNow(Command command) {
+        this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordination);
+        try {
+            propagateCommand(command, command);
         } finally {
             this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordination);
         }
     }
 
+    /**
+     * INTERNAL:
+     * Serialize the command and propagate it (synchronously or asynchronously).
+     */
+    protected void propagateCommand(Object command, Command newCommand) {
+        // PERF: Support plugable serialization.
+        Serializer serializer = getSerializer();
+        byte[] commandBytes = null;
+        if (serializer != null) {
+            this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordinationSerialize);
+            try {
+                commandBytes = (byte[])serializer.serialize(command, (AbstractSession)getCommandProcessor());
+            } finally {
+                this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordinationSerialize);
+            }
+        }
+
+        // Propagate the command (synchronously or asynchronously)
+        CommandPropagator propagator = new CommandPropagator(this, newCommand, commandBytes);
+
+        if (shouldPropagateAsynchronously()) {
+            propagator.asynchronousPropagateCommand();
+        } else {
+            propagator.synchronousPropagateCommand();
+        }
+    }
+
     /**
      * INTERNAL:
      * Deserialize the command and execute it.
@@ -579,4 +633,90 @@ public Serializer getSerializer() {
     public void setSerializer(Serializer serializer) {
         this.serializer = serializer;
     }
+
+    /**
+     * INTERNAL:
+     * Return if merge commands are queued to be sent in batches.
+     */
+    public boolean shouldBatchCommands() {
+        return this.commandBatchSize > 1;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum number of merge commands sent in a single batch.
+     * Batching is disabled by default.
+     */
+    public int getCommandBatchSize() {
+        return commandBatchSize;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the maximum number of merge commands sent in a single batch.
+     * If set to more than 1, merge commands are queued and sent asynchronously by a single
+     * propagation thread, and the changes of several commits are sent as a single BatchMergeChangeSetCommand.
+     * This reduces the number of messages sent when there are many small commits,
+     * but delays the propagation up to the batch delay.
+     * The serializer must support the BatchMergeChangeSetCommand.
+     * This must be set before the command manager is initialized.
+     */
+    public void setCommandBatchSize(int commandBatchSize) {
+        this.commandBatchSize = commandBatchSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum time in milliseconds a merge command waits for other commands to be batched with.
+     */
+    public int getCommandBatchDelay() {
+        return commandBatchDelay;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the maximum time in milliseconds a merge command waits for other commands to be batched with.
+     * The default is 10 milliseconds.
+     */
+    public void setCommandBatchDelay(int commandBatchDelay) {
+        this.commandBatchDelay = commandBatchDelay;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum number of merge commands queued to be batched.
+     */
+    public int getCommandQueueSize() {
+        return commandQueueSize;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the maximum number of merge commands queued to be batched.
+     * If the queue is full the committing threads wait for the queued commands to be sent.
+     * The default is 1000.
+     */
+    public void setCommandQueueSize(int commandQueueSize) {
+        this.commandQueueSize = commandQueueSize;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the batcher of merge commands, null if batching is disabled or the command manager is not initialized.
+     */
+    public CommandBatcher getCommandBatcher() {
+        return commandBatcher;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of merge commands queued to be sent.
+     */
+    public int getCommandQueueDepth() {
+        CommandBatcher batcher = this.commandBatcher;
+        if (batcher == null) {
+            return 0;
+        }
+        return batcher.getQueueDepth();
+    }
 }
@@ -0,0 +1,653 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.interceptors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.identitymaps.OffHeapCacheStore;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping.WriteType;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.ObjectReferenceMapping;
+import org.eclipse.persistence.queries.BatchFetchPolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.serializers.JavaSerializer;
+import org.eclipse.persistence.sessions.serializers.Serializer;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Cache interceptor that keeps the rows of the cached objects outside of the Java heap.
+ * <p>
+ * <b>Description</b>: When an object is released in the cache its row is serialized into an {@link OffHeapCacheStore}.
+ * The configured identity map can then be small (i.e. a weak or LRU cache), as objects it no longer holds
+ * are rebuilt from their stored row through the ObjectBuilder after a cache miss, without accessing the database.
+ * Cache lookups only return the objects held by the identity map, no object is built and no cache lock is held
+ * while looking up the cache, the session's identity map accessor rebuilds the object after the lookup.
+ * The row of the object is stored with the primary keys of the targets of its eager collection
+ * and target foreign key one to one relationships, so these are rebuilt from the cache as well.
+ * Other relationships are rebuilt from their foreign keys, and if the descriptor has a SerializedObjectPolicy
+ * it is used to build the object from the stored row.
+ * <p>
+ * Rows are serialized in the background when the objects are released in the cache,
+ * so serialization does not delay the thread releasing the lock.
+ * <p>
+ * The store has a fixed capacity, when full the oldest rows are evicted.
+ * As a hit rebuilds the object and stores its row again, frequently used rows are kept.
+ * <p>
+ * <b>Configuration</b>: Set the interceptor class on the descriptor's CachePolicy
+ * (or using the @CacheInterceptor annotation).
+ * The capacity in bytes is configured by the "eclipselink.cache.off-heap.size" descriptor or session property.
+ * @see PersistenceUnitProperties#CACHE_OFF_HEAP_SIZE
+ */
+public class OffHeapCacheInterceptor extends CacheInterceptor {
+
+    /** Default capacity in bytes. */
+    public static final long DEFAULT_SIZE = 64 * 1024 * 1024;
+
+    /** Maximum number of segments of the store. */
+    protected static final int MAX_SEGMENTS = 16;
+
+    /** Minimum capacity of a segment of the store. */
+    protected static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    /** Stores the serialized rows, null if the target identity map is not a shared cache. */
+    protected OffHeapCacheStore store;
+
+    /** The descriptor of the class of the map and its subclasses, the index of the descriptor is stored with the row. */
+    protected List<ClassDescriptor> descriptors;
+
+    /** Index of the descriptors by class. */
+    protected Map<Class, Integer> descriptorIndexes;
+
+    /** The eager relationships of each descriptor whose target primary keys are stored with the row. */
+    protected List<ForeignReferenceMapping>[] storedMappings;
+
+    /** The prepared query used to rebuild the objects of each descriptor, built on first use. */
+    protected ReadObjectQuery[] rebuildQueries;
+
+    protected Serializer serializer;
+
+    /** Cache keys released since their row was last stored, stored in the background. */
+    protected Set<CacheKey> pendingKeys;
+
+    /** Set while a background store of the pending keys is running or launched. */
+    protected AtomicBoolean isStoringPendingKeys;
+
+    public OffHeapCacheInterceptor(IdentityMap targetIdentityMap, AbstractSession interceptedSession) {
+        super(targetIdentityMap, interceptedSession);
+        ClassDescriptor descriptor = targetIdentityMap.getDescriptor();
+        // Isolated, unit of work and remote caches are local to a client, and are not stored.
+        if ((descriptor != null) && !interceptedSession.isIsolatedClientSession() && !interceptedSession.isUnitOfWork() && !interceptedSession.isRemoteSession()) {
+            long size = getConfiguredSize(descriptor, interceptedSession);
+            if (size > 0) {
+                int segments = 1;
+                while ((segments < MAX_SEGMENTS) && ((size / (segments << 1)) >= MIN_SEGMENT_SIZE)) {
+                    segments = segments << 1;
+                }
+                initialize(new OffHeapCacheStore(size, segments), descriptor, interceptedSession);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Used by clone to share the store.
+     */
+    protected OffHeapCacheInterceptor(IdentityMap targetIdentityMap, AbstractSession interceptedSession, OffHeapCacheInterceptor interceptor) {
+        super(targetIdentityMap, interceptedSession);
+        this.store = interceptor.store;
+        this.descriptors = interceptor.descriptors;
+        this.descriptorIndexes = interceptor.descriptorIndexes;
+        this.storedMappings = interceptor.storedMappings;
+        this.rebuildQueries = interceptor.rebuildQueries;
+        this.serializer = interceptor.serializer;
+        this.pendingKeys = interceptor.pendingKeys;
+        this.isStoringPendingKeys = interceptor.isStoringPendingKeys;
+    }
+
+    /**
+     * INTERNAL:
+     * Index the descriptors and their stored relationships, and set the serializer.
+     * The session's serializer is used if it serializes to bytes.
+     */
+    protected void initialize(OffHeapCacheStore store, ClassDescriptor descriptor, AbstractSession session) {
+        this.store = store;
+        this.descriptors = new ArrayList<ClassDescriptor>();
+        this.descriptors.add(descriptor);
+        if (descriptor.hasInheritance()) {
+            this.descriptors.addAll(descriptor.getInheritancePolicy().getAllChildDescriptors());
+        }
+        int size = this.descriptors.size();
+        this.descriptorIndexes = new HashMap<Class, Integer>();
+        this.storedMappings = new List[size];
+        for (int index = 0; index < size; index++) {
+            ClassDescriptor each = this.descriptors.get(index);
+            this.descriptorIndexes.put(each.getJavaClass(), index);
+            List<ForeignReferenceMapping> mappings = new ArrayList<ForeignReferenceMapping>();
+            for (DatabaseMapping mapping : each.getMappings()) {
+                if (isStoredMapping(mapping)) {
+                    mappings.add((ForeignReferenceMapping)mapping);
+                }
+            }
+            this.storedMappings[index] = mappings;
+        }
+        this.rebuildQueries = new ReadObjectQuery[size];
+        Serializer serializer = session.getSerializer();
+        if ((serializer == null) || (serializer.getType() != ClassConstants.APBYTE)) {
+            serializer = JavaSerializer.instance;
+        }
+        this.serializer = serializer;
+        this.pendingKeys = Collections.newSetFromMap(new ConcurrentHashMap<CacheKey, Boolean>());
+        this.isStoringPendingKeys = new AtomicBoolean();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the primary keys of the targets of the mapping are stored with the row.
+     * These are the eager relationships that are read with a query, instead of from the foreign key in the row:
+     * collections of entities that do not require their rows to be built (i.e. map keys or list order),
+     * and one to one relationships with the foreign key in the target table or a relation table.
+     */
+    protected boolean isStoredMapping(DatabaseMapping mapping) {
+        if (!mapping.isForeignReferenceMapping() || mapping.isLazy() || !mapping.isCacheable()) {
+            return false;
+        }
+        if (mapping.isCollectionMapping()) {
+            if (mapping.isDirectCollectionMapping() || mapping.isAggregateCollectionMapping()) {
+                return false;
+            }
+            ContainerPolicy containerPolicy = mapping.getContainerPolicy();
+            return !containerPolicy.isMappedKeyMapPolicy() && !containerPolicy.shouldAddAll();
+        }
+        return mapping.isOneToOneMapping() && !((ObjectReferenceMapping)mapping).isForeignKeyRelationship();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the capacity from the descriptor or session property, or the default.
+     */
+    protected long getConfiguredSize(ClassDescriptor descriptor, AbstractSession session) {
+        Object size = descriptor.getProperty(PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE);
+        if (size == null) {
+            size = session.getProperty(PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE);
+        }
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        try {
+            return Long.parseLong(size.toString().trim());
+        } catch (NumberFormatException exception) {
+            throw ValidationException.invalidValueForProperty(size, PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE, exception);
+        }
+    }
+
+    /**
+     * Clone the map, the clone shares the store.
+     */
+    @Override
+    public Object clone() {
+        return new OffHeapCacheInterceptor((IdentityMap)this.targetIdentityMap.clone(), this.interceptedSession, this);
+    }
+
+    /**
+     * Store the object's row when its lock is released.
+     */
+    @Override
+    protected CacheKeyInterceptor createCacheKeyInterceptor(CacheKey wrappedCacheKey) {
+        if (this.store == null) {
+            return new CacheKeyInterceptor(wrappedCacheKey);
+        }
+        return new CacheKeyInterceptor(wrappedCacheKey) {
+            @Override
+            public void release() {
+                this.wrappedKey.release();
+                scheduleStore(this.wrappedKey);
+            }
+
+            @Override
+            public void releaseDeferredLock() {
+                this.wrappedKey.releaseDeferredLock();
+                scheduleStore(this.wrappedKey);
+            }
+        };
+    }
+
+    /**
+     * INTERNAL:
+     * Add the cache key to the keys to store, and launch a background store if none is running.
+     */
+    protected void scheduleStore(CacheKey cacheKey) {
+        this.pendingKeys.add(cacheKey);
+        if (this.isStoringPendingKeys.compareAndSet(false, true)) {
+            Runnable runnable = new Runnable() {
+                public void run() {
+                    do {
+                        storePendingObjects();
+                        OffHeapCacheInterceptor.this.isStoringPendingKeys.set(false);
+                        // A key may have been added after the store completed, but before the flag was reset.
+                    } while (!OffHeapCacheInterceptor.this.pendingKeys.isEmpty() && OffHeapCacheInterceptor.this.isStoringPendingKeys.compareAndSet(false, true));
+                }
+            };
+            try {
+                this.interceptedSession.getServerPlatform().launchContainerRunnable(runnable);
+            } catch (RuntimeException exception) {
+                // The platform could not launch the store, so store in this thread.
+                this.isStoringPendingKeys.set(false);
+                storePendingObjects();
+            }
+        }
+    }
+
+    /**
+     * Store the rows of the objects released since they were last stored.
+     * Rows are stored in the background, this can be used to store them in the current thread.
+     */
+    public void storePendingObjects() {
+        if (this.store == null) {
+            return;
+        }
+        Iterator<CacheKey> iterator = this.pendingKeys.iterator();
+        while (iterator.hasNext()) {
+            CacheKey cacheKey = iterator.next();
+            iterator.remove();
+            try {
+                storeObject(cacheKey);
+            } catch (RuntimeException exception) {
+                // The object can still be cached on the heap, so only log the failure.
+                this.interceptedSession.logThrowable(SessionLog.WARNING, SessionLog.CACHE, exception);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Serialize the object's row into the store, if its state was not already stored.
+     * Objects that are locked, invalid or partially fetched are not stored.
+     * A read lock is held while the row is built, so the object is not changed by a merge.
+     */
+    protected void storeObject(CacheKey cacheKey) {
+        if ((cacheKey.getObject() == null) || !cacheKey.acquireReadLockNoWait()) {
+            // A locked object is stored again when released.
+            return;
+        }
+        try {
+            storeObjectInternal(cacheKey);
+        } finally {
+            cacheKey.releaseReadLock();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Serialize the object's row into the store, the cache key must be read locked.
+     */
+    protected void storeObjectInternal(CacheKey cacheKey) {
+        Object object = cacheKey.getObject();
+        if (object == null) {
+            return;
+        }
+        Object primaryKey = cacheKey.getKey();
+        if (cacheKey.getInvalidationState() == CacheKey.CACHE_KEY_INVALID) {
+            this.store.remove(primaryKey);
+            return;
+        }
+        Object writeLockValue = cacheKey.getWriteLockValue();
+        long readTime = cacheKey.getReadTime();
+        long stamp = buildStamp(readTime, writeLockValue);
+        if (this.store.getStamp(primaryKey) == stamp) {
+            return;
+        }
+        Integer descriptorIndex = this.descriptorIndexes.get(object.getClass());
+        if (descriptorIndex == null) {
+            return;
+        }
+        ClassDescriptor descriptor = this.descriptors.get(descriptorIndex);
+        if (descriptor.hasFetchGroupManager() && descriptor.getFetchGroupManager().isPartialObject(object)) {
+            this.store.remove(primaryKey);
+            return;
+        }
+        AbstractRecord row = descriptor.getObjectBuilder().buildRow(object, this.interceptedSession, WriteType.UNDEFINED);
+        List<DatabaseField> fields = descriptor.getAllFields();
+        int size = fields.size();
+        List<ForeignReferenceMapping> mappings = this.storedMappings[descriptorIndex];
+        Object[] values = new Object[size + 3 + mappings.size()];
+        values[0] = descriptorIndex;
+        values[1] = readTime;
+        values[2] = writeLockValue;
+        for (int index = 0; index < size; index++) {
+            DatabaseField field = fields.get(index);
+            Object value = row.get(field);
+            if ((value == null) && !row.containsKey(field)) {
+                // Read-only direct mappings are not written to the row.
+                DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForField(field);
+                if ((mapping != null) && mapping.isAbstractDirectMapping()) {
+                    value = mapping.valueFromObject(object, field, this.interceptedSession);
+                }
+            }
+            values[index + 3] = value;
+        }
+        for (int index = 0; index < mappings.size(); index++) {
+            values[size + 3 + index] = extractTargetKeys(mappings.get(index), object);
+        }
+        byte[] bytes;
+        try {
+            bytes = (byte[])this.serializer.serialize(values, this.interceptedSession);
+        } catch (RuntimeException notSerializable) {
+            // The row has values that cannot be serialized, the object can only be cached on the heap.
+            this.store.remove(primaryKey);
+            return;
+        }
+        this.store.put(primaryKey, bytes, stamp);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the primary keys of the targets of the relationship, a single key for a one to one,
+     * an empty array if there is no target, or null if the relationship is not instantiated
+     * or a target has no primary key.
+     */
+    protected Object extractTargetKeys(ForeignReferenceMapping mapping, Object object) {
+        Object attributeValue = mapping.getAttributeValueFromObject(object);
+        if (!mapping.getIndirectionPolicy().objectIsInstantiated(attributeValue)) {
+            return null;
+        }
+        Object value = mapping.getRealAttributeValueFromAttribute(attributeValue, object, this.interceptedSession);
+        if (value == null) {
+            return new Object[0];
+        }
+        ClassDescriptor referenceDescriptor = mapping.getReferenceDescriptor();
+        if (!mapping.isCollectionMapping()) {
+            return referenceDescriptor.getObjectBuilder().extractPrimaryKeyFromObject(value, this.interceptedSession, true);
+        }
+        ContainerPolicy containerPolicy = mapping.getContainerPolicy();
+        Object[] targetKeys = new Object[containerPolicy.sizeFor(value)];
+        int index = 0;
+        for (Object iterator = containerPolicy.iteratorFor(value); containerPolicy.hasNext(iterator);) {
+            Object target = containerPolicy.next(iterator, this.interceptedSession);
+            Object targetKey = referenceDescriptor.getObjectBuilder().extractPrimaryKeyFromObject(target, this.interceptedSession, true);
+            if (targetKey == null) {
+                return null;
+            }
+            targetKeys[index++] = targetKey;
+        }
+        return targetKeys;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the prepared query used to rebuild the objects of the descriptor.
+     * The stored row contains all of the fields of the object, so the default fetch group is not used,
+     * and as the row does not contain the rows of the joined relationships, these are built from
+     * their foreign keys or their stored target keys as the other relationships.
+     * The stored relationships are batch read, the batch results are set for each object by the execution clone.
+     */
+    protected ReadObjectQuery getRebuildQuery(int descriptorIndex) {
+        ReadObjectQuery query = this.rebuildQueries[descriptorIndex];
+        if (query == null) {
+            ClassDescriptor descriptor = this.descriptors.get(descriptorIndex);
+            query = new ReadObjectQuery(descriptor.getJavaClass());
+            query.setDescriptor(descriptor);
+            query.setShouldUseDefaultFetchGroup(false);
+            query.setShouldUseSerializedObjectPolicy(descriptor.hasSerializedObjectPolicy());
+            query.checkPrepare(this.interceptedSession, new DatabaseRecord());
+            List<ForeignReferenceMapping> mappings = this.storedMappings[descriptorIndex];
+            if (!mappings.isEmpty()) {
+                List<String> attributes = new ArrayList<String>(mappings.size());
+                for (ForeignReferenceMapping mapping : mappings) {
+                    attributes.add(mapping.getAttributeName());
+                }
+                BatchFetchPolicy batchFetchPolicy = new BatchFetchPolicy();
+                batchFetchPolicy.setAttributeExpressions(new ArrayList(0));
+                batchFetchPolicy.setAttributes(attributes);
+                query.setBatchFetchPolicy(batchFetchPolicy);
+            }
+            this.rebuildQueries[descriptorIndex] = query;
+        }
+        return query;
+    }
+
+    /**
+     * INTERNAL:
+     * Rebuild the object from its stored row through the ObjectBuilder, and put it in the target identity map.
+     * Cache lookups only return the objects held by the target identity map, the session's identity map accessor
+     * rebuilds missing objects after the lookup, as building acquires the object's cache key and may read its relationships.
+     * The row is removed from the store while building, so the object is not rebuilt recursively.
+     * Return the object, or null if not stored or the stored row was invalidated.
+     */
+    public Object rebuildObject(Object primaryKey) {
+        if (this.store == null) {
+            return null;
+        }
+        byte[] bytes = this.store.take(primaryKey);
+        if (bytes == null) {
+            return null;
+        }
+        Object[] values = (Object[])this.serializer.deserialize(bytes, this.interceptedSession);
+        int descriptorIndex = (Integer)values[0];
+        ClassDescriptor descriptor = this.descriptors.get(descriptorIndex);
+        long readTime = (Long)values[1];
+        Object writeLockValue = values[2];
+        // The row may have expired while stored.
+        if (descriptor.getCacheInvalidationPolicy().isInvalidated(new CacheKey(primaryKey, null, writeLockValue, readTime, false))) {
+            return null;
+        }
+        List<DatabaseField> fields = descriptor.getAllFields();
+        int size = fields.size();
+        AbstractRecord row = new DatabaseRecord(size);
+        for (int index = 0; index < size; index++) {
+            row.add(fields.get(index), values[index + 3]);
+        }
+        ReadObjectQuery query = (ReadObjectQuery)getRebuildQuery(descriptorIndex).clone();
+        query.setIsExecutionClone(true);
+        query.setSession(this.interceptedSession);
+        List<ForeignReferenceMapping> mappings = this.storedMappings[descriptorIndex];
+        for (int index = 0; index < mappings.size(); index++) {
+            ForeignReferenceMapping mapping = mappings.get(index);
+            Object targetKeys = values[size + 3 + index];
+            ReadAllQuery batchQuery = new ReadAllQuery(mapping.getReferenceClass());
+            batchQuery.setIsExecutionClone(true);
+            batchQuery.setBatchObjects(new StoredTargets(mapping, targetKeys, row));
+            query.setProperty(mapping, batchQuery);
+        }
+        // The concrete descriptor is known, so inheritance is not used to build the object.
+        Object object = descriptor.getObjectBuilder().buildObject(query, row, null, this.interceptedSession, descriptor, null, false, false, false);
+        CacheKey cacheKey = this.targetIdentityMap.getCacheKey(primaryKey, false);
+        if ((cacheKey != null) && (cacheKey.getObject() == object)) {
+            // Keep the cache properties of the stored object, as the object was not read.
+            cacheKey.setReadTime(readTime);
+            cacheKey.setWriteLockValue(writeLockValue);
+        }
+        this.store.put(primaryKey, bytes, buildStamp(readTime, writeLockValue));
+        return object;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the stamp identifying the stored state of an object.
+     */
+    protected long buildStamp(long readTime, Object writeLockValue) {
+        if (writeLockValue == null) {
+            return readTime;
+        }
+        return (readTime * 31) + writeLockValue.hashCode();
+    }
+
+    /**
+     * Store the object put into the cache.
+     */
+    @Override
+    public CacheKey put(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        CacheKey cacheKey = this.targetIdentityMap.put(primaryKey, object, writeLockValue, readTime);
+        if ((this.store != null) && (cacheKey != null)) {
+            scheduleStore(cacheKey);
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Remove the object from the cache and the store.
+     */
+    @Override
+    public Object remove(Object primaryKey, Object object) {
+        if (this.store != null) {
+            this.store.remove(primaryKey);
+        }
+        return this.targetIdentityMap.remove(primaryKey, object);
+    }
+
+    /**
+     * Remove the object from the cache and the store.
+     */
+    @Override
+    public Object remove(CacheKey cacheKey) {
+        if ((this.store != null) && (cacheKey != null)) {
+            this.store.remove(cacheKey.getKey());
+        }
+        return super.remove(cacheKey);
+    }
+
+    /**
+     * ADVANCED:
+     * Using a list of Entity PK this method will attempt to bulk load the entire list from the cache.
+     * Only the objects held by the target identity map are returned, stored objects are rebuilt after the lookup.
+     */
+    @Override
+    public Map<Object, Object> getAllFromIdentityMapWithEntityPK(Object[] pkList, ClassDescriptor descriptor, AbstractSession session) {
+        return this.targetIdentityMap.getAllFromIdentityMapWithEntityPK(pkList, descriptor, session);
+    }
+
+    /**
+     * ADVANCED:
+     * Using a list of Entity PK this method will attempt to bulk load the entire list from the cache.
+     * Only the cache keys of the target identity map are returned, stored objects are rebuilt after the lookup.
+     */
+    @Override
+    public Map<Object, CacheKey> getAllCacheKeysFromIdentityMapWithEntityPK(Object[] pkList, ClassDescriptor descriptor, AbstractSession session) {
+        return this.targetIdentityMap.getAllCacheKeysFromIdentityMapWithEntityPK(pkList, descriptor, session);
+    }
+
+    /**
+     * Clear the store when the identity map is thrown away,
+     * its buffers are freed once no longer referenced.
+     */
+    public void release() {
+        this.targetIdentityMap.release();
+        if (this.store != null) {
+            this.pendingKeys.clear();
+            this.store.clear();
+        }
+    }
+
+    /**
+     * Return the store of the serialized rows, or null if the map is not a shared cache.
+     */
+    public OffHeapCacheStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * INTERNAL:
+     * Batch results of a stored relationship of a rebuilt object.
+     * The mapping reads its value from these results as the rebuild query batch reads it.
+     * The targets are found in the cache by their stored primary keys when the mapping reads them,
+     * as the rebuilt object is then in the cache for the relationships of the targets that reference it.
+     * If the keys were not stored or a target is no longer cached, the mapping's selection query is executed.
+     */
+    protected class StoredTargets extends HashMap<Object, Object> {
+        protected ForeignReferenceMapping mapping;
+        protected Object targetKeys;
+        protected AbstractRecord row;
+
+        protected StoredTargets(ForeignReferenceMapping mapping, Object targetKeys, AbstractRecord row) {
+            super(1);
+            this.mapping = mapping;
+            this.targetKeys = targetKeys;
+            this.row = row;
+        }
+
+        /**
+         * Return the value of the relationship for the source key, or Helper.NULL_VALUE for a null one to one.
+         */
+        @Override
+        public Object get(Object sourceKey) {
+            Object value = super.get(sourceKey);
+            if (value == null) {
+                value = buildValue();
+                if (value == null) {
+                    value = Helper.NULL_VALUE;
+                }
+                put(sourceKey, value);
+            }
+            return value;
+        }
+
+        /**
+         * Build the value from the cached targets, or execute the selection query.
+         */
+        protected Object buildValue() {
+            AbstractSession session = OffHeapCacheInterceptor.this.interceptedSession;
+            if (this.targetKeys != null) {
+                Class referenceClass = this.mapping.getReferenceClass();
+                ClassDescriptor referenceDescriptor = this.mapping.getReferenceDescriptor();
+                if (!this.mapping.isCollectionMapping()) {
+                    if (this.targetKeys instanceof Object[]) {
+                        // There was no target.
+                        return null;
+                    }
+                    Object target = session.getIdentityMapAccessorInstance().getFromIdentityMap(this.targetKeys, null, referenceClass, false, referenceDescriptor);
+                    if (target != null) {
+                        return target;
+                    }
+                } else {
+                    Object[] keys = (Object[])this.targetKeys;
+                    ContainerPolicy containerPolicy = this.mapping.getContainerPolicy();
+                    Object container = containerPolicy.containerInstance(keys.length);
+                    for (Object key : keys) {
+                        Object target = session.getIdentityMapAccessorInstance().getFromIdentityMap(key, null, referenceClass, false, referenceDescriptor);
+                        if (target == null) {
+                            container = null;
+                            break;
+                        }
+                        containerPolicy.addInto(target, container, session);
+                    }
+                    if (container != null) {
+                        return container;
+                    }
+                }
+            }
+            return session.executeQuery(this.mapping.getSelectionQuery(), this.row);
+        }
+    }
+}
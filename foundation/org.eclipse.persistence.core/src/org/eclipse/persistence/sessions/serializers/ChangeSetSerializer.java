@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.serializers;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ChangeSetReader;
+import org.eclipse.persistence.internal.sessions.ChangeSetSchema;
+import org.eclipse.persistence.internal.sessions.ChangeSetWriter;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.coordination.BatchMergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.Command;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+
+/**
+ * Compact binary serialization of cache coordination change sets.
+ * <p>
+ * Merge commands and unit of work change sets are written by descriptor and mapping index
+ * instead of class and attribute names, with variable length integers and no reflection.
+ * Change records and values of uncommon types, and any other object, use Java serialization.
+ * <p>
+ * The indexes are computed from the session's project, so all the nodes of the cluster must use the same project.
+ * This is checked when the messages are read.
+ *
+ * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setSerializer(Serializer)
+ * @see org.eclipse.persistence.config.PersistenceUnitProperties#COORDINATION_SERIALIZER
+ */
+public class ChangeSetSerializer extends AbstractSerializer {
+
+    /** Message tags. */
+    protected static final int OBJECT = 0;
+    protected static final int MERGE_COMMAND = 1;
+    protected static final int BATCH_MERGE_COMMAND = 2;
+    protected static final int UNIT_OF_WORK_CHANGE_SET = 3;
+
+    /** The descriptor and mapping indexes of the session's project. */
+    protected transient volatile ChangeSetSchema schema;
+
+    @Override
+    public void initialize(Class serializeClass, String serializePackage, Session session) {
+        getSchema(session);
+    }
+
+    /**
+     * Return the schema of the session's project, or null if there is no session.
+     */
+    protected ChangeSetSchema getSchema(Session session) {
+        if (session == null) {
+            return null;
+        }
+        ChangeSetSchema schema = this.schema;
+        if ((schema == null) || (schema.getProject() != session.getProject())) {
+            schema = new ChangeSetSchema((AbstractSession)session);
+            this.schema = schema;
+        }
+        return schema;
+    }
+
+    @Override
+    public Object serialize(Object object, Session session) {
+        ChangeSetSchema schema = getSchema(session);
+        ChangeSetWriter writer = new ChangeSetWriter(schema);
+        try {
+            writer.writeByte(ChangeSetWriter.VERSION);
+            writer.writeInt((schema == null) ? 0 : schema.getHash());
+            Class type = object.getClass();
+            if ((type == MergeChangeSetCommand.class) && isSupported(((MergeChangeSetCommand)object).getChangeSet(null))) {
+                MergeChangeSetCommand command = (MergeChangeSetCommand)object;
+                writer.writeByte(MERGE_COMMAND);
+                writeServiceId(command, writer);
+                writer.writeUnitOfWorkChangeSet(command.getChangeSet(null));
+            } else if ((type == BatchMergeChangeSetCommand.class) && isSupported(((BatchMergeChangeSetCommand)object).getChangeSets())) {
+                BatchMergeChangeSetCommand command = (BatchMergeChangeSetCommand)object;
+                writer.writeByte(BATCH_MERGE_COMMAND);
+                writeServiceId(command, writer);
+                writer.writeVarInt(command.getChangeSets().size());
+                for (UnitOfWorkChangeSet changeSet : command.getChangeSets()) {
+                    // Each change set has its own object change sets.
+                    ChangeSetWriter changeSetWriter = new ChangeSetWriter(schema);
+                    changeSetWriter.writeUnitOfWorkChangeSet(changeSet);
+                    writer.writeBytes(changeSetWriter.toByteArray());
+                }
+            } else if ((type == UnitOfWorkChangeSet.class) && isSupported((UnitOfWorkChangeSet)object)) {
+                writer.writeByte(UNIT_OF_WORK_CHANGE_SET);
+                writer.writeUnitOfWorkChangeSet((UnitOfWorkChangeSet)object);
+            } else {
+                writer.writeByte(OBJECT);
+                writer.writeSerialized(object);
+            }
+            return writer.toByteArray();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    protected boolean isSupported(UnitOfWorkChangeSet changeSet) {
+        return (changeSet != null) && ChangeSetWriter.isSupported(changeSet);
+    }
+
+    protected boolean isSupported(List<UnitOfWorkChangeSet> changeSets) {
+        for (UnitOfWorkChangeSet changeSet : changeSets) {
+            if (!isSupported(changeSet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void writeServiceId(Command command, ChangeSetWriter writer) {
+        ServiceId serviceId = command.getServiceId();
+        if (serviceId == null) {
+            writer.writeByte(0);
+        } else {
+            writer.writeByte(1);
+            writer.writeString(serviceId.getChannel());
+            writer.writeString(serviceId.getId());
+            writer.writeString(serviceId.getURL());
+        }
+    }
+
+    protected void readServiceId(Command command, ChangeSetReader reader) throws IOException {
+        if (reader.readByte() == 1) {
+            command.setServiceId(new ServiceId(reader.readString(), reader.readString(), reader.readString()));
+        }
+    }
+
+    @Override
+    public Object deserialize(Object bytes, Session session) {
+        ChangeSetSchema schema = getSchema(session);
+        try {
+            ChangeSetReader reader = new ChangeSetReader((byte[])bytes, schema, session);
+            int version = reader.readByte();
+            if (version != ChangeSetWriter.VERSION) {
+                throw new StreamCorruptedException("Unsupported change set serialization version: " + version);
+            }
+            int hash = reader.readInt();
+            if ((hash != 0) && ((schema == null) || (hash != schema.getHash()))) {
+                throw new StreamCorruptedException("The change set was serialized with a different project");
+            }
+            int tag = reader.readByte();
+            switch (tag) {
+                case MERGE_COMMAND:
+                    MergeChangeSetCommand command = new MergeChangeSetCommand();
+                    readServiceId(command, reader);
+                    command.setChangeSet(reader.readUnitOfWorkChangeSet());
+                    return command;
+                case BATCH_MERGE_COMMAND:
+                    BatchMergeChangeSetCommand batchCommand = new BatchMergeChangeSetCommand();
+                    readServiceId(batchCommand, reader);
+                    int size = (int)reader.readVarInt();
+                    List<UnitOfWorkChangeSet> changeSets = new ArrayList<UnitOfWorkChangeSet>(size);
+                    for (int index = 0; index < size; index++) {
+                        ChangeSetReader changeSetReader = new ChangeSetReader(reader.readBytes(), schema, session);
+                        changeSets.add(changeSetReader.readUnitOfWorkChangeSet());
+                    }
+                    batchCommand.setChangeSets(changeSets);
+                    return batchCommand;
+                case UNIT_OF_WORK_CHANGE_SET:
+                    return reader.readUnitOfWorkChangeSet();
+                case OBJECT:
+                    return reader.readSerialized();
+                default:
+                    throw new StreamCorruptedException("Invalid message tag: " + tag);
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
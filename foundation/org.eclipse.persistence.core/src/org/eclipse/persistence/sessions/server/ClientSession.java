@@ -79,6 +79,7 @@ public ClientSession(ServerSession parent, ConnectionPolicy connectionPolicy, Ma
         if (parent.hasTablePerTenantDescriptors() || parent.getProject().getMultitenantPolicy() != null) {
             this.project = parent.getProject().clone();
             this.project.setJPQLParseCacheMaxSize(parent.getProject().getJPQLParseCache().getMaxSize());
+            this.project.setCriteriaQueryCacheMaxSize(parent.getProject().getCriteriaQueryCacheMaxSize());
         } else {
             this.project = parent.getProject();
         }
@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.server;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+import org.eclipse.persistence.exceptions.DatabaseException;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Login;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Connection pool that does not hold a monitor while allocating connections.
+ * <p>
+ * Available connections are kept in a concurrent LIFO deque and the number of connections
+ * handed out is bounded by a fair semaphore, so waiting threads are served in arrival order
+ * and can time out. New connections are built by the acquiring thread outside of any lock,
+ * so a slow connect (i.e. during a login storm or database failover) only blocks the thread
+ * that requested it, not every thread using the pool.
+ * <p>
+ * The pool size is reserved atomically before a connection is built, so the maximum
+ * number of connections is never exceeded.
+ *
+ * @see ConnectionPool
+ * @see ServerSession#addConcurrentConnectionPool(String, Login, int, int)
+ * @see ServerSession#useConcurrentReadConnectionPool(int, int, int)
+ */
+public class ConcurrentConnectionPool extends ConnectionPool {
+
+    /** Connections that are connected and not in use, the last released is acquired first. */
+    protected Deque<Accessor> freeConnections;
+
+    /** Connections that are currently allocated to a client. */
+    protected Map<Accessor, Boolean> busyConnections;
+
+    /** Total number of connections, including connections being built. */
+    protected AtomicInteger numberOfConnections;
+
+    /** Bounds the number of connections in use, fair to ensure first come first served. */
+    protected volatile Semaphore permits;
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool() {
+        super();
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, ServerSession owner) {
+        super(name, login, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int initialNumberOfConnections, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, initialNumberOfConnections, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * INTERNAL:
+     * Wait until a connection is available and allocate the connection for the client.
+     * The wait is fair and bounded by the pool's wait timeout.
+     */
+    @Override
+    public Accessor acquireConnection() throws ConcurrencyException {
+        // Check for dead database and fail-over.
+        if (this.isDead) {
+            return failover();
+        }
+        Semaphore permits = getPermits();
+        acquirePermit(permits);
+        Accessor connection = null;
+        try {
+            connection = allocateConnection();
+        } catch (RuntimeException failed) {
+            permits.release();
+            throw failed;
+        }
+        if (connection.getPool() != this) {
+            // Failed over to another pool, the connection will be released to that pool.
+            permits.release();
+            return connection;
+        }
+        this.busyConnections.put(connection, Boolean.TRUE);
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(this.busyConnections.size()));
+        }
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "acquire_connection", args, connection);
+        }
+        return connection;
+    }
+
+    /**
+     * INTERNAL:
+     * Wait for a permit to use a connection.
+     * A wait timeout of 0 means wait forever.
+     */
+    protected void acquirePermit(Semaphore permits) throws ConcurrencyException {
+        try {
+            if (this.waitTimeout > 0) {
+                if (!permits.tryAcquire(this.waitTimeout, TimeUnit.MILLISECONDS)) {
+                    throw ConcurrencyException.waitTimeoutOnConnectionPool(this.name, this.waitTimeout);
+                }
+            } else {
+                permits.acquire();
+            }
+        } catch (InterruptedException exception) {
+            throw ConcurrencyException.waitFailureOnClientSession(exception);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return a free connection, or build a new one if none are free.
+     * The caller must hold a permit.
+     */
+    protected Accessor allocateConnection() {
+        while (true) {
+            Accessor connection = this.freeConnections.pollLast();
+            if (connection != null) {
+                if (this.checkConnections) {
+                    if (isConnectionFailed(connection)) {
+                        continue;
+                    }
+                    // Connection was good, so stop testing connections.
+                    this.checkConnections = false;
+                }
+                return connection;
+            }
+            if (this.checkConnections) {
+                // All free connections were tested, let the pool build more.
+                this.checkConnections = false;
+            }
+            int size = this.numberOfConnections.get();
+            if (size < this.maxNumberOfConnections) {
+                if (this.numberOfConnections.compareAndSet(size, size + 1)) {
+                    try {
+                        return buildConnection();
+                    } catch (RuntimeException failed) {
+                        this.numberOfConnections.decrementAndGet();
+                        if (!this.failoverConnectionPools.isEmpty()) {
+                            this.isDead = true;
+                            this.timeOfDeath = System.currentTimeMillis();
+                            this.owner.logThrowable(SessionLog.WARNING, SessionLog.SQL, failed);
+                            return failover();
+                        }
+                        throw failed;
+                    }
+                }
+            } else {
+                // A connection is being released concurrently, it will be pushed before its permit is returned.
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Check if the connection failed because the database connection is dead,
+     * if it did close the connection and remove it from the pool.
+     */
+    protected boolean isConnectionFailed(Accessor connection) {
+        if (this.owner.getLogin().isConnectionHealthValidatedOnError() && this.owner.getServerPlatform().wasFailureCommunicationBased(null, connection, this.owner)) {
+            try {
+                //connection failed connect test
+                connection.closeConnection();
+            } catch (Exception ex){
+                //ignore
+            } finally {
+                connection.releaseCustomizer();
+            }
+            this.numberOfConnections.decrementAndGet();
+            maintainMinimumConnections();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the semaphore bounding the connections in use, build it lazily as the max size can be set until start up.
+     */
+    protected Semaphore getPermits() {
+        Semaphore permits = this.permits;
+        if (permits == null) {
+            synchronized (this) {
+                permits = this.permits;
+                if (permits == null) {
+                    permits = new Semaphore(this.maxNumberOfConnections, true);
+                    this.permits = permits;
+                }
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * INTERNAL:
+     * Returns a copy of the connections currently available for use in the pool.
+     */
+    @Override
+    public List<Accessor> getConnectionsAvailable() {
+        return new ArrayList<Accessor>(this.freeConnections);
+    }
+
+    /**
+     * INTERNAL:
+     * Returns a copy of the connections that are being used.
+     */
+    @Override
+    protected List<Accessor> getConnectionsUsed() {
+        return new ArrayList<Accessor>(this.busyConnections.keySet());
+    }
+
+    /**
+     * INTERNAL:
+     * Return the total number of connections, including connections being built.
+     */
+    @Override
+    public int getTotalNumberOfConnections() {
+        return this.numberOfConnections.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if a connection can be acquired without waiting.
+     */
+    @Override
+    public boolean hasConnectionAvailable() {
+        return !this.freeConnections.isEmpty();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the connection to the pool and signal a waiting thread.
+     */
+    @Override
+    public void releaseConnection(Accessor connection) throws DatabaseException {
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "release_connection", args, connection);
+        }
+        if (connection.getPool() != this) {
+            // Acquired from a fail-over pool.
+            connection.getPool().releaseConnection(connection);
+            return;
+        }
+        if (this.busyConnections.remove(connection) == null) {
+            // Not allocated by this pool, i.e. the pool was shutdown.
+            return;
+        }
+        try {
+            connection.reset();
+            if (!connection.isValid()) {
+                this.checkConnections = true;
+                this.numberOfConnections.decrementAndGet();
+                try {
+                    connection.disconnect(this.owner);
+                } catch (DatabaseException ex) {
+                    //this is an invalid connection so expect an exception.
+                }
+                maintainMinimumConnections();
+            } else if (this.numberOfConnections.get() <= this.minNumberOfConnections) {
+                this.freeConnections.offerLast(connection);
+            } else {
+                this.numberOfConnections.decrementAndGet();
+                connection.disconnect(this.owner);
+            }
+        } finally {
+            // The connection must be pushed before the permit is released.
+            getPermits().release();
+        }
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(this.busyConnections.size()));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reset the connections on shutDown and when the pool is started.
+     */
+    @Override
+    public void resetConnections() {
+        super.resetConnections();
+        this.freeConnections = new ConcurrentLinkedDeque<Accessor>();
+        this.busyConnections = new ConcurrentHashMap<Accessor, Boolean>();
+        this.numberOfConnections = new AtomicInteger();
+        this.permits = null;
+    }
+
+    /**
+     * INTERNAL:
+     * Disconnect all connections.
+     */
+    @Override
+    public synchronized void shutDown() {
+        setIsConnected(false);
+        List<Accessor> connections = getConnectionsAvailable();
+        connections.addAll(getConnectionsUsed());
+        for (Accessor connection : connections) {
+            try {
+                connection.disconnect(getOwner());
+            } catch (DatabaseException exception) {
+                // Ignore.
+            }
+        }
+        resetConnections();
+    }
+
+    /**
+     * INTERNAL:
+     * Allocate the initial connections.
+     */
+    @Override
+    public synchronized void startUp() {
+        if (isConnected()) {
+            return;
+        }
+        this.permits = new Semaphore(this.maxNumberOfConnections, true);
+        int initialNumberOfConnections = getInitialNumberOfConnections();
+        this.numberOfConnections.addAndGet(initialNumberOfConnections);
+        try {
+            this.freeConnections.addAll(buildConnections(initialNumberOfConnections));
+        } catch (RuntimeException failed) {
+            this.numberOfConnections.addAndGet(-initialNumberOfConnections);
+            throw failed;
+        }
+        setIsConnected(true);
+        maintainMinimumConnections();
+    }
+
+    /**
+     * INTERNAL:
+     * Connect a connection and make it available if the pool is below its minimum number of connections.
+     * The connection is reserved in the pool size while connecting.
+     * Return if a connection was added, or the reservation must be retried.
+     */
+    @Override
+    protected boolean connectMinimumConnection() {
+        int size = this.numberOfConnections.get();
+        if (!this.isConnected || this.isDead || (size >= this.minNumberOfConnections)) {
+            return false;
+        }
+        if (!this.numberOfConnections.compareAndSet(size, size + 1)) {
+            return true;
+        }
+        Accessor connection = null;
+        try {
+            connection = buildConnection();
+        } catch (RuntimeException failed) {
+            this.numberOfConnections.decrementAndGet();
+            throw failed;
+        }
+        this.freeConnections.offerLast(connection);
+        if (!this.isConnected && this.freeConnections.remove(connection)) {
+            // The pool was shutdown while connecting.
+            this.numberOfConnections.decrementAndGet();
+            connection.disconnect(this.owner);
+            return false;
+        }
+        return true;
+    }
+}
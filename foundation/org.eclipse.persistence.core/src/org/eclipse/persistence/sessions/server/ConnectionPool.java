@@ -13,6 +13,7 @@
 package org.eclipse.persistence.sessions.server;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.persistence.internal.databaseaccess.*;
 import org.eclipse.persistence.sessions.Login;
@@ -29,7 +30,7 @@
 public class ConnectionPool {
     protected static final String MONITOR_HEADER = "Info:ConnectionPool:";
 
-    protected boolean isConnected;
+    protected volatile boolean isConnected;
     protected int maxNumberOfConnections;
     protected int minNumberOfConnections;
     protected int initialNumberOfConnections;
@@ -44,6 +45,12 @@ public class ConnectionPool {
     protected volatile long deadCheckTime;
     protected volatile boolean isDead;
     protected List<String> failoverConnectionPools;
+    /** Keep the pool at its minimum number of connections, by connecting in the background. */
+    protected volatile boolean shouldMaintainMinimumConnections;
+    /** Set while a background thread is connecting connections to maintain the minimum. */
+    protected AtomicBoolean isMaintaining;
+    /** Number of connections being connected by the background thread, included in the pool size. */
+    protected int numberOfConnectionsReserved;
 
     public static final long DEAD_CHECK_TIME = 1000 * 60 * 10; // 10 minutes.
     public static final int MAX_CONNECTIONS = 32;
@@ -51,6 +58,11 @@ public class ConnectionPool {
     public static final int INITIAL_CONNECTIONS = 1;
     public static final int WAIT_TIMEOUT = 180000; // 3 minutes.
 
+    /** Profile suffix of the time in milliseconds to connect the initial connections. */
+    public static final String STARTUP_TIME = ":StartUpTime";
+    /** Profile suffix of the time in milliseconds to the first initial connection. */
+    public static final String FIRST_CONNECTION_TIME = ":FirstConnectionTime";
+
     /**
      * PUBLIC:
      * A connection pool is used to specify how connection should be pooled in a server session.
@@ -90,6 +102,7 @@ public ConnectionPool(String name, Login login, int initialNumberOfConnections,
         this.waitTimeout = WAIT_TIMEOUT;
         this.checkConnections = false;
         this.failoverConnectionPools = new ArrayList<String>();
+        this.isMaintaining = new AtomicBoolean();
         resetConnections();
     }
 
@@ -130,7 +143,7 @@ public synchronized Accessor acquireConnection() throws ConcurrencyException {
         }
         // PERF: Using direct variable access to minimize concurrency bottleneck.
         while (this.connectionsAvailable.isEmpty()) {
-            if ((this.connectionsUsed.size() + this.connectionsAvailable.size()) < this.maxNumberOfConnections) {
+            if ((this.connectionsUsed.size() + this.connectionsAvailable.size() + this.numberOfConnectionsReserved) < this.maxNumberOfConnections) {
                 Accessor connection = null;
                 try {
                     connection = buildConnection();
@@ -179,6 +192,7 @@ public synchronized Accessor acquireConnection() throws ConcurrencyException {
                     } finally {
                         connection.releaseCustomizer();
                     }
+                    maintainMinimumConnections();
                     if (this.connectionsAvailable.isEmpty()) {
                         this.checkConnections = false;
                         //we have emptied out all connections so let's have the connection pool build more
@@ -338,6 +352,7 @@ public synchronized void releaseConnection(Accessor connection) throws DatabaseE
             } catch (DatabaseException ex) {
                 //this is an invalid connection so expect an exception.
             }
+            maintainMinimumConnections();
         } else {
             if ((this.connectionsUsed.size() + this.connectionsAvailable.size()) < this.minNumberOfConnections) {
                 this.connectionsAvailable.add(connection);
@@ -501,11 +516,91 @@ public synchronized void startUp() {
         if (isConnected()) {
             return;
         }
-        for (int index = getInitialNumberOfConnections(); index > 0; index--) {
-            getConnectionsAvailable().add(buildConnection());
-        }
+        getConnectionsAvailable().addAll(buildConnections(getInitialNumberOfConnections()));
 
         setIsConnected(true);
+        maintainMinimumConnections();
+    }
+
+    /**
+     * INTERNAL:
+     * Build the number of connections in parallel, using the server platform's thread pool.
+     * The calling thread also builds connections, so it never waits on a connection that has not started.
+     * If any connection fails, the connections built are disconnected and the failure is thrown.
+     * The time to build all connections and the first connection are profiled.
+     */
+    protected List<Accessor> buildConnections(int numberOfConnections) {
+        long start = System.nanoTime();
+        ConnectionBuilder builder = new ConnectionBuilder(numberOfConnections);
+        for (int index = 1; index < numberOfConnections; index++) {
+            this.owner.getServerPlatform().launchContainerRunnable(builder);
+        }
+        builder.run();
+        List<Accessor> connections = builder.waitForConnections();
+        if (this.owner.isInProfile() && (numberOfConnections > 0)) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name + STARTUP_TIME, Long.valueOf((System.nanoTime() - start) / 1000000));
+            this.owner.updateProfile(MONITOR_HEADER + this.name + FIRST_CONNECTION_TIME, Long.valueOf((builder.firstConnectionTime - start) / 1000000));
+        }
+        return connections;
+    }
+
+    /**
+     * INTERNAL:
+     * If the pool should maintain its minimum number of connections,
+     * connect the missing connections in the background, so clients do not wait for connects.
+     * Only one background thread is used at a time.
+     */
+    protected void maintainMinimumConnections() {
+        if (!this.shouldMaintainMinimumConnections || !this.isConnected || this.isDead || !this.isMaintaining.compareAndSet(false, true)) {
+            return;
+        }
+        this.owner.getServerPlatform().launchContainerRunnable(new Runnable() {
+            public void run() {
+                try {
+                    while (connectMinimumConnection()) {
+                        // Connect until the minimum is reached.
+                    }
+                } catch (RuntimeException failed) {
+                    owner.logThrowable(SessionLog.WARNING, SessionLog.CONNECTION, failed);
+                } finally {
+                    isMaintaining.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * INTERNAL:
+     * Connect a connection and make it available if the pool is below its minimum number of connections.
+     * The connection is reserved in the pool size while connecting, outside of the pool lock.
+     * Return if a connection was added.
+     */
+    protected boolean connectMinimumConnection() {
+        synchronized (this) {
+            if (!this.isConnected || this.isDead || ((this.connectionsUsed.size() + this.connectionsAvailable.size() + this.numberOfConnectionsReserved) >= this.minNumberOfConnections)) {
+                return false;
+            }
+            this.numberOfConnectionsReserved++;
+        }
+        Accessor connection = null;
+        boolean isAdded = false;
+        try {
+            connection = buildConnection();
+        } finally {
+            synchronized (this) {
+                this.numberOfConnectionsReserved--;
+                if ((connection != null) && this.isConnected) {
+                    this.connectionsAvailable.add(connection);
+                    isAdded = true;
+                    notify();
+                }
+            }
+        }
+        if (!isAdded) {
+            // The pool was shutdown while connecting.
+            connection.disconnect(this.owner);
+        }
+        return isAdded;
     }
 
     /**
@@ -581,4 +676,101 @@ public void setFailoverConnectionPools(List<String> failoverConnectionPools) {
     public boolean addFailoverConnectionPool(String poolName) {
         return this.failoverConnectionPools.add(poolName);
     }
+
+    /**
+     * PUBLIC:
+     * Return if the pool maintains its minimum number of connections.
+     */
+    public boolean shouldMaintainMinimumConnections() {
+        return shouldMaintainMinimumConnections;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the pool maintains its minimum number of connections.
+     * If set, after start up and when dead or invalid connections are removed from the pool,
+     * the connections below the minimum are connected in a background thread,
+     * so clients acquiring a connection do not wait for connects.
+     * The default is false.
+     */
+    public void setShouldMaintainMinimumConnections(boolean shouldMaintainMinimumConnections) {
+        this.shouldMaintainMinimumConnections = shouldMaintainMinimumConnections;
+    }
+
+    /**
+     * INTERNAL:
+     * Builds a number of connections, run concurrently by several threads.
+     */
+    protected class ConnectionBuilder implements Runnable {
+        protected int remaining;
+        protected int building;
+        protected List<Accessor> connections;
+        protected RuntimeException failure;
+        protected long firstConnectionTime;
+
+        protected ConnectionBuilder(int numberOfConnections) {
+            this.remaining = numberOfConnections;
+            this.connections = new ArrayList<Accessor>(numberOfConnections);
+        }
+
+        /**
+         * Build connections until none remain, or one failed.
+         */
+        public void run() {
+            while (true) {
+                synchronized (this) {
+                    if ((this.remaining == 0) || (this.failure != null)) {
+                        return;
+                    }
+                    this.remaining--;
+                    this.building++;
+                }
+                Accessor connection = null;
+                RuntimeException failed = null;
+                try {
+                    connection = buildConnection();
+                } catch (RuntimeException exception) {
+                    failed = exception;
+                } finally {
+                    synchronized (this) {
+                        this.building--;
+                        if (connection != null) {
+                            if (this.connections.isEmpty()) {
+                                this.firstConnectionTime = System.nanoTime();
+                            }
+                            this.connections.add(connection);
+                        } else if (this.failure == null) {
+                            this.failure = failed;
+                        }
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Wait for the connections being built by other threads, and return the connections.
+         * Must only be called once no connections remain to be started.
+         */
+        public synchronized List<Accessor> waitForConnections() {
+            while (this.building > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitFailureOnClientSession(exception);
+                }
+            }
+            if (this.failure != null) {
+                for (Accessor connection : this.connections) {
+                    try {
+                        connection.disconnect(owner);
+                    } catch (DatabaseException exception) {
+                        // Ignore.
+                    }
+                }
+                throw this.failure;
+            }
+            return this.connections;
+        }
+    }
 }
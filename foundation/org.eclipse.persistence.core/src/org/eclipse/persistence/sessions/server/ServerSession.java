@@ -465,6 +465,29 @@ public void addConnectionPool(String poolName, Login login, int minNumberOfConne
         addConnectionPool(pool);
     }
 
+    /**
+     * PUBLIC:
+     * Add a concurrent connection pool.
+     * Connections are pooled to share and restrict the number of database connections.
+     * A concurrent pool does not lock the pool while acquiring or connecting connections.
+     * @see ConcurrentConnectionPool
+     */
+    public void addConcurrentConnectionPool(String poolName, Login login, int minNumberOfConnections, int maxNumberOfConnections) throws ValidationException {
+        if (minNumberOfConnections > maxNumberOfConnections) {
+            throw ValidationException.maxSizeLessThanMinSize();
+        }
+        if (isConnected()) {
+            throw ValidationException.poolsMustBeConfiguredBeforeLogin();
+        }
+        ConnectionPool pool = null;
+        if (login.shouldUseExternalConnectionPooling()) {
+            pool = new ExternalConnectionPool(poolName, login, this);
+        } else {
+            pool = new ConcurrentConnectionPool(poolName, login, minNumberOfConnections, maxNumberOfConnections, this);
+        }
+        addConnectionPool(pool);
+    }
+
     /**
      * PUBLIC:
      * Connection are pooled to share and restrict the number of database connections.
@@ -1008,6 +1031,18 @@ public void useExclusiveReadConnectionPool(int initialNumberOfConnections, int m
         setReadConnectionPool(new ConnectionPool("read", getDatasourceLogin(), initialNumberOfConnections, minNumerOfConnections, maxNumerOfConnections, this));
     }
 
+    /**
+     * PUBLIC:
+     * Configure the read connection pool.
+     * The read connection pool handles allocating connection for read queries.
+     * This API uses a ConcurrentConnectionPool which allocates exclusive read connections
+     * without locking the pool.
+     * @see ConcurrentConnectionPool
+     */
+    public void useConcurrentReadConnectionPool(int initialNumberOfConnections, int minNumerOfConnections, int maxNumerOfConnections) {
+        setReadConnectionPool(new ConcurrentConnectionPool("read", getDatasourceLogin(), initialNumberOfConnections, minNumerOfConnections, maxNumerOfConnections, this));
+    }
+
     /**
      * PUBLIC:
      * Configure the read connection pool.
@@ -234,15 +234,22 @@ public void update(String operationName, Object value) {
     }
 
     public void occurred(String operationName, AbstractSession session) {
+        occurred(operationName, 1, session);
+    }
+
+    /**
+     * Increase the count of the operation by the number of times it occurred.
+     */
+    public void occurred(String operationName, long count, AbstractSession session) {
         if (this.profileWeight < SessionProfiler.NORMAL) {
             return;
         }
         synchronized (this.operationTimings) {
             Long occurred = (Long)this.operationTimings.get(operationName);
             if (occurred == null) {
-                this.operationTimings.put(operationName, Long.valueOf(1));
+                this.operationTimings.put(operationName, Long.valueOf(count));
             } else {
-                this.operationTimings.put(operationName, Long.valueOf(occurred.longValue() + 1));
+                this.operationTimings.put(operationName, Long.valueOf(occurred.longValue() + count));
             }
         }
     }
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.models.weaving;
+
+import javax.persistence.Entity;
+import javax.persistence.Inheritance;
+
+/**
+ * Entity of the hierarchy weaved with attribute access by index,
+ * with primitive and object attributes after the attributes of its mapped superclass.
+ */
+@Entity
+@Inheritance
+public class IndexedEntity extends IndexedBase {
+    protected boolean active;
+    protected Double amount;
+    protected int count;
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.models.weaving;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.mappings.DirectToFieldMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+
+/**
+ * Project of the hierarchy weaved with attribute access by index.
+ * The mapped superclass attributes are mapped by the entity descriptor.
+ */
+public class IndexedProject extends org.eclipse.persistence.sessions.Project {
+
+    public IndexedProject() {
+        setName("IndexedProject");
+        setDatasourceLogin(new DatabaseLogin());
+        addDescriptor(buildIndexedEntityDescriptor());
+        addDescriptor(buildIndexedSubclassDescriptor());
+    }
+
+    public ClassDescriptor buildIndexedEntityDescriptor() {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(IndexedEntity.class);
+        descriptor.addTableName("INDEXED");
+        descriptor.addPrimaryKeyFieldName("INDEXED.ID");
+        descriptor.getInheritancePolicy().setClassIndicatorFieldName("INDEXED.TYPE");
+        descriptor.getInheritancePolicy().addClassIndicator(IndexedEntity.class, "E");
+        descriptor.getInheritancePolicy().addClassIndicator(IndexedSubclass.class, "S");
+
+        String[] attributeNames = {"id", "name", "active", "amount", "count"};
+        for (String attributeName : attributeNames) {
+            DirectToFieldMapping mapping = new DirectToFieldMapping();
+            mapping.setAttributeName(attributeName);
+            mapping.setFieldName("INDEXED." + attributeName.toUpperCase());
+            descriptor.addMapping(mapping);
+        }
+        return descriptor;
+    }
+
+    public ClassDescriptor buildIndexedSubclassDescriptor() {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(IndexedSubclass.class);
+        descriptor.getInheritancePolicy().setParentClass(IndexedEntity.class);
+        return descriptor;
+    }
+}
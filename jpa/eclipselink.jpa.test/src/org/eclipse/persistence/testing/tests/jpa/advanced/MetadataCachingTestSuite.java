@@ -108,6 +108,21 @@ public void testFileBasedProjectCacheReading(String persistenceUnitName) {
         }
     }
 
+    /*
+     * Verifies a project cached for another persistence unit fingerprint is not returned.
+     * It must be run after testFileBasedProjectCacheWriting
+     */
+    public void testFileBasedProjectCacheFingerprint(String persistenceUnitName) {
+        FileBasedProjectCache projectCache = new FileBasedProjectCache();
+        Session session = this.getServerSession(persistenceUnitName);
+        Map properties = getProperties();
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT, "MetadataCachingTestSuite");
+        Project project = projectCache.retrieveProject(properties, session.getDatasourcePlatform().getConversionManager().getLoader(), session.getSessionLog());
+        if (project != null) {
+            fail("Project returned from FileBasedProjectCache.retrieveProject() for a different fingerprint was not null");
+        }
+    }
+
     /*
      * This test just verifies the EM can be refreshed using the cached project written out in testFileBasedProjectCacheWriting
      * It must be run after testFileBasedProjectCacheWriting and testFileBasedProjectCacheReading
@@ -128,6 +143,7 @@ public void testProjectCacheALLWithDefaultPU(){
         testSetup();
         testFileBasedProjectCacheWriting("default");
         testFileBasedProjectCacheReading("default");
+        testFileBasedProjectCacheFingerprint("default");
         testFileBasedProjectCacheLoading("default");
     }
 
@@ -15,14 +15,45 @@
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import org.eclipse.persistence.internal.jpa.deployment.JarFileArchive;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.deployment.SEPersistenceUnitInfo;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
 import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
 import org.junit.Assert;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PostLoad;
+import javax.persistence.Transient;
+import javax.persistence.metamodel.StaticMetamodel;
 
 public class PersistenceUnitProcessorTest extends JUnitTestCase {
     
@@ -63,5 +94,388 @@ protected URLConnection openConnection(URL u) throws IOException {
                 ).toString()
         );
     }
-    
+
+    @Entity
+    public static class ScannedEntity {
+        @Id
+        protected long id;
+    }
+
+    @Embeddable
+    public static class ScannedEmbeddable {
+        protected String value;
+    }
+
+    @MappedSuperclass
+    public static class ScannedMappedSuperclass {
+        protected String value;
+    }
+
+    @Converter
+    public static class ScannedConverter implements AttributeConverter<String, String> {
+        public String convertToDatabaseColumn(String value) {
+            return value;
+        }
+
+        public String convertToEntityAttribute(String value) {
+            return value;
+        }
+    }
+
+    @StaticMetamodel(ScannedEntity.class)
+    public static class ScannedEntity_ {
+    }
+
+    /** Annotated on a field only, so scanned, but not a persistence unit class. */
+    public static class FieldAnnotated {
+        @Transient
+        protected String value;
+    }
+
+    /** Annotated on a method only, so scanned, but not a persistence unit class. */
+    public static class MethodAnnotated {
+        @PostLoad
+        public void postLoad() {
+        }
+    }
+
+    /** Not annotated, so not scanned. */
+    public static class NotAnnotated {
+        protected static final long LONG_VALUE = 1234567890123L;
+        protected static final double DOUBLE_VALUE = 1.5;
+        protected String value;
+    }
+
+    /** The classes of the scanned archives. */
+    protected static final Class[] SCANNED_CLASSES = {ScannedEntity.class, ScannedEmbeddable.class, ScannedMappedSuperclass.class,
+        ScannedConverter.class, ScannedEntity_.class, FieldAnnotated.class, MethodAnnotated.class, NotAnnotated.class};
+
+    /**
+     * Return the class file of the class.
+     */
+    protected byte[] readClassFile(Class theClass) throws IOException {
+        InputStream stream = theClass.getClassLoader().getResourceAsStream(theClass.getName().replace('.', '/') + ".class");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int length = stream.read(buffer); length != -1; length = stream.read(buffer)) {
+                bytes.write(buffer, 0, length);
+            }
+            return bytes.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Write a jar file of the class files of the classes, and of the extra entry and its content if not null.
+     */
+    protected File writeJar(File jar, Class[] classes, String extraEntry, String extraContent) throws IOException {
+        JarOutputStream stream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (Class theClass : classes) {
+                stream.putNextEntry(new JarEntry(theClass.getName().replace('.', '/') + ".class"));
+                stream.write(readClassFile(theClass));
+                stream.closeEntry();
+            }
+            if (extraEntry != null) {
+                stream.putNextEntry(new JarEntry(extraEntry));
+                stream.write(extraContent.getBytes("UTF-8"));
+                stream.closeEntry();
+            }
+        } finally {
+            stream.close();
+        }
+        return jar;
+    }
+
+    /**
+     * Return a temporary directory, deleted on exit with its files.
+     */
+    protected File createTemporaryDirectory() throws IOException {
+        File directory = File.createTempFile("scan", "");
+        directory.delete();
+        directory.mkdirs();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    /**
+     * Delete the directory and its files.
+     */
+    protected void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * Return the checksum of the jar file.
+     */
+    protected String getChecksum(File jar) throws IOException {
+        JarFileArchive archive = new JarFileArchive(jar.toURI().toURL(), new JarFile(jar), null);
+        try {
+            return archive.getChecksum();
+        } finally {
+            archive.close();
+        }
+    }
+
+    /**
+     * Build a class file with the constant pool entries, the pool count is the number of slots.
+     */
+    protected byte[] buildClassFile(int poolCount, byte[]... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(bytes);
+        stream.writeInt(0xCAFEBABE);
+        stream.writeShort(0);
+        stream.writeShort(52);
+        stream.writeShort(poolCount);
+        for (byte[] entry : entries) {
+            stream.write(entry);
+        }
+        // access flags, this class, super class, no interfaces, fields, methods or attributes.
+        stream.write(new byte[12]);
+        stream.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Return a constant pool entry of the tag, followed by the bytes.
+     */
+    protected byte[] entry(int tag, int... values) {
+        byte[] entry = new byte[values.length + 1];
+        entry[0] = (byte) tag;
+        for (int index = 0; index < values.length; index++) {
+            entry[index + 1] = (byte) values[index];
+        }
+        return entry;
+    }
+
+    /**
+     * Return a Utf8 constant pool entry of the value.
+     */
+    protected byte[] utf8(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(bytes);
+        stream.writeByte(1);
+        stream.writeUTF(value);
+        stream.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Test that annotations on a field only, or a method only, are found,
+     * and that a class with long and double constants but no annotation is left out.
+     */
+    public void testHasAnnotationsOnMembers() throws Exception {
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(readClassFile(ScannedEntity.class)));
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(readClassFile(FieldAnnotated.class)));
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(readClassFile(MethodAnnotated.class)));
+        Assert.assertFalse(PersistenceUnitProcessor.hasAnnotations(readClassFile(NotAnnotated.class)));
+    }
+
+    /**
+     * Test that long and double constants take two slots of the constant pool.
+     */
+    public void testHasAnnotationsDoubleSlotEntries() throws Exception {
+        byte[] longEntry = entry(5, 0, 0, 0, 0, 0, 0, 0, 1);
+        byte[] doubleEntry = entry(6, 0x3F, 0xF8, 0, 0, 0, 0, 0, 0);
+        // Slots 1-2 long, 3-4 double, 5 Utf8, if a slot was missed the pool would be read past its end.
+        Assert.assertFalse(PersistenceUnitProcessor.hasAnnotations(buildClassFile(6, longEntry, doubleEntry, utf8("value"))));
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(buildClassFile(6, longEntry, doubleEntry, utf8("RuntimeVisibleAnnotations"))));
+    }
+
+    /**
+     * Test the constant tags 15 to 20, method handle, method type, dynamic, invoke dynamic, module and package.
+     */
+    public void testHasAnnotationsConstantTags() throws Exception {
+        byte[][] entries = {
+            entry(15, 6, 0, 1),
+            entry(16, 0, 1),
+            entry(17, 0, 0, 0, 1),
+            entry(18, 0, 0, 0, 1),
+            entry(19, 0, 1),
+            entry(20, 0, 1),
+            null
+        };
+        entries[6] = utf8("Code");
+        Assert.assertFalse(PersistenceUnitProcessor.hasAnnotations(buildClassFile(8, entries)));
+        entries[6] = utf8("RuntimeInvisibleAnnotations");
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(buildClassFile(8, entries)));
+        // An unknown tag keeps the class.
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(buildClassFile(3, entry(2, 0, 0), utf8("Code"))));
+    }
+
+    /**
+     * Test that truncated class files and other files are kept, to be reported when parsed.
+     */
+    public void testHasAnnotationsInvalidClassFiles() throws Exception {
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(new byte[0]));
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations("not a class file".getBytes("UTF-8")));
+        byte[] classFile = readClassFile(NotAnnotated.class);
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(Arrays.copyOf(classFile, 20)));
+        Assert.assertTrue(PersistenceUnitProcessor.hasAnnotations(Arrays.copyOf(classFile, 9)));
+    }
+
+    /**
+     * Test that the annotated classes of a jar file include all of its persistence unit classes,
+     * the entities, embeddables, mapped superclasses, converters and static metamodel classes,
+     * and leave out the classes without annotations.
+     */
+    public void testAnnotatedClassNamesFromURL() throws Exception {
+        File directory = createTemporaryDirectory();
+        try {
+            File jar = writeJar(new File(directory, "scanned.jar"), SCANNED_CLASSES, null, null);
+            URL url = jar.toURI().toURL();
+            ClassLoader loader = getClass().getClassLoader();
+            Set<String> allClassNames = PersistenceUnitProcessor.getClassNamesFromURL(url, loader, null);
+            Set<String> annotatedClassNames = PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, loader, null, 4, null, null);
+            Assert.assertEquals(SCANNED_CLASSES.length, allClassNames.size());
+            Assert.assertTrue(allClassNames.containsAll(annotatedClassNames));
+            Assert.assertFalse(annotatedClassNames.contains(NotAnnotated.class.getName()));
+            Assert.assertTrue(annotatedClassNames.contains(FieldAnnotated.class.getName()));
+            Assert.assertTrue(annotatedClassNames.contains(MethodAnnotated.class.getName()));
+            Assert.assertEquals(getPersistenceUnitClassNames(allClassNames, loader), getPersistenceUnitClassNames(annotatedClassNames, loader));
+            Assert.assertEquals(5, getPersistenceUnitClassNames(annotatedClassNames, loader).size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Return the names of the classes that are persistence unit classes.
+     */
+    protected Set<String> getPersistenceUnitClassNames(Set<String> classNames, ClassLoader loader) {
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), loader);
+        Set<String> persistenceUnitClassNames = new HashSet<String>();
+        for (String className : classNames) {
+            MetadataClass metadataClass = factory.getMetadataClass(className);
+            if (PersistenceUnitProcessor.isEntity(metadataClass) || PersistenceUnitProcessor.isEmbeddable(metadataClass)
+                    || PersistenceUnitProcessor.isMappedSuperclass(metadataClass) || PersistenceUnitProcessor.isConverter(metadataClass)
+                    || PersistenceUnitProcessor.isStaticMetamodelClass(metadataClass)) {
+                persistenceUnitClassNames.add(className);
+            }
+        }
+        return persistenceUnitClassNames;
+    }
+
+    /**
+     * Test that the index of an unchanged jar file is used instead of scanning the jar file,
+     * and that an index file of another version is ignored and written again.
+     */
+    public void testIndexHit() throws Exception {
+        File directory = createTemporaryDirectory();
+        File indexDirectory = null;
+        try {
+            File jar = writeJar(new File(directory, "indexed.jar"), SCANNED_CLASSES, null, null);
+            URL url = jar.toURI().toURL();
+            ClassLoader loader = getClass().getClassLoader();
+            indexDirectory = new File(directory, "index");
+            String indexLocation = indexDirectory.getPath();
+            Set<String> scanned = PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, loader, null, 1, null, indexLocation);
+            File indexFile = new File(indexLocation, getChecksum(jar) + ".index");
+            Assert.assertTrue("The index file was not written", indexFile.isFile());
+
+            // The index is read instead of scanning the jar file.
+            String entityEntry = ScannedEntity.class.getName().replace('.', '/') + ".class";
+            writeIndex(indexFile, PersistenceUnitProcessor.INDEX_FILE_HEADER, entityEntry);
+            Set<String> indexed = PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, loader, null, 1, null, indexLocation);
+            Assert.assertEquals(new HashSet<String>(Arrays.asList(ScannedEntity.class.getName())), indexed);
+
+            // An index of another version is ignored, and written again.
+            writeIndex(indexFile, entityEntry);
+            Assert.assertEquals(scanned, PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, loader, null, 1, null, indexLocation));
+            Assert.assertEquals(scanned, PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, loader, null, 1, null, indexLocation));
+        } finally {
+            if (indexDirectory != null) {
+                delete(indexDirectory);
+            }
+            delete(directory);
+        }
+    }
+
+    /**
+     * Write the lines to the index file.
+     */
+    protected void writeIndex(File indexFile, String... lines) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8");
+        try {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Test that the checksum of a jar file is the same for the same content, and changes with the content.
+     */
+    public void testChecksum() throws Exception {
+        File directory = createTemporaryDirectory();
+        try {
+            String checksum = getChecksum(writeJar(new File(directory, "first.jar"), SCANNED_CLASSES, "META-INF/notes.txt", "first"));
+            Assert.assertEquals(checksum, getChecksum(writeJar(new File(directory, "same.jar"), SCANNED_CLASSES, "META-INF/notes.txt", "first")));
+            // The same entry names with a changed content.
+            Assert.assertFalse(checksum.equals(getChecksum(writeJar(new File(directory, "changed.jar"), SCANNED_CLASSES, "META-INF/notes.txt", "second"))));
+            Assert.assertFalse(checksum.equals(getChecksum(writeJar(new File(directory, "removed.jar"), SCANNED_CLASSES, null, null))));
+            Class[] classes = Arrays.copyOf(SCANNED_CLASSES, SCANNED_CLASSES.length + 1);
+            classes[SCANNED_CLASSES.length] = PersistenceUnitProcessorTest.class;
+            Assert.assertFalse(checksum.equals(getChecksum(writeJar(new File(directory, "added.jar"), classes, "META-INF/notes.txt", "first"))));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Return the fingerprint of a persistence unit of the root URL, with the target database and the password properties.
+     */
+    protected String getFingerprint(URL rootUrl, String targetDatabase, String password) {
+        SEPersistenceUnitInfo persistenceUnitInfo = new SEPersistenceUnitInfo();
+        persistenceUnitInfo.setPersistenceUnitName("fingerprint");
+        persistenceUnitInfo.setPersistenceUnitRootUrl(rootUrl);
+        Map properties = new HashMap();
+        properties.put(PersistenceUnitProperties.TARGET_DATABASE, targetDatabase);
+        properties.put(PersistenceUnitProperties.JDBC_PASSWORD, password);
+        return PersistenceUnitProcessor.buildPersistenceUnitFingerprint(persistenceUnitInfo, getClass().getClassLoader(), properties);
+    }
+
+    /**
+     * Test that the fingerprint of a persistence unit changes with its properties and the entries of its archives,
+     * but not with its password.
+     */
+    public void testPersistenceUnitFingerprint() throws Exception {
+        File directory = createTemporaryDirectory();
+        try {
+            File jar = writeJar(new File(directory, "fingerprint.jar"), SCANNED_CLASSES, "META-INF/notes.txt", "first");
+            URL url = jar.toURI().toURL();
+            String fingerprint = getFingerprint(url, "H2", "first");
+            Assert.assertEquals(fingerprint, getFingerprint(url, "H2", "first"));
+            Assert.assertEquals(fingerprint, getFingerprint(url, "H2", "second"));
+            Assert.assertFalse(fingerprint.equals(getFingerprint(url, "MySQL", "first")));
+            writeJar(jar, SCANNED_CLASSES, "META-INF/notes.txt", "second");
+            Assert.assertFalse(fingerprint.equals(getFingerprint(url, "H2", "first")));
+
+            // A directory root is identified by the length and time of its files.
+            File root = new File(directory, "root");
+            root.mkdirs();
+            File notes = new File(root, "notes.xml");
+            writeIndex(notes, "first");
+            URL rootUrl = root.toURI().toURL();
+            fingerprint = getFingerprint(rootUrl, "H2", "first");
+            Assert.assertEquals(fingerprint, getFingerprint(rootUrl, "H2", "first"));
+            writeIndex(notes, "changed");
+            Assert.assertFalse(fingerprint.equals(getFingerprint(rootUrl, "H2", "first")));
+            delete(root);
+        } finally {
+            delete(directory);
+        }
+    }
+
 }
@@ -19,6 +19,7 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -56,11 +57,13 @@
 import org.eclipse.persistence.config.ResultSetConcurrency;
 import org.eclipse.persistence.config.ResultSetType;
 import org.eclipse.persistence.config.ResultType;
+import org.eclipse.persistence.internal.jpa.EJBQueryImpl;
 import org.eclipse.persistence.internal.jpa.querydef.CompoundExpressionImpl;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.jpa.JpaCriteriaBuilder;
 import org.eclipse.persistence.jpa.JpaQuery;
 import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.DatabaseQuery;
 import org.eclipse.persistence.queries.ScrollableCursor;
 import org.eclipse.persistence.sessions.DatabaseSession;
 import org.eclipse.persistence.testing.framework.QuerySQLTracker;
@@ -171,6 +174,9 @@ public static Test suite() {
         suite.addTest(new AdvancedCriteriaQueryTestSuite("testUnusedJoinDoesNotAffectFetchJoin"));
         // Bug 464833
         suite.addTest(new AdvancedCriteriaQueryTestSuite("testGetRestrictionReturningCorrectPredicate"));
+        suite.addTest(new AdvancedCriteriaQueryTestSuite("testCriteriaQueryCache"));
+        suite.addTest(new AdvancedCriteriaQueryTestSuite("testCriteriaQueryCacheSelectAndOrderByLiterals"));
+        suite.addTest(new AdvancedCriteriaQueryTestSuite("testCriteriaQueryCacheNullLiterals"));
 
         return suite;
     }
@@ -1869,4 +1875,131 @@ public void testGetRestrictionReturningCorrectPredicate() {
         }
     }
 
+
+    /**
+     * Return the ids of the employees, in order.
+     */
+    protected List<Integer> getOrderedIds(List<Employee> employees) {
+        List<Integer> ids = new ArrayList<Integer>(employees.size());
+        for (Employee employee : employees) {
+            ids.add(employee.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Return the ids of the employees selected by the JPQL query, in order.
+     */
+    protected List<Integer> getOrderedIds(EntityManager em, String jpql) {
+        return getOrderedIds(em.createQuery(jpql, Employee.class).getResultList());
+    }
+
+    /**
+     * Test that criteria queries with the same structure and different literals
+     * return the results of their literals and reuse the same cached query.
+     */
+    public void testCriteriaQueryCache() {
+        org.eclipse.persistence.sessions.Project project = getServerSession().getProject();
+        int maxSize = project.getCriteriaQueryCacheMaxSize();
+        project.setCriteriaQueryCacheMaxSize(10);
+        EntityManager em = createEntityManager();
+        try {
+            CriteriaBuilder qb = em.getCriteriaBuilder();
+            DatabaseQuery cachedQuery = null;
+            for (String firstName : new String[] {"Bob", "Jill", "Sarah", "Bob"}) {
+                CriteriaQuery<Employee> cq = qb.createQuery(Employee.class);
+                Root<Employee> root = cq.from(Employee.class);
+                cq.where(qb.and(qb.equal(root.get("firstName"), firstName), qb.greaterThan(root.<Integer>get("salary"), 1000)));
+                cq.orderBy(qb.asc(root.get("id")));
+                TypedQuery<Employee> query = em.createQuery(cq);
+                List<Integer> ids = getOrderedIds(query.getResultList());
+                List<Integer> expectedIds = getOrderedIds(em, "Select e from Employee e where e.firstName = '" + firstName + "' and e.salary > 1000 order by e.id");
+                assertFalse("No Employees were returned for: " + firstName, expectedIds.isEmpty());
+                assertEquals("Wrong Employees were returned for: " + firstName, expectedIds, ids);
+                DatabaseQuery databaseQuery = ((EJBQueryImpl)query).getDatabaseQueryInternal();
+                if (cachedQuery == null) {
+                    cachedQuery = databaseQuery;
+                } else {
+                    assertSame("The cached query was not reused for: " + firstName, cachedQuery, databaseQuery);
+                }
+                assertFalse("The literal was not bound as a parameter: " + databaseQuery.getSQLString(), databaseQuery.getSQLString().contains(firstName));
+            }
+        } finally {
+            closeEntityManager(em);
+            project.setCriteriaQueryCacheMaxSize(maxSize);
+        }
+    }
+
+    /**
+     * Test that the literals selected or ordered by are not parameterized,
+     * and that criteria queries only differing by these literals do not share a cached query.
+     */
+    public void testCriteriaQueryCacheSelectAndOrderByLiterals() {
+        org.eclipse.persistence.sessions.Project project = getServerSession().getProject();
+        int maxSize = project.getCriteriaQueryCacheMaxSize();
+        project.setCriteriaQueryCacheMaxSize(10);
+        EntityManager em = createEntityManager();
+        try {
+            CriteriaBuilder qb = em.getCriteriaBuilder();
+            // The employees with the first name are ordered first.
+            DatabaseQuery previousQuery = null;
+            for (String firstName : new String[] {"Bob", "Jill"}) {
+                CriteriaQuery<Employee> cq = qb.createQuery(Employee.class);
+                Root<Employee> root = cq.from(Employee.class);
+                cq.orderBy(qb.asc(qb.selectCase().when(qb.equal(root.get("firstName"), firstName), 0).otherwise(1)), qb.asc(root.get("id")));
+                TypedQuery<Employee> query = em.createQuery(cq);
+                List<Employee> result = query.getResultList();
+                assertFalse("No Employees were returned", result.isEmpty());
+                assertEquals("The Employees were not ordered by the literal: " + firstName, firstName, result.get(0).getFirstName());
+                DatabaseQuery databaseQuery = ((EJBQueryImpl)query).getDatabaseQueryInternal();
+                assertNotSame("The cached query was reused for another order by literal", previousQuery, databaseQuery);
+                previousQuery = databaseQuery;
+            }
+            // The selected literal is returned, report queries are not cached.
+            for (String literal : new String[] {"first", "second"}) {
+                CriteriaQuery<Tuple> cq = qb.createTupleQuery();
+                Root<Employee> root = cq.from(Employee.class);
+                cq.multiselect(root.get("id"), qb.literal(literal));
+                cq.where(qb.equal(root.get("firstName"), "Bob"));
+                List<Tuple> result = em.createQuery(cq).getResultList();
+                assertFalse("No Employees were returned", result.isEmpty());
+                for (Tuple tuple : result) {
+                    assertEquals("The selected literal was not returned", literal, tuple.get(1));
+                }
+            }
+        } finally {
+            closeEntityManager(em);
+            project.setCriteriaQueryCacheMaxSize(maxSize);
+        }
+    }
+
+    /**
+     * Test that a null literal is not parameterized,
+     * and that the criteria query comparing to null does not share the cached query comparing to a value.
+     */
+    public void testCriteriaQueryCacheNullLiterals() {
+        org.eclipse.persistence.sessions.Project project = getServerSession().getProject();
+        int maxSize = project.getCriteriaQueryCacheMaxSize();
+        project.setCriteriaQueryCacheMaxSize(10);
+        EntityManager em = createEntityManager();
+        try {
+            CriteriaBuilder qb = em.getCriteriaBuilder();
+            for (int index = 0; index < 2; index++) {
+                for (String lastName : new String[] {null, "Way"}) {
+                    CriteriaQuery<Employee> cq = qb.createQuery(Employee.class);
+                    Root<Employee> root = cq.from(Employee.class);
+                    Expression<String> literal = (lastName == null) ? qb.nullLiteral(String.class) : qb.literal(lastName);
+                    cq.where(qb.or(qb.equal(root.get("firstName"), "Bob"), qb.equal(root.get("lastName"), literal)));
+                    cq.orderBy(qb.asc(root.get("id")));
+                    List<Integer> ids = getOrderedIds(em.createQuery(cq).getResultList());
+                    String jpql = "Select e from Employee e where e.firstName = 'Bob' or e.lastName "
+                            + ((lastName == null) ? "is null" : "= '" + lastName + "'") + " order by e.id";
+                    assertEquals("Wrong Employees were returned for: " + lastName, getOrderedIds(em, jpql), ids);
+                }
+            }
+        } finally {
+            closeEntityManager(em);
+            project.setCriteriaQueryCacheMaxSize(maxSize);
+        }
+    }
 }
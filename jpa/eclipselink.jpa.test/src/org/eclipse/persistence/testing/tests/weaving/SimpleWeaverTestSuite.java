@@ -15,17 +15,29 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObjectAttributeAccessor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
 import org.eclipse.persistence.internal.jpa.weaving.PersistenceWeaver;
 import org.eclipse.persistence.internal.jpa.weaving.TransformerFactory;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
 import org.eclipse.persistence.internal.weaving.PersistenceWeavedLazy;
 import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AttributeAccessor;
 import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.models.weaving.IndexedBase;
+import org.eclipse.persistence.testing.models.weaving.IndexedEntity;
+import org.eclipse.persistence.testing.models.weaving.IndexedProject;
+import org.eclipse.persistence.testing.models.weaving.IndexedSubclass;
 import org.eclipse.persistence.testing.models.weaving.SimpleObject;
 import org.eclipse.persistence.testing.models.weaving.SimpleProject;
 
@@ -134,6 +146,20 @@ public void runTest() {
                 buildWeaver(session, entities);
             }
         });
+        suite.addTest(new SimpleWeaverTestSuite("test indexed attribute access weaving") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() {
+                Session session = new ServerSession(new IndexedProject());
+                session.setLogLevel(SessionLog.OFF);
+                indexedAttributeAccessTest(session);
+            }
+        });
         return suite;
     }
 
@@ -194,6 +220,89 @@ public PersistenceWeaver buildWeaver(Session session, Collection entities) {
         return tw;
     }
 
+    /**
+     * Weave the mapped superclass, entity and subclass hierarchy with attribute access by index.
+     * The mapped superclass and the entity access their own attributes, and the subclass, which has
+     * no attributes, delegates all of its indexes to its superclasses.
+     */
+    public void indexedAttributeAccessTest(Session session) {
+        Collection indexedEntities = new ArrayList();
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), SimpleWeaverTestSuite.class.getClassLoader());
+        indexedEntities.add(factory.getMetadataClass(IndexedEntity.class.getName()));
+        indexedEntities.add(factory.getMetadataClass(IndexedSubclass.class.getName()));
+        PersistenceWeaver weaver = buildWeaver(session, indexedEntities);
+        IndexedClassLoader loader = new IndexedClassLoader(weaver);
+        try {
+            Class base = loader.loadClass(IndexedBase.class.getName());
+            Class entity = loader.loadClass(IndexedEntity.class.getName());
+            Class subclass = loader.loadClass(IndexedSubclass.class.getName());
+            assertTrue("Weaved mapped superclass does not implement PersistenceIndexedObject", PersistenceIndexedObject.class.isAssignableFrom(base));
+
+            String[] baseNames = {"id", "name"};
+            String[] entityNames = {"id", "name", "active", "amount", "count"};
+            assertEquals("Wrong mapped superclass attribute names", Arrays.asList(baseNames), Arrays.asList(getAttributeNames(base)));
+            assertEquals("Wrong entity attribute names", Arrays.asList(entityNames), Arrays.asList(getAttributeNames(entity)));
+            assertEquals("Wrong subclass attribute names", Arrays.asList(entityNames), Arrays.asList(getAttributeNames(subclass)));
+
+            // The primitives are boxed by get and unboxed by set.
+            Object[] values = {Long.valueOf(7), "Indexed", Boolean.TRUE, Double.valueOf(1.5), Integer.valueOf(3)};
+            Class[] classes = {entity, subclass};
+            for (Class indexedClass : classes) {
+                PersistenceIndexedObject object = (PersistenceIndexedObject)indexedClass.newInstance();
+                for (int index = 0; index < values.length; index++) {
+                    object._persistence_set(index, values[index]);
+                }
+                for (int index = 0; index < values.length; index++) {
+                    assertEquals("Wrong value of " + indexedClass.getName() + " attribute " + entityNames[index], values[index], object._persistence_get(index));
+                }
+                assertEquals("Wrong id field", 7L, getField(base, "id").getLong(object));
+                assertEquals("Wrong name field", "Indexed", getField(base, "name").get(object));
+                assertEquals("Wrong active field", true, getField(entity, "active").getBoolean(object));
+                assertEquals("Wrong amount field", Double.valueOf(1.5), getField(entity, "amount").get(object));
+                assertEquals("Wrong count field", 3, getField(entity, "count").getInt(object));
+
+                // An unknown index is not an attribute.
+                object._persistence_set(values.length, "Unknown");
+                assertNull("Unknown index returned a value", object._persistence_get(values.length));
+                assertNull("Negative index returned a value", object._persistence_get(-1));
+            }
+
+            // The descriptors of the weaved classes access the attributes by their index.
+            IndexedProject project = new IndexedProject();
+            project.convertClassNamesToClasses(loader);
+            DatabaseSessionImpl indexedSession = (DatabaseSessionImpl)project.createDatabaseSession();
+            indexedSession.setLogLevel(SessionLog.OFF);
+            indexedSession.initializeDescriptors();
+            for (Class indexedClass : classes) {
+                ClassDescriptor descriptor = indexedSession.getDescriptor(indexedClass);
+                for (int index = 0; index < entityNames.length; index++) {
+                    AttributeAccessor accessor = descriptor.getMappingForAttributeName(entityNames[index]).getAttributeAccessor();
+                    assertTrue("Attribute " + entityNames[index] + " of " + indexedClass.getName() + " is not accessed by index", accessor instanceof PersistenceIndexedObjectAttributeAccessor);
+                    assertEquals("Wrong index of attribute " + entityNames[index], index, ((PersistenceIndexedObjectAttributeAccessor)accessor).getIndex());
+                }
+            }
+        } catch (Exception e) {
+            fail(getName() + " failed: " + e.toString());
+        }
+    }
+
+    /**
+     * Return the names of the attributes of the weaved class in the order of their index.
+     */
+    public static String[] getAttributeNames(Class weavedClass) throws Exception {
+        Method method = weavedClass.getDeclaredMethod(PersistenceIndexedObject.PERSISTENCE_GET_ATTRIBUTE_NAMES);
+        return (String[])method.invoke(null);
+    }
+
+    /**
+     * Return the accessible field of the weaved class.
+     */
+    public static Field getField(Class weavedClass, String fieldName) throws Exception {
+        Field field = weavedClass.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field;
+    }
+
     public void buildWeavedClass(byte[] weavedBytes) {
 
         Class weavedClass = null;
@@ -276,4 +385,39 @@ public static byte[] readStreamContentsIntoByteArray(InputStream is) {
         return result;
     }
 
+    /**
+     * Loads the indexed hierarchy weaved, and any other class from its parent.
+     */
+    public static class IndexedClassLoader extends ClassLoader {
+        protected PersistenceWeaver weaver;
+
+        public IndexedClassLoader(PersistenceWeaver weaver) {
+            super(SimpleWeaverTestSuite.class.getClassLoader());
+            this.weaver = weaver;
+        }
+
+        @Override
+        protected synchronized Class loadClass(String className, boolean resolve) throws ClassNotFoundException {
+            if (!className.startsWith(IndexedBase.class.getPackage().getName() + ".Indexed")) {
+                return super.loadClass(className, resolve);
+            }
+            Class loadedClass = findLoadedClass(className);
+            if (loadedClass == null) {
+                byte[] bytes = readStreamContentsIntoByteArray(getResourceAsStream(className.replace('.', '/') + ".class"));
+                try {
+                    byte[] weavedBytes = this.weaver.transform(this, className, null, null, bytes);
+                    if (weavedBytes != null) {
+                        bytes = weavedBytes;
+                    }
+                } catch (Exception exception) {
+                    throw new ClassNotFoundException(className, exception);
+                }
+                loadedClass = defineClass(className, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
 }
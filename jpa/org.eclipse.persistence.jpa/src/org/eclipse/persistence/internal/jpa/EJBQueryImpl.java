@@ -28,6 +28,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -39,9 +40,13 @@
 
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
 import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.jpa.querydef.CriteriaQueryImpl;
+import org.eclipse.persistence.internal.jpa.querydef.InternalSelection;
 import org.eclipse.persistence.internal.jpa.querydef.ParameterExpressionImpl;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
@@ -59,6 +64,7 @@
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.queries.ResultSetMappingQuery;
 import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.SessionProfiler;
 
 /**
  * Concrete JPA query class. The JPA query wraps a DatabaseQuery which is
@@ -79,6 +85,16 @@ public EJBQueryImpl(DatabaseQuery query, EntityManagerImpl entityManager) {
         super(query, entityManager);
     }
 
+    /**
+     * Create an EJBQueryImpl from a criteria query.
+     * The literal values of the criteria are bound as parameters if the
+     * criteria query cache is used.
+     */
+    public EJBQueryImpl(CriteriaQueryImpl<X> criteriaQuery, EntityManagerImpl entityManager) {
+        super(entityManager);
+        this.databaseQuery = buildCriteriaDatabaseQuery(criteriaQuery, entityManager.getActiveSessionIfExists(), this.parameterValues);
+    }
+
     /**
      * Build an EJBQueryImpl based on the given jpql string.
      */
@@ -190,13 +206,76 @@ public static DatabaseQuery buildEJBQLDatabaseQuery(String queryName, String jpq
                 // Prepare query as hint may cause cloning (but not un-prepare
                 // as in read-only).
                 databaseQuery.checkPrepare(session, new DatabaseRecord());
+                session.incrementProfile(SessionProfiler.JpqlParseCacheMisses);
                 session.getProject().getJPQLParseCache().put(jpqlQuery, databaseQuery);
+                if (session.isInProfile()) {
+                    session.updateProfile(SessionProfiler.JpqlParseCacheEvictions, session.getProject().getJPQLParseCache().getEvictions());
+                }
             }
+        } else {
+            session.incrementProfile(SessionProfiler.JpqlParseCacheHits);
         }
 
         return databaseQuery;
     }
 
+    /**
+     * Build a DatabaseQuery from a criteria query.
+     * If the criteria query cache is enabled, the literal values compared to attributes
+     * in the where clause are replaced by parameters and added to the literal values,
+     * and the query is prepared and shared by the criteria queries with the same structure.
+     *
+     * @param literalValues
+     *            the map the literal parameter values are added to.
+     * @return a DatabaseQuery representing the given criteria query.
+     */
+    public static DatabaseQuery buildCriteriaDatabaseQuery(CriteriaQueryImpl criteriaQuery, AbstractSession session, Map<String, Object> literalValues) {
+        DatabaseQuery databaseQuery = criteriaQuery.translate();
+        // PERF: Check if a query with the same structure has already been prepared.
+        // Only allow object queries with default properties to be cached, as for dynamic expression queries.
+        ConcurrentFixedCache criteriaQueryCache = session.getProject().getCriteriaQueryCache();
+        boolean isCacheable = (criteriaQueryCache.getMaxSize() > 0) && databaseQuery.isObjectLevelReadQuery() && (!databaseQuery.isReportQuery())
+                && databaseQuery.isExpressionQuery() && databaseQuery.isDefaultPropertiesQuery();
+        if (!isCacheable) {
+            return databaseQuery;
+        }
+        // The builder of a single root criteria is the query's only builder, so it can equal the builders of other criteria.
+        if (criteriaQuery.getRoots().size() == 1) {
+            ExpressionBuilder builder = ((InternalSelection)criteriaQuery.getRoots().iterator().next()).getCurrentNode().getBuilder();
+            if (builder == ((ObjectLevelReadQuery)databaseQuery).getExpressionBuilder()) {
+                builder.setIsSingleQueryBuilder(true);
+            }
+        }
+        Expression selectionCriteria = databaseQuery.getSelectionCriteria();
+        if (selectionCriteria != null) {
+            List<Object> values = new ArrayList<Object>();
+            Expression parameterizedCriteria = selectionCriteria.parameterizeConstants(CRITERIA_LITERAL_PREFIX, values);
+            if (parameterizedCriteria != selectionCriteria) {
+                databaseQuery.setSelectionCriteria(parameterizedCriteria);
+                for (int index = 0; index < values.size(); index++) {
+                    Object value = values.get(index);
+                    databaseQuery.addArgument(CRITERIA_LITERAL_PREFIX + index, value.getClass());
+                    literalValues.put(CRITERIA_LITERAL_PREFIX + index, value);
+                }
+            }
+        }
+        DatabaseQuery cachedQuery = (DatabaseQuery) criteriaQueryCache.get(databaseQuery);
+        if ((cachedQuery != null) && cachedQuery.isPrepared()) {
+            session.incrementProfile(SessionProfiler.CriteriaQueryCacheHits);
+            return cachedQuery;
+        }
+        // The query is cached by an unprepared clone, as preparing the query adds the
+        // descriptor's joins and criteria, so it would no longer equal the next translated criteria.
+        DatabaseQuery key = (DatabaseQuery)databaseQuery.clone();
+        databaseQuery.checkPrepare(session, new DatabaseRecord());
+        session.incrementProfile(SessionProfiler.CriteriaQueryCacheMisses);
+        criteriaQueryCache.put(key, databaseQuery);
+        if (session.isInProfile()) {
+            session.updateProfile(SessionProfiler.CriteriaQueryCacheEvictions, criteriaQueryCache.getEvictions());
+        }
+        return databaseQuery;
+    }
+
     /**
      * Build a ReadAllQuery from a class and sql string.
      */
@@ -388,6 +467,47 @@ public Cursor getResultCursor() {
         }
     }
 
+    /**
+     * Execute the query and return its results as a stream.
+     * The objects of a ReadAllQuery are built from a forward only cursor as the stream is consumed,
+     * and the cursor and its connection are released when the stream is closed, or all its results are read.
+     * If the query does not use a cursor, a clone of the query using a result stream is executed,
+     * so the query can still return its results as a list, the clone of a shared query is only prepared once.
+     * Other queries return a stream of their result list.
+     *
+     * @return a stream of the results
+     * @see org.eclipse.persistence.config.QueryHints#CURSOR_DETACH
+     */
+    @Override
+    public Stream<X> getResultStream() {
+        // bug51411440: need to throw IllegalStateException if query executed on closed em
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        DatabaseQuery query = getDatabaseQueryInternal();
+        if (!query.isReadAllQuery() || query.isReportQuery()) {
+            return getResultList().stream();
+        }
+        if (((ReadAllQuery)query).getContainerPolicy().isCursorPolicy()) {
+            return (Stream<X>)(Stream)getResultCursor().stream();
+        }
+        // PERF: The result stream query of a shared query is kept and reused prepared, as the shared query is,
+        // it is cloned before being changed. A query changed by this query object builds its own.
+        ReadAllQuery streamQuery = null;
+        if (this.isShared) {
+            streamQuery = ((ReadAllQuery)query).getResultStreamQuery();
+        } else {
+            streamQuery = (ReadAllQuery)query.clone();
+            streamQuery.useResultStream();
+        }
+        boolean isShared = this.isShared;
+        setDatabaseQuery(streamQuery);
+        try {
+            return (Stream<X>)(Stream)getResultCursor().stream();
+        } finally {
+            setDatabaseQuery(query);
+            this.isShared = isShared;
+        }
+    }
+
     /**
      * Execute a query that returns a single result.
      *
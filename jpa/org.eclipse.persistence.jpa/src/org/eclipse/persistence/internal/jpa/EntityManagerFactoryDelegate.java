@@ -138,6 +138,9 @@ public class EntityManagerFactoryDelegate implements EntityManagerFactory, Persi
     /** Default to determine if does-exist should be performed on persist. */
     protected boolean shouldValidateExistence;
 
+    /** Default to determine if reads outside of a transaction should return the objects of the shared cache. */
+    protected boolean isReadMostly;
+
     /** Order updates by id to avoid potential deadlocks. Default is true. */
     protected CommitOrderType commitOrder = CommitOrderType.ID;
 
@@ -428,6 +431,10 @@ protected void processProperties(Map properties) {
         if (shouldValidateExistence != null) {
             this.shouldValidateExistence = "true".equalsIgnoreCase(shouldValidateExistence);
         }
+        String isReadMostly = PropertiesHandler.getPropertyValueLogDebug(EntityManagerProperties.READ_MOSTLY, properties, this.session, true);
+        if (isReadMostly != null) {
+            this.isReadMostly = "true".equalsIgnoreCase(isReadMostly);
+        }
         String shouldOrderUpdates = PropertiesHandler.getPropertyValueLogDebug(EntityManagerProperties.ORDER_UPDATES, properties, this.session, true);
         if (shouldOrderUpdates != null) {
             if ("true".equalsIgnoreCase(shouldOrderUpdates)) {
@@ -604,6 +611,22 @@ public void setShouldValidateExistence(boolean shouldValidateExistence) {
         this.shouldValidateExistence = shouldValidateExistence;
     }
 
+    /**
+     * Return the default to determine if reads outside of a transaction
+     * should return the objects of the shared cache.
+     */
+    public boolean isReadMostly() {
+        return isReadMostly;
+    }
+
+    /**
+     * Set the default to determine if reads outside of a transaction
+     * should return the objects of the shared cache.
+     */
+    public void setIsReadMostly(boolean isReadMostly) {
+        this.isReadMostly = isReadMostly;
+    }
+
     /**
      * Access the cache that is associated with the entity manager
      * factory (the "second level cache").
@@ -513,6 +513,22 @@ public void setShouldValidateExistence(boolean shouldValidateExistence) {
         delegate.setShouldValidateExistence(shouldValidateExistence);
     }
 
+    /**
+     * Return the default to determine if reads outside of a transaction
+     * should return the objects of the shared cache.
+     */
+    public boolean isReadMostly() {
+        return delegate.isReadMostly();
+    }
+
+    /**
+     * Set the default to determine if reads outside of a transaction
+     * should return the objects of the shared cache.
+     */
+    public void setIsReadMostly(boolean isReadMostly) {
+        delegate.setIsReadMostly(isReadMostly);
+    }
+
     /**
      * Access the cache that is associated with the entity manager
      * factory (the "second level cache").
@@ -234,6 +234,9 @@ protected enum OperationType {FIND, REFRESH, LOCK};
     /** Determine if does-exist should be performed on persist. */
     protected boolean shouldValidateExistence;
 
+    /** Determine if reads outside of a transaction should return the objects of the shared cache. */
+    protected boolean isReadMostly;
+
     /** Allow updates to be ordered by id to avoid possible deadlocks. */
     protected org.eclipse.persistence.sessions.UnitOfWork.CommitOrderType commitOrder;
 
@@ -297,6 +300,11 @@ void process(String name, Object value, EntityManagerImpl em) {
                     em.extendedPersistenceContext.setShouldValidateExistence(em.shouldValidateExistence);
                 }
             }});
+            put(EntityManagerProperties.READ_MOSTLY, new PropertyProcessor() {
+            @Override
+            void process(String name, Object value, EntityManagerImpl em) {
+                em.isReadMostly = "true".equalsIgnoreCase(getPropertiesHandlerProperty(name, (String)value));
+            }});
             put(EntityManagerProperties.ORDER_UPDATES, new PropertyProcessor() {
             @Override
             void process(String name, Object value, EntityManagerImpl em) {
@@ -480,6 +488,7 @@ public EntityManagerImpl(EntityManagerFactoryDelegate factory, Map properties, S
         this.referenceMode = factory.getReferenceMode();
         this.flushClearCache = factory.getFlushClearCache();
         this.shouldValidateExistence = factory.shouldValidateExistence();
+        this.isReadMostly = factory.isReadMostly();
         this.commitOrder = factory.getCommitOrder();
         this.isOpen = true;
         this.cacheStoreBypass = false;
@@ -807,10 +816,11 @@ public <T> T find(Class<T> entityClass, Object primaryKey, LockModeType lockMode
             if (descriptor == null || descriptor.isDescriptorTypeAggregate()) {
                 throw new IllegalArgumentException(ExceptionLocalization.buildMessage("unknown_bean_class", new Object[] { entityClass }));
             }
-            if (!descriptor.shouldBeReadOnly() || !descriptor.isSharedIsolation()) {
-                session = (AbstractSession) getActiveSession();
-            } else {
+            if ((descriptor.shouldBeReadOnly() && descriptor.isSharedIsolation())
+                    || (((lockMode == null) || lockMode.equals(LockModeType.NONE)) && shouldReadFromSharedCache())) {
                 session = (AbstractSession) getReadOnlySession();
+            } else {
+                session = (AbstractSession) getActiveSession();
             }
 
             // Be sure to use the descriptor from the active session.
@@ -940,6 +950,10 @@ protected Object findInternal(ClassDescriptor descriptor, AbstractSession sessio
                 && !properties.containsKey("javax.persistence.cacheRetrieveMode") && !properties.containsKey("javax.persistence.cacheStoreMode"))) {
             query.conformResultsInUnitOfWork();
         }
+        // PERF: A find of the shared cache returns the cached object without locking its cache key.
+        if (!session.isUnitOfWork()) {
+            query.setIsReadOnly(true);
+        }
 
         return executeQuery(query, lockMode, session);
     }
@@ -1669,7 +1683,7 @@ public javax.persistence.Query createQuery(DatabaseQuery databaseQuery) {
     public <T> TypedQuery<T> createQuery(CriteriaQuery<T> criteriaQuery) {
         try{
             verifyOpen();
-            return new EJBQueryImpl<T>(((CriteriaQueryImpl<T>)criteriaQuery).translate(), this);
+            return new EJBQueryImpl<T>((CriteriaQueryImpl<T>)criteriaQuery, this);
         }catch (RuntimeException e){
             setRollbackOnly();
             throw e;
@@ -2194,6 +2208,16 @@ protected Object checkForTransaction(boolean validateExistence) {
         return txn;
     }
 
+    /**
+     * INTERNAL:
+     * Return if reads should return the objects of the shared cache instead of the persistence context,
+     * this is the case in read-mostly mode outside of a transaction.
+     * @see EntityManagerProperties#READ_MOSTLY
+     */
+    public boolean shouldReadFromSharedCache() {
+        return this.isReadMostly && (checkForTransaction(false) == null);
+    }
+
     public boolean shouldFlushBeforeQuery() {
         return (checkForTransaction(false)!= null);
     }
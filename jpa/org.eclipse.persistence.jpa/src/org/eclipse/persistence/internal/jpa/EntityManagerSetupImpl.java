@@ -189,7 +189,9 @@
 import org.eclipse.persistence.internal.databaseaccess.BatchWritingMechanism;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.databaseaccess.MultiRowInsertBatchWritingMechanism;
 import org.eclipse.persistence.internal.databaseaccess.Platform;
+import org.eclipse.persistence.internal.databaseaccess.ReorderingSQLBatchWritingMechanism;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy.LockOnChange;
 import org.eclipse.persistence.internal.helper.ClassConstants;
@@ -273,6 +275,7 @@
 import org.eclipse.persistence.sessions.remote.rmi.RMIServerSessionManagerDispatcher;
 import org.eclipse.persistence.sessions.serializers.JavaSerializer;
 import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.sessions.server.ConcurrentConnectionPool;
 import org.eclipse.persistence.sessions.server.ConnectionPolicy;
 import org.eclipse.persistence.sessions.server.ConnectionPool;
 import org.eclipse.persistence.sessions.server.ExternalConnectionPool;
@@ -318,6 +321,8 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
     protected boolean isSessionLoadedFromSessionsXML=false;
     //project caching:
     protected ProjectCache projectCacheAccessor = null;
+    // fingerprint of the persistence unit the cached project is validated against
+    protected String projectCacheFingerprint = null;
     protected boolean shouldBuildProject = true;
     // indicates whether weaving was used on the first run through predeploy (in STATE_INITIAL)
     protected Boolean enableWeaving = null;
@@ -662,7 +667,9 @@ public AbstractSession deploy(ClassLoader realClassLoader, Map additionalPropert
 
                             if (this.projectCacheAccessor != null) {
                                 //cache the project:
-                                this.projectCacheAccessor.storeProject(this.session.getProject(), deployProperties, this.session.getSessionLog());
+                                long storeStartTime = System.nanoTime();
+                                this.projectCacheAccessor.storeProject(this.session.getProject(), getProjectCacheProperties(deployProperties), this.session.getSessionLog());
+                                logBootstrapPhaseTime(SessionProfiler.ProjectCacheStoreTime, storeStartTime);
                             }
 
                             // The project is initially created using class names rather than classes.  This call will make the conversion.
@@ -749,11 +756,13 @@ public AbstractSession deploy(ClassLoader realClassLoader, Map additionalPropert
                             try {
                                 updateTunerDeploy(deployProperties, classLoaderToUse);
                                 updateFreeMemory(deployProperties);
+                                long loginStartTime = System.nanoTime();
                                 if (this.isSessionLoadedFromSessionsXML) {
                                     getDatabaseSession().login();
                                 } else {
                                     login(getDatabaseSession(), deployProperties, requiresConnection);
                                 }
+                                logBootstrapPhaseTime(SessionProfiler.DeployLoginTime, loginStartTime);
                                 final Platform platform = getDatabaseSession().getDatasourcePlatform();
                                 PropertiesUtils.set(platform, PersistenceUnitProperties.TARGET_DATABASE_PROPERTIES, (String) deployProperties.get(PersistenceUnitProperties.TARGET_DATABASE_PROPERTIES));
 
@@ -1602,6 +1611,8 @@ protected void updateConnectionSettings(ServerSession serverSession, Map propert
                     ((DatabaseLogin)pool.getLogin()).setPassword((String)entry.getValue());
                 } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_WAIT)) {
                     pool.setWaitTimeout(Integer.parseInt((String)entry.getValue()));
+                } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_MAINTAIN)) {
+                    pool.setShouldMaintainMinimumConnections(Boolean.parseBoolean((String)entry.getValue()));
                 } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_FAILOVER)) {
                     String failoverPools = (String)entry.getValue();
                     if ((failoverPools.indexOf(',') != -1) || (failoverPools.indexOf(' ') != -1)) {
@@ -1620,9 +1631,33 @@ protected void updateConnectionSettings(ServerSession serverSession, Map propert
                         readPool.setMinNumberOfConnections(pool.getMinNumberOfConnections());
                         readPool.setMaxNumberOfConnections(pool.getMaxNumberOfConnections());
                         readPool.setWaitTimeout(pool.getWaitTimeout());
+                        readPool.setShouldMaintainMinimumConnections(pool.shouldMaintainMinimumConnections());
                         readPool.setLogin(pool.getLogin());
                         serverSession.setReadConnectionPool(readPool);
                     }
+                } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_CONCURRENT)) {
+                    boolean concurrent = Boolean.parseBoolean((String)entry.getValue());
+                    // Only replace a standard pool, external and shared read pools are not affected.
+                    if (concurrent && (pool.getClass() == ConnectionPool.class)) {
+                        ConcurrentConnectionPool concurrentPool = new ConcurrentConnectionPool(pool.getName(), pool.getLogin(), serverSession);
+                        concurrentPool.setInitialNumberOfConnections(pool.getInitialNumberOfConnections());
+                        concurrentPool.setMinNumberOfConnections(pool.getMinNumberOfConnections());
+                        concurrentPool.setMaxNumberOfConnections(pool.getMaxNumberOfConnections());
+                        concurrentPool.setWaitTimeout(pool.getWaitTimeout());
+                        concurrentPool.setShouldMaintainMinimumConnections(pool.shouldMaintainMinimumConnections());
+                        concurrentPool.setFailoverConnectionPools(pool.getFailoverConnectionPools());
+                        if (poolName.equals("read")) {
+                            serverSession.setReadConnectionPool(concurrentPool);
+                        } else if (poolName.equals("sequence")) {
+                            getDatabaseSession().getSequencingControl().setConnectionPool(concurrentPool);
+                        } else {
+                            // The default pool is also the read pool if no read pool was configured.
+                            if (serverSession.getReadConnectionPool() == pool) {
+                                serverSession.setReadConnectionPool(concurrentPool);
+                            }
+                            serverSession.addConnectionPool(concurrentPool);
+                        }
+                    }
                 }
             } catch (RuntimeException exception) {
                 this.session.handleException(ValidationException.invalidValueForProperty(entry.getValue(), entry.getKey(), exception));
@@ -1774,10 +1809,13 @@ public synchronized ClassTransformer predeploy(PersistenceUnitInfo info, Map ext
 
                 //Project Cache accessor processing
                 updateProjectCache(predeployProperties, classLoaderToUse);
+                updateProjectCacheFingerprint(predeployProperties);
 
                 if (projectCacheAccessor!=null) {
                     //get the project from the cache
-                    Project project = projectCacheAccessor.retrieveProject(predeployProperties, classLoaderToUse, session.getSessionLog());
+                    long retrieveStartTime = System.nanoTime();
+                    Project project = projectCacheAccessor.retrieveProject(getProjectCacheProperties(predeployProperties), classLoaderToUse, session.getSessionLog());
+                    logBootstrapPhaseTime(SessionProfiler.ProjectCacheRetrieveTime, retrieveStartTime);
 
                     if (project!=null) {
                         try {
@@ -1945,6 +1983,7 @@ public synchronized ClassTransformer predeploy(PersistenceUnitInfo info, Map ext
                 if (isComposite) {
                     predeployCompositeMembers(predeployProperties, classLoaderToUse);
                 } else {
+                    long metadataStartTime = System.nanoTime();
                     MetadataProcessor compositeProcessor = null;
                     if (compositeEmSetupImpl == null) {
                         mode = PersistenceUnitProcessor.Mode.ALL;
@@ -1967,6 +2006,9 @@ public synchronized ClassTransformer predeploy(PersistenceUnitInfo info, Map ext
                         //need to use the real classloader to create the repository class
                         updateMetadataRepository(predeployProperties, classLoaderToUse);
 
+                        updateMetadataReadingParallelism(predeployProperties);
+                        updateMetadataProcessingIndexLocation(predeployProperties);
+
                         //bug:299926 - Case insensitive table / column matching with native SQL queries
                         EntityManagerSetupImpl.updateCaseSensitivitySettings(predeployProperties, processor.getProject(), session);
                     }
@@ -2017,6 +2059,7 @@ public Void run() {
                     //moved from deployment:
                     processor.addNamedQueries();
                     processor.addStructConverterNames();
+                    logBootstrapPhaseTime(SessionProfiler.MetadataProcessingTime, metadataStartTime);
                 }
             } else {
                 //This means this session is from sessions.xml or a cached project
@@ -2268,6 +2311,24 @@ protected void updateCacheCoordination(Map m, ClassLoader loader) {
                 if (threadPoolSize != null) {
                     this.session.getServerPlatform().setThreadPoolSize(Integer.parseInt(threadPoolSize));
                 }
+                String batchSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_BATCH_SIZE, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_BATCH_SIZE;
+                value = batchSize;
+                if (batchSize != null) {
+                    rcm.setCommandBatchSize(Integer.parseInt(batchSize));
+                }
+                String batchDelay = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_BATCH_DELAY, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_BATCH_DELAY;
+                value = batchDelay;
+                if (batchDelay != null) {
+                    rcm.setCommandBatchDelay(Integer.parseInt(batchDelay));
+                }
+                String queueSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_QUEUE_SIZE, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_QUEUE_SIZE;
+                value = queueSize;
+                if (queueSize != null) {
+                    rcm.setCommandQueueSize(Integer.parseInt(queueSize));
+                }
                 String channel = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_CHANNEL, m, this.session);
                 if (channel != null) {
                     rcm.setChannel(channel);
@@ -2309,6 +2370,16 @@ protected void updateShouldOptimizeResultSetAccess(Map m) {
        }
     }
 
+    /**
+     * Update whether the session's cache keys should use queued locks.
+     */
+    protected void updateShouldUseQueuedCacheLocks(Map m) {
+       String queuedLocks = PropertiesHandler.getPropertyValueLogDebug(PersistenceUnitProperties.CACHE_QUEUED_LOCKS, m, this.session);
+       if (queuedLocks != null) {
+          this.session.setShouldUseQueuedCacheLocks(queuedLocks.equals("true"));
+       }
+    }
+
     /**
      * Update whether session should use externally defined multi tenancy.
      */
@@ -2801,6 +2872,7 @@ protected void updateSession(Map m, ClassLoader loader) {
             updateSQLCastSetting(m);
             updateUppercaseSetting(m);
             updateCacheStatementSettings(m);
+            updateCriteriaQueryCacheSize(m);
             updateTemporalMutableSetting(m);
             updateTableCreationSettings(m);
             updateIndexForeignKeys(m);
@@ -2819,6 +2891,7 @@ protected void updateSession(Map m, ClassLoader loader) {
             updateDatabaseEventListener(m, loader);
             updateSerializer(m, loader);
             updateShouldOptimizeResultSetAccess(m);
+            updateShouldUseQueuedCacheLocks(m);
             updateTolerateInvalidJPQL(m);
             updateTenancy(m, loader);
 
@@ -3134,6 +3207,14 @@ protected void updateBatchWritingSetting(Map persistenceProperties, ClassLoader
              } else if (batchWritingSettingString == BatchWriting.OracleJDBC) {
                  this.session.getPlatform().setUsesNativeBatchWriting(true);
                  this.session.getPlatform().setUsesJDBCBatchWriting(true);
+             } else if (batchWritingSettingString == BatchWriting.Reordering) {
+                 this.session.getPlatform().setUsesJDBCBatchWriting(true);
+                 this.session.getPlatform().setUsesNativeBatchWriting(false);
+                 this.session.getPlatform().setBatchWritingMechanism(new ReorderingSQLBatchWritingMechanism());
+             } else if (batchWritingSettingString == BatchWriting.MultiRowInsert) {
+                 this.session.getPlatform().setUsesJDBCBatchWriting(true);
+                 this.session.getPlatform().setUsesNativeBatchWriting(false);
+                 this.session.getPlatform().setBatchWritingMechanism(new MultiRowInsertBatchWritingMechanism());
              } else if (batchWritingSettingString == BatchWriting.None) {
                  // Nothing required.
              } else {
@@ -3285,6 +3366,49 @@ protected void updateSequencing(Map m){
                this.session.handleException(ValidationException.invalidBooleanValueForProperty(useTable, PersistenceUnitProperties.SEQUENCING_SEQUENCE_DEFAULT));
            }
         }
+        String useBlocks = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.SEQUENCING_BLOCK_PREALLOCATION, m, session);
+        String threshold = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.SEQUENCING_PREFETCH_THRESHOLD, m, session);
+        if ((useBlocks != null) || (threshold != null)) {
+            Boolean shouldUseBlocks = null;
+            if (useBlocks != null) {
+                if (useBlocks.equalsIgnoreCase("true")) {
+                    shouldUseBlocks = Boolean.TRUE;
+                } else if (useBlocks.equalsIgnoreCase("false")) {
+                    shouldUseBlocks = Boolean.FALSE;
+                } else {
+                    this.session.handleException(ValidationException.invalidBooleanValueForProperty(useBlocks, PersistenceUnitProperties.SEQUENCING_BLOCK_PREALLOCATION));
+                }
+            }
+            Float prefetchThreshold = null;
+            if (threshold != null) {
+                try {
+                    prefetchThreshold = Float.valueOf(threshold);
+                    if (!((prefetchThreshold.floatValue() > 0) && (prefetchThreshold.floatValue() <= 1))) {
+                        throw new IllegalArgumentException(ExceptionLocalization.buildMessage("invalid_sequence_prefetch_threshold", new Object[] { threshold }));
+                    }
+                } catch (IllegalArgumentException exception) {
+                    // Also catches the NumberFormatException of a threshold that is not a number.
+                    prefetchThreshold = null;
+                    this.session.handleException(ValidationException.invalidValueForProperty(threshold, PersistenceUnitProperties.SEQUENCING_PREFETCH_THRESHOLD, exception));
+                }
+            }
+            // Apply to the default sequence and all the sequences defined in the metadata.
+            List<Sequence> sequences = new ArrayList<Sequence>();
+            if (this.session.getDatasourcePlatform().getDefaultSequence() != null) {
+                sequences.add(this.session.getDatasourcePlatform().getDefaultSequence());
+            }
+            if (this.session.getDatasourcePlatform().getSequences() != null) {
+                sequences.addAll(this.session.getDatasourcePlatform().getSequences().values());
+            }
+            for (Sequence sequence : sequences) {
+                if (shouldUseBlocks != null) {
+                    sequence.setShouldUseBlockPreallocation(shouldUseBlocks.booleanValue());
+                }
+                if (prefetchThreshold != null) {
+                    sequence.setPrefetchThreshold(prefetchThreshold.floatValue());
+                }
+            }
+        }
     }
 
     /**
@@ -3311,6 +3435,51 @@ protected void updateProjectCache(Map m, ClassLoader loader){
         }
     }
 
+    /**
+     * Set the fingerprint of the persistence unit the cached project is validated against.
+     * If the fingerprint cannot be built the project is not cached.
+     */
+    protected void updateProjectCacheFingerprint(Map m) {
+        if (this.projectCacheAccessor == null || this.projectCacheFingerprint != null) {
+            return;
+        }
+        this.projectCacheFingerprint = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT, m, this.session);
+        if (this.projectCacheFingerprint == null) {
+            long startTime = System.nanoTime();
+            try {
+                this.projectCacheFingerprint = PersistenceUnitProcessor.buildPersistenceUnitFingerprint(this.persistenceUnitInfo, this.persistenceUnitInfo.getClassLoader(), m);
+            } catch (RuntimeException exception) {
+                this.session.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+                this.projectCacheAccessor = null;
+                return;
+            }
+            logBootstrapPhaseTime(SessionProfiler.ProjectCacheFingerprintTime, startTime);
+        }
+    }
+
+    /**
+     * Return the properties passed to the project cache, including the persistence unit's fingerprint.
+     */
+    protected Map getProjectCacheProperties(Map m) {
+        if (this.projectCacheFingerprint == null) {
+            return m;
+        }
+        Map properties = new HashMap(m);
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT, this.projectCacheFingerprint);
+        return properties;
+    }
+
+    /**
+     * Log the time taken by the bootstrap phase and record it in the profiler.
+     */
+    protected void logBootstrapPhaseTime(String phase, long startTime) {
+        long time = (System.nanoTime() - startTime) / 1000000;
+        this.session.updateProfile(phase, Long.valueOf(time));
+        if (this.session.shouldLog(SessionLog.FINE, SessionLog.JPA)) {
+            this.session.log(SessionLog.FINE, SessionLog.JPA, "bootstrap_phase_time", new Object[]{getPersistenceUnitInfo().getPersistenceUnitName(), phase, time});
+        }
+    }
+
     /**
      * Enable or disable the capability of Native SQL function.
      * The method needs to be called in deploy stage.
@@ -3457,6 +3626,45 @@ protected void updateCacheStatementSettings(Map m){
         }
     }
 
+    /**
+     * Set the criteria query cache size if specified.
+     */
+    protected void updateCriteriaQueryCacheSize(Map m) {
+        String criteriaQueryCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, m, this.session);
+        if (criteriaQueryCacheSize != null) {
+            try {
+                this.session.getProject().setCriteriaQueryCacheMaxSize(Integer.parseInt(criteriaQueryCacheSize));
+            } catch (NumberFormatException invalid) {
+                this.session.handleException(ValidationException.invalidValueForProperty(criteriaQueryCacheSize, PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, invalid));
+            }
+        }
+    }
+
+    /**
+     * Set the number of threads reading the metadata of the persistence unit classes.
+     */
+    protected void updateMetadataReadingParallelism(Map m) {
+        String parallelism = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.METADATA_READING_PARALLELISM, m, this.session);
+        if (parallelism != null) {
+            try {
+                this.processor.setParallelism(Integer.parseInt(parallelism));
+            } catch (NumberFormatException invalid) {
+                this.session.handleException(ValidationException.invalidValueForProperty(parallelism, PersistenceUnitProperties.METADATA_READING_PARALLELISM, invalid));
+            }
+        }
+    }
+
+    /**
+     * Set the directory of the index files of the classes found in the
+     * persistence unit jar files.
+     */
+    protected void updateMetadataProcessingIndexLocation(Map m) {
+        String indexLocation = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.METADATA_READING_INDEX_LOCATION, m, this.session);
+        if (indexLocation != null) {
+            this.processor.setIndexLocation(indexLocation);
+        }
+    }
+
     /**
      * Enable or disable default allowing 0 as an id.
      */
@@ -248,6 +248,7 @@ protected static abstract class Hint {
             addHint(new BatchHint());
             addHint(new BatchTypeHint());
             addHint(new BatchSizeHint());
+            addHint(new BatchParallelismHint());
             addHint(new FetchHint());
             addHint(new LeftFetchHint());
             addHint(new ReadOnlyHint());
@@ -277,6 +278,7 @@ protected static abstract class Hint {
             addHint(new CursorPageSizeHint());
             addHint(new ScrollableCursorHint());
             addHint(new CursorSizeHint());
+            addHint(new CursorDetachHint());
             addHint(new FetchGroupHint());
             addHint(new FetchGraphHint());
             addHint(new FetchGroupNameHint());
@@ -297,6 +299,7 @@ protected static abstract class Hint {
             addHint(new QueryCacheTypeHint());
             addHint(new QueryCacheIgnoreNullHint());
             addHint(new QueryCacheInvalidateOnChangeHint());
+            addHint(new QueryCacheTrackDependenciesHint());
             addHint(new QueryCacheRandomizedExpiryHint());
             // 325167: Make reserved # bind parameter char generic to enable native SQL pass through
             addHint(new ParameterDelimiterHint());
@@ -306,6 +309,8 @@ protected static abstract class Hint {
             addHint(new ResultSetAccess());
             addHint(new SerializedObject());
             addHint(new ReturnNameValuePairsHint());
+            addHint(new ParallelBuildingHint());
+            addHint(new ParallelBuildingChunkSizeHint());
         }
 
         Hint(String name, String defaultValue) {
@@ -1271,6 +1276,32 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    /**
+     * Define the query cache track dependencies hint.
+     * Only reset the query cache if unset (as other query cache properties may be set first).
+     */
+    protected static class QueryCacheTrackDependenciesHint extends Hint {
+        QueryCacheTrackDependenciesHint() {
+            super(QueryHints.QUERY_RESULTS_CACHE_TRACK_DEPENDENCIES, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadQuery()) {
+                if (((ReadQuery)query).getQueryResultsCachePolicy() == null) {
+                    ((ReadQuery)query).cacheQueryResults();
+                }
+                ((ReadQuery)query).getQueryResultsCachePolicy().setShouldTrackDependencies(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     /**
      * Define the query cache randomized expiry hint.
      * Only reset the query cache if unset (as other query cache properties may be set first).
@@ -1506,6 +1537,22 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class BatchParallelismHint extends Hint {
+        BatchParallelismHint() {
+            super(QueryHints.BATCH_PARALLELISM, "");
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).setBatchFetchParallelism(QueryHintsHandler.parseIntegerHint(valueToApply, QueryHints.BATCH_PARALLELISM));
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
     protected static class FetchHint extends Hint {
         FetchHint() {
             super(QueryHints.FETCH, "");
@@ -1730,6 +1777,29 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class CursorDetachHint extends Hint {
+        CursorDetachHint() {
+            super(QueryHints.CURSOR_DETACH, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                if (!((ReadAllQuery) query).getContainerPolicy().isCursorPolicy()) {
+                    ((ReadAllQuery) query).useResultStream();
+                }
+                ((CursorPolicy)((ReadAllQuery) query).getContainerPolicy()).setShouldDetachObjects(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
     protected static class CursorSizeHint extends Hint {
         CursorSizeHint() {
             super(QueryHints.CURSOR_SIZE, "");
@@ -2083,6 +2153,40 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class ParallelBuildingHint extends Hint {
+        ParallelBuildingHint() {
+            super(QueryHints.PARALLEL_BUILDING, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                ((ReadAllQuery)query).setShouldBuildObjectsInParallel(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
+    protected static class ParallelBuildingChunkSizeHint extends Hint {
+        ParallelBuildingChunkSizeHint() {
+            super(QueryHints.PARALLEL_BUILDING_CHUNK_SIZE, "");
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                ((ReadAllQuery)query).setParallelBuildingChunkSize(QueryHintsHandler.parseIntegerHint(valueToApply, QueryHints.PARALLEL_BUILDING_CHUNK_SIZE));
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     protected static class SerializedObject extends Hint {
         SerializedObject() {
             super(QueryHints.SERIALIZED_OBJECT, HintValues.FALSE);
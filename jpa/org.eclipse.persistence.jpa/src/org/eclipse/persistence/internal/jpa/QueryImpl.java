@@ -102,6 +102,9 @@ public class QueryImpl {
      */
     protected boolean isShared;
 
+    /** Prefix of the parameters binding the literal values of a cached criteria query. */
+    protected static final String CRITERIA_LITERAL_PREFIX = "EclipseLinkCriteriaLiteral";
+
     /**
      * Base constructor for EJBQueryImpl. Initializes basic variables.
      */
@@ -203,8 +206,18 @@ protected Object executeReadQuery() {
         // QueryException.cannotConformExpression -
         // and true otherwise.
         boolean shouldResetConformResultsInUnitOfWork = false;
+        boolean shouldResetReadOnly = false;
         DatabaseQuery query = getDatabaseQueryInternal();
         boolean isObjectLevelReadQuery = query.isObjectLevelReadQuery();
+        // PERF: In read-mostly mode read the objects of the shared cache as a read-only query.
+        if (isObjectLevelReadQuery && !((ObjectLevelReadQuery)query).isReadOnly()
+                && ((this.lockMode == null) || this.lockMode.equals(LockModeType.NONE))
+                && !((ObjectLevelReadQuery)query).isLockQuery() && this.entityManager.shouldReadFromSharedCache()) {
+            cloneSharedQuery();
+            query = getDatabaseQueryInternal();
+            ((ObjectLevelReadQuery)query).setIsReadOnly(true);
+            shouldResetReadOnly = true;
+        }
         if (isFlushModeAUTO() && (!isObjectLevelReadQuery || !((ObjectLevelReadQuery)query).isReadOnly())) {
             performPreQueryFlush();
             if (isObjectLevelReadQuery) {
@@ -269,6 +282,9 @@ protected Object executeReadQuery() {
             if (shouldResetConformResultsInUnitOfWork) {
                 ((ObjectLevelReadQuery)query).conformResultsInUnitOfWork();
             }
+            if (shouldResetReadOnly) {
+                ((ObjectLevelReadQuery)query).setIsReadOnly(false);
+            }
         }
     }
 
@@ -404,6 +420,11 @@ protected Map<String, Parameter<?>> getInternalParameters() {
             if (query.getArguments() != null && !query.getArguments().isEmpty()) {
                 boolean checkParameterType = query.getArgumentParameterTypes().size() == query.getArguments().size();
                 for (String argName : query.getArguments()) {
+                    if (argName.startsWith(CRITERIA_LITERAL_PREFIX)) {
+                        // The literal values of a criteria query are not user parameters.
+                        ++count;
+                        continue;
+                    }
                     Parameter<?> param = null;
                     ParameterType type = null;
                     if (checkParameterType){
@@ -19,7 +19,10 @@
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
@@ -118,6 +121,40 @@ public InputStream getEntry(String entryPath) throws IOException {
         return is;
     }
 
+    /**
+     * Return a checksum of the content of the directory, computed from the
+     * name, the length and the last modification time of each of its files,
+     * so no file has to be read. The checksum identifies an unchanged
+     * directory across deployments.
+     */
+    public String getChecksum() throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        // Sort the entries, as the order of the files depends on the file system.
+        List<String> sortedEntries = new ArrayList<String>(entries);
+        Collections.sort(sortedEntries);
+        for (String entry : sortedEntries) {
+            File f = getFile(entry);
+            digest.update(entry.getBytes("UTF-8")); // NOI18N
+            long length = f.length();
+            long lastModified = f.lastModified();
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                digest.update((byte) (length >>> shift));
+                digest.update((byte) (lastModified >>> shift));
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        for (byte value : digest.digest()) {
+            checksum.append(Character.forDigit((value >> 4) & 0xF, 16));
+            checksum.append(Character.forDigit(value & 0xF, 16));
+        }
+        return checksum.toString();
+    }
+
     @Override
     public URL getEntryAsURL(String entryPath) throws IOException {
         File f = getFile(entryPath);
@@ -25,6 +25,8 @@
 import java.io.File;
 import java.net.URL;
 import java.net.MalformedURLException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.eclipse.persistence.jpa.Archive;
 
@@ -83,6 +85,36 @@ public InputStream getEntry(String entryPath) throws IOException {
         return is;
     }
 
+    /**
+     * Return a checksum of the content of the jar file, computed from the
+     * name and the CRC-32 of each of its entries as recorded in the central
+     * directory, so no entry has to be read. The checksum identifies an
+     * unchanged jar file across deployments.
+     */
+    public String getChecksum() throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        Enumeration<JarEntry> jarEntries = jarFile.entries();
+        while (jarEntries.hasMoreElements()) {
+            final JarEntry jarEntry = jarEntries.nextElement();
+            digest.update(jarEntry.getName().getBytes("UTF-8")); // NOI18N
+            long crc = jarEntry.getCrc();
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                digest.update((byte) (crc >>> shift));
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        for (byte value : digest.digest()) {
+            checksum.append(Character.forDigit((value >> 4) & 0xF, 16));
+            checksum.append(Character.forDigit(value & 0xF, 16));
+        }
+        return checksum.toString();
+    }
+
     public URL getEntryAsURL(String entryPath) throws IOException {
         return jarFile.getEntry(entryPath)!= null ?
                 new URL("jar:"+new File(jarFile.getName()).toURI().toURL()+"!/"+entryPath) : null; // NOI18N
@@ -22,40 +22,60 @@
 import static org.eclipse.persistence.internal.jpa.metadata.MetadataConstants.JPA_MAPPED_SUPERCLASS;
 import static org.eclipse.persistence.internal.jpa.metadata.MetadataConstants.JPA_STATIC_METAMODEL;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.JarURLConnection;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedActionException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarInputStream;
+import java.util.zip.ZipEntry;
 
 import javax.persistence.spi.PersistenceUnitInfo;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.eclipse.persistence.Version;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.config.SystemProperties;
 import org.eclipse.persistence.exceptions.PersistenceUnitLoadingException;
 import org.eclipse.persistence.exceptions.XMLParseException;
+import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.helper.XMLHelper;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.PersistenceContentHandler;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.XMLException;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.XMLExceptionHandler;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataHelper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataProcessor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataProject;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAnnotation;
@@ -65,6 +85,8 @@
 import org.eclipse.persistence.jpa.Archive;
 import org.eclipse.persistence.jpa.ArchiveFactory;
 import org.eclipse.persistence.logging.AbstractSessionLog;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -100,6 +122,72 @@ public enum Mode {
     /** Length of application classes directory path String. */
     private static final int WEBINF_CLASSES_LEN = WEBINF_CLASSES_STR.length();
 
+    /** Names of the class file attributes holding the annotations of a class, a field or a method. */
+    private static final byte[][] ANNOTATION_ATTRIBUTES = {
+        {'R','u','n','t','i','m','e','V','i','s','i','b','l','e','A','n','n','o','t','a','t','i','o','n','s'},
+        {'R','u','n','t','i','m','e','I','n','v','i','s','i','b','l','e','A','n','n','o','t','a','t','i','o','n','s'}
+    };
+
+    /** Extension of the class entry index files. */
+    private static final String INDEX_FILE_EXTENSION = ".index";
+
+    /**
+     * First line of the class entry index files, identifying their format.
+     * The version must be changed whenever the format, or the selection of
+     * the stored entries, changes, so older index files are not used.
+     */
+    public static final String INDEX_FILE_HEADER = "#EclipseLink class entry index 1"; // NOI18N
+
+    /**
+     * Add the string to the digest, followed by a separator.
+     */
+    private static void updateDigest(MessageDigest digest, String value) {
+        if (value != null) {
+            try {
+                digest.update(value.getBytes("UTF-8"));
+            } catch (UnsupportedEncodingException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+        digest.update((byte)0);
+    }
+
+    /**
+     * Add the properties to the digest, sorted by name.
+     * Passwords and the fingerprint itself are excluded, and only the type of the values that are not text is added.
+     */
+    private static void updateDigest(MessageDigest digest, Map properties) {
+        if (properties == null) {
+            return;
+        }
+        Map<String, String> sortedProperties = new TreeMap<String, String>();
+        for (Object entry : properties.entrySet()) {
+            Object key = ((Map.Entry)entry).getKey();
+            Object value = ((Map.Entry)entry).getValue();
+            if (!(key instanceof String) || (value == null) || ((String)key).toLowerCase().contains("password") // NOI18N
+                    || key.equals(PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT)) {
+                continue;
+            }
+            sortedProperties.put((String)key, (value instanceof String) ? (String)value : value.getClass().getName());
+        }
+        for (Map.Entry<String, String> entry : sortedProperties.entrySet()) {
+            updateDigest(digest, entry.getKey());
+            updateDigest(digest, entry.getValue());
+        }
+    }
+
+    /**
+     * Add the content of the stream to the digest.
+     */
+    private static void updateDigest(MessageDigest digest, InputStream stream) throws IOException {
+        byte[] buffer = new byte[8192];
+        int length = stream.read(buffer);
+        while (length != -1) {
+            digest.update(buffer, 0, length);
+            length = stream.read(buffer);
+        }
+    }
+
     /**
      * Entries in a zip file are directory entries using slashes to separate
      * them. Build a class name using '.' instead of slash and removing the
@@ -133,6 +221,92 @@ public static Set<String> buildClassSet(PersistenceUnitInfo persistenceUnitInfo,
         return set;
     }
 
+    /**
+     * Build a fingerprint of the persistence unit, used to validate a cached project.
+     * It is a hash of the EclipseLink version, of the persistence unit's properties,
+     * class and mapping file names, of its mapping files and of the checksums of its
+     * root and jar files. The checksums are computed from the size and time or CRC of
+     * the archive entries, so the classes of the archives are not read.
+     */
+    public static String buildPersistenceUnitFingerprint(PersistenceUnitInfo persistenceUnitInfo, ClassLoader loader, Map properties) {
+        MessageDigest digest = null;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException(exception);
+        }
+        updateDigest(digest, Version.getVersionString());
+        updateDigest(digest, persistenceUnitInfo.getPersistenceUnitName());
+        updateDigest(digest, properties);
+        for (String className : persistenceUnitInfo.getManagedClassNames()) {
+            updateDigest(digest, className);
+        }
+        for (String mappingFileName : persistenceUnitInfo.getMappingFileNames()) {
+            updateDigest(digest, mappingFileName);
+            // Mapping files may be outside of the persistence unit's archives.
+            try {
+                Enumeration<URL> resources = loader.getResources(mappingFileName);
+                while (resources.hasMoreElements()) {
+                    InputStream stream = resources.nextElement().openStream();
+                    try {
+                        updateDigest(digest, stream);
+                    } finally {
+                        stream.close();
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("mapping file = [" + mappingFileName + "]", e);  // NOI18N
+            }
+        }
+        List<URL> urls = new ArrayList<URL>(persistenceUnitInfo.getJarFileUrls());
+        if (persistenceUnitInfo.getPersistenceUnitRootUrl() != null) {
+            urls.add(persistenceUnitInfo.getPersistenceUnitRootUrl());
+        }
+        for (URL url : urls) {
+            Archive archive = null;
+            try {
+                archive = PersistenceUnitProcessor.getArchiveFactory(loader).createArchive(url, properties);
+                if (archive instanceof JarFileArchive) {
+                    updateDigest(digest, ((JarFileArchive)archive).getChecksum());
+                } else if (archive instanceof DirectoryArchive) {
+                    updateDigest(digest, ((DirectoryArchive)archive).getChecksum());
+                } else if (archive != null) {
+                    // Other archives are identified by their entry names and the size and time of their root.
+                    List<String> entries = new ArrayList<String>();
+                    for (Iterator<String> iterator = archive.getEntries(); iterator.hasNext();) {
+                        entries.add(iterator.next());
+                    }
+                    Collections.sort(entries);
+                    for (String entry : entries) {
+                        updateDigest(digest, entry);
+                    }
+                    URLConnection connection = url.openConnection();
+                    connection.setUseCaches(false);
+                    updateDigest(digest, String.valueOf(connection.getContentLengthLong()));
+                    updateDigest(digest, String.valueOf(connection.getLastModified()));
+                    try {
+                        if (connection instanceof JarURLConnection) {
+                            ((JarURLConnection)connection).getJarFile().close();
+                        } else {
+                            connection.getInputStream().close();
+                        }
+                    } catch (IOException ignore) {
+                        // The size and time were read, the root may not have content.
+                    }
+                }
+            } catch (URISyntaxException e) {
+                throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+            } catch (IOException e) {
+                throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+            } finally {
+                if (archive != null) {
+                    archive.close();
+                }
+            }
+        }
+        return Helper.buildHexStringFromBytes(digest.digest());
+    }
+
     /**
      * Create a list of the entities that will be deployed. This list is built
      * from the information provided in the PersistenceUnitInfo argument.
@@ -472,6 +646,291 @@ public static Set<String> getClassNamesFromURL(URL url, ClassLoader loader, Map
         return classNames;
     }
 
+    /**
+     * Return the names of the classes of the archive at the url that may be
+     * persistence unit classes, i.e. the classes having annotations. Any JPA
+     * class, an entity, an embeddable, a mapped superclass, a converter or a
+     * static metamodel class, is annotated, so the classes without any
+     * annotation are left out without being parsed. The class files are read
+     * by the given number of threads when the archive supports it. If an
+     * index location is given, the class entries found in a jar file are
+     * stored in an index file of that directory, keyed by the checksum of the
+     * jar file, so an unchanged jar file is never scanned again.
+     * The names are returned in the same order as getClassNamesFromURL.
+     */
+    public static Set<String> getAnnotatedClassNamesFromURL(URL url, ClassLoader loader, Map properties, int threads, ServerPlatform serverPlatform, String indexLocation) {
+        Set<String> classNames = new LinkedHashSet<String>();
+        Archive archive = null;
+        try {
+            archive = PersistenceUnitProcessor.getArchiveFactory(loader).createArchive(url, properties);
+
+            if (archive != null) {
+                List<String> classEntries = new ArrayList<String>();
+                Set<String> allClassNames = new HashSet<String>();
+                for (Iterator<String> entries = archive.getEntries(); entries.hasNext();) {
+                    String entry = entries.next();
+                    if (entry.endsWith(".class")){ // NOI18N
+                        classEntries.add(entry);
+                        allClassNames.add(buildClassNameFromEntryString(entry));
+                    }
+                }
+
+                File indexFile = null;
+                if ((indexLocation != null) && (archive instanceof JarFileArchive)) {
+                    indexFile = new File(indexLocation, ((JarFileArchive) archive).getChecksum() + INDEX_FILE_EXTENSION);
+                }
+                Set<String> annotatedEntries = null;
+                if ((indexFile != null) && indexFile.isFile()) {
+                    annotatedEntries = readIndex(indexFile);
+                }
+                if (annotatedEntries == null) {
+                    annotatedEntries = getAnnotatedEntries(archive, classEntries, threads, serverPlatform);
+                    if (indexFile != null) {
+                        writeIndex(indexFile, annotatedEntries);
+                    }
+                }
+
+                Set<String> annotatedClassNames = new HashSet<String>();
+                for (String entry : annotatedEntries) {
+                    annotatedClassNames.add(buildClassNameFromEntryString(entry));
+                }
+                // Keep the order of the names of all the classes.
+                for (String className : allClassNames) {
+                    if (annotatedClassNames.contains(className)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+        } catch (IOException e) {
+            throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+        } finally {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Return the class entries of the archive having annotations. A jar read
+     * from a stream is read once from start to end, the entries of the other
+     * archives are read by the given number of threads, unless the archive
+     * is of an unknown type that may not support it.
+     */
+    private static Set<String> getAnnotatedEntries(final Archive archive, final List<String> classEntries, int threads, ServerPlatform serverPlatform) throws IOException {
+        Set<String> annotatedEntries = new HashSet<String>();
+        if (archive instanceof JarInputStreamURLArchive) {
+            // Each getEntry() call reads the stream up to the entry, so read all the entries in one pass instead.
+            Set<String> entries = new HashSet<String>(classEntries);
+            JarInputStream stream = new JarInputStream(new BufferedInputStream(archive.getRootURL().openStream()));
+            try {
+                for (ZipEntry entry = stream.getNextEntry(); entry != null; entry = stream.getNextEntry()) {
+                    if (entries.contains(entry.getName()) && hasAnnotations(readBytes(stream))) {
+                        annotatedEntries.add(entry.getName());
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+            return annotatedEntries;
+        }
+        if (!((archive instanceof JarFileArchive) || (archive instanceof DirectoryArchive) || (archive instanceof DirectoryInsideJarURLArchive))) {
+            threads = 1;
+        }
+        final int size = classEntries.size();
+        final boolean[] isAnnotated = new boolean[size];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        // Each thread reads the next class entry not yet read, until all are read.
+        Runnable scanner = new Runnable() {
+            @Override
+            public void run() {
+                int index = nextIndex.getAndIncrement();
+                while (index < size) {
+                    isAnnotated[index] = true;
+                    try {
+                        InputStream stream = archive.getEntry(classEntries.get(index));
+                        if (stream != null) {
+                            try {
+                                isAnnotated[index] = hasAnnotations(readBytes(stream));
+                            } finally {
+                                stream.close();
+                            }
+                        }
+                    } catch (IOException exception) {
+                        // Keep the class, reading it again will report the error.
+                    }
+                    index = nextIndex.getAndIncrement();
+                }
+            }
+        };
+        MetadataHelper.runInParallel(scanner, Math.min(threads, size), serverPlatform);
+        for (int index = 0; index < size; index++) {
+            if (isAnnotated[index]) {
+                annotatedEntries.add(classEntries.get(index));
+            }
+        }
+        return annotatedEntries;
+    }
+
+    /**
+     * Return if the class file has annotations on the class, a field or a
+     * method. Only the constant pool is read, an annotation attribute can
+     * only be present if its name is in the constant pool. If the class file
+     * can not be read, true is returned so the class is parsed in full.
+     */
+    public static boolean hasAnnotations(byte[] classFile) {
+        try {
+            if ((classFile[0] != (byte) 0xCA) || (classFile[1] != (byte) 0xFE) || (classFile[2] != (byte) 0xBA) || (classFile[3] != (byte) 0xBE)) {
+                return true;
+            }
+            int count = readUnsignedShort(classFile, 8);
+            int index = 10;
+            for (int entry = 1; entry < count; entry++) {
+                switch (classFile[index]) {
+                    case 1: // Utf8
+                        int length = readUnsignedShort(classFile, index + 1);
+                        for (byte[] attribute : ANNOTATION_ATTRIBUTES) {
+                            if ((length == attribute.length) && matches(classFile, index + 3, attribute)) {
+                                return true;
+                            }
+                        }
+                        index += 3 + length;
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        // Takes two entries.
+                        index += 9;
+                        entry++;
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        index += 5;
+                        break;
+                    case 15: // MethodHandle
+                        index += 4;
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        index += 3;
+                        break;
+                    default:
+                        return true;
+                }
+            }
+            return false;
+        } catch (ArrayIndexOutOfBoundsException exception) {
+            return true;
+        }
+    }
+
+    /**
+     * Return if the bytes at the index are the given bytes.
+     */
+    private static boolean matches(byte[] bytes, int index, byte[] value) {
+        for (int position = 0; position < value.length; position++) {
+            if (bytes[index + position] != value[position]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the unsigned short at the index, in big-endian order.
+     */
+    private static int readUnsignedShort(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 8) | (bytes[index + 1] & 0xFF);
+    }
+
+    /**
+     * Read the remaining content of the stream, without closing it.
+     */
+    private static byte[] readBytes(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length = stream.read(buffer);
+        while (length != -1) {
+            bytes.write(buffer, 0, length);
+            length = stream.read(buffer);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Return the class entries stored in the index file, one per line after
+     * the header, or null if it can not be read or is of another version.
+     */
+    private static Set<String> readIndex(File indexFile) {
+        Set<String> entries = new HashSet<String>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "UTF-8"));
+            try {
+                if (!INDEX_FILE_HEADER.equals(reader.readLine())) {
+                    AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.JPA, "Ignoring the index file of another version: " + indexFile, (Object[]) null, false); // NOI18N
+                    return null;
+                }
+                for (String entry = reader.readLine(); entry != null; entry = reader.readLine()) {
+                    if (entry.length() > 0) {
+                        entries.add(entry);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException exception) {
+            AbstractSessionLog.getLog().logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+            return null;
+        }
+        return entries;
+    }
+
+    /**
+     * Store the class entries in the index file, one per line after the
+     * header. The index is
+     * written to a temporary file first, so a partially written index is
+     * never read.
+     */
+    private static void writeIndex(File indexFile, Set<String> entries) {
+        File directory = indexFile.getParentFile();
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(directory.getPath());
+            }
+            File temporaryFile = File.createTempFile(indexFile.getName(), null, directory);
+            try {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile), "UTF-8"));
+                try {
+                    writer.write(INDEX_FILE_HEADER);
+                    writer.newLine();
+                    for (String entry : entries) {
+                        writer.write(entry);
+                        writer.newLine();
+                    }
+                } finally {
+                    writer.close();
+                }
+                if (!temporaryFile.renameTo(indexFile) && !indexFile.isFile()) {
+                    throw new IOException(indexFile.getPath());
+                }
+            } finally {
+                temporaryFile.delete();
+            }
+        } catch (IOException exception) {
+            AbstractSessionLog.getLog().logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        }
+    }
+
     /**
      * Return if a given class is annotated with @Embeddable.
      */
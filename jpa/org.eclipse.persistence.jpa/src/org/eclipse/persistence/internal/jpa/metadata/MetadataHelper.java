@@ -33,14 +33,17 @@
 
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.util.Collections;
 import java.util.Map;
 
 import org.eclipse.persistence.exceptions.ValidationException;
 
+import org.eclipse.persistence.internal.helper.ParallelHelper;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedClassForName;
 import org.eclipse.persistence.internal.security.PrivilegedNewInstanceFromClass;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 
 /**
  * INTERNAL:
@@ -239,4 +242,17 @@ public static String getValue(String value, String defaultValue) {
             return defaultValue;
         }
     }
+
+    /**
+     * INTERNAL:
+     * Run the task on the current thread and on up to threads - 1 threads
+     * of the server platform, and wait for the runs that started. The task
+     * must share its work between the threads running it, i.e. each run takes
+     * the next piece of work not yet taken until none is left, so the work is
+     * still done if a thread of the platform does not start.
+     * @see ParallelHelper#runInParallel(java.util.List, int, ServerPlatform)
+     */
+    public static void runInParallel(Runnable task, int threads, ServerPlatform serverPlatform) {
+        ParallelHelper.runInParallel(Collections.nCopies(Math.max(threads, 1), task), threads, serverPlatform);
+    }
 }
@@ -75,6 +75,7 @@
 import org.eclipse.persistence.jpa.metadata.MetadataSource;
 import org.eclipse.persistence.logging.AbstractSessionLog;
 import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 
 /**
  * INTERNAL:
@@ -92,6 +93,8 @@ public class MetadataProcessor {
     protected MetadataProcessor m_compositeProcessor;
     protected Set<MetadataProcessor> m_compositeMemberProcessors;
     protected MetadataSource m_metadataSource;
+    protected int m_parallelism;
+    protected String m_indexLocation;
 
     /**
      * INTERNAL:
@@ -172,6 +175,15 @@ public MetadataProcessor getCompositeProcessor() {
         return m_compositeProcessor;
     }
 
+    /**
+     * INTERNAL:
+     * Return the directory of the index files of the class entries found in
+     * the persistence unit jar files, or null if the jar files are not indexed.
+     */
+    public String getIndexLocation() {
+        return m_indexLocation;
+    }
+
     /**
      * INTERNAL:
      */
@@ -186,6 +198,15 @@ public MetadataSource getMetadataSource(){
         return m_metadataSource;
     }
 
+    /**
+     * INTERNAL:
+     * Return the number of threads, including the current thread, used to
+     * read the metadata of the persistence unit classes.
+     */
+    public int getParallelism() {
+        return m_parallelism;
+    }
+
     /**
      * INTERNAL:
      * Returns projects owned by compositeProcessor minus the passed project.
@@ -332,15 +353,36 @@ protected void initPersistenceUnitClasses() {
         // Add all the <class> specifications.
         classNames.addAll(persistenceUnitInfo.getManagedClassNames());
 
+        // PERF: When parallel or indexed, scan the archives for the annotated
+        // classes only, the other classes can not be persistence unit classes.
+        boolean shouldScanArchives = (m_parallelism > 1) || (m_indexLocation != null);
+        ServerPlatform serverPlatform = (m_session == null) ? null : m_session.getServerPlatform();
+
         // Add all the classes from the <jar> specifications.
         for (URL url : persistenceUnitInfo.getJarFileUrls()) {
-            classNames.addAll(PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+            if (shouldScanArchives) {
+                classNames.addAll(PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(url, m_loader, null, m_parallelism, serverPlatform, m_indexLocation));
+            } else {
+                classNames.addAll(PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+            }
         }
 
         // Add all the classes off the classpath at the persistence unit root url.
         Set<String> unlistedClasses = Collections.EMPTY_SET;
         if (! persistenceUnitInfo.excludeUnlistedClasses()) {
-            unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
+            if (shouldScanArchives) {
+                unlistedClasses = PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties, m_parallelism, serverPlatform, m_indexLocation);
+            } else {
+                unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
+            }
+        }
+
+        // PERF: Read the metadata of the classes in parallel first, the loop
+        // below then finds it already read. The classes are still processed
+        // one at a time in the same order.
+        if ((m_parallelism > 1) && (m_factory instanceof MetadataAsmFactory) && (serverPlatform != null)) {
+            ((MetadataAsmFactory) m_factory).loadMetadataClasses(classNames, false, m_parallelism, serverPlatform);
+            ((MetadataAsmFactory) m_factory).loadMetadataClasses(unlistedClasses, true, m_parallelism, serverPlatform);
         }
 
         // 5 - Go through all the class names we found and add those classes
@@ -595,6 +637,15 @@ public void setClassLoader(ClassLoader loader) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Set the directory of the index files of the class entries found in the
+     * persistence unit jar files, so unchanged jar files are not scanned again.
+     */
+    public void setIndexLocation(String indexLocation) {
+        m_indexLocation = indexLocation;
+    }
+
     /**
      * INTERNAL:
      * Use this method to set the MetadataSource class to use for loading
@@ -603,4 +654,14 @@ public void setClassLoader(ClassLoader loader) {
     public void setMetadataSource(MetadataSource source){
         m_metadataSource = source;
     }
+
+    /**
+     * INTERNAL:
+     * Set the number of threads, including the current thread, used to read
+     * the metadata of the persistence unit classes. The metadata is processed
+     * by the current thread, so the same project is built.
+     */
+    public void setParallelism(int parallelism) {
+        m_parallelism = parallelism;
+    }
 }
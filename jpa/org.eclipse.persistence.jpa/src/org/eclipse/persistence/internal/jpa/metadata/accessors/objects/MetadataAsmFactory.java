@@ -29,10 +29,13 @@
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataHelper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.libraries.asm.AnnotationVisitor;
 import org.eclipse.persistence.internal.libraries.asm.Attribute;
@@ -43,6 +46,7 @@
 import org.eclipse.persistence.internal.libraries.asm.Opcodes;
 import org.eclipse.persistence.internal.libraries.asm.Type;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 
 /**
  * INTERNAL: A metadata factory that uses ASM technology and no reflection
@@ -79,24 +83,8 @@ public MetadataAsmFactory(MetadataLogger logger, ClassLoader loader) {
      */
     protected void buildClassMetadata(MetadataClass metadataClass, String className, boolean isLazy) {
         ClassMetadataVisitor visitor = new ClassMetadataVisitor(metadataClass, isLazy);
-        InputStream stream = null;
         try {
-            String resourceString = className.replace('.', '/') + ".class";
-            if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
-                final String f_resourceString = resourceString;
-                stream = AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
-                    @Override
-                    public InputStream run() {
-                        return m_loader.getResourceAsStream(f_resourceString);
-                    }
-                });
-            } else {
-                stream = m_loader.getResourceAsStream(resourceString);
-            }
-
-            ClassReader reader = new ClassReader(stream);
-            Attribute[] attributes = new Attribute[0];
-            reader.accept(visitor, attributes, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            readClassMetadata(visitor, className);
         } catch (Exception exception) {
             // Some basic types can't be found, so can just be registered
             // (i.e. arrays). Also, VIRTUAL classes may also not exist,
@@ -121,6 +109,31 @@ public InputStream run() {
                 metadataClass.setIsAccessible(false);
             }
             addMetadataClass(metadataClass);
+        }
+    }
+
+    /**
+     * Read the class byte codes of the class name with the visitor.
+     */
+    protected void readClassMetadata(ClassMetadataVisitor visitor, String className) throws IOException {
+        InputStream stream = null;
+        try {
+            String resourceString = className.replace('.', '/') + ".class";
+            if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+                final String f_resourceString = resourceString;
+                stream = AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
+                    @Override
+                    public InputStream run() {
+                        return m_loader.getResourceAsStream(f_resourceString);
+                    }
+                });
+            } else {
+                stream = m_loader.getResourceAsStream(resourceString);
+            }
+
+            ClassReader reader = new ClassReader(stream);
+            Attribute[] attributes = new Attribute[0];
+            reader.accept(visitor, attributes, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
         } finally {
             try {
                 if (stream != null) {
@@ -132,6 +145,55 @@ public InputStream run() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Read the class metadata of the class names not yet read, using up to the
+     * given number of threads including the current thread. The other threads
+     * are launched through the server platform.
+     * The classes are read as getMetadataClass would read them, but are added to
+     * the factory by the current thread once all are read. Classes that cannot
+     * be read are left to getMetadataClass, to be handled as usual.
+     */
+    public void loadMetadataClasses(Collection<String> classNames, final boolean isLazy, int threads, ServerPlatform serverPlatform) {
+        final List<String> names = new ArrayList<String>(classNames.size());
+        for (String className : classNames) {
+            if ((className != null) && !metadataClassExists(className)) {
+                names.add(className);
+            }
+        }
+        final int size = names.size();
+        if (size == 0) {
+            return;
+        }
+        final MetadataClass[] metadataClasses = new MetadataClass[size];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        // Each thread reads the next class not yet read, until all are read.
+        final Runnable reader = new Runnable() {
+            @Override
+            public void run() {
+                int index = nextIndex.getAndIncrement();
+                while (index < size) {
+                    ClassMetadataVisitor visitor = new ClassMetadataVisitor(null, isLazy);
+                    visitor.shouldAddMetadataClass = false;
+                    try {
+                        readClassMetadata(visitor, names.get(index));
+                        metadataClasses[index] = visitor.classMetadata;
+                    } catch (Exception exception) {
+                        // Read again by getMetadataClass.
+                    }
+                    index = nextIndex.getAndIncrement();
+                }
+            }
+        };
+        MetadataHelper.runInParallel(reader, Math.min(threads, size), serverPlatform);
+        for (int index = 0; index < size; index++) {
+            MetadataClass metadataClass = metadataClasses[index];
+            if ((metadataClass != null) && metadataClass.getName().equals(names.get(index)) && !metadataClassExists(metadataClass.getName())) {
+                addMetadataClass(metadataClass);
+            }
+        }
+    }
+
     /**
      * Return the class metadata for the class name.
      */
@@ -224,6 +286,8 @@ public class ClassMetadataVisitor extends ClassVisitor {
         private boolean isLazy;
         private boolean processedMemeber;
         private MetadataClass classMetadata;
+        /** Classes read concurrently are added to the factory after being read. */
+        private boolean shouldAddMetadataClass = true;
 
         ClassMetadataVisitor(MetadataClass metadataClass, boolean isLazy) {
             super(Opcodes.ASM5);
@@ -236,7 +300,9 @@ public void visit(int version, int access, String name, String signature, String
             String className = toClassName(name);
             if ((this.classMetadata == null) || !this.classMetadata.getName().equals(className)) {
                 this.classMetadata = new MetadataClass(MetadataAsmFactory.this, className, isLazy);
-                addMetadataClass(this.classMetadata);
+                if (this.shouldAddMetadataClass) {
+                    addMetadataClass(this.classMetadata);
+                }
             }
             this.classMetadata.setName(className);
             this.classMetadata.setSuperclassName(toClassName(superName));
@@ -269,6 +269,8 @@ public void process(MetadataDescriptor descriptor, MetadataClass javaClass) {
             classDescriptor.getCachePolicy().useHardCacheWeakIdentityMap();
         } else if (m_type.equals(CacheType.CACHE.name())) {
             classDescriptor.useCacheIdentityMap();
+        } else if (m_type.equals(CacheType.CONCURRENT_LRU.name())) {
+            classDescriptor.getCachePolicy().useConcurrentLRUIdentityMap();
         } else if (m_type.equals(CacheType.NONE.name())) {
             classDescriptor.getCachePolicy().useNoIdentityMap();
         }
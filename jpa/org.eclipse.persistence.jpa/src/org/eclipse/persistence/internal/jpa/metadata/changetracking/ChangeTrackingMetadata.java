@@ -26,6 +26,7 @@
 
 import org.eclipse.persistence.descriptors.changetracking.AttributeChangeTrackingPolicy;
 import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy;
 import org.eclipse.persistence.descriptors.changetracking.ObjectChangeTrackingPolicy;
 
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
@@ -111,6 +112,8 @@ public void process(MetadataDescriptor descriptor) {
             classDescriptor.setObjectChangePolicy(null);
         } else if (m_type.equals(ChangeTrackingType.ATTRIBUTE.name())) {
             classDescriptor.setObjectChangePolicy(new AttributeChangeTrackingPolicy());
+        } else if (m_type.equals(ChangeTrackingType.DIRTY_BIT.name())) {
+            classDescriptor.setObjectChangePolicy(new DirtyBitChangeTrackingPolicy());
         } else if (m_type.equals(ChangeTrackingType.OBJECT.name())) {
             classDescriptor.setObjectChangePolicy(new ObjectChangeTrackingPolicy());
         } else if (m_type.equals(ChangeTrackingType.DEFERRED.name())) {
@@ -19,8 +19,13 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.jpa.weaving;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObject;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.libraries.asm.ClassVisitor;
 import org.eclipse.persistence.internal.libraries.asm.FieldVisitor;
@@ -65,6 +70,7 @@ public class ClassWeaver extends ClassVisitor implements Opcodes {
     public static final String PERSISTENCE_ENTITY_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/PersistenceEntity";
     public static final String PERSISTENCE_OBJECT_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/PersistenceObject";
     public static final String PERSISTENCE_OBJECT_SIGNATURE = "L" + PERSISTENCE_OBJECT_SHORT_SIGNATURE + ";";
+    public static final String PERSISTENCE_INDEXED_OBJECT_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/PersistenceIndexedObject";
     public static final String VECTOR_SIGNATURE = "Ljava/util/Vector;";
     public static final String OBJECT_SIGNATURE = "Ljava/lang/Object;";
     public static final String STRING_SIGNATURE = "Ljava/lang/String;";
@@ -1008,6 +1014,151 @@ public void addPersistenceGetSet(ClassDetails classDetails) {
         cv_set.visitMaxs(0, 0);
     }
 
+    /**
+     * Return the attributes of the class accessed by index, in the order of
+     * their index. The attributes of the superclasses come first, so a class
+     * and its subclasses use the same index for an attribute. The attributes
+     * of each class are sorted by name, so the index does not depend on the
+     * order the attributes were found in.
+     */
+    public static List<AttributeDetails> getIndexedAttributes(ClassDetails classDetails) {
+        List<AttributeDetails> indexedAttributes = new ArrayList<AttributeDetails>();
+        if (classDetails.getSuperClassDetails() != null) {
+            indexedAttributes.addAll(getIndexedAttributes(classDetails.getSuperClassDetails()));
+        }
+        List<AttributeDetails> attributes = new ArrayList<AttributeDetails>();
+        for (AttributeDetails attributeDetails : classDetails.getAttributesMap().values()) {
+            if (!attributeDetails.isAttributeOnSuperClass() && !attributeDetails.isVirtualProperty()) {
+                attributes.add(attributeDetails);
+            }
+        }
+        Collections.sort(attributes, new Comparator<AttributeDetails>() {
+            @Override
+            public int compare(AttributeDetails attribute, AttributeDetails otherAttribute) {
+                return attribute.getAttributeName().compareTo(otherAttribute.getAttributeName());
+            }
+        });
+        indexedAttributes.addAll(attributes);
+        return indexedAttributes;
+    }
+
+    /**
+     * Add an internal get and set method by attribute index. This is used to
+     * avoid reflection and comparing the attribute name to each attribute.
+     * The index of an attribute is its index in the names returned by the
+     * static _persistence_getAttributeNames() method.
+     *
+     * public static String[] _persistence_getAttributeNames() { return new
+     * String[] {"address", "city"}; }
+     *
+     * public Object _persistence_get(int index) { switch (index) { case 0:
+     * return this.address; case 1: return this.city; } return null; }
+     *
+     * public void _persistence_set(int index, Object value) { switch (index) {
+     * case 0: this.address = (String)value; return; case 1: this.city =
+     * (String)value; return; } }
+     */
+    public void addPersistenceIndexedGetSet(ClassDetails classDetails) {
+        List<AttributeDetails> indexedAttributes = getIndexedAttributes(classDetails);
+        int size = indexedAttributes.size();
+        // The attributes of the superclasses are accessed by the superclass methods.
+        int firstIndex = 0;
+        if (classDetails.getSuperClassDetails() != null) {
+            firstIndex = getIndexedAttributes(classDetails.getSuperClassDetails()).size();
+        }
+
+        // create the _persistence_getAttributeNames() method
+        MethodVisitor cv_names = cv.visitMethod(ACC_PUBLIC + ACC_STATIC, PersistenceIndexedObject.PERSISTENCE_GET_ATTRIBUTE_NAMES, "()[" + STRING_SIGNATURE, null, null);
+        cv_names.visitLdcInsn(Integer.valueOf(size));
+        cv_names.visitTypeInsn(ANEWARRAY, "java/lang/String");
+        for (int index = 0; index < size; index++) {
+            // names[index] = "address";
+            cv_names.visitInsn(DUP);
+            cv_names.visitLdcInsn(Integer.valueOf(index));
+            cv_names.visitLdcInsn(indexedAttributes.get(index).getAttributeName());
+            cv_names.visitInsn(AASTORE);
+        }
+        cv_names.visitInsn(ARETURN);
+        cv_names.visitMaxs(0, 0);
+
+        // create the _persistence_get(int) method
+        MethodVisitor cv_get = cv.visitMethod(ACC_PUBLIC, "_persistence_get", "(I)" + OBJECT_SIGNATURE, null, null);
+        Label defaultLabel = new Label();
+        if (firstIndex < size) {
+            Label[] labels = new Label[size - firstIndex];
+            for (int index = 0; index < labels.length; index++) {
+                labels[index] = new Label();
+            }
+            // switch (index)
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitTableSwitchInsn(firstIndex, size - 1, defaultLabel, labels);
+            for (int index = firstIndex; index < size; index++) {
+                AttributeDetails attributeDetails = indexedAttributes.get(index);
+                cv_get.visitLabel(labels[index - firstIndex]);
+                // return this.address
+                cv_get.visitVarInsn(ALOAD, 0);
+                cv_get.visitFieldInsn(GETFIELD, classDetails.getClassName(), attributeDetails.getAttributeName(), attributeDetails.getReferenceClassType().getDescriptor());
+                // if this is a primitive, get the wrapper class
+                String wrapper = ClassWeaver.wrapperFor(attributeDetails.getReferenceClassType().getSort());
+                if (wrapper != null) {
+                    cv_get.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + attributeDetails.getReferenceClassType().getDescriptor() + ")L" + wrapper + ";", false);
+                }
+                cv_get.visitInsn(ARETURN);
+            }
+        }
+        cv_get.visitLabel(defaultLabel);
+        // call super, or return null
+        if (classDetails.getSuperClassDetails() == null) {
+            cv_get.visitInsn(ACONST_NULL);
+        } else {
+            cv_get.visitVarInsn(ALOAD, 0);
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_get", "(I)" + OBJECT_SIGNATURE, false);
+        }
+        cv_get.visitInsn(ARETURN);
+        cv_get.visitMaxs(0, 0);
+
+        // create the _persistence_set(int, Object) method
+        MethodVisitor cv_set = cv.visitMethod(ACC_PUBLIC, "_persistence_set", "(I" + OBJECT_SIGNATURE + ")V", null, null);
+        defaultLabel = new Label();
+        if (firstIndex < size) {
+            Label[] labels = new Label[size - firstIndex];
+            for (int index = 0; index < labels.length; index++) {
+                labels[index] = new Label();
+            }
+            // switch (index)
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitTableSwitchInsn(firstIndex, size - 1, defaultLabel, labels);
+            for (int index = firstIndex; index < size; index++) {
+                AttributeDetails attribute = indexedAttributes.get(index);
+                cv_set.visitLabel(labels[index - firstIndex]);
+                // this.address = (String)value;
+                cv_set.visitVarInsn(ALOAD, 0);
+                cv_set.visitVarInsn(ALOAD, 2);
+                String wrapper = wrapperFor(attribute.getReferenceClassType().getSort());
+                if (wrapper == null) {
+                    wrapper = attribute.getReferenceClassName().replace('.', '/');
+                }
+                cv_set.visitTypeInsn(CHECKCAST, wrapper);
+                // Unwrap any primitive wrapper to its value.
+                unwrapPrimitive(attribute, cv_set);
+                cv_set.visitFieldInsn(PUTFIELD, classDetails.getClassName(), attribute.getAttributeName(), attribute.getReferenceClassType().getDescriptor());
+                // return;
+                cv_set.visitInsn(RETURN);
+            }
+        }
+        cv_set.visitLabel(defaultLabel);
+        // call super
+        if (classDetails.getSuperClassDetails() != null) {
+            cv_set.visitVarInsn(ALOAD, 0);
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitVarInsn(ALOAD, 2);
+            cv_set.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_set", "(I" + OBJECT_SIGNATURE + ")V", false);
+        }
+        cv_set.visitInsn(RETURN);
+        cv_set.visitMaxs(0, 0);
+    }
+
     /**
      * Adds get/set method for PersistenceEntity interface. This adds the
      * following methods:
@@ -1245,6 +1396,12 @@ public void visit(int version, int access, String name, String signature, String
             persistenceObjectIndex = newInterfacesLength;
             newInterfacesLength++;
         }
+        // PersistenceIndexedObject
+        int persistenceIndexedObjectIndex = 0;
+        if (persistenceObject) {
+            persistenceIndexedObjectIndex = newInterfacesLength;
+            newInterfacesLength++;
+        }
         // FetchGroupTracker
         int fetchGroupTrackerIndex = 0;
         boolean fetchGroupTracker = classDetails.shouldWeaveFetchGroups() && (classDetails.getSuperClassDetails() == null);
@@ -1304,6 +1461,11 @@ public void visit(int version, int access, String name, String signature, String
         if (persistenceObject) {
             newInterfaces[persistenceObjectIndex] = PERSISTENCE_OBJECT_SHORT_SIGNATURE;
         }
+        // Add org.eclipse.persistence.internal.descriptors.PersistenceIndexedObject
+        // interface.
+        if (persistenceObject) {
+            newInterfaces[persistenceIndexedObjectIndex] = PERSISTENCE_INDEXED_OBJECT_SHORT_SIGNATURE;
+        }
         // Add org.eclipse.persistence.queries.FetchGroupTracker interface.
         if (fetchGroupTracker) {
             newInterfaces[fetchGroupTrackerIndex] = FETCHGROUP_TRACKER_SHORT_SIGNATURE;
@@ -1388,6 +1550,7 @@ public void visitEnd() {
                 // Add empty new method and generic get/set methods.
                 addPersistenceNew(this.classDetails);
                 addPersistenceGetSet(this.classDetails);
+                addPersistenceIndexedGetSet(this.classDetails);
             }
 
             boolean attributeAccess = false;
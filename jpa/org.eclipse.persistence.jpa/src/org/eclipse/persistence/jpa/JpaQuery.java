@@ -13,6 +13,7 @@
 package org.eclipse.persistence.jpa;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import org.eclipse.persistence.queries.Cursor;
 import org.eclipse.persistence.queries.DatabaseQuery;
@@ -54,6 +55,16 @@
      */
     public Cursor getResultCursor();
 
+    /**
+     * PUBLIC:
+     * Execute the query and return its results as a stream.
+     * The results of a ReadAllQuery are built from a cursor as the stream is consumed,
+     * the cursor and its connection are released when the stream is closed.
+     * @return Stream of results
+     * @see org.eclipse.persistence.queries.Cursor#stream()
+     */
+    public Stream<X> getResultStream();
+
     /**
      * PUBLIC:
      * Replace the cached query with the given query.
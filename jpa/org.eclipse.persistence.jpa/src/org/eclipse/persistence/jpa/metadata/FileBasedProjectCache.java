@@ -12,6 +12,7 @@
  ******************************************************************************/
 package org.eclipse.persistence.jpa.metadata;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.ObjectOutputStream;
@@ -24,6 +25,8 @@
 /**
  * <p><b>Purpose</b>: Support serializing/deserializing a project representing application metadata
  * to/from a file.
+ * The project is stored after the fingerprint of the persistence unit, and is only retrieved
+ * for a persistence unit with the same fingerprint.
  *
  */
 public class FileBasedProjectCache implements ProjectCache {
@@ -35,12 +38,31 @@ public Project retrieveProject(Map properties, ClassLoader loader, SessionLog lo
         String fileName = (String)getConfigPropertyLogDebug(
                 PersistenceUnitProperties.PROJECT_CACHE_FILE,
                 properties, log);
+        String fingerprint = (String)getConfigPropertyLogDebug(
+                PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT,
+                properties, log);
         if (fileName != null && fileName.length() > 0) {
             try {
                 java.io.File file = new java.io.File(fileName);
+                if (!file.exists()) {
+                    // Nothing cached yet, the project is cached on deploy.
+                    return null;
+                }
                 java.io.FileInputStream fis = new java.io.FileInputStream(file);
-                in = new java.io.ObjectInputStream(fis);
-                project = (Project)in.readObject();
+                in = new java.io.ObjectInputStream(new java.io.BufferedInputStream(fis));
+                Object cached = in.readObject();
+                // The project is preceded by the fingerprint of the persistence unit it was built from.
+                if (cached instanceof String) {
+                    if (fingerprint == null || fingerprint.equals(cached)) {
+                        project = (Project)in.readObject();
+                    } else {
+                        log.log(SessionLog.FINE, SessionLog.JPA, "project_cache_stale", fingerprint);
+                    }
+                } else if (fingerprint == null) {
+                    project = (Project)cached;
+                } else {
+                    log.log(SessionLog.FINE, SessionLog.JPA, "project_cache_stale", fingerprint);
+                }
             } catch (Exception e) {
               //need exception differentiation,logging and warnings
               //the project not being cached should be different than an exception from reading the stream
@@ -63,6 +85,9 @@ public void storeProject(Project project, Map properties, SessionLog log) {
         String fileName = (String)getConfigPropertyLogDebug(
                 PersistenceUnitProperties.PROJECT_CACHE_FILE,
                 properties, log);
+        String fingerprint = (String)getConfigPropertyLogDebug(
+                PersistenceUnitProperties.PROJECT_CACHE_FINGERPRINT,
+                properties, log);
         if (fileName != null && fileName.length() > 0) {
             FileOutputStream fos = null;
             ObjectOutputStream out = null;
@@ -71,7 +96,10 @@ public void storeProject(Project project, Map properties, SessionLog log) {
                 // creates the file
                 file.createNewFile();
                 fos = new FileOutputStream(file);
-                out = new ObjectOutputStream(fos);
+                out = new ObjectOutputStream(new BufferedOutputStream(fos));
+                if (fingerprint != null) {
+                    out.writeObject(fingerprint);
+                }
                 out.writeObject(project);
             } catch (Exception e) {
                 //the session is still usable, just not cachable so log a warning
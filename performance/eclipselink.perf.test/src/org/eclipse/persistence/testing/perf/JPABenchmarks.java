@@ -12,8 +12,24 @@
  ******************************************************************************/
 package org.eclipse.persistence.testing.perf;
 
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ArchiveScanningTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.BatchPrefetchTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.BatchReorderingTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ChangeDetectionTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ChangeSetSerializerTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.CriteriaQueryCacheTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.IdentityMapConcurrencyTests;
 import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPAMetadataProcessingTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPQLParseCacheTests;
 import org.eclipse.persistence.testing.perf.jpa.tests.basic.MethodHandleComparisonTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.MultiRowInsertTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ParallelBuildingTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ParallelMetadataReadingTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.QueryCacheInvalidationTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.ReadMostlyTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.RecordLookupTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.SequencePreallocationTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.WeavedAttributeAccessTests;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -39,6 +55,22 @@ public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(getInclude(JPAMetadataProcessingTests.class))
                 .include(getInclude(MethodHandleComparisonTests.class))
+                .include(getInclude(JPQLParseCacheTests.class))
+                .include(getInclude(IdentityMapConcurrencyTests.class))
+                .include(getInclude(ChangeSetSerializerTests.class))
+                .include(getInclude(SequencePreallocationTests.class))
+                .include(getInclude(RecordLookupTests.class))
+                .include(getInclude(ParallelBuildingTests.class))
+                .include(getInclude(BatchReorderingTests.class))
+                .include(getInclude(MultiRowInsertTests.class))
+                .include(getInclude(ChangeDetectionTests.class))
+                .include(getInclude(ReadMostlyTests.class))
+                .include(getInclude(BatchPrefetchTests.class))
+                .include(getInclude(QueryCacheInvalidationTests.class))
+                .include(getInclude(CriteriaQueryCacheTests.class))
+                .include(getInclude(ParallelMetadataReadingTests.class))
+                .include(getInclude(ArchiveScanningTests.class))
+                .include(getInclude(WeavedAttributeAccessTests.class))
                 .jvmArgsPrepend("-javaagent:" + System.getProperty("eclipselink.agent"))
                 .result(resultFile)
                 .resultFormat(ResultFormatType.valueOf(resultFormat.toUpperCase()))
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryImpl;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for discovering the entities of a jar file of thousands of classes,
+ * few of them entities, by reading every class, by scanning the jar file for the
+ * annotated classes, and by reading the annotated classes from an index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ArchiveScanningTests {
+
+    private static final int CLASSES = 10000;
+    private static final int ENTITY_RATIO = 50;
+    private static final String PACKAGE = "org/eclipse/persistence/testing/perf/jpa/model/generated/";
+
+    @Param({"all", "scan", "index"})
+    public String discovery;
+
+    @Param({"1", "4"})
+    public String parallelism;
+
+    private EntityManagerFactoryImpl emf;
+    private ServerSession session;
+    private File jarFile;
+    private File indexDirectory;
+    private URL jarUrl;
+    private URLClassLoader loader;
+
+    @Setup
+    public void setup() throws IOException {
+        emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory("jpa-performance");
+        session = emf.getServerSession();
+        jarFile = File.createTempFile("archive-scanning", ".jar");
+        JarOutputStream stream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            for (int index = 0; index < CLASSES; index++) {
+                String name = PACKAGE + "Class" + index;
+                stream.putNextEntry(new JarEntry(name + ".class"));
+                stream.write(buildClass(name, (index % ENTITY_RATIO) == 0));
+                stream.closeEntry();
+            }
+        } finally {
+            stream.close();
+        }
+        indexDirectory = new File(jarFile.getPath() + ".index");
+        jarUrl = jarFile.toURI().toURL();
+        loader = new URLClassLoader(new URL[] {jarUrl}, ArchiveScanningTests.class.getClassLoader());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        emf.close();
+        loader.close();
+        File[] indexFiles = indexDirectory.listFiles();
+        if (indexFiles != null) {
+            for (File indexFile : indexFiles) {
+                indexFile.delete();
+            }
+        }
+        indexDirectory.delete();
+        jarFile.delete();
+    }
+
+    /**
+     * Find the classes of the jar file and read the meta-data of each of them to check if it is an &#64;Entity.
+     */
+    @Benchmark
+    public void testArchiveScanning() {
+        int threads = Integer.parseInt(parallelism);
+        Set<String> classNames;
+        if (discovery.equals("all")) {
+            classNames = PersistenceUnitProcessor.getClassNamesFromURL(jarUrl, loader, null);
+        } else {
+            String indexLocation = discovery.equals("index") ? indexDirectory.getPath() : null;
+            classNames = PersistenceUnitProcessor.getAnnotatedClassNamesFromURL(jarUrl, loader, null, threads, session.getServerPlatform(), indexLocation);
+        }
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(session), loader);
+        if (threads > 1) {
+            factory.loadMetadataClasses(classNames, true, threads, session.getServerPlatform());
+        }
+        for (String className : classNames) {
+            MetadataClass metadataClass = factory.getMetadataClass(className, true);
+            PersistenceUnitProcessor.isEntity(metadataClass);
+        }
+    }
+
+    /**
+     * Build the class file of an entity, or of a class without annotations, with a get method.
+     */
+    private static byte[] buildClass(String name, boolean isEntity) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        if (isEntity) {
+            writer.visitAnnotation("Ljavax/persistence/Entity;", true).visitEnd();
+            writer.visitField(Opcodes.ACC_PRIVATE, "id", "J", null, null).visitAnnotation("Ljavax/persistence/Id;", true).visitEnd();
+        } else {
+            writer.visitField(Opcodes.ACC_PRIVATE, "id", "J", null, null).visitEnd();
+        }
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        method = writer.visitMethod(Opcodes.ACC_PUBLIC, "getId", "()J", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitFieldInsn(Opcodes.GETFIELD, name, "id", "J");
+        method.visitInsn(Opcodes.LRETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
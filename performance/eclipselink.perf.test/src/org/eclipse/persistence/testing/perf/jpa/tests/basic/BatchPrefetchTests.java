@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Address;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for reading employees and their independent IN batch fetched relationships,
+ * comparing fetching each relationship when accessed to fetching them concurrently when the query completes.
+ * The shared cache is cleared before each read, so the relationships are read from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchPrefetchTests {
+
+    private static final int ROWS = 200;
+    private static final String LAST_NAME = "BatchPrefetchTests";
+
+    @Param({"0", "4"})
+    public String parallelism;
+
+    private EntityManagerFactory emf;
+
+    @Setup
+    public void setup() {
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance");
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int index = 0; index < ROWS; index++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Employee" + index);
+            employee.setLastName(LAST_NAME);
+            Address address = new Address();
+            address.setCity("Ottawa");
+            address.setStreet(index + " Main Street");
+            employee.setAddress(address);
+            employee.addPhoneNumber("Work", "613", "555" + index);
+            employee.addPhoneNumber("Home", "613", "556" + index);
+            employee.addDegree("Degree" + index);
+            em.persist(employee);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Employee> employees = em.createQuery("SELECT e FROM Employee e WHERE e.lastName = :lastName", Employee.class)
+                .setParameter("lastName", LAST_NAME).getResultList();
+        for (Employee employee : employees) {
+            em.remove(employee);
+        }
+        em.getTransaction().commit();
+        em.close();
+        this.emf.close();
+    }
+
+    /**
+     * Read 200 employees, and access their address, phone numbers, degrees and projects.
+     */
+    @Benchmark
+    public int testReadBatchedRelationships() {
+        this.emf.getCache().evictAll();
+        EntityManager em = this.emf.createEntityManager();
+        List<Employee> employees = em.createQuery("SELECT e FROM Employee e WHERE e.lastName = :lastName", Employee.class)
+                .setParameter("lastName", LAST_NAME)
+                .setHint(QueryHints.READ_ONLY, HintValues.TRUE)
+                .setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN)
+                .setHint(QueryHints.BATCH, "e.address")
+                .setHint(QueryHints.BATCH, "e.phoneNumbers")
+                .setHint(QueryHints.BATCH, "e.degrees")
+                .setHint(QueryHints.BATCH, "e.projects")
+                .setHint(QueryHints.BATCH_PARALLELISM, this.parallelism)
+                .getResultList();
+        int count = 0;
+        for (Employee employee : employees) {
+            count = count + employee.getAddress().getStreet().length() + employee.getPhoneNumbers().size()
+                    + employee.getDegrees().size() + employee.getProjects().size();
+        }
+        em.close();
+        return count;
+    }
+
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.ReorderingSQLBatchWritingMechanism;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AggregateCollectionMapping;
+import org.eclipse.persistence.platform.database.H2Platform;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DefaultConnector;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for JDBC batch writing of mixed parent and child inserts,
+ * comparing the parameterized batch writing to the reordering batch writing.
+ * Each order's lines are inserted after the order, so the parameterized batches alternate between the two statements.
+ * The JDBC driver is simulated, with a round trip time for each execution, so no database is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchReorderingTests {
+
+    private static final int ORDERS = 100;
+    private static final int LINES = 5;
+
+    /** Time of a statement execution round trip to the database. */
+    private static final long EXECUTION_NANOS = 100000;
+
+    @Param({BatchWriting.JDBC, BatchWriting.Reordering})
+    public String batchWriting;
+
+    private ServerSession session;
+    private final AtomicLong ids = new AtomicLong();
+
+    public static class Order {
+        public long id;
+        public List<OrderLine> lines = new ArrayList<OrderLine>();
+    }
+
+    public static class OrderLine {
+        public String product;
+        public int quantity;
+    }
+
+    /**
+     * Return a simulated JDBC object, statements wait for the round trip time when executed.
+     */
+    private static Object simulate(Class type) {
+        return Proxy.newProxyInstance(BatchReorderingTests.class.getClassLoader(), new Class[] {type}, new InvocationHandler() {
+            private int batchSize;
+
+            public Object invoke(Object proxy, Method method, Object[] arguments) {
+                String name = method.getName();
+                if (name.equals("prepareStatement")) {
+                    return simulate(PreparedStatement.class);
+                } else if (name.equals("getMetaData")) {
+                    return simulate(DatabaseMetaData.class);
+                } else if (name.equals("addBatch")) {
+                    this.batchSize++;
+                    return null;
+                } else if (name.equals("executeUpdate")) {
+                    LockSupport.parkNanos(EXECUTION_NANOS);
+                    return 1;
+                } else if (name.equals("executeBatch")) {
+                    LockSupport.parkNanos(EXECUTION_NANOS);
+                    int[] rowCounts = new int[this.batchSize];
+                    Arrays.fill(rowCounts, 1);
+                    this.batchSize = 0;
+                    return rowCounts;
+                } else if (name.equals("getAutoCommit")) {
+                    return true;
+                }
+                Class returnType = method.getReturnType();
+                if (returnType == boolean.class) {
+                    return false;
+                } else if (returnType == int.class) {
+                    return 0;
+                } else if (returnType == String.class) {
+                    return "";
+                }
+                return null;
+            }
+        });
+    }
+
+    @Setup
+    public void setup() {
+        DatabaseLogin login = new DatabaseLogin(new H2Platform());
+        login.setConnector(new DefaultConnector() {
+            @Override
+            public Connection connect(Properties properties, Session session) {
+                return (Connection)simulate(Connection.class);
+            }
+        });
+        login.bindAllParameters();
+        login.useBatchWriting();
+        login.setUsesJDBCBatchWriting(true);
+        if (this.batchWriting.equals(BatchWriting.Reordering)) {
+            login.getPlatform().setBatchWritingMechanism(new ReorderingSQLBatchWritingMechanism());
+        }
+        Project project = new Project(login);
+
+        RelationalDescriptor line = new RelationalDescriptor();
+        line.setJavaClass(OrderLine.class);
+        line.setTableName("ORDER_LINE");
+        line.descriptorIsAggregateCollection();
+        line.addDirectMapping("product", "ORDER_LINE.PRODUCT");
+        line.addDirectMapping("quantity", "ORDER_LINE.QUANTITY");
+        project.addDescriptor(line);
+
+        RelationalDescriptor order = new RelationalDescriptor();
+        order.setJavaClass(Order.class);
+        order.setTableName("ORDERS");
+        order.addPrimaryKeyFieldName("ORDERS.ID");
+        order.addDirectMapping("id", "ORDERS.ID");
+        AggregateCollectionMapping lines = new AggregateCollectionMapping();
+        lines.setAttributeName("lines");
+        lines.setReferenceClass(OrderLine.class);
+        lines.addTargetForeignKeyFieldName("ORDER_LINE.ORDER_ID", "ORDERS.ID");
+        lines.dontUseIndirection();
+        lines.useCollectionClass(ArrayList.class);
+        order.addMapping(lines);
+        order.getQueryManager().assumeNonExistenceForDoesExist();
+        order.useNoIdentityMap();
+        project.addDescriptor(order);
+
+        this.session = (ServerSession)project.createServerSession(1, 1);
+        this.session.setLogLevel(SessionLog.OFF);
+        this.session.login();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.session.logout();
+    }
+
+    /**
+     * Insert 100 orders of 5 lines each in one transaction.
+     */
+    @Benchmark
+    public void testInsertOrders() {
+        UnitOfWork uow = this.session.acquireClientSession().acquireUnitOfWork();
+        for (int index = 0; index < ORDERS; index++) {
+            Order order = new Order();
+            order.id = this.ids.incrementAndGet();
+            for (int lineIndex = 0; lineIndex < LINES; lineIndex++) {
+                OrderLine line = new OrderLine();
+                line.product = "Product" + lineIndex;
+                line.quantity = lineIndex;
+                order.lines.add(line);
+            }
+            uow.registerNewObject(order);
+        }
+        uow.commit();
+    }
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.descriptors.changetracking.AttributeChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ChangeTracker;
+import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.DirtyBitChangeTrackingPolicy;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for calculating the changes of a unit of work holding many read objects, of which few are changed,
+ * comparing deferred change detection, attribute change tracking and dirty bit change tracking.
+ * The objects are cached, and the changes are calculated without commit, so no database is required.
+ * Run with "-prof gc" to compare the allocation of the backup clones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChangeDetectionTests {
+
+    private static final int OBJECTS = 50000;
+
+    /** One object in CHANGE_RATE is changed. */
+    private static final int CHANGE_RATE = 100;
+
+    @Param({"Deferred", "Attribute", "DirtyBit"})
+    public String changeDetection;
+
+    private DatabaseSession session;
+    private List<Item> items;
+
+    /**
+     * Object implementing change tracking, as it would be woven.
+     */
+    public static class Item implements ChangeTracker {
+        private long id;
+        private String name;
+        private String description;
+        private long quantity;
+        private double price;
+        private transient PropertyChangeListener listener;
+
+        public PropertyChangeListener _persistence_getPropertyChangeListener() {
+            return this.listener;
+        }
+
+        public void _persistence_setPropertyChangeListener(PropertyChangeListener listener) {
+            this.listener = listener;
+        }
+
+        private void propertyChange(String name, Object oldValue, Object newValue) {
+            if ((this.listener != null) && (oldValue != newValue)) {
+                this.listener.propertyChange(new PropertyChangeEvent(this, name, oldValue, newValue));
+            }
+        }
+
+        public void setName(String name) {
+            propertyChange("name", this.name, name);
+            this.name = name;
+        }
+
+        public void setQuantity(long quantity) {
+            propertyChange("quantity", this.quantity, quantity);
+            this.quantity = quantity;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Project project = new Project(new DatabaseLogin());
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.setTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("name", "ITEM.NAME");
+        descriptor.addDirectMapping("description", "ITEM.DESCRIPTION");
+        descriptor.addDirectMapping("quantity", "ITEM.QUANTITY");
+        descriptor.addDirectMapping("price", "ITEM.PRICE");
+        if (this.changeDetection.equals("Attribute")) {
+            descriptor.setObjectChangePolicy(new AttributeChangeTrackingPolicy());
+        } else if (this.changeDetection.equals("DirtyBit")) {
+            descriptor.setObjectChangePolicy(new DirtyBitChangeTrackingPolicy());
+        } else {
+            descriptor.setObjectChangePolicy(new DeferredChangeDetectionPolicy());
+        }
+        project.addDescriptor(descriptor);
+        this.session = project.createDatabaseSession();
+        // The descriptors are initialized without login, the objects are only read from the cache.
+        ((DatabaseSessionImpl)this.session).initializeDescriptors();
+        this.items = new ArrayList<Item>(OBJECTS);
+        for (int index = 0; index < OBJECTS; index++) {
+            Item item = new Item();
+            item.id = index;
+            item.name = "Item" + index;
+            item.description = "Description of item " + index;
+            item.quantity = index;
+            item.price = index / 100.0;
+            this.session.getIdentityMapAccessor().putInIdentityMap(item);
+            this.items.add(item);
+        }
+    }
+
+    /**
+     * Register 50,000 existing objects, change 1% of them, and calculate the changes.
+     */
+    @Benchmark
+    public Object testCalculateChanges() {
+        UnitOfWork uow = this.session.acquireUnitOfWork();
+        List<Item> clones = (List<Item>)uow.registerAllObjects(this.items);
+        for (int index = 0; index < OBJECTS; index = index + CHANGE_RATE) {
+            Item clone = clones.get(index);
+            clone.setName("Changed" + index);
+            clone.setQuantity(clone.quantity + 1);
+        }
+        Object changes = uow.getCurrentChanges();
+        uow.release();
+        return changes;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DirectToFieldChangeRecord;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.ObjectReferenceChangeRecord;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.serializers.ChangeSetSerializer;
+import org.eclipse.persistence.sessions.serializers.JavaSerializer;
+import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the serialization of cache coordination merge commands,
+ * comparing Java serialization to the binary change set serialization.
+ * The bytes serialized are reported as an auxiliary counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChangeSetSerializerTests {
+
+    private static final int CHANGE_SETS = 20;
+
+    @Param({"Java", "ChangeSet"})
+    public String serializerType;
+
+    private AbstractSession session;
+    private Serializer serializer;
+    private MergeChangeSetCommand command;
+    private byte[] bytes;
+
+    /**
+     * The bytes serialized are reported as an auxiliary counter,
+     * the size of a command is the counter divided by the number of operations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class SizeCounters {
+        public long serializedBytes;
+    }
+
+    @Setup
+    public void setup() {
+        Project project = new Project(new DatabaseLogin());
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Employee.class);
+        descriptor.setTableName("EMPLOYEE");
+        descriptor.addPrimaryKeyFieldName("EMPLOYEE.EMP_ID");
+        descriptor.addDirectMapping("id", "EMPLOYEE.EMP_ID");
+        descriptor.addDirectMapping("firstName", "EMPLOYEE.F_NAME");
+        descriptor.addDirectMapping("lastName", "EMPLOYEE.L_NAME");
+        descriptor.addDirectMapping("salary", "EMPLOYEE.SALARY");
+        descriptor.addDirectMapping("version", "EMPLOYEE.VERSION");
+        OneToOneMapping managerMapping = new OneToOneMapping();
+        managerMapping.setAttributeName("manager");
+        managerMapping.setReferenceClass(Employee.class);
+        managerMapping.addForeignKeyFieldName("EMPLOYEE.MANAGER_ID", "EMPLOYEE.EMP_ID");
+        descriptor.addMapping(managerMapping);
+        project.addDescriptor(descriptor);
+        this.session = (AbstractSession)project.createDatabaseSession();
+
+        // A typical commit, updating the name, salary and manager of employees.
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet(this.session);
+        ObjectChangeSet manager = new ObjectChangeSet(new CacheId(new Object[] {Integer.valueOf(1000)}), descriptor, null, changeSet, false);
+        manager.setSynchronizationType(ClassDescriptor.INVALIDATE_CHANGED_OBJECTS);
+        for (int index = 0; index < CHANGE_SETS; index++) {
+            ObjectChangeSet objectChangeSet = new ObjectChangeSet(new CacheId(new Object[] {Integer.valueOf(index)}), descriptor, null, changeSet, false);
+            objectChangeSet.setSynchronizationType(ClassDescriptor.SEND_OBJECT_CHANGES);
+            objectChangeSet.setInitialWriteLockValue(Long.valueOf(index));
+            objectChangeSet.setWriteLockValue(Long.valueOf(index + 1));
+            addDirectChange(objectChangeSet, "firstName", "First" + index);
+            addDirectChange(objectChangeSet, "lastName", "Last" + index);
+            addDirectChange(objectChangeSet, "salary", new BigDecimal(50000 + index));
+            ObjectReferenceChangeRecord managerChange = new ObjectReferenceChangeRecord(objectChangeSet);
+            managerChange.setAttribute("manager");
+            managerChange.setNewValue(manager);
+            objectChangeSet.getChanges().add(managerChange);
+            changeSet.getAllChangeSets().put(objectChangeSet, objectChangeSet);
+        }
+        this.command = new MergeChangeSetCommand();
+        this.command.setChangeSet(changeSet);
+        this.command.setServiceId(new ServiceId("EclipseLinkCommandChannel", "1", "rmi://localhost:1099"));
+
+        if (this.serializerType.equals("Java")) {
+            this.serializer = JavaSerializer.instance;
+        } else {
+            this.serializer = new ChangeSetSerializer();
+        }
+        this.serializer.initialize(UnitOfWorkChangeSet.class, null, this.session);
+        this.bytes = (byte[])this.serializer.serialize(this.command, this.session);
+    }
+
+    private void addDirectChange(ObjectChangeSet objectChangeSet, String attribute, Object value) {
+        DirectToFieldChangeRecord change = new DirectToFieldChangeRecord(objectChangeSet);
+        change.setAttribute(attribute);
+        change.setNewValue(value);
+        objectChangeSet.getChanges().add(change);
+    }
+
+    /**
+     * Serialize a merge command of 20 object change sets.
+     */
+    @Benchmark
+    public Object testSerialize(SizeCounters counters) {
+        byte[] bytes = (byte[])this.serializer.serialize(this.command, this.session);
+        counters.serializedBytes += bytes.length;
+        return bytes;
+    }
+
+    /**
+     * Deserialize a merge command of 20 object change sets.
+     */
+    @Benchmark
+    public Object testDeserialize() {
+        return this.serializer.deserialize(this.bytes, this.session);
+    }
+
+}
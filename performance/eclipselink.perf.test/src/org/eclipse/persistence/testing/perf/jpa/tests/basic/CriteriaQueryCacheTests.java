@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for building and executing criteria queries that only differ by their literal values,
+ * comparing preparing each query to sharing the prepared query through the criteria query cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CriteriaQueryCacheTests {
+
+    private static final int ROWS = 100;
+    private static final String LAST_NAME = "CriteriaQueryCacheTests";
+
+    @Param({"0", "100"})
+    public String criteriaQueryCacheSize;
+
+    private EntityManagerFactory emf;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, this.criteriaQueryCacheSize);
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance", properties);
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int index = 0; index < ROWS; index++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Employee" + index);
+            employee.setLastName(LAST_NAME + index);
+            employee.setSalary(index);
+            em.persist(employee);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Employee> employees = em.createQuery("SELECT e FROM Employee e WHERE e.lastName LIKE :lastName", Employee.class)
+                .setParameter("lastName", LAST_NAME + "%").getResultList();
+        for (Employee employee : employees) {
+            em.remove(employee);
+        }
+        em.getTransaction().commit();
+        em.close();
+        this.emf.close();
+    }
+
+    /**
+     * Build and execute a criteria query comparing literal values, with different values each time.
+     */
+    @Benchmark
+    public int testCriteriaWithLiterals() {
+        int index = this.next++ % ROWS;
+        EntityManager em = this.emf.createEntityManager();
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Employee> criteria = builder.createQuery(Employee.class);
+        Root<Employee> employee = criteria.from(Employee.class);
+        criteria.where(builder.and(
+                builder.equal(employee.get("lastName"), LAST_NAME + index),
+                builder.greaterThanOrEqualTo(employee.<Double>get("salary"), (double)index),
+                builder.notEqual(employee.get("firstName"), "Employee" + (index + 1))));
+        criteria.orderBy(builder.asc(employee.get("firstName")));
+        List<Employee> result = em.createQuery(criteria).getResultList();
+        em.close();
+        return result.size();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.internal.identitymaps.ConcurrentLRUIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.identitymaps.SoftCacheWeakIdentityMap;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks for the throughput of identity map cache hits and misses with many threads.
+ * Most gets are for a small set of hot objects, as on a frequently read entity class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdentityMapConcurrencyTests {
+
+    private static final int CACHE_SIZE = 1000;
+    private static final int HOT_OBJECTS = 100;
+    private static final int ALL_OBJECTS = 10000;
+
+    @Param({"Full", "SoftCacheWeak", "ConcurrentLRU"})
+    public String mapType;
+
+    private IdentityMap map;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Random random = new Random();
+    }
+
+    @Setup
+    public void setup() {
+        AbstractSession session = new DatabaseSessionImpl(new Project(new DatabaseLogin()));
+        if (this.mapType.equals("Full")) {
+            this.map = new FullIdentityMap(CACHE_SIZE, null, session, false);
+        } else if (this.mapType.equals("SoftCacheWeak")) {
+            this.map = new SoftCacheWeakIdentityMap(CACHE_SIZE, null, session, false);
+        } else {
+            this.map = new ConcurrentLRUIdentityMap(CACHE_SIZE, null, session, false);
+        }
+        for (int index = 0; index < CACHE_SIZE; index++) {
+            this.map.put(index, new Object(), null, 0);
+        }
+    }
+
+    /**
+     * Get an object, 90% of gets are for the hot objects, put it if missing.
+     */
+    @Benchmark
+    @Threads(32)
+    public Object testGetOrPut(ThreadState state) {
+        int id;
+        if (state.random.nextInt(10) == 0) {
+            id = state.random.nextInt(ALL_OBJECTS);
+        } else {
+            id = state.random.nextInt(HOT_OBJECTS);
+        }
+        Object object = this.map.get(id);
+        if (object == null) {
+            object = new Object();
+            this.map.put(id, object, null, 0);
+        }
+        return object;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryImpl;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks for the JPQL parse cache with a skewed (Zipf) query mix.
+ * Many more distinct JPQL strings than the parse cache size are used,
+ * but most executions use a small set of hot queries, which should stay cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JPQLParseCacheTests {
+
+    private static final int DISTINCT_QUERIES = 2000;
+    private static final int MIX_SIZE = 1 << 16;
+
+    private EntityManagerFactory emf;
+    private ConcurrentFixedCache parseCache;
+    private String[] queries;
+    private int[] mix;
+
+    /**
+     * Parse cache hits and misses are reported as auxiliary counters.
+     */
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class ThreadState {
+        public long parseCacheHits;
+        public long parseCacheMisses;
+
+        EntityManager em;
+        int index;
+
+        @Setup
+        public void setup(JPQLParseCacheTests test) {
+            em = test.emf.createEntityManager();
+            index = new Random().nextInt(MIX_SIZE);
+        }
+
+        @TearDown
+        public void tearDown() {
+            em.close();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("jpa-performance");
+        parseCache = ((EntityManagerFactoryImpl)emf).getServerSession().getProject().getJPQLParseCache();
+        queries = new String[DISTINCT_QUERIES];
+        for (int index = 0; index < DISTINCT_QUERIES; index++) {
+            queries[index] = "SELECT e FROM Employee e WHERE e.salary > " + index + " ORDER BY e.lastName";
+        }
+        // Zipf distribution with exponent 1, rank 0 is the hottest query.
+        double[] cumulative = new double[DISTINCT_QUERIES];
+        double sum = 0;
+        for (int rank = 0; rank < DISTINCT_QUERIES; rank++) {
+            sum = sum + (1.0 / (rank + 1));
+            cumulative[rank] = sum;
+        }
+        Random random = new Random(42);
+        mix = new int[MIX_SIZE];
+        for (int index = 0; index < MIX_SIZE; index++) {
+            double value = random.nextDouble() * sum;
+            int rank = 0;
+            while (cumulative[rank] < value) {
+                rank++;
+            }
+            mix[index] = rank;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    /**
+     * Create queries from a skewed mix of JPQL strings, the parse cache size is the default (200).
+     */
+    @Benchmark
+    @Threads(4)
+    public Object testSkewedQueryMix(ThreadState state) {
+        String jpql = queries[mix[state.index++ & (MIX_SIZE - 1)]];
+        // Check the map directly, a get would count as a hit and affect the eviction order.
+        if (parseCache.getCache().containsKey(jpql)) {
+            state.parseCacheHits++;
+        } else {
+            state.parseCacheMisses++;
+        }
+        return state.em.createQuery(jpql);
+    }
+
+}
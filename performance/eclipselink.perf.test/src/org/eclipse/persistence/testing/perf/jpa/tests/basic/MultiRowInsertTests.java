@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Address;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for inserting many rows of one table in a transaction,
+ * comparing JDBC batch writing to multi-row INSERT batch writing.
+ * Intended to be run on an embedded database (H2 or Derby) configured for the performance tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MultiRowInsertTests {
+
+    private static final int ROWS = 500;
+    private static final String CITY = "MultiRowInsertTests";
+
+    @Param({BatchWriting.None, BatchWriting.JDBC, BatchWriting.MultiRowInsert})
+    public String batchWriting;
+
+    private EntityManagerFactory emf;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(PersistenceUnitProperties.BATCH_WRITING, this.batchWriting);
+        properties.put(PersistenceUnitProperties.BATCH_WRITING_SIZE, String.valueOf(ROWS));
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance", properties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery("DELETE FROM Address a WHERE a.city = :city").setParameter("city", CITY).executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+        this.emf.close();
+    }
+
+    /**
+     * Insert 500 addresses in one transaction.
+     */
+    @Benchmark
+    public void testInsertAddresses() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int index = 0; index < ROWS; index++) {
+            Address address = new Address();
+            address.setCity(CITY);
+            address.setCountry("Canada");
+            address.setProvince("ON");
+            address.setPostalCode("K1A 0B1");
+            address.setStreet(index + " Main Street");
+            em.persist(address);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for the scaling of building the objects of a large ReadAllQuery result by number of cores.
+ * The rows are built in a fork-join pool of the number of cores, one core builds the objects serially.
+ * The query refreshes the cache, so each object is built from its row, no database is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParallelBuildingTests {
+
+    private static final int ROWS = 100000;
+
+    @Param({"1", "2", "4", "8"})
+    public int cores;
+
+    private ServerSession session;
+    private RelationalDescriptor descriptor;
+    private List<AbstractRecord> rows;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        Project project = new Project(new DatabaseLogin());
+        this.descriptor = new RelationalDescriptor();
+        this.descriptor.setJavaClass(Employee.class);
+        this.descriptor.setTableName("EMPLOYEE");
+        this.descriptor.addPrimaryKeyFieldName("EMPLOYEE.EMP_ID");
+        this.descriptor.addDirectMapping("id", "EMPLOYEE.EMP_ID");
+        this.descriptor.addDirectMapping("firstName", "EMPLOYEE.F_NAME");
+        this.descriptor.addDirectMapping("lastName", "EMPLOYEE.L_NAME");
+        this.descriptor.addDirectMapping("salary", "EMPLOYEE.SALARY");
+        this.descriptor.addDirectMapping("version", "EMPLOYEE.VERSION");
+        project.addDescriptor(this.descriptor);
+        this.session = (ServerSession)project.createServerSession();
+        this.session.initializeDescriptors();
+
+        // Values are of the database types, so they are converted when building.
+        this.rows = new ArrayList<AbstractRecord>(ROWS);
+        for (int index = 0; index < ROWS; index++) {
+            DatabaseRecord row = new DatabaseRecord(5);
+            row.put("EMPLOYEE.EMP_ID", new BigDecimal(index));
+            row.put("EMPLOYEE.F_NAME", "First" + index);
+            row.put("EMPLOYEE.L_NAME", "Last" + index);
+            row.put("EMPLOYEE.SALARY", new BigDecimal(50000 + index));
+            row.put("EMPLOYEE.VERSION", new BigDecimal(1));
+            this.rows.add(row);
+        }
+        this.pool = new ForkJoinPool(this.cores);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Build the objects of 100,000 rows, refreshing the cached objects.
+     */
+    @Benchmark
+    public Object testBuildObjects() throws Exception {
+        final ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.refreshIdentityMapResult();
+        query.setShouldBuildObjectsInParallel(this.cores > 1);
+        query.setSession(this.session);
+        query.setDescriptor(this.descriptor);
+        // The objects are built in the pool of the thread executing the query.
+        return this.pool.submit(new Callable<Object>() {
+            public Object call() {
+                return descriptor.getObjectBuilder().buildObjectsInto(query, rows, new ArrayList(ROWS));
+            }
+        }).get();
+    }
+
+}
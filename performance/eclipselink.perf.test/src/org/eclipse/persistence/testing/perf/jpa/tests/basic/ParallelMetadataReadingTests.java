@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.spi.PersistenceUnitTransactionType;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.EntityManagerSetupImpl;
+import org.eclipse.persistence.internal.jpa.deployment.SEPersistenceUnitInfo;
+import org.eclipse.persistence.internal.libraries.asm.AnnotationVisitor;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.FieldVisitor;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.platform.database.H2Platform;
+import org.eclipse.persistence.platform.server.ServerPlatform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the predeploy of a persistence unit of thousands of entities,
+ * modeled on the employee of the sample model, with the class meta-data read by
+ * one thread or in parallel. The meta-data is processed by the deploying thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelMetadataReadingTests {
+
+    private static final int ENTITIES = 2000;
+    private static final String PACKAGE = "org/eclipse/persistence/testing/perf/jpa/model/generated/";
+
+    @Param({"1", "4"})
+    public String parallelism;
+
+    private SEPersistenceUnitInfo info;
+    private Map<String, Object> properties;
+
+    @Setup
+    public void setup() {
+        final Map<String, byte[]> classFiles = new HashMap<String, byte[]>();
+        List<String> classNames = new ArrayList<String>();
+        for (int index = 0; index < ENTITIES; index++) {
+            String name = PACKAGE + "Employee" + index;
+            classFiles.put(name + ".class", buildEntity(name, PACKAGE + "Employee" + ((index + 1) % ENTITIES)));
+            classNames.add(name.replace('/', '.'));
+        }
+        ClassLoader loader = new ClassLoader(ParallelMetadataReadingTests.class.getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                byte[] classFile = classFiles.get(name);
+                if (classFile != null) {
+                    return new ByteArrayInputStream(classFile);
+                }
+                return super.getResourceAsStream(name);
+            }
+        };
+
+        info = new SEPersistenceUnitInfo();
+        info.setPersistenceUnitName("parallel-metadata-reading");
+        info.setPersistenceUnitRootUrl(ParallelMetadataReadingTests.class.getProtectionDomain().getCodeSource().getLocation());
+        info.setTransactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL);
+        info.setManagedClassNames(classNames);
+        info.setExcludeUnlistedClasses(true);
+        info.setProperties(new Properties());
+        info.setClassLoader(loader);
+        info.setNewTempClassLoader(loader);
+
+        properties = new HashMap<String, Object>();
+        properties.put(PersistenceUnitProperties.TARGET_DATABASE, H2Platform.class.getName());
+        properties.put(PersistenceUnitProperties.WEAVING, "false");
+        properties.put(PersistenceUnitProperties.LOGGING_LEVEL, SessionLog.OFF_LABEL);
+        properties.put(PersistenceUnitProperties.METADATA_READING_PARALLELISM, parallelism);
+    }
+
+    /**
+     * Predeploy the persistence unit, reading and processing the meta-data of every entity.
+     */
+    @Benchmark
+    public void testPredeploy() {
+        EntityManagerSetupImpl setup = new EntityManagerSetupImpl(info.getPersistenceUnitName(), info.getPersistenceUnitName());
+        setup.predeploy(info, properties);
+        // The session is not logged in, so its server platform threads are not shut down by undeploy.
+        ServerPlatform platform = setup.getSession().getServerPlatform();
+        setup.undeploy();
+        platform.shutdown();
+    }
+
+    /**
+     * Build the class file of an entity with an id, a version, basic attributes and a relationship.
+     */
+    private static byte[] buildEntity(String name, String managerName) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", new String[] {"java/io/Serializable"});
+        AnnotationVisitor annotation = writer.visitAnnotation("Ljavax/persistence/Entity;", true);
+        annotation.visitEnd();
+        annotation = writer.visitAnnotation("Ljavax/persistence/Table;", true);
+        annotation.visit("name", name.substring(name.lastIndexOf('/') + 1).toUpperCase());
+        annotation.visitEnd();
+
+        buildAttribute(writer, name, "id", "J", "Ljavax/persistence/Id;", "EMP_ID");
+        buildAttribute(writer, name, "version", "J", "Ljavax/persistence/Version;", null);
+        buildAttribute(writer, name, "firstName", "Ljava/lang/String;", "Ljavax/persistence/Basic;", "F_NAME");
+        buildAttribute(writer, name, "lastName", "Ljava/lang/String;", "Ljavax/persistence/Basic;", "L_NAME");
+        buildAttribute(writer, name, "salary", "D", "Ljavax/persistence/Basic;", "SALARY");
+        buildAttribute(writer, name, "startDate", "Ljava/util/Date;", "Ljavax/persistence/Temporal;", "START_DATE");
+        buildAttribute(writer, name, "manager", "L" + managerName + ";", "Ljavax/persistence/ManyToOne;", null);
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Build an annotated field and its get method.
+     */
+    private static void buildAttribute(ClassWriter writer, String owner, String name, String type, String mappingAnnotation, String column) {
+        FieldVisitor field = writer.visitField(Opcodes.ACC_PRIVATE, name, type, null, null);
+        AnnotationVisitor mapping = field.visitAnnotation(mappingAnnotation, true);
+        if (mappingAnnotation.equals("Ljavax/persistence/Temporal;")) {
+            mapping.visitEnum("value", "Ljavax/persistence/TemporalType;", "DATE");
+        }
+        mapping.visitEnd();
+        if (column != null) {
+            AnnotationVisitor annotation = field.visitAnnotation("Ljavax/persistence/Column;", true);
+            annotation.visit("name", column);
+            annotation.visitEnd();
+        }
+        field.visitEnd();
+
+        String getter = "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, getter, "()" + type, null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitFieldInsn(Opcodes.GETFIELD, owner, name, type);
+        method.visitInsn(type.equals("J") ? Opcodes.LRETURN : type.equals("D") ? Opcodes.DRETURN : Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+}
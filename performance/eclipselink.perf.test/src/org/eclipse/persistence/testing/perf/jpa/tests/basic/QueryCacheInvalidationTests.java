@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for a cached query with many parameter values while its objects are updated,
+ * comparing the invalidation of all of the query's results on any change to the invalidation
+ * of the results depending on the changed object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryCacheInvalidationTests {
+
+    private static final int ROWS = 1000;
+    private static final int LAST_NAMES = 100;
+    private static final String LAST_NAME = "QueryCacheInvalidationTests";
+    private static final String QUERY = "QueryCacheInvalidationTests.findByLastName";
+
+    @Param({"false", "true"})
+    public String trackDependencies;
+
+    private EntityManagerFactory emf;
+    private List<Long> ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance");
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Employee> employees = new ArrayList<Employee>(ROWS);
+        for (int index = 0; index < ROWS; index++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Employee" + index);
+            employee.setLastName(LAST_NAME + (index % LAST_NAMES));
+            employee.setSalary(index);
+            em.persist(employee);
+            employees.add(employee);
+        }
+        em.getTransaction().commit();
+        this.ids = new ArrayList<Long>(ROWS);
+        for (Employee employee : employees) {
+            this.ids.add(employee.getId());
+        }
+        // The query results are cached on the named query.
+        this.emf.addNamedQuery(QUERY, em.createQuery("SELECT e FROM Employee e WHERE e.lastName = :lastName", Employee.class)
+                .setHint(QueryHints.QUERY_RESULTS_CACHE, HintValues.TRUE)
+                .setHint(QueryHints.QUERY_RESULTS_CACHE_SIZE, String.valueOf(LAST_NAMES))
+                .setHint(QueryHints.QUERY_RESULTS_CACHE_TRACK_DEPENDENCIES, this.trackDependencies));
+        em.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Employee> employees = em.createQuery("SELECT e FROM Employee e WHERE e.lastName LIKE :lastName", Employee.class)
+                .setParameter("lastName", LAST_NAME + "%").getResultList();
+        for (Employee employee : employees) {
+            em.remove(employee);
+        }
+        em.getTransaction().commit();
+        em.close();
+        this.emf.close();
+    }
+
+    /**
+     * Update the salary of one employee, then query the employees of each of the 100 last names.
+     */
+    @Benchmark
+    public int testUpdateAndQuery() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        Employee employee = em.find(Employee.class, this.ids.get(this.next++ % ROWS));
+        employee.setSalary(employee.getSalary() + 1);
+        em.getTransaction().commit();
+        int count = 0;
+        for (int index = 0; index < LAST_NAMES; index++) {
+            count = count + em.createNamedQuery(QUERY, Employee.class).setParameter("lastName", LAST_NAME + index).getResultList().size();
+        }
+        em.close();
+        return count;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Address;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for reading a cached working set outside of a transaction,
+ * comparing the persistence context to the read-mostly mode reading the shared cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReadMostlyTests {
+
+    private static final int ROWS = 1000;
+    private static final String CITY = "ReadMostlyTests";
+
+    @Param({"false", "true"})
+    public String readMostly;
+
+    private EntityManagerFactory emf;
+    private List<Long> ids;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(PersistenceUnitProperties.READ_MOSTLY, this.readMostly);
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance", properties);
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Address> addresses = new ArrayList<Address>(ROWS);
+        for (int index = 0; index < ROWS; index++) {
+            Address address = new Address();
+            address.setCity(CITY);
+            address.setCountry("Canada");
+            address.setProvince("ON");
+            address.setPostalCode("K1A 0B1");
+            address.setStreet(index + " Main Street");
+            em.persist(address);
+            addresses.add(address);
+        }
+        em.getTransaction().commit();
+        this.ids = new ArrayList<Long>(ROWS);
+        for (Address address : addresses) {
+            this.ids.add(address.getId());
+        }
+        em.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        EntityManager em = this.emf.createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery("DELETE FROM Address a WHERE a.city = :city").setParameter("city", CITY).executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+        this.emf.close();
+    }
+
+    /**
+     * Find the 1,000 cached addresses by id.
+     */
+    @Benchmark
+    public int testFind() {
+        EntityManager em = this.emf.createEntityManager();
+        int count = 0;
+        for (Long id : this.ids) {
+            if (em.find(Address.class, id) != null) {
+                count++;
+            }
+        }
+        em.close();
+        return count;
+    }
+
+    /**
+     * Query the 1,000 cached addresses.
+     */
+    @Benchmark
+    public int testQuery() {
+        EntityManager em = this.emf.createEntityManager();
+        List<Address> result = em.createQuery("SELECT a FROM Address a WHERE a.city = :city", Address.class).setParameter("city", CITY).getResultList();
+        em.close();
+        return result.size();
+    }
+
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseFieldIndex;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the lookup of the values of a wide row by field,
+ * comparing the linear scan of the fields to the fields index of the call.
+ * The mapping fields are not at their index in the row, as for joined or inherited rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordLookupTests {
+
+    private static final int COLUMNS = 80;
+
+    @Param({"false", "true"})
+    public boolean shouldUseFieldsIndex;
+
+    private Vector fields;
+    private DatabaseField[] fieldsArray;
+    private DatabaseFieldIndex fieldsIndex;
+    private Object[] values;
+    private DatabaseField[] mappingFields;
+
+    @Setup
+    public void setup() {
+        this.fields = new Vector(COLUMNS);
+        this.fieldsArray = new DatabaseField[COLUMNS];
+        this.values = new Object[COLUMNS];
+        this.mappingFields = new DatabaseField[COLUMNS];
+        for (int index = 0; index < COLUMNS; index++) {
+            DatabaseField field = new DatabaseField("EMPLOYEE.COLUMN_" + index);
+            field.setIndex(index);
+            this.fields.add(field);
+            this.fieldsArray[index] = field;
+            this.values[index] = Integer.valueOf(index);
+            // The mapping's field is at another index in the joined row.
+            DatabaseField mappingField = new DatabaseField("EMPLOYEE.COLUMN_" + index);
+            mappingField.setIndex((index + 1) % COLUMNS);
+            this.mappingFields[index] = mappingField;
+        }
+        if (this.shouldUseFieldsIndex) {
+            this.fieldsIndex = new DatabaseFieldIndex(this.fieldsArray);
+        }
+    }
+
+    /**
+     * Build a row and get the value of every mapping field.
+     */
+    @Benchmark
+    public int testGetAll() {
+        ArrayRecord row = new ArrayRecord(this.fields, this.fieldsArray, this.fieldsIndex, this.values);
+        int count = 0;
+        for (DatabaseField field : this.mappingFields) {
+            if (row.get(field) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
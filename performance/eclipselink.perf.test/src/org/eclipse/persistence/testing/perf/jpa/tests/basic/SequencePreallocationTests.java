@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sequencing.StandardSequence;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the throughput of sequence value allocation with many inserting threads,
+ * comparing queue preallocation to block preallocation.
+ * The sequence simulates a database round trip for each allocation, so no database is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SequencePreallocationTests {
+
+    private static final int PREALLOCATION_SIZE = 500;
+
+    /** Time of a sequence allocation round trip to the database. */
+    private static final long ALLOCATION_MILLIS = 1;
+
+    /** CPU work done for each inserted object. */
+    private static final int INSERT_WORK = 100;
+
+    @Param({"false", "true"})
+    public boolean shouldUseBlockPreallocation;
+
+    private ServerSession session;
+
+    /**
+     * Sequence simulating a native sequence object on the database.
+     */
+    public static class SimulatedSequence extends StandardSequence {
+        private final AtomicLong value = new AtomicLong();
+
+        public SimulatedSequence(String name, int size) {
+            super(name, size);
+        }
+
+        @Override
+        public boolean shouldAcquireValueAfterInsert() {
+            return false;
+        }
+
+        @Override
+        public boolean shouldUseTransaction() {
+            return false;
+        }
+
+        @Override
+        protected Number updateAndSelectSequence(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+            try {
+                Thread.sleep(ALLOCATION_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return this.value.addAndGet(size);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Project project = new Project(new DatabaseLogin());
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Employee.class);
+        descriptor.setTableName("EMPLOYEE");
+        descriptor.addPrimaryKeyFieldName("EMPLOYEE.EMP_ID");
+        descriptor.addDirectMapping("id", "EMPLOYEE.EMP_ID");
+        descriptor.setSequenceNumberFieldName("EMPLOYEE.EMP_ID");
+        descriptor.setSequenceNumberName("EMP_SEQ");
+        project.addDescriptor(descriptor);
+        SimulatedSequence sequence = new SimulatedSequence("EMP_SEQ", PREALLOCATION_SIZE);
+        sequence.setShouldUseBlockPreallocation(this.shouldUseBlockPreallocation);
+        project.getLogin().getDatasourcePlatform().setDefaultSequence(sequence);
+        this.session = (ServerSession)project.createServerSession();
+        this.session.initializeDescriptors();
+        this.session.initializeSequencing();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.session.getSequencingControl().resetSequencing();
+    }
+
+    /**
+     * Assign a sequence value as an insert would, with some work for each object.
+     */
+    @Benchmark
+    @Threads(16)
+    public Object testNextValue() {
+        Blackhole.consumeCPU(INSERT_WORK);
+        return this.session.getSequencing().getNextValue(Employee.class);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceIndexedObjectAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.PersistenceObjectAttributeAccessor;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.perf.jpa.model.basic.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for building the objects of a large ReadAllQuery result with the attributes
+ * set by reflection, by the weaved generic set method comparing the attribute name,
+ * and by the weaved set method by attribute index.
+ * The query refreshes the cache, so each object is built from its row, no database is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WeavedAttributeAccessTests {
+
+    private static final int ROWS = 100000;
+
+    @Param({"reflection", "name", "index"})
+    public String access;
+
+    private EntityManagerFactory emf;
+    private ServerSession session;
+    private RelationalDescriptor descriptor;
+    private List<AbstractRecord> rows;
+
+    @Setup
+    public void setup() throws Exception {
+        // Deploying the persistence unit weaves the model classes.
+        this.emf = Persistence.createEntityManagerFactory("jpa-performance");
+        Project project = new Project(new DatabaseLogin());
+        this.descriptor = new RelationalDescriptor();
+        this.descriptor.setJavaClass(Employee.class);
+        this.descriptor.setTableName("EMPLOYEE");
+        this.descriptor.addPrimaryKeyFieldName("EMPLOYEE.EMP_ID");
+        this.descriptor.addDirectMapping("id", "EMPLOYEE.EMP_ID");
+        this.descriptor.addDirectMapping("firstName", "EMPLOYEE.F_NAME");
+        this.descriptor.addDirectMapping("lastName", "EMPLOYEE.L_NAME");
+        this.descriptor.addDirectMapping("salary", "EMPLOYEE.SALARY");
+        this.descriptor.addDirectMapping("version", "EMPLOYEE.VERSION");
+        project.addDescriptor(this.descriptor);
+        this.session = (ServerSession)project.createServerSession();
+        this.session.initializeDescriptors();
+
+        List<String> attributeNames = Arrays.asList((String[])Employee.class.getMethod(PersistenceIndexedObject.PERSISTENCE_GET_ATTRIBUTE_NAMES).invoke(null));
+        for (DatabaseMapping mapping : this.descriptor.getMappings()) {
+            AttributeAccessor accessor;
+            if (this.access.equals("reflection")) {
+                accessor = new InstanceVariableAttributeAccessor();
+                accessor.setAttributeName(mapping.getAttributeName());
+            } else if (this.access.equals("name")) {
+                accessor = new PersistenceObjectAttributeAccessor(mapping.getAttributeName());
+            } else {
+                accessor = new PersistenceIndexedObjectAttributeAccessor(mapping.getAttributeName(), attributeNames.indexOf(mapping.getAttributeName()));
+            }
+            accessor.initializeAttributes(Employee.class);
+            mapping.setAttributeAccessor(accessor);
+        }
+
+        // Values are of the database types, so they are converted when building.
+        this.rows = new ArrayList<AbstractRecord>(ROWS);
+        for (int index = 0; index < ROWS; index++) {
+            DatabaseRecord row = new DatabaseRecord(5);
+            row.put("EMPLOYEE.EMP_ID", new BigDecimal(index));
+            row.put("EMPLOYEE.F_NAME", "First" + index);
+            row.put("EMPLOYEE.L_NAME", "Last" + index);
+            row.put("EMPLOYEE.SALARY", new BigDecimal(50000 + index));
+            row.put("EMPLOYEE.VERSION", new BigDecimal(1));
+            this.rows.add(row);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.emf.close();
+    }
+
+    /**
+     * Build the objects of 100,000 rows, refreshing the cached objects.
+     */
+    @Benchmark
+    public Object testBuildObjects() {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.refreshIdentityMapResult();
+        query.setSession(this.session);
+        query.setDescriptor(this.descriptor);
+        return this.descriptor.getObjectBuilder().buildObjectsInto(query, this.rows, new ArrayList(ROWS));
+    }
+
+}